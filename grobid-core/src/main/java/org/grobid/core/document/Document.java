@@ -35,7 +35,9 @@ import org.grobid.core.sax.*;
 import org.grobid.core.utilities.BoundingBoxCalculator;
 import org.grobid.core.utilities.ElementCounter;
 import org.grobid.core.utilities.LayoutTokensUtil;
+import org.grobid.core.utilities.MappedFileInputStream;
 import org.grobid.core.utilities.Pair;
+import org.grobid.core.utilities.SAXParserPool;
 import org.grobid.core.utilities.TextUtilities;
 import org.grobid.core.utilities.Utilities;
 import org.grobid.core.utilities.matching.EntityMatcherException;
@@ -52,6 +54,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -322,6 +325,29 @@ public class Document implements Serializable {
      * @return list of features
      */
     public List<LayoutToken> addTokenizedDocument(GrobidAnalysisConfig config) {
+        File file = new File(pathXML);
+        InputStream in = null;
+        try {
+            in = openXmlFile(file);
+        } catch (IOException e) {
+            throw new GrobidException("Cannot parse file: " + file, e, GrobidExceptionStatus.PARSING_ERROR);
+        }
+        try {
+            return addTokenizedDocument(config, in);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Parser PDFALTO output representation given as a stream and get the tokenized form 
+     * of the document. The annotation, outline and metadata files produced by pdfalto 
+     * alongside the main ALTO file are read from the path of the XML file, if present.
+     *
+     * @param altoStream the pdfalto XML content, not closed by this method
+     * @return list of features
+     */
+    public List<LayoutToken> addTokenizedDocument(GrobidAnalysisConfig config, InputStream altoStream) {
         // The XML generated by pdfalto might contains invalid UTF characters due to the "garbage-in" of the PDF,
         // which will result in a "fatal" parsing failure (the joy of XML!). The solution could be to prevent
         // having those characters in the input XML by cleaning it first
@@ -337,82 +363,27 @@ public class Document implements Serializable {
         PDFALTOOutlineSaxHandler parserOutline = new PDFALTOOutlineSaxHandler(this);
         PDFMetadataSaxHandler parserMetadata = new PDFMetadataSaxHandler(this);
 
-        // get a SAX parser factory
-        SAXParserFactory spf = SAXParserFactory.newInstance();
-
         tokenizations = null;
 
-        File file = new File(pathXML);
-		File fileAnnot = new File(pathXML+"_annot.xml");
-        File fileOutline = new File(pathXML+"_outline.xml");
-        File fileMetadata = new File(pathXML+"_metadata.xml");
-        FileInputStream in = null;
         try {
             // parsing of the pdfalto file
-            in = new FileInputStream(file);
-            // in = new XMLFilterFileInputStream(file); // -> to filter invalid XML characters
-
-            // get a new instance of parser
-            parseInputStream(in, spf, parser);
+            parseInputStream(altoStream, SAXParserPool.getParser(), parser);
             tokenizations = parser.getTokenization();
-            if (in != null) {
-                try {
-                    in.close();
-                } catch (IOException e) {
-                    LOGGER.error("Cannot close input stream", e);
-                }
-            }
         } catch (GrobidException e) {
             throw e;
         } catch (Exception e) {
-            throw new GrobidException("Cannot parse file: " + file, e, GrobidExceptionStatus.PARSING_ERROR);
-        } finally {
-            IOUtils.closeQuietly(in);
+            throw new GrobidException("Cannot parse file: " + pathXML, e, GrobidExceptionStatus.PARSING_ERROR);
         }
 
-        if (fileAnnot.exists()) {
-            try {
-                // parsing of the annotation XML file (for annotations in the PDf)
-                in = new FileInputStream(fileAnnot);
-                SAXParser p = spf.newSAXParser();
-                p.parse(in, parserAnnot);
-            } catch (GrobidException e) {
-                throw e;
-            } catch (Exception e) {
-                LOGGER.error("Cannot parse file: " + fileAnnot, e, GrobidExceptionStatus.PARSING_ERROR);
-            } finally {
-                IOUtils.closeQuietly(in);
-            }
-        }
-
-        if (fileOutline.exists()) {
-            try {
-                // parsing of the outline XML file (for PDF bookmark)
-                in = new FileInputStream(fileOutline);
-                SAXParser p = spf.newSAXParser();
-                p.parse(in, parserOutline);
+        if (pathXML != null) {
+            // annotations in the PDF, added to pdfAnnotations by the handler
+            parseSideFile(new File(pathXML + "_annot.xml"), parserAnnot);
+            // PDF bookmarks
+            if (parseSideFile(new File(pathXML + "_outline.xml"), parserOutline)) {
                 outlineRoot = parserOutline.getRootNode();
-            } catch (GrobidException e) {
-                throw e;
-            } catch (Exception e) {
-                LOGGER.error("Cannot parse file: " + fileOutline, e, GrobidExceptionStatus.PARSING_ERROR);
-            } finally {
-                IOUtils.closeQuietly(in);
             }
-        }
-        if (fileMetadata.exists()) {
-            try {
-                // parsing of the outline XML file (for PDF bookmark)
-                in = new FileInputStream(fileMetadata);
-                SAXParser p = spf.newSAXParser();
-                p.parse(in, parserMetadata);
+            if (parseSideFile(new File(pathXML + "_metadata.xml"), parserMetadata)) {
                 metadata = parserMetadata.getMetadata();
-            } catch (GrobidException e) {
-                throw e;
-            } catch (Exception e) {
-                LOGGER.error("Cannot parse file: " + fileMetadata, e, GrobidExceptionStatus.PARSING_ERROR);
-            } finally {
-                IOUtils.closeQuietly(in);
             }
         }
 
@@ -430,7 +401,7 @@ public class Document implements Serializable {
                     images.add(o);
                 }
             } catch (Exception e) {
-                throw new GrobidException("Cannot process vector graphics: " + file, e, GrobidExceptionStatus.PARSING_ERROR);
+                throw new GrobidException("Cannot process vector graphics: " + pathXML, e, GrobidExceptionStatus.PARSING_ERROR);
             }
         }
 
@@ -464,6 +435,38 @@ public class Document implements Serializable {
         return tokenizations;
     }
 
+    private static InputStream openXmlFile(File file) throws IOException {
+        if (MappedFileInputStream.canMap(file)) {
+            return new MappedFileInputStream(file);
+        }
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+    /**
+     * Parse one of the additional XML files produced by pdfalto, a parsing failure is 
+     * logged and not fatal for the processing of the document.
+     *
+     * @return true if the file exists and has been parsed
+     */
+    private static boolean parseSideFile(File file, DefaultHandler handler) {
+        if (!file.exists()) {
+            return false;
+        }
+        InputStream in = null;
+        try {
+            in = openXmlFile(file);
+            SAXParserPool.getParser().parse(in, handler);
+            return true;
+        } catch (GrobidException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Cannot parse file: " + file, e);
+            return false;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
     private void calculatePageMainAreas() {
         ElementCounter<Integer> leftEven = new ElementCounter<>();
         ElementCounter<Integer> rightEven = new ElementCounter<>();
@@ -5,6 +5,7 @@ import org.apache.commons.lang3.SystemUtils;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.exceptions.GrobidExceptionStatus;
 import org.grobid.core.exceptions.GrobidResourceException;
+import org.grobid.core.process.PdfAltoWorkerPool;
 import org.grobid.core.process.ProcessRunner;
 import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.KeyGen;
@@ -79,8 +80,9 @@ public class DocumentSource {
             //pdfalto executable are separated to avoid dll conflicts
             pdfToXml.append(File.separator +"pdfalto");
         }
-        pdfToXml.append(
-                GrobidProperties.isContextExecutionServer() ? File.separator + "pdfalto_server" : File.separator + "pdfalto");
+        // the pdfalto workers apply themselves the timeout of pdfalto_server
+        pdfToXml.append(GrobidProperties.isContextExecutionServer() && !usePdfAltoWorkers() ?
+            File.separator + "pdfalto_server" : File.separator + "pdfalto");
 
         pdfToXml.append(" -noImageInline -fullFontName -noLineNumbers");
 
@@ -142,7 +144,9 @@ public class DocumentSource {
             }
             cmd.add(pdfPath.getAbsolutePath());
             cmd.add(tmpPathXML.getAbsolutePath());
-            if (GrobidProperties.isContextExecutionServer()) {
+            if (usePdfAltoWorkers()) {
+                tmpPathXML = processPdfToXmlWorkerMode(timeout, pdfPath, tmpPathXML, cmd);
+            } else if (GrobidProperties.isContextExecutionServer()) {
                 tmpPathXML = processPdfToXmlServerMode(pdfPath, tmpPathXML, cmd);
             } else {
                 if (!SystemUtils.IS_OS_WINDOWS) {
@@ -167,6 +171,10 @@ public class DocumentSource {
         return tmpPathXML;
     }
 
+    private static boolean usePdfAltoWorkers() {
+        return !SystemUtils.IS_OS_WINDOWS && GrobidProperties.getPdfToXMLWorkers() > 0;
+    }
+
     /**
      * Process the conversion of pdf to xml format using thread calling native
      * executable.
@@ -230,7 +238,29 @@ public class DocumentSource {
     private File processPdfToXmlServerMode(File pdfPath, File tmpPathXML, List<String> cmd) {
         LOGGER.debug("Executing: " + cmd.toString());
         Integer exitCode = org.grobid.core.process.ProcessPdfToXml.process(cmd);
+        checkExitCode(pdfPath, exitCode);
+        return tmpPathXML;
+    }
 
+    /**
+     * Process the conversion of pdf to xml format with one of the long-lived pdfalto
+     * workers. The memory limit and timeout are enforced by the worker for this job only.
+     *
+     * @param timeout    in ms.   null, if default
+     * @param pdfPath    path to pdf
+     * @param tmpPathXML temporary path to save the converted file
+     * @param cmd        arguments to call the executable pdf2xml
+     * @return the path the the converted file.
+     */
+    private File processPdfToXmlWorkerMode(Integer timeout, File pdfPath, File tmpPathXML, List<String> cmd) {
+        LOGGER.debug("Executing on pdfalto worker: " + cmd.toString());
+        Integer exitCode = PdfAltoWorkerPool.getInstance().process(cmd,
+            timeout != null ? timeout : GrobidProperties.getPdfToXMLTimeoutMs());
+        checkExitCode(pdfPath, exitCode);
+        return tmpPathXML;
+    }
+
+    private void checkExitCode(File pdfPath, Integer exitCode) {
         if (exitCode == null) {
             throw new GrobidException("An error occurred while converting pdf " + pdfPath, GrobidExceptionStatus.BAD_INPUT_DATA);
         } else if (exitCode == KILLED_DUE_2_TIMEOUT) {
@@ -242,8 +272,6 @@ public class DocumentSource {
         } else if (exitCode != 0) {
             throw new GrobidException("PDF to XML conversion failed with error code: " + exitCode, GrobidExceptionStatus.BAD_INPUT_DATA);
         }
-
-        return tmpPathXML;
     }
 
     private boolean cleanXmlFile(File pathToXml, boolean cleanImages, boolean cleanAnnotations, boolean cleanOutline) {
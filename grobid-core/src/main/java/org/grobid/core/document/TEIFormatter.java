@@ -934,53 +934,56 @@ public class TEIFormatter {
      * errors and frequent PDF noises.
      * It is adapted to fully automatic process and simple exploitation of the document structures
      * like structured indexing and search.
+     * The text of the body is built as one piece, then each figure, table and note is appended
+     * as soon as it is formatted, so with a {@link Writer} they are never held together in memory.
      */
-    public StringBuilder toTEIBody(StringBuilder buffer,
-                                   String result,
-                                   BiblioItem biblio,
-                                   List<BibDataSet> bds,
-                                   LayoutTokenization layoutTokenization,
-                                   List<Figure> figures,
-                                   List<Table> tables,
-                                   List<Equation> equations,
-                                   Document doc,
-                                   GrobidAnalysisConfig config) throws Exception {
+    public <T extends Appendable> T toTEIBody(T tei,
+                                              String result,
+                                              BiblioItem biblio,
+                                              List<BibDataSet> bds,
+                                              LayoutTokenization layoutTokenization,
+                                              List<Figure> figures,
+                                              List<Table> tables,
+                                              List<Equation> equations,
+                                              Document doc,
+                                              GrobidAnalysisConfig config) throws Exception {
         if ((result == null) || (layoutTokenization == null) || (layoutTokenization.getTokenization() == null)) {
-            buffer.append("\t\t<body/>\n");
-            return buffer;
+            tei.append("\t\t<body/>\n");
+            return tei;
         }
-        buffer.append("\t\t<body>\n");
-        buffer = toTEITextPiece(buffer, result, biblio, bds, true, 
-                layoutTokenization, figures, tables, equations, doc, config);
+        tei.append("\t\t<body>\n");
+        tei.append(toTEITextPieceContent(new StringBuilder(), result, biblio, bds, true,
+                layoutTokenization, figures, tables, equations, doc, config));
+        toTEIFiguresAndTables(tei, figures, tables, doc, config);
 
         // notes are still in the body
-        buffer = toTEINote(buffer, doc, config);
+        toTEINote(tei, doc, config);
 
-        buffer.append("\t\t</body>\n");
+        tei.append("\t\t</body>\n");
 
-        return buffer;
+        return tei;
     }
 
-    private StringBuilder toTEINote(StringBuilder tei,
-                                    Document doc,
-                                    GrobidAnalysisConfig config) throws Exception {
+    private <T extends Appendable> T toTEINote(T tei,
+                                               Document doc,
+                                               GrobidAnalysisConfig config) throws Exception {
         // write the notes
         SortedSet<DocumentPiece> documentNoteParts = doc.getDocumentPart(SegmentationLabels.FOOTNOTE);
         if (documentNoteParts != null) {
-            tei = toTEINote("foot", documentNoteParts, tei, doc, config);
+            toTEINote("foot", documentNoteParts, tei, doc, config);
         }
         documentNoteParts = doc.getDocumentPart(SegmentationLabels.MARGINNOTE);
         if (documentNoteParts != null) {
-            tei = toTEINote("margin", documentNoteParts, tei, doc, config);
+            toTEINote("margin", documentNoteParts, tei, doc, config);
         }
         return tei;
     }
 
-    private StringBuilder toTEINote(String noteType,
-                                    SortedSet<DocumentPiece> documentNoteParts,
-                                    StringBuilder tei,
-                                    Document doc,
-                                    GrobidAnalysisConfig config) throws Exception {
+    private <T extends Appendable> T toTEINote(String noteType,
+                                               SortedSet<DocumentPiece> documentNoteParts,
+                                               T tei,
+                                               Document doc,
+                                               GrobidAnalysisConfig config) throws Exception {
         List<String> allNotes = new ArrayList<>();
         for (DocumentPiece docPiece : documentNoteParts) {
             
@@ -1096,11 +1099,11 @@ public class TEIFormatter {
         return tei;
     }
 
-    public StringBuilder toTEIAcknowledgement(StringBuilder buffer,
-                                              String reseAcknowledgement,
-                                              List<LayoutToken> tokenizationsAcknowledgement,
-                                              List<BibDataSet> bds,
-                                              GrobidAnalysisConfig config) throws Exception {
+    public <T extends Appendable> T toTEIAcknowledgement(T buffer,
+                                                         String reseAcknowledgement,
+                                                         List<LayoutToken> tokenizationsAcknowledgement,
+                                                         List<BibDataSet> bds,
+                                                         GrobidAnalysisConfig config) throws Exception {
         if ((reseAcknowledgement == null) || (tokenizationsAcknowledgement == null)) {
             return buffer;
         }
@@ -1117,7 +1120,7 @@ public class TEIFormatter {
             for (int i = 0; i < acknowResultLines.length; i++) {
                 if (acknowResultLines[i].trim().length() == 0)
                     continue;
-                buffer.append(TextUtilities.dehyphenize(acknowResultLines[i]) + "\n");
+                buffer.append(TextUtilities.dehyphenize(acknowResultLines[i])).append("\n");
             }
         }
         buffer.append("\t\t\t</div>\n\n");
@@ -1126,20 +1129,20 @@ public class TEIFormatter {
     }
 
 
-    public StringBuilder toTEIAnnex(StringBuilder buffer,
-                                    String result,
-                                    BiblioItem biblio,
-                                    List<BibDataSet> bds,
-                                    List<LayoutToken> tokenizations,
-                                    Document doc,
-                                    GrobidAnalysisConfig config) throws Exception {
+    public <T extends Appendable> T toTEIAnnex(T buffer,
+                                               String result,
+                                               BiblioItem biblio,
+                                               List<BibDataSet> bds,
+                                               List<LayoutToken> tokenizations,
+                                               Document doc,
+                                               GrobidAnalysisConfig config) throws Exception {
         if ((result == null) || (tokenizations == null)) {
             return buffer;
         }
 
         buffer.append("\t\t\t<div type=\"annex\">\n");
-        buffer = toTEITextPiece(buffer, result, biblio, bds, true,
-                new LayoutTokenization(tokenizations), null, null, null, doc, config);
+        buffer.append(toTEITextPieceContent(new StringBuilder(), result, biblio, bds, true,
+                new LayoutTokenization(tokenizations), null, null, null, doc, config));
         buffer.append("\t\t\t</div>\n");
 
         return buffer;
@@ -1156,6 +1159,26 @@ public class TEIFormatter {
                                          List<Equation> equations,
                                          Document doc,
                                          GrobidAnalysisConfig config) throws Exception {
+        buffer = toTEITextPieceContent(buffer, result, biblio, bds, keepUnsolvedCallout,
+                layoutTokenization, figures, tables, equations, doc, config);
+        return toTEIFiguresAndTables(buffer, figures, tables, doc, config);
+    }
+
+    /**
+     * Text of a piece without its figures and tables, the clean-ups of the paragraphs
+     * being applied to the whole buffer
+     */
+    private StringBuilder toTEITextPieceContent(StringBuilder buffer,
+                                                String result,
+                                                BiblioItem biblio,
+                                                List<BibDataSet> bds,
+                                                boolean keepUnsolvedCallout,
+                                                LayoutTokenization layoutTokenization,
+                                                List<Figure> figures,
+                                                List<Table> tables,
+                                                List<Equation> equations,
+                                                Document doc,
+                                                GrobidAnalysisConfig config) throws Exception {
         TaggingLabel lastClusterLabel = null;
         int startPosition = buffer.length();
 
@@ -1366,11 +1389,19 @@ public class TEIFormatter {
         buffer = TextUtilities.replaceAll(buffer, "</p0>", "</p>");
         buffer = TextUtilities.replaceAll(buffer, "<q>", "<p>");
 
+        return buffer;
+    }
+
+    private <T extends Appendable> T toTEIFiguresAndTables(T tei,
+                                                           List<Figure> figures,
+                                                           List<Table> tables,
+                                                           Document doc,
+                                                           GrobidAnalysisConfig config) throws Exception {
         if (figures != null) {
             for (Figure figure : figures) {
                 String figSeg = figure.toTEI(config, doc, this);
                 if (figSeg != null) {
-                    buffer.append(figSeg).append("\n");
+                    tei.append(figSeg).append("\n");
                 }
             }
         }
@@ -1378,12 +1409,12 @@ public class TEIFormatter {
             for (Table table : tables) {
                 String tabSeg = table.toTEI(config, doc, this);
                 if (tabSeg != null) {
-                    buffer.append(tabSeg).append("\n");
+                    tei.append(tabSeg).append("\n");
                 }
             }
         }
 
-        return buffer;
+        return tei;
     }
 
     public static boolean isNewParagraph(TaggingLabel lastClusterLabel, Element curParagraph) {
@@ -1593,9 +1624,13 @@ System.out.println(theSentences.toString());
         }
     }
 
-    public StringBuilder toTEIReferences(StringBuilder tei,
-                                         List<BibDataSet> bds,
-                                         GrobidAnalysisConfig config) throws Exception {
+    /**
+     * Serialize the bibliographical references. Each reference is appended as soon as it is
+     * formatted, so with a {@link Writer} the reference section is never held in memory.
+     */
+    public <T extends Appendable> T toTEIReferences(T tei,
+                                                    List<BibDataSet> bds,
+                                                    GrobidAnalysisConfig config) throws Exception {
         tei.append("\t\t\t<div type=\"references\">\n\n");
 
         if ((bds == null) || (bds.size() == 0))
@@ -1609,7 +1644,7 @@ System.out.println(theSentences.toString());
                     BiblioItem bit = bib.getResBib();
                     bit.setReference(bib.getRawBib());
                     if (bit != null) {
-                        tei.append("\n" + bit.toTEI(p, 0, config));
+                        tei.append("\n").append(bit.toTEI(p, 0, config));
                     } else {
                         tei.append("\n");
                     }
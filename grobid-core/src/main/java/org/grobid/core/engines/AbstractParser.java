@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 
 public abstract class AbstractParser implements GenericTagger, Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractParser.class);
@@ -47,6 +48,11 @@ public abstract class AbstractParser implements GenericTagger, Closeable {
         return genericTagger.label(data);
     }
 
+    @Override
+    public List<String> labelBatch(List<String> data) {
+        return genericTagger.labelBatch(data);
+    }
+
     @Override
     public void close() throws IOException {
         try {
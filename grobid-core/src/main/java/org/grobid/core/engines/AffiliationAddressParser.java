@@ -32,24 +32,8 @@ public class AffiliationAddressParser extends AbstractParser {
                 return null;
             }
 
-            input = UnicodeUtil.normaliseText(input);
-            input = input.trim();
-
-            input = TextUtilities.dehyphenize(input);
-            //StringTokenizer st = new StringTokenizer(input, " \n\t" + TextUtilities.fullPunctuations, true);
-            //List<String> tokenizations = new ArrayList<String>();
-			// TBD: pass the language object to the tokenizer 
-			List<LayoutToken> tokenizations = analyzer.tokenizeWithLayoutToken(input);
-            //while (st.hasMoreTokens()) {
-            //    String tok = st.nextToken();
-			//int p = 0;
-
-            List<String> affiliationBlocks = getAffiliationBlocks(tokenizations);
-            List<List<OffsetPosition>> placesPositions = new ArrayList<List<OffsetPosition>>();
-            placesPositions.add(lexicon.tokenPositionsCityNames(tokenizations));
-            List<List<LayoutToken>> allTokens = new ArrayList<List<LayoutToken>>();
-            allTokens.add(tokenizations);
-            String header = FeaturesVectorAffiliationAddress.addFeaturesAffiliationAddress(affiliationBlocks, allTokens, placesPositions);
+            List<LayoutToken> tokenizations = tokenize(input);
+            String header = getFeaturedAffiliation(tokenizations);
 
             String res = label(header);
             return resultBuilder(res, tokenizations, false); // don't use pre-labels
@@ -58,6 +42,61 @@ public class AffiliationAddressParser extends AbstractParser {
         }
     }
 
+    /**
+     * Processing of a list of raw affiliation+address blocks, all the blocks are labelled with
+     * a single call to the tagger. The result list is aligned with the input list, with null
+     * for the inputs without any recognized affiliation.
+     */
+    public List<List<Affiliation>> processingMultiple(List<String> inputs) {
+        List<List<Affiliation>> results = new ArrayList<>();
+        if (inputs == null || inputs.size() == 0)
+            return results;
+        try {
+            List<List<LayoutToken>> tokenizationsList = new ArrayList<>();
+            List<String> headers = new ArrayList<>();
+            for (String input : inputs) {
+                List<LayoutToken> tokenizations = null;
+                String header = "";
+                if ((input != null) && (input.trim().length() > 0)) {
+                    tokenizations = tokenize(input);
+                    header = getFeaturedAffiliation(tokenizations);
+                }
+                tokenizationsList.add(tokenizations);
+                headers.add(header);
+            }
+
+            List<String> labeled = labelBatch(headers);
+            for (int i = 0; i < inputs.size(); i++) {
+                String res = labeled.get(i);
+                if ((tokenizationsList.get(i) == null) || (res == null) || (res.trim().length() == 0))
+                    results.add(null);
+                else
+                    results.add(resultBuilder(res, tokenizationsList.get(i), false));
+            }
+            return results;
+        } catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+    }
+
+    private List<LayoutToken> tokenize(String input) {
+        input = UnicodeUtil.normaliseText(input);
+        input = input.trim();
+
+        input = TextUtilities.dehyphenize(input);
+        // TBD: pass the language object to the tokenizer 
+        return analyzer.tokenizeWithLayoutToken(input);
+    }
+
+    private String getFeaturedAffiliation(List<LayoutToken> tokenizations) throws Exception {
+        List<String> affiliationBlocks = getAffiliationBlocks(tokenizations);
+        List<List<OffsetPosition>> placesPositions = new ArrayList<List<OffsetPosition>>();
+        placesPositions.add(lexicon.tokenPositionsCityNames(tokenizations));
+        List<List<LayoutToken>> allTokens = new ArrayList<List<LayoutToken>>();
+        allTokens.add(tokenizations);
+        return FeaturesVectorAffiliationAddress.addFeaturesAffiliationAddress(affiliationBlocks, allTokens, placesPositions);
+    }
+
     protected static List<String> getAffiliationBlocks(List<LayoutToken> tokenizations) {
         ArrayList<String> affiliationBlocks = new ArrayList<String>();
         for(LayoutToken tok : tokenizations) {
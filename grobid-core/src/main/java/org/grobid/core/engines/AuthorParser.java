@@ -97,17 +97,107 @@ public class AuthorParser {
         if (CollectionUtils.isEmpty(tokens)) {
             return null;
         }
-        List<Person> fullAuthors = null;
         try {
-            List<OffsetPosition> titlePositions = Lexicon.getInstance().tokenPositionsPersonTitle(tokens);
-            List<OffsetPosition> suffixPositions = Lexicon.getInstance().tokenPositionsPersonSuffix(tokens);
-
-            String sequence = FeaturesVectorName.addFeaturesName(tokens, null, 
-                titlePositions, suffixPositions);
+            String sequence = getFeaturedNames(tokens);
             if (StringUtils.isEmpty(sequence))
                 return null;
             GenericTagger tagger = head ? namesHeaderParser : namesCitationParser;
             String res = tagger.label(sequence);
+            return resultExtraction(res, tokens, pdfAnnotations, head);
+        } catch (GrobidException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+    }
+
+    /**
+     * Processing of a list of raw author sequences from citations. All the sequences are 
+     * labelled with a single call to the tagger. The result list is aligned with the 
+     * input list, with null for the inputs without any recognized author.
+     */
+    public List<List<Person>> processingCitationMultiple(List<String> inputs) {
+        return processingRawMultiple(inputs, false);
+    }
+
+    /**
+     * Processing of a list of raw author sequences from headers, labelled with a single call
+     * to the tagger, the result list being aligned with the input list.
+     */
+    public List<List<Person>> processingHeaderMultiple(List<String> inputs) {
+        return processingRawMultiple(inputs, true);
+    }
+
+    private List<List<Person>> processingRawMultiple(List<String> inputs, boolean head) {
+        List<List<LayoutToken>> tokensList = new ArrayList<>();
+        if (inputs == null)
+            return new ArrayList<>();
+        for (String input : inputs) {
+            if (StringUtils.isEmpty(input)) {
+                tokensList.add(null);
+                continue;
+            }
+            input = input.trim().replaceAll("et\\.? al\\.?.*$", " ");
+            // for language to English for the analyser to avoid any bad surprises
+            tokensList.add(GrobidAnalyzer.getInstance().tokenizeWithLayoutToken(input, new Language("en", 1.0)));
+        }
+        return processingMultiple(tokensList, head);
+    }
+
+    /**
+     * Processing of a list of independent author sequences, in header or citation, with 
+     * a single call to the tagger. 
+     *
+     * @param tokensList list of sequences of LayoutToken objects to process
+     * @param head - if true use the model for header's name, otherwise the model for names in citation
+     * @return for each input sequence, the list of identified Person entities, or null
+     */
+    public List<List<Person>> processingMultiple(List<List<LayoutToken>> tokensList, boolean head) {
+        List<List<Person>> results = new ArrayList<>();
+        if (CollectionUtils.isEmpty(tokensList)) {
+            return results;
+        }
+        List<String> sequences = new ArrayList<>();
+        try {
+            for (List<LayoutToken> tokens : tokensList) {
+                String sequence = null;
+                if (CollectionUtils.isNotEmpty(tokens))
+                    sequence = getFeaturedNames(tokens);
+                sequences.add(sequence == null ? "" : sequence);
+            }
+        } catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+
+        GenericTagger tagger = head ? namesHeaderParser : namesCitationParser;
+        List<String> labeled = tagger.labelBatch(sequences);
+        for (int i = 0; i < tokensList.size(); i++) {
+            String res = labeled.get(i);
+            if (StringUtils.isEmpty(res))
+                results.add(null);
+            else
+                results.add(resultExtraction(res, tokensList.get(i), null, head));
+        }
+        return results;
+    }
+
+    private String getFeaturedNames(List<LayoutToken> tokens) throws Exception {
+        List<OffsetPosition> titlePositions = Lexicon.getInstance().tokenPositionsPersonTitle(tokens);
+        List<OffsetPosition> suffixPositions = Lexicon.getInstance().tokenPositionsPersonSuffix(tokens);
+
+        return FeaturesVectorName.addFeaturesName(tokens, null, 
+            titlePositions, suffixPositions);
+    }
+
+    /**
+     * Build the Person objects from the labeled sequence of names
+     */
+    private List<Person> resultExtraction(String res, 
+                                          List<LayoutToken> tokens, 
+                                          List<PDFAnnotation> pdfAnnotations, 
+                                          boolean head) {
+        List<Person> fullAuthors = null;
+        try {
 //System.out.println(res);
             TaggingTokenClusteror clusteror = new TaggingTokenClusteror(head ? GrobidModels.NAMES_HEADER : GrobidModels.NAMES_CITATION, res, tokens);
             org.grobid.core.data.Person aut = new Person();
@@ -7,6 +7,7 @@ import org.grobid.core.GrobidModels;
 import org.grobid.core.data.BibDataSet;
 import org.grobid.core.data.BiblioItem;
 import org.grobid.core.data.Date;
+import org.grobid.core.data.Person;
 import org.grobid.core.document.Document;
 import org.grobid.core.document.DocumentSource;
 import org.grobid.core.engines.citations.LabeledReferenceResult;
@@ -153,67 +154,90 @@ public class CitationParser extends AbstractParser {
             return null;
         String[] resBlocks = allRes.split("\n\n");
         int i = 0;
+        List<BiblioItem> resCitations = new ArrayList<>();
         for (List<LayoutToken> tokens : tokenList) {
             if (CollectionUtils.isEmpty(tokens))
-                results.add(null);
+                resCitations.add(null);
             else {
                 String res = resBlocks[i];
                 i++;
                 BiblioItem resCitation = resultExtractionLayoutTokens(res, true, tokens);
-            
-                // post-processing (additional field parsing and cleaning)
-                if (resCitation != null) {
+                if (resCitation != null) 
                     BiblioItem.cleanTitles(resCitation);
+                resCitations.add(resCitation);
+            }
+        }
 
-                    resCitation.setOriginalAuthors(resCitation.getAuthors());
-                    try {
-                        resCitation.setFullAuthors(parsers.getAuthorParser().processingCitation(resCitation.getAuthors()));
-                    } catch (Exception e) {
-                        LOGGER.error("An exception occured when processing author names of a citation.", e);
-                    }
-                    if (resCitation.getPublicationDate() != null) {
-                        List<Date> dates = parsers.getDateParser().processing(resCitation
-                                .getPublicationDate());
-                        if (dates != null) {
-                            Date bestDate = null;
-                            if (dates.size() > 0) {
-                                // we take the earliest most specified date
-                                for (Date theDate : dates) {
-                                    if (bestDate == null) {
-                                        bestDate = theDate;
-                                    } else {
-                                        if (bestDate.compareTo(theDate) == 1) {
-                                            bestDate = theDate;
-                                        }
-                                    }
-                                }
-                                if (bestDate != null) {
-                                    resCitation.setNormalizedPublicationDate(bestDate);
+        // the author and editor names, then the dates, of all the citations are labelled 
+        // with a single call to their respective model
+        int nbCitations = resCitations.size();
+        List<String> rawNames = new ArrayList<>();
+        List<String> rawDates = new ArrayList<>();
+        for (BiblioItem resCitation : resCitations) {
+            rawNames.add(resCitation == null ? null : resCitation.getAuthors());
+            rawDates.add(resCitation == null ? null : resCitation.getPublicationDate());
+        }
+        for (BiblioItem resCitation : resCitations) {
+            rawNames.add(resCitation == null ? null : resCitation.getEditors());
+        }
+
+        List<List<Person>> allNames = null;
+        try {
+            allNames = parsers.getAuthorParser().processingCitationMultiple(rawNames);
+        } catch (Exception e) {
+            LOGGER.error("An exception occured when processing author and editor names of citations.", e);
+        }
+        List<List<Date>> allDates = parsers.getDateParser().processingMultiple(rawDates);
+
+        for (int j = 0; j < nbCitations; j++) {
+            if (CollectionUtils.isEmpty(tokenList.get(j))) {
+                results.add(null);
+                continue;
+            }
+            BiblioItem resCitation = resCitations.get(j);
+
+            // post-processing (additional field parsing and cleaning)
+            if (resCitation != null) {
+                resCitation.setOriginalAuthors(resCitation.getAuthors());
+                if (allNames != null)
+                    resCitation.setFullAuthors(allNames.get(j));
+
+                List<Date> dates = allDates.get(j);
+                if (dates != null) {
+                    Date bestDate = null;
+                    if (dates.size() > 0) {
+                        // we take the earliest most specified date
+                        for (Date theDate : dates) {
+                            if (bestDate == null) {
+                                bestDate = theDate;
+                            } else {
+                                if (bestDate.compareTo(theDate) == 1) {
+                                    bestDate = theDate;
                                 }
                             }
                         }
-                    }
-
-                    resCitation.setPageRange(TextUtilities.cleanField(
-                            resCitation.getPageRange(), true));
-                    resCitation.setPublisher(TextUtilities.cleanField(
-                            resCitation.getPublisher(), true));
-                    resCitation.setJournal(TextUtilities.cleanField(
-                            resCitation.getJournal(), true));
-                    resCitation.postProcessPages();
-
-                    // editors (they are human persons in theory)
-                    resCitation.setOriginalEditors(resCitation.getEditors());
-                    try {
-                        resCitation.setFullEditors(parsers.getAuthorParser().processingCitation(resCitation.getEditors()));
-                    } catch (Exception e) {
-                        LOGGER.error("An exception occured when processing editor names of a citation.", e);
+                        if (bestDate != null) {
+                            resCitation.setNormalizedPublicationDate(bestDate);
+                        }
                     }
                 }
 
-                resCitation = consolidateCitation(resCitation, LayoutTokensUtil.toText(tokens), consolidate);
-                results.add(resCitation);
+                resCitation.setPageRange(TextUtilities.cleanField(
+                        resCitation.getPageRange(), true));
+                resCitation.setPublisher(TextUtilities.cleanField(
+                        resCitation.getPublisher(), true));
+                resCitation.setJournal(TextUtilities.cleanField(
+                        resCitation.getJournal(), true));
+                resCitation.postProcessPages();
+
+                // editors (they are human persons in theory)
+                resCitation.setOriginalEditors(resCitation.getEditors());
+                if (allNames != null)
+                    resCitation.setFullEditors(allNames.get(nbCitations + j));
             }
+
+            resCitation = consolidateCitation(resCitation, LayoutTokensUtil.toText(tokenList.get(j)), consolidate);
+            results.add(resCitation);
         }
 
         return results;
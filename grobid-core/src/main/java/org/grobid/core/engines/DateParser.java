@@ -29,24 +29,75 @@ public class DateParser extends AbstractParser {
         if (input == null)
             return null;
 
-        List<Date> dates = null;
-
-        List<String> dateBlocks = new ArrayList<String>();
         try {
-            // force English language for the tokenization only
-			List<String> tokenizations = analyzer.tokenize(input, new Language("en", 1.0));
-			if (tokenizations.size() == 0) 
+            String headerDate = getFeaturedDate(input);
+            if (headerDate == null)
                 return null;
-			for(String tok : tokenizations) {
-                if (!tok.equals(" ") && !tok.equals("\n")) {
-                    // parano final sanitisation
-                    tok = tok.replaceAll("[ \n]", "");
-                    dateBlocks.add(tok + " <date>");
+            String res = label(headerDate);
+            return resultExtraction(res);
+        } catch (GrobidException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GrobidException("An exception occured while running Grobid.", e);
+        }
+    }
+
+    /**
+     * Processing of a list of raw dates, all the dates are labelled with a single call
+     * to the tagger. The result list is aligned with the input list, with null for the
+     * inputs without any recognized date.
+     */
+    public List<List<Date>> processingMultiple(List<String> inputs) {
+        List<List<Date>> results = new ArrayList<>();
+        if (inputs == null || inputs.size() == 0)
+            return results;
+
+        List<String> featuredDates = new ArrayList<>();
+        for (String input : inputs) {
+            String featuredDate = null;
+            if (input != null) {
+                try {
+                    featuredDate = getFeaturedDate(input);
+                } catch (Exception e) {
+                    throw new GrobidException("An exception occured while running Grobid.", e);
                 }
             }
+            featuredDates.add(featuredDate == null ? "" : featuredDate);
+        }
 
-            String headerDate = FeaturesVectorDate.addFeaturesDate(dateBlocks);
-            String res = label(headerDate);
+        List<String> labeled = labelBatch(featuredDates);
+        for (String res : labeled) {
+            if (res == null || res.trim().length() == 0)
+                results.add(null);
+            else
+                results.add(resultExtraction(res));
+        }
+        return results;
+    }
+
+    private String getFeaturedDate(String input) throws Exception {
+        List<String> dateBlocks = new ArrayList<String>();
+        // force English language for the tokenization only
+        List<String> tokenizations = analyzer.tokenize(input, new Language("en", 1.0));
+        if (tokenizations.size() == 0) 
+            return null;
+        for(String tok : tokenizations) {
+            if (!tok.equals(" ") && !tok.equals("\n")) {
+                // parano final sanitisation
+                tok = tok.replaceAll("[ \n]", "");
+                dateBlocks.add(tok + " <date>");
+            }
+        }
+
+        return FeaturesVectorDate.addFeaturesDate(dateBlocks);
+    }
+
+    /**
+     * Extract the dates from the labeled sequence of a date block
+     */
+    private List<Date> resultExtraction(String res) {
+        List<Date> dates = null;
+        try {
             // extract results from the processed file
 
             //System.out.print(res.toString());
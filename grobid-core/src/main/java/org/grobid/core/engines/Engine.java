@@ -100,7 +100,19 @@ public class Engine implements Closeable {
      *         sequence of authors.
      */
     public List<List<Person>> processAuthorsCitationLists(List<String> authorSequences) throws Exception {
-        return null;
+        return parsers.getAuthorParser().processingCitationMultiple(authorSequences);
+    }
+
+    /**
+     * Parse a list of independent sequences of authors from headers, labelled together.
+     *
+     * @param authorSequences - the list of strings corresponding each to a raw sequence of
+     *                        names.
+     * @return the list of all recognized structured author objects for each
+     *         sequence of authors, null for a sequence without any recognized author.
+     */
+    public List<List<Person>> processAuthorsHeaderLists(List<String> authorSequences) throws Exception {
+        return parsers.getAuthorParser().processingHeaderMultiple(authorSequences);
     }
 
     /**
@@ -120,18 +132,12 @@ public class Engine implements Closeable {
      * @param addressBlocks - the list of strings corresponding each to a raw
      *                      affiliation+address.
      * @return the list of all recognized structured affiliation objects for
-     *         each sequence of affiliation + address block.
+     *         each sequence of affiliation + address block, null for a block without 
+     *         any recognized affiliation.
      */
     public List<List<Affiliation>> processAffiliations(List<String> addressBlocks) throws Exception {
-        List<List<Affiliation>> results = null;
-        for (String addressBlock : addressBlocks) {
-            List<Affiliation> localRes = parsers.getAffiliationAddressParser().processing(addressBlock);
-            if (results == null) {
-                results = new ArrayList<List<Affiliation>>();
-            }
-            results.add(localRes);
-        }
-        return results;
+        // the blocks are labelled together, with a single call to the model
+        return parsers.getAffiliationAddressParser().processingMultiple(addressBlocks);
     }
 
     /**
@@ -151,11 +157,11 @@ public class Engine implements Closeable {
      *
      * @param dateBlocks - the list of strings each containing raw dates.
      * @return the list of all structured date objects recognized in the string
-     *         for each inputed string.
+     *         for each inputed string, null for a string without any recognized date.
      */
-    /*public List<List<org.grobid.core.data.Date>> processDates(List<String> dateBlocks) {
-        return null;
-    }*/
+    public List<List<org.grobid.core.data.Date>> processDates(List<String> dateBlocks) {
+        return parsers.getDateParser().processingMultiple(dateBlocks);
+    }
 
     /**
      * Apply a parsing model for a given single raw reference string based on CRF
@@ -180,41 +186,49 @@ public class Engine implements Closeable {
      * @param consolidate the consolidation option allows GROBID to exploit Crossref web services for improving header
      *                    information. 0 (no consolidation, default value), 1 (consolidate the citation and inject extra
      *                    metadata) or 2 (consolidate the citation and inject DOI only)
-     * @return the list of recognized bibliographical objects
+     * @return the list of recognized bibliographical objects, in the order of the raw references, with null 
+     *         for the references which cannot be parsed
      */
     public List<BiblioItem> processRawReferences(List<String> references, int consolidate) throws Exception {
-        List<BibDataSet> results = new ArrayList<BibDataSet>();
         List<BiblioItem> finalResults = new ArrayList<BiblioItem>();
         if (references == null || references.size() == 0)
             return finalResults;
-        for (String reference : references) {
-            BiblioItem bib = parsers.getCitationParser().processingString(reference, 0);
-            //if ((bib != null) && !bib.rejectAsReference()) 
-            {
-                BibDataSet bds = new BibDataSet();
-                bds.setResBib(bib);
-                bds.setRawBib(reference);
-                results.add(bds);
-            }
+        // the references are labelled together, with a single call to each model
+        List<BiblioItem> results = parsers.getCitationParser().processingStringMultiple(references, 0);
+        for (int i = 0; i < references.size(); i++) {
+            finalResults.add((results == null || i >= results.size()) ? null : results.get(i));
         }
-        
-        if (results.size() == 0)
-            return finalResults;
+
         // consolidation in a second stage to take advantage of parallel calls
         if (consolidate != 0) {
+            List<BibDataSet> bibDataSets = new ArrayList<BibDataSet>();
+            List<Integer> positions = new ArrayList<Integer>();
+            for (int i = 0; i < finalResults.size(); i++) {
+                BiblioItem bib = finalResults.get(i);
+                if (bib != null) {
+                    BibDataSet bds = new BibDataSet();
+                    bds.setResBib(bib);
+                    bds.setRawBib(references.get(i));
+                    bibDataSets.add(bds);
+                    positions.add(i);
+                }
+            }
+            if (bibDataSets.size() == 0)
+                return finalResults;
+
             Consolidation consolidator = Consolidation.getInstance();
             if (consolidator.getCntManager() == null)
                 consolidator.setCntManager(cntManager); 
             Map<Integer,BiblioItem> resConsolidation = null;
             try {
-                resConsolidation = consolidator.consolidate(results);
+                resConsolidation = consolidator.consolidate(bibDataSets);
             } catch(Exception e) {
                 throw new GrobidException(
                 "An exception occured while running consolidation on bibliographical references.", e);
             } 
             if (resConsolidation != null) {
-                for(int i=0; i<results.size(); i++) {
-                    BiblioItem resCitation = results.get(i).getResBib();
+                for(int i=0; i<bibDataSets.size(); i++) {
+                    BiblioItem resCitation = bibDataSets.get(i).getResBib();
                     BiblioItem bibo = resConsolidation.get(Integer.valueOf(i));
                     if (bibo != null) {
                         if (consolidate == 1)
@@ -222,7 +236,6 @@ public class Engine implements Closeable {
                         else if (consolidate == 2)
                             BiblioItem.injectDOI(resCitation, bibo);
                     }
-                    finalResults.add(resCitation);
                 }
             }
         }
@@ -447,6 +460,29 @@ public class Engine implements Closeable {
         return fullTextToTEIDoc(inputFile, config).getTei();
     }
 
+    /**
+     * Parse and convert the current article into TEI, the TEI being written to the given
+     * writer part by part as soon as each part is built (header, body, back and each
+     * bibliographical reference), so that it can be piped into a HTTP response or a file
+     * without holding the complete TEI in memory.
+     *
+     * @param inputFile            - absolute path to the pdf to be processed
+     * @param config               - Grobid config
+     * @param writer               - where to write the TEI, flushed but not closed
+	 * @return true if a TEI was written, false if the document has no content
+     */
+    public boolean fullTextToTEI(File inputFile,
+                                 GrobidAnalysisConfig config,
+                                 Writer writer) throws Exception {
+        FullTextParser fullTextParser = parsers.getFullTextParser();
+        LOGGER.debug("Starting processing fullTextToTEI on " + inputFile);
+        long time = System.currentTimeMillis();
+        boolean written = fullTextParser.processing(inputFile, config, writer);
+        LOGGER.debug("Ending processing fullTextToTEI on " + inputFile + ". Time to process: "
+			+ (System.currentTimeMillis() - time) + "ms");
+        return written;
+    }
+
     public Document fullTextToTEIDoc(File inputFile,
                                      GrobidAnalysisConfig config) throws Exception {
         FullTextParser fullTextParser = parsers.getFullTextParser();
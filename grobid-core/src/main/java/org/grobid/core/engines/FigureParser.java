@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.grobid.core.engines.label.TaggingLabels.*;
@@ -51,6 +52,28 @@ class FigureParser extends AbstractParser {
         return getExtractionResult(tokenizationFigure, res);
     }
 
+    /**
+     * Batch version of {@link #processing(List, String)}: all the figures of a document
+     * are labelled with a single call to the tagger. The result list is aligned with
+     * the input lists.
+     */
+    public List<Figure> processing(List<List<LayoutToken>> tokenizationFigures, List<String> featureVectors) {
+        List<String> res;
+        try {
+            res = labelBatch(featureVectors);
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling with figure model fails.", e);
+        }
+        List<Figure> figures = new ArrayList<>();
+        for (int i = 0; i < tokenizationFigures.size(); i++) {
+            if (res.get(i) == null)
+                figures.add(null);
+            else
+                figures.add(getExtractionResult(tokenizationFigures.get(i), res.get(i)));
+        }
+        return figures;
+    }
+
     private Figure getExtractionResult(List<LayoutToken> tokenizations, String result) {
         TaggingTokenClusteror clusteror = new TaggingTokenClusteror(GrobidModels.FIGURE, result, tokenizations);
         List<TaggingTokenCluster> clusters = clusteror.cluster();
@@ -5,6 +5,7 @@ import com.google.common.collect.Iterables;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.StringBuilderWriter;
 
 import java.nio.charset.StandardCharsets;
 
@@ -33,6 +34,7 @@ import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.exceptions.GrobidResourceException;
 import org.grobid.core.features.FeatureFactory;
 import org.grobid.core.features.FeaturesVectorFulltext;
+import org.grobid.core.features.PageTasks;
 import org.grobid.core.lang.Language;
 import org.grobid.core.layout.*;
 import org.grobid.core.tokenization.TaggingTokenCluster;
@@ -113,6 +115,21 @@ public class FullTextParser extends AbstractParser {
 		return processing(documentSource, config);
 	}
 
+	/**
+     * Same as {@link #processing(File, GrobidAnalysisConfig)}, but the TEI is written to the
+     * given writer part by part instead of being set in the document.
+     *
+     * @return true if a TEI was written, false if the document has no content
+     */
+	public boolean processing(File inputPdf,
+							  GrobidAnalysisConfig config,
+							  Writer writer) throws Exception {
+		DocumentSource documentSource = 
+			DocumentSource.fromPdf(inputPdf, config.getStartPage(), config.getEndPage(), 
+				config.getPdfAssetPath() != null, true, false);
+		return processing(documentSource, config, writer);
+	}
+
 	/**
      * Machine-learning recognition of the complete full text structures.
      *
@@ -122,6 +139,46 @@ public class FullTextParser extends AbstractParser {
      */
     public Document processing(DocumentSource documentSource,
                                GrobidAnalysisConfig config) {
+        checkTmpPath();
+        try {
+			// general segmentation
+			Document doc = parsers.getSegmentationParser().processing(documentSource, config);
+            return processingSegmented(doc, config);
+        } catch (GrobidException e) {
+			throw e;
+		} catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+    }
+
+	/**
+     * Machine-learning recognition of the complete full text structures, the TEI is written 
+     * to the given writer part by part as soon as each part is built.
+     *
+     * @param documentSource input
+     * @param config config
+     * @param writer where to write the TEI, it is flushed but not closed
+     * @return true if a TEI was written, false if the document has no content
+     */
+    public boolean processing(DocumentSource documentSource,
+                              GrobidAnalysisConfig config,
+                              Writer writer) {
+        checkTmpPath();
+        try {
+			// general segmentation
+			Document doc = parsers.getSegmentationParser().processing(documentSource, config);
+            BiblioItem resHeader = processingHeaderStage(doc, config);
+            processingReferenceStage(doc, config);
+            BodyResult body = processingBodyStage(doc, config);
+            return processingTEIStage(doc, resHeader, body, config, writer);
+        } catch (GrobidException e) {
+			throw e;
+		} catch (Exception e) {
+            throw new GrobidException("An exception occurred while running Grobid.", e);
+        }
+    }
+
+    private void checkTmpPath() {
         if (tmpPath == null) {
             throw new GrobidResourceException("Cannot process pdf file, because temp path is null.");
         }
@@ -129,182 +186,273 @@ public class FullTextParser extends AbstractParser {
             throw new GrobidResourceException("Cannot process pdf file, because temp path '" +
                     tmpPath.getAbsolutePath() + "' does not exists.");
         }
-        try {
-			// general segmentation
-			Document doc = parsers.getSegmentationParser().processing(documentSource, config);
-			SortedSet<DocumentPiece> documentBodyParts = doc.getDocumentPart(SegmentationLabels.BODY);
+    }
 
-            // header processing
-            BiblioItem resHeader = new BiblioItem();
-            Pair<String, LayoutTokenization> featSeg = null;
+    /**
+     * Run the header, reference and body models on a document already processed by the
+     * segmentation model, then build the TEI. Each step corresponds to a stage of 
+     * {@link FullTextPipeline}, which can run them on different threads.
+     *
+     * @param doc document resulting from the segmentation model
+     * @param config config
+     * @return the document object with built TEI
+     */
+    public Document processingSegmented(Document doc, GrobidAnalysisConfig config) {
+        BiblioItem resHeader = processingHeaderStage(doc, config);
+        processingReferenceStage(doc, config);
+        BodyResult body = processingBodyStage(doc, config);
+        return processingTEIStage(doc, resHeader, body, config);
+    }
 
-            // using the segmentation model to identify the header zones
-            parsers.getHeaderParser().processingHeaderSection(config, doc, resHeader, false);
+    /**
+     * Header stage: header model on the header zones, then structuring of the abstract 
+     * with the fulltext model.
+     */
+    public BiblioItem processingHeaderStage(Document doc, GrobidAnalysisConfig config) {
+        // header processing
+        BiblioItem resHeader = new BiblioItem();
 
-            // The commented part below makes use of the PDF embedded metadata (the so-called XMP) if available 
-            // as fall back to set author and title if they have not been found. 
-            // However tests on PMC set 1942 did not improve recognition. This will have to be re-evaluated with
-            // another, more diverse, testing set and with further updates of the header model. 
-            
-            // ---> DO NOT DELETE !
-            
-            /*if (isBlank(resHeader.getTitle()) || isBlank(resHeader.getAuthors()) || CollectionUtils.isEmpty(resHeader.getFullAuthors())) {
-                // try to exploit PDF embedded metadata (the so-called XMP) if we are still without title/authors
-                // this is risky as those metadata are highly unreliable, but as last chance, why not :)
-                Metadata metadata = doc.getMetadata();
-                if (metadata != null) { 
-                    boolean titleUpdated = false;
-                    boolean authorsUpdated = false;
-
-                    if (isNotBlank(metadata.getTitle()) && isBlank(resHeader.getTitle())) {
-                        if (!endsWithAny(lowerCase(metadata.getTitle()), ".doc", ".pdf", ".tex", ".dvi", ".docx", ".odf", ".odt", ".txt")) {
-                            resHeader.setTitle(metadata.getTitle());
-                            titleUpdated = true;
-                        }
+        // using the segmentation model to identify the header zones
+        parsers.getHeaderParser().processingHeaderSection(config, doc, resHeader, false);
+
+        // The commented part below makes use of the PDF embedded metadata (the so-called XMP) if available 
+        // as fall back to set author and title if they have not been found. 
+        // However tests on PMC set 1942 did not improve recognition. This will have to be re-evaluated with
+        // another, more diverse, testing set and with further updates of the header model. 
+        
+        // ---> DO NOT DELETE !
+        
+        /*if (isBlank(resHeader.getTitle()) || isBlank(resHeader.getAuthors()) || CollectionUtils.isEmpty(resHeader.getFullAuthors())) {
+            // try to exploit PDF embedded metadata (the so-called XMP) if we are still without title/authors
+            // this is risky as those metadata are highly unreliable, but as last chance, why not :)
+            Metadata metadata = doc.getMetadata();
+            if (metadata != null) { 
+                boolean titleUpdated = false;
+                boolean authorsUpdated = false;
+
+                if (isNotBlank(metadata.getTitle()) && isBlank(resHeader.getTitle())) {
+                    if (!endsWithAny(lowerCase(metadata.getTitle()), ".doc", ".pdf", ".tex", ".dvi", ".docx", ".odf", ".odt", ".txt")) {
+                        resHeader.setTitle(metadata.getTitle());
+                        titleUpdated = true;
                     }
+                }
 
-                    if (isNotBlank(metadata.getAuthor())
-                        && (isBlank(resHeader.getAuthors()) || CollectionUtils.isEmpty(resHeader.getFullAuthors()))) {
-                        resHeader.setAuthors(metadata.getAuthor());
-                        resHeader.setOriginalAuthors(metadata.getAuthor());
-                        authorsUpdated = true;
-                        List<Person> localAuthors = parsers.getAuthorParser().processingHeader(metadata.getAuthor());
-                        if (localAuthors != null) {
-                            for (Person pers : localAuthors) {
-                                resHeader.addFullAuthor(pers);
-                            }
+                if (isNotBlank(metadata.getAuthor())
+                    && (isBlank(resHeader.getAuthors()) || CollectionUtils.isEmpty(resHeader.getFullAuthors()))) {
+                    resHeader.setAuthors(metadata.getAuthor());
+                    resHeader.setOriginalAuthors(metadata.getAuthor());
+                    authorsUpdated = true;
+                    List<Person> localAuthors = parsers.getAuthorParser().processingHeader(metadata.getAuthor());
+                    if (localAuthors != null) {
+                        for (Person pers : localAuthors) {
+                            resHeader.addFullAuthor(pers);
                         }
                     }
+                }
 
-                    // if title and author have been updated with embedded PDF metadata, we try to consolidate 
-                    // again as required 
-                    if ( titleUpdated || authorsUpdated ) {
-                        parsers.getHeaderParser().consolidateHeader(resHeader, config.getConsolidateHeader());
-                    }
+                // if title and author have been updated with embedded PDF metadata, we try to consolidate 
+                // again as required 
+                if ( titleUpdated || authorsUpdated ) {
+                    parsers.getHeaderParser().consolidateHeader(resHeader, config.getConsolidateHeader());
                 }
-            }*/
-
-            // structure the abstract using the fulltext model
-            if (isNotBlank(resHeader.getAbstract())) {
-                //List<LayoutToken> abstractTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_ABSTRACT);
-                List<LayoutToken> abstractTokens = resHeader.getAbstractTokens();
-                if (CollectionUtils.isNotEmpty(abstractTokens)) {
-                    abstractTokens = BiblioItem.cleanAbstractLayoutTokens(abstractTokens);
-                    Pair<String, List<LayoutToken>> abstractProcessed = processShort(abstractTokens, doc);
-                    if (abstractProcessed != null) {
-                        // neutralize figure and table annotations (will be considered as paragraphs)
-                        String labeledAbstract = abstractProcessed.getLeft();
-                        labeledAbstract = postProcessLabeledAbstract(labeledAbstract);
-                        resHeader.setLabeledAbstract(labeledAbstract);
-                        resHeader.setLayoutTokensForLabel(abstractProcessed.getRight(), TaggingLabels.HEADER_ABSTRACT);
-                    }
+            }
+        }*/
+
+        // structure the abstract using the fulltext model
+        if (isNotBlank(resHeader.getAbstract())) {
+            //List<LayoutToken> abstractTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_ABSTRACT);
+            List<LayoutToken> abstractTokens = resHeader.getAbstractTokens();
+            if (CollectionUtils.isNotEmpty(abstractTokens)) {
+                abstractTokens = BiblioItem.cleanAbstractLayoutTokens(abstractTokens);
+                Pair<String, List<LayoutToken>> abstractProcessed = processShort(abstractTokens, doc);
+                if (abstractProcessed != null) {
+                    // neutralize figure and table annotations (will be considered as paragraphs)
+                    String labeledAbstract = abstractProcessed.getLeft();
+                    labeledAbstract = postProcessLabeledAbstract(labeledAbstract);
+                    resHeader.setLabeledAbstract(labeledAbstract);
+                    resHeader.setLayoutTokensForLabel(abstractProcessed.getRight(), TaggingLabels.HEADER_ABSTRACT);
                 }
             }
+        }
+        return resHeader;
+    }
 
-            // citation processing
-            // consolidation, if selected, is not done individually for each citation but 
-            // in a second stage for all citations which is much faster
-            List<BibDataSet> resCitations = parsers.getCitationParser().
-                processingReferenceSection(doc, parsers.getReferenceSegmenterParser(), 0);
-
-            // consolidate the set
-            if (config.getConsolidateCitations() != 0 && resCitations != null) {
-                Consolidation consolidator = Consolidation.getInstance();
-                if (consolidator.getCntManager() == null)
-                    consolidator.setCntManager(Engine.getCntManager());
-                try {
-                    Map<Integer,BiblioItem> resConsolidation = consolidator.consolidate(resCitations);
-                    for(int i=0; i<resCitations.size(); i++) {
-                        BiblioItem resCitation = resCitations.get(i).getResBib();
-                        BiblioItem bibo = resConsolidation.get(i);
-                        if (bibo != null) {
-                            if (config.getConsolidateCitations() == 1)
-                                BiblioItem.correct(resCitation, bibo);
-                            else if (config.getConsolidateCitations() == 2) 
-                                BiblioItem.injectDOI(resCitation, bibo);
-                        }
+    /**
+     * Reference stage: reference segmentation, citation model and, if selected, 
+     * consolidation. The resulting bibliographical references are attached to the document.
+     */
+    public List<BibDataSet> processingReferenceStage(Document doc, GrobidAnalysisConfig config) {
+        // citation processing
+        // consolidation, if selected, is not done individually for each citation but 
+        // in a second stage for all citations which is much faster
+        List<BibDataSet> resCitations = parsers.getCitationParser().
+            processingReferenceSection(doc, parsers.getReferenceSegmenterParser(), 0);
+
+        // consolidate the set
+        if (config.getConsolidateCitations() != 0 && resCitations != null) {
+            Consolidation consolidator = Consolidation.getInstance();
+            if (consolidator.getCntManager() == null)
+                consolidator.setCntManager(Engine.getCntManager());
+            try {
+                Map<Integer,BiblioItem> resConsolidation = consolidator.consolidate(resCitations);
+                for(int i=0; i<resCitations.size(); i++) {
+                    BiblioItem resCitation = resCitations.get(i).getResBib();
+                    BiblioItem bibo = resConsolidation.get(i);
+                    if (bibo != null) {
+                        if (config.getConsolidateCitations() == 1)
+                            BiblioItem.correct(resCitation, bibo);
+                        else if (config.getConsolidateCitations() == 2) 
+                            BiblioItem.injectDOI(resCitation, bibo);
                     }
-                } catch(Exception e) {
-                    throw new GrobidException(
-                    "An exception occured while running consolidation on bibliographical references.", e);
-                } 
-            }
-            doc.setBibDataSets(resCitations);
+                }
+            } catch(Exception e) {
+                throw new GrobidException(
+                "An exception occured while running consolidation on bibliographical references.", e);
+            } 
+        }
+        doc.setBibDataSets(resCitations);
+        return resCitations;
+    }
 
-			// full text processing
-			featSeg = getBodyTextFeatured(doc, documentBodyParts);
-			String resultBody = null;
-			LayoutTokenization layoutTokenization = null;
-			List<Figure> figures = null;
-			List<Table> tables = null;
-			List<Equation> equations = null;
-			if (featSeg != null && isNotBlank(featSeg.getLeft())) {
-				// if featSeg is null, it usually means that no body segment is found in the
-				// document segmentation
-				String bodytext = featSeg.getLeft();
-				layoutTokenization = featSeg.getRight();
-				//tokenizationsBody = featSeg.getB().getTokenization();
-                //layoutTokensBody = featSeg.getB().getLayoutTokens();
-
-                resultBody = label(bodytext);
-
-				// we apply now the figure and table models based on the fulltext labeled output
-				figures = processFigures(resultBody, layoutTokenization.getTokenization(), doc);
-                // further parse the caption
-                for(Figure figure : figures) {
-                    if (CollectionUtils.isNotEmpty(figure.getCaptionLayoutTokens()) ) {
-                        Pair<String, List<LayoutToken>> captionProcess = processShort(figure.getCaptionLayoutTokens(), doc);
-                        figure.setLabeledCaption(captionProcess.getLeft());
-                        figure.setCaptionLayoutTokens(captionProcess.getRight());
-                    }
+    /**
+     * Body stage: fulltext model on the body and annex parts, followed by the figure, 
+     * table and equation processing.
+     */
+    public BodyResult processingBodyStage(Document doc, GrobidAnalysisConfig config) {
+        BodyResult body = new BodyResult();
+        SortedSet<DocumentPiece> documentBodyParts = doc.getDocumentPart(SegmentationLabels.BODY);
+
+		// full text processing
+		Pair<String, LayoutTokenization> featSeg = getBodyTextFeatured(doc, documentBodyParts);
+		if (featSeg != null && isNotBlank(featSeg.getLeft())) {
+			// if featSeg is null, it usually means that no body segment is found in the
+			// document segmentation
+			String bodytext = featSeg.getLeft();
+			body.layoutTokenization = featSeg.getRight();
+			//tokenizationsBody = featSeg.getB().getTokenization();
+            //layoutTokensBody = featSeg.getB().getLayoutTokens();
+
+            body.resultBody = label(bodytext);
+
+			// we apply now the figure and table models based on the fulltext labeled output
+			body.figures = processFigures(body.resultBody, body.layoutTokenization.getTokenization(), doc);
+            // further parse the caption
+            for(Figure figure : body.figures) {
+                if (CollectionUtils.isNotEmpty(figure.getCaptionLayoutTokens()) ) {
+                    Pair<String, List<LayoutToken>> captionProcess = processShort(figure.getCaptionLayoutTokens(), doc);
+                    figure.setLabeledCaption(captionProcess.getLeft());
+                    figure.setCaptionLayoutTokens(captionProcess.getRight());
                 }
+            }
 
-				tables = processTables(resultBody, layoutTokenization.getTokenization(), doc);
-                // further parse the caption
-                for(Table table : tables) {
-                    if ( CollectionUtils.isNotEmpty(table.getCaptionLayoutTokens()) ) {
-                        Pair<String, List<LayoutToken>> captionProcess = processShort(table.getCaptionLayoutTokens(), doc);
-                        table.setLabeledCaption(captionProcess.getLeft());
-                        table.setCaptionLayoutTokens(captionProcess.getRight());
-                    }
-                    if ( CollectionUtils.isNotEmpty(table.getNoteLayoutTokens())) {
-                        Pair<String, List<LayoutToken>> noteProcess = processShort(table.getNoteLayoutTokens(), doc);
-                        table.setLabeledNote(noteProcess.getLeft());
-                        table.setNoteLayoutTokens(noteProcess.getRight());
-                    }
+			body.tables = processTables(body.resultBody, body.layoutTokenization.getTokenization(), doc);
+            // further parse the caption
+            for(Table table : body.tables) {
+                if ( CollectionUtils.isNotEmpty(table.getCaptionLayoutTokens()) ) {
+                    Pair<String, List<LayoutToken>> captionProcess = processShort(table.getCaptionLayoutTokens(), doc);
+                    table.setLabeledCaption(captionProcess.getLeft());
+                    table.setCaptionLayoutTokens(captionProcess.getRight());
+                }
+                if ( CollectionUtils.isNotEmpty(table.getNoteLayoutTokens())) {
+                    Pair<String, List<LayoutToken>> noteProcess = processShort(table.getNoteLayoutTokens(), doc);
+                    table.setLabeledNote(noteProcess.getLeft());
+                    table.setNoteLayoutTokens(noteProcess.getRight());
                 }
+            }
 
-				equations = processEquations(resultBody, layoutTokenization.getTokenization(), doc);
-			} else {
-				LOGGER.debug("Fulltext model: The featured body is empty");
-			}
+			body.equations = processEquations(body.resultBody, body.layoutTokenization.getTokenization(), doc);
+		} else {
+			LOGGER.debug("Fulltext model: The featured body is empty");
+		}
 
-			// possible annexes (view as a piece of full text similar to the body)
-			documentBodyParts = doc.getDocumentPart(SegmentationLabels.ANNEX);
-            featSeg = getBodyTextFeatured(doc, documentBodyParts);
-			String resultAnnex = null;
-			List<LayoutToken> tokenizationsBody2 = null;
-			if (featSeg != null && isNotEmpty(trim(featSeg.getLeft()))) {
-				// if featSeg is null, it usually means that no body segment is found in the
-				// document segmentation
-				String bodytext = featSeg.getLeft();
-				tokenizationsBody2 = featSeg.getRight().getTokenization();
-				resultAnnex = label(bodytext);
-				//System.out.println(rese);
-			}
+		// possible annexes (view as a piece of full text similar to the body)
+		documentBodyParts = doc.getDocumentPart(SegmentationLabels.ANNEX);
+        featSeg = getBodyTextFeatured(doc, documentBodyParts);
+		if (featSeg != null && isNotEmpty(trim(featSeg.getLeft()))) {
+			// if featSeg is null, it usually means that no body segment is found in the
+			// document segmentation
+			String bodytext = featSeg.getLeft();
+			body.tokenizationsAnnex = featSeg.getRight().getTokenization();
+			body.resultAnnex = label(bodytext);
+			//System.out.println(rese);
+		}
+        return body;
+    }
 
-            // final combination
-            toTEI(doc, // document
-				resultBody, resultAnnex, // labeled data for body and annex
-				layoutTokenization, tokenizationsBody2, // tokenization for body and annex
-				resHeader, // header 
-				figures, tables, equations, 
-				config);
-            return doc;
-        } catch (GrobidException e) {
-			throw e;
-		} catch (Exception e) {
-            throw new GrobidException("An exception occurred while running Grobid.", e);
+    /**
+     * TEI stage: final combination of the header, references and body results.
+     */
+    public Document processingTEIStage(Document doc, 
+                                       BiblioItem resHeader, 
+                                       BodyResult body, 
+                                       GrobidAnalysisConfig config) {
+        toTEI(doc, // document
+			body.resultBody, body.resultAnnex, // labeled data for body and annex
+			body.layoutTokenization, body.tokenizationsAnnex, // tokenization for body and annex
+			resHeader, // header 
+			body.figures, body.tables, body.equations, 
+			config);
+        return doc;
+    }
+
+    /**
+     * TEI stage writing the TEI part by part to the given writer instead of setting it in
+     * the document.
+     *
+     * @return true if a TEI was written, false if the document has no content
+     */
+    public boolean processingTEIStage(Document doc, 
+                                      BiblioItem resHeader, 
+                                      BodyResult body, 
+                                      GrobidAnalysisConfig config,
+                                      Writer writer) {
+        return toTEI(doc,
+			body.resultBody, body.resultAnnex,
+			body.layoutTokenization, body.tokenizationsAnnex,
+			resHeader,
+			body.figures, body.tables, body.equations, 
+			config, writer);
+    }
+
+    /**
+     * Labeled body and annex of a document, as produced by the body stage and consumed
+     * by the TEI stage.
+     */
+    public static class BodyResult {
+        private String resultBody = null;
+        private LayoutTokenization layoutTokenization = null;
+        private List<Figure> figures = null;
+        private List<Table> tables = null;
+        private List<Equation> equations = null;
+        private String resultAnnex = null;
+        private List<LayoutToken> tokenizationsAnnex = null;
+
+        public String getResultBody() {
+            return resultBody;
+        }
+
+        public LayoutTokenization getLayoutTokenization() {
+            return layoutTokenization;
+        }
+
+        public List<Figure> getFigures() {
+            return figures;
+        }
+
+        public List<Table> getTables() {
+            return tables;
+        }
+
+        public List<Equation> getEquations() {
+            return equations;
+        }
+
+        public String getResultAnnex() {
+            return resultAnnex;
+        }
+
+        public List<LayoutToken> getTokenizationsAnnex() {
+            return tokenizationsAnnex;
         }
     }
 
@@ -458,20 +606,12 @@ public class FullTextParser extends AbstractParser {
 		if ((documentBodyParts == null) || (documentBodyParts.size() == 0)) {
 			return null;
 		}
-		FeatureFactory featureFactory = FeatureFactory.getInstance();
-        StringBuilder fulltext = new StringBuilder();
-        String currentFont = null;
-        int currentFontSize = -1;
 
 		List<Block> blocks = doc.getBlocks();
 		if ( (blocks == null) || blocks.size() == 0) {
 			return null;
 		}
 
-        // vector for features
-        FeaturesVectorFulltext features;
-        FeaturesVectorFulltext previousFeatures = null;
-
         ReferenceMarkerMatcher referenceMarkerMatcher = null;
 
         // if bibliographical references are available from the bibliographical reference section, we look if we have
@@ -506,61 +646,133 @@ public class FullTextParser extends AbstractParser {
                 LOGGER.info("Could not build the bibliographical matcher", e);
             }
         }
-		boolean endblock;
-        boolean endPage = true;
-        boolean newPage = true;
-        //boolean start = true;
-        int mm = 0; // page position
-        int nn = 0; // document position
-        double lineStartX = Double.NaN;
-		boolean indented = false;
-        int fulltextLength = 0;
-        int pageLength = 0; // length of the current page
-		double lowestPos = 0.0;
-		double spacingPreviousBlock = 0.0;
-		int currentPage = 0;
 
-		List<LayoutToken> layoutTokens = new ArrayList<LayoutToken>();
-		fulltextLength = getFulltextLength(doc, documentBodyParts, fulltextLength);
+		int fulltextLength = getFulltextLength(doc, documentBodyParts, 0);
 
 //System.out.println("fulltextLength: " + fulltextLength);
 
+		// the features local to a page are computed independently for each page, possibly
+		// in parallel, the features depending on the previous pages are then set in order
+		List<List<BodyBlock>> pagesBlocks = getBodyBlocksByPage(doc, documentBodyParts);
+		boolean parallel = PageTasks.isParallel(pagesBlocks.size());
+		final ReferenceMarkerMatcher matcher = referenceMarkerMatcher;
+		final String calloutType = bibRefCalloutType;
+		List<PageTokens> pagesTokens = PageTasks.map(pagesBlocks,
+			pageBlocks -> getPageTokensFeatured(doc, pageBlocks, matcher, calloutType), parallel);
+		linkPagesTokens(pagesTokens, fulltextLength);
+
+		List<StringBuilder> pagesVectors = PageTasks.map(pagesTokens, pageTokens -> {
+			StringBuilder pageVectors = new StringBuilder();
+			for (TokenFeatures tokenFeatures : pageTokens.tokens) {
+				tokenFeatures.features.printVector(pageVectors);
+			}
+			return pageVectors;
+		}, parallel);
+
+        StringBuilder fulltext = new StringBuilder();
+		List<LayoutToken> layoutTokens = new ArrayList<LayoutToken>();
+		for (int i = 0; i < pagesTokens.size(); i++) {
+			fulltext.append(pagesVectors.get(i));
+			layoutTokens.addAll(pagesTokens.get(i).layoutTokens);
+		}
+
+        return Pair.of(fulltext.toString(),
+            new LayoutTokenization(layoutTokens));
+	}
+
+	/**
+	 * A block of the body, the first and last blocks of a document piece can be partial
+	 */
+	private static class BodyBlock {
+		final DocumentPointer dp1;
+		final DocumentPointer dp2;
+		final int blockIndex;
+
+		BodyBlock(DocumentPointer dp1, DocumentPointer dp2, int blockIndex) {
+			this.dp1 = dp1;
+			this.dp2 = dp2;
+			this.blockIndex = blockIndex;
+		}
+	}
+
+	/**
+	 * Features of a token which only depend on its page, with what is needed to complete
+	 * them once the previous pages are processed
+	 */
+	private static class TokenFeatures {
+		FeaturesVectorFulltext features;
+		// the token starts a line, closing the line of the previous token
+		boolean lineStart;
+		// the token follows a new line, its indentation is compared to the previous line
+		boolean indentCheck;
+		// position of the token in the page
+		int pagePosition;
+	}
+
+	private static class PageTokens {
+		final List<TokenFeatures> tokens = new ArrayList<>();
+		final List<LayoutToken> layoutTokens = new ArrayList<>();
+		// length of the page, in characters
+		int length = 0;
+	}
+
+	/**
+	 * Group the blocks of the document pieces by page, in document order
+	 */
+	private static List<List<BodyBlock>> getBodyBlocksByPage(Document doc, SortedSet<DocumentPiece> documentBodyParts) {
+		List<List<BodyBlock>> pagesBlocks = new ArrayList<>();
+		List<BodyBlock> pageBlocks = null;
+		int currentPage = -1;
 		for(DocumentPiece docPiece : documentBodyParts) {
 			DocumentPointer dp1 = docPiece.getLeft();
 			DocumentPointer dp2 = docPiece.getRight();
-
-			//int blockPos = dp1.getBlockPtr();
 			for(int blockIndex = dp1.getBlockPtr(); blockIndex <= dp2.getBlockPtr(); blockIndex++) {
-//System.out.println("blockIndex: " + blockIndex);			
+				int localPage = doc.getBlocks().get(blockIndex).getPage().getNumber();
+				if ((pageBlocks == null) || (localPage != currentPage)) {
+					pageBlocks = new ArrayList<>();
+					pagesBlocks.add(pageBlocks);
+					currentPage = localPage;
+				}
+				pageBlocks.add(new BodyBlock(dp1, dp2, blockIndex));
+			}
+		}
+		return pagesBlocks;
+	}
+
+	private static PageTokens getPageTokensFeatured(Document doc,
+													List<BodyBlock> pageBlocks,
+													ReferenceMarkerMatcher referenceMarkerMatcher,
+													String bibRefCalloutType) {
+		FeatureFactory featureFactory = FeatureFactory.getInstance();
+		List<Block> blocks = doc.getBlocks();
+		PageTokens pageTokens = new PageTokens();
+		List<LayoutToken> layoutTokens = pageTokens.layoutTokens;
+
+        // vector for features
+        FeaturesVectorFulltext features;
+        FeaturesVectorFulltext previousFeatures = null;
+
+		boolean endblock;
+        int mm = 0; // page position
+        int pageLength = 0; // length of the current page
+		double lowestPos = 0.0;
+		double spacingPreviousBlock = 0.0;
+
+		for(BodyBlock bodyBlock : pageBlocks) {
+			DocumentPointer dp1 = bodyBlock.dp1;
+			DocumentPointer dp2 = bodyBlock.dp2;
+			int blockIndex = bodyBlock.blockIndex;
+
                 boolean graphicVector = false;
 	    		boolean graphicBitmap = false;
             	Block block = blocks.get(blockIndex);
             	// length of the page where the current block is
             	double pageHeight = block.getPage().getHeight();
-				int localPage = block.getPage().getNumber();
-				if (localPage != currentPage) {
-					newPage = true;
-					currentPage = localPage;
-	                mm = 0;
-					lowestPos = 0.0;
-					spacingPreviousBlock = 0.0;
-				} 
-
-	            /*if (start) {
-	                newPage = true;
-	                start = false;
-	            }*/
 
 	            boolean newline;
 	            boolean previousNewline = false;
 	            endblock = false;
 
-	            /*if (endPage) {
-	                newPage = true;
-	                mm = 0;
-					lowestPos = 0.0;
-	            }*/
-
                 if (lowestPos >  block.getY()) {
                     // we have a vertical shift, which can be due to a change of column or other particular layout formatting 
                     spacingPreviousBlock = doc.getMaxBlockSpacing() / 5.0; // default
@@ -572,16 +784,6 @@ public class FullTextParser extends AbstractParser {
                 if (TextUtilities.filterLine(localText)) {
                     continue;
                 }
-	            /*if (localText != null) {
-	                if (localText.contains("@PAGE")) {
-	                    mm = 0;
-	                    // pageLength = 0;
-	                    endPage = true;
-	                    newPage = false;
-	                } else {
-	                    endPage = false;
-	                }
-	            }*/
 
                 // character density of the block
                 double density = 0.0;
@@ -651,7 +853,6 @@ public class FullTextParser extends AbstractParser {
 	                if (text.length() == 0) {
 	                    n++;
 	                    mm++;
-	                    nn++;
 	                    continue;
 	                }
 
@@ -660,7 +861,6 @@ public class FullTextParser extends AbstractParser {
 	                    previousNewline = true;
 	                    n++;
 	                    mm++;
-	                    nn++;
 	                    continue;
 	                } else
 	                    newline = false;
@@ -672,23 +872,16 @@ public class FullTextParser extends AbstractParser {
 	                    continue;
 	                }
 
+					TokenFeatures tokenFeatures = new TokenFeatures();
+					tokenFeatures.features = features;
+					tokenFeatures.pagePosition = mm;
+
 	                if (previousNewline) {
 	                    newline = true;
 	                    previousNewline = false;
-						if ((token != null) && (previousFeatures != null)) {
-							double previousLineStartX = lineStartX;
-	                        lineStartX = token.getX();
-	                        double characterWidth = token.width / text.length();
-							if (!Double.isNaN(previousLineStartX)) {
-								if (previousLineStartX - lineStartX > characterWidth)
-	                                indented = false;
-	                            else if (lineStartX - previousLineStartX > characterWidth)
-	        					    indented = true;
-	        					// Indentation ends if line start is > 1 character width to the left of previous line start
-	        					// Indentation starts if line start is > 1 character width to the right of previous line start
-	                            // Otherwise indentation is unchanged
-							}
-						}
+	                    // the indentation depends on the start of the previous line, which can
+	                    // be on the previous page
+	                    tokenFeatures.indentCheck = true;
 	                }
 
 	                features.string = text;
@@ -702,8 +895,7 @@ public class FullTextParser extends AbstractParser {
 
 	                if (newline) {
 	                    features.lineStatus = "LINESTART";
-	                    if (token != null)
-		                    lineStartX = token.getX();
+	                    tokenFeatures.lineStart = true;
 		                // be sure that previous token is closing a line, except if it's a starting line
 	                    if (previousFeatures != null) {
 	                    	if (!previousFeatures.lineStatus.equals("LINESTART"))
@@ -733,22 +925,14 @@ public class FullTextParser extends AbstractParser {
                         features.punctType = "QUOTE";
                     }
 
-                    if (indented) {
-	                	features.alignmentStatus = "LINEINDENT";
-	                }
-	                else {
-	                	features.alignmentStatus = "ALIGNEDLEFT";
-	                }
-
 	                if (n == 0) {
 	                    features.lineStatus = "LINESTART";
+	                    tokenFeatures.lineStart = true;
 	                    // be sure that previous token is closing a line, except if it's a starting line
 	                    if (previousFeatures != null) {
 	                    	if (!previousFeatures.lineStatus.equals("LINESTART"))
 		                    	previousFeatures.lineStatus = "LINEEND";
 	                    }
-	                    if (token != null)
-		                    lineStartX = token.getX();
 	                    features.blockStatus = "BLOCKSTART";
 	                } else if (n == tokens.size() - 1) {
 	                    features.lineStatus = "LINEEND";
@@ -828,29 +1012,6 @@ public class FullTextParser extends AbstractParser {
 	                    features.digit = "ALLDIGIT";
 	                }
 
-	                if (currentFont == null) {
-	                    currentFont = token.getFont();
-	                    features.fontStatus = "NEWFONT";
-	                } else if (!currentFont.equals(token.getFont())) {
-	                    currentFont = token.getFont();
-	                    features.fontStatus = "NEWFONT";
-	                } else
-	                    features.fontStatus = "SAMEFONT";
-
-	                int newFontSize = (int) token.getFontSize();
-	                if (currentFontSize == -1) {
-	                    currentFontSize = newFontSize;
-	                    features.fontSize = "HIGHERFONT";
-	                } else if (currentFontSize == newFontSize) {
-	                    features.fontSize = "SAMEFONTSIZE";
-	                } else if (currentFontSize < newFontSize) {
-	                    features.fontSize = "HIGHERFONT";
-	                    currentFontSize = newFontSize;
-	                } else if (currentFontSize > newFontSize) {
-	                    features.fontSize = "LOWERFONT";
-	                    currentFontSize = newFontSize;
-	                }
-
 	                if (token.getBold())
 	                    features.bold = true;
 
@@ -866,8 +1027,6 @@ public class FullTextParser extends AbstractParser {
 	                if (features.punctType == null)
 	                    features.punctType = "NOPUNCT";
 
-	                features.relativeDocumentPosition = featureFactory
-	                        .linearScaling(nn, fulltextLength, NBBINS_POSITION);
 	                // System.out.println(mm + " / " + pageLength);
 	                features.relativePagePositionChar = featureFactory
 	                        .linearScaling(mm, pageLength, NBBINS_POSITION);
@@ -901,36 +1060,120 @@ public class FullTextParser extends AbstractParser {
                         features.superscript = true;
                     }
 
-	                // fulltext.append(features.printVector());
 	                if (previousFeatures != null) {
-						if (features.blockStatus.equals("BLOCKSTART") &&
-							previousFeatures.blockStatus.equals("BLOCKIN")) {
-							// this is a post-correction due to the fact that the last character of a block
-							// can be a space or EOL character
-							previousFeatures.blockStatus = "BLOCKEND";
-							previousFeatures.lineStatus = "LINEEND";
-						}
-                        fulltext.append(previousFeatures.printVector());
+						correctBlockEnd(features, previousFeatures);
                     }
 
 	                n++;
 	                mm += text.length();
-	                nn += text.length();
 	                previousFeatures = features;
+	                pageTokens.tokens.add(tokenFeatures);
             	}
                 // lowest position of the block
                 lowestPos = block.getY() + block.getHeight();
-
-            	//blockPos++;
-			}
         }
-        if (previousFeatures != null) {
-            fulltext.append(previousFeatures.printVector());
+		pageTokens.length = mm;
 
-        }
+		return pageTokens;
+	}
 
-        return Pair.of(fulltext.toString(),
-            new LayoutTokenization(layoutTokens));
+	/**
+	 * Set the features of the tokens depending on the previous pages: line closing and
+	 * block end correction of the last token of the previous page, indentation, font
+	 * changes and position in the document.
+	 */
+	private static void linkPagesTokens(List<PageTokens> pagesTokens, int fulltextLength) {
+		FeatureFactory featureFactory = FeatureFactory.getInstance();
+        String currentFont = null;
+        int currentFontSize = -1;
+        int nn = 0; // document position of the current page
+        double lineStartX = Double.NaN;
+		boolean indented = false;
+
+        FeaturesVectorFulltext previousFeatures = null;
+
+		for (PageTokens pageTokens : pagesTokens) {
+			boolean firstPageToken = true;
+			for (TokenFeatures tokenFeatures : pageTokens.tokens) {
+				FeaturesVectorFulltext features = tokenFeatures.features;
+				LayoutToken token = features.token;
+
+				if (tokenFeatures.indentCheck && (previousFeatures != null)) {
+					double previousLineStartX = lineStartX;
+					lineStartX = token.getX();
+					double characterWidth = token.width / features.string.length();
+					if (!Double.isNaN(previousLineStartX)) {
+						if (previousLineStartX - lineStartX > characterWidth)
+							indented = false;
+						else if (lineStartX - previousLineStartX > characterWidth)
+							indented = true;
+						// Indentation ends if line start is > 1 character width to the left of previous line start
+						// Indentation starts if line start is > 1 character width to the right of previous line start
+						// Otherwise indentation is unchanged
+					}
+				}
+				if (tokenFeatures.lineStart) {
+					lineStartX = token.getX();
+				}
+
+				if (indented) {
+					features.alignmentStatus = "LINEINDENT";
+				}
+				else {
+					features.alignmentStatus = "ALIGNEDLEFT";
+				}
+
+				if (firstPageToken && (previousFeatures != null)) {
+					// the first token of the page can close the line and the block of the
+					// last token of the previous page
+					if (tokenFeatures.lineStart && !previousFeatures.lineStatus.equals("LINESTART"))
+						previousFeatures.lineStatus = "LINEEND";
+					correctBlockEnd(features, previousFeatures);
+				}
+				firstPageToken = false;
+
+				if (currentFont == null) {
+					currentFont = token.getFont();
+					features.fontStatus = "NEWFONT";
+				} else if (!currentFont.equals(token.getFont())) {
+					currentFont = token.getFont();
+					features.fontStatus = "NEWFONT";
+				} else
+					features.fontStatus = "SAMEFONT";
+
+				int newFontSize = (int) token.getFontSize();
+				if (currentFontSize == -1) {
+					currentFontSize = newFontSize;
+					features.fontSize = "HIGHERFONT";
+				} else if (currentFontSize == newFontSize) {
+					features.fontSize = "SAMEFONTSIZE";
+				} else if (currentFontSize < newFontSize) {
+					features.fontSize = "HIGHERFONT";
+					currentFontSize = newFontSize;
+				} else if (currentFontSize > newFontSize) {
+					features.fontSize = "LOWERFONT";
+					currentFontSize = newFontSize;
+				}
+
+				features.relativeDocumentPosition = featureFactory
+						.linearScaling(nn + tokenFeatures.pagePosition, fulltextLength, NBBINS_POSITION);
+
+				previousFeatures = features;
+			}
+			nn += pageTokens.length;
+		}
+	}
+
+	/**
+	 * This is a post-correction due to the fact that the last character of a block
+	 * can be a space or EOL character
+	 */
+	private static void correctBlockEnd(FeaturesVectorFulltext features, FeaturesVectorFulltext previousFeatures) {
+		if (features.blockStatus.equals("BLOCKSTART") &&
+			previousFeatures.blockStatus.equals("BLOCKIN")) {
+			previousFeatures.blockStatus = "BLOCKEND";
+			previousFeatures.lineStatus = "LINEEND";
+		}
 	}
 
 	/**
@@ -1897,13 +2140,19 @@ public class FullTextParser extends AbstractParser {
 
         TaggingTokenClusteror clusteror = new TaggingTokenClusteror(GrobidModels.FULLTEXT, rese, layoutTokens, true);
 
+        // all the figures are labelled with a single call to the figure model
+        List<List<LayoutToken>> tokenizationFigures = new ArrayList<>();
+        List<String> featureBlocks = new ArrayList<>();
         for (TaggingTokenCluster cluster : Iterables.filter(clusteror.cluster(),
 				new TaggingTokenClusteror.LabelTypePredicate(TaggingLabels.FIGURE))) {
-            List<LayoutToken> tokenizationFigure = cluster.concatTokens();
-            Figure result = parsers.getFigureParser().processing(
-                    tokenizationFigure,
-                    cluster.getFeatureBlock()
-            );
+            tokenizationFigures.add(cluster.concatTokens());
+            featureBlocks.add(cluster.getFeatureBlock());
+        }
+        List<Figure> figures = parsers.getFigureParser().processing(tokenizationFigures, featureBlocks);
+
+        for (int i = 0; i < figures.size(); i++) {
+            List<LayoutToken> tokenizationFigure = tokenizationFigures.get(i);
+            Figure result = figures.get(i);
 			SortedSet<Integer> blockPtrs = new TreeSet<>();
 			for (LayoutToken lt : tokenizationFigure) {
 				if (!LayoutTokensUtil.spaceyToken(lt.t()) && !LayoutTokensUtil.newLineToken(lt.t())) {
@@ -2058,13 +2307,19 @@ public class FullTextParser extends AbstractParser {
 		List<Table> results = new ArrayList<>();
 		TaggingTokenClusteror clusteror = new TaggingTokenClusteror(GrobidModels.FULLTEXT, rese, tokenizations, true);
 
+		// all the tables are labelled with a single call to the table model
+		List<List<LayoutToken>> tokenizationTables = new ArrayList<>();
+		List<String> featureBlocks = new ArrayList<>();
 		for (TaggingTokenCluster cluster : Iterables.filter(clusteror.cluster(),
 				new TaggingTokenClusteror.LabelTypePredicate(TaggingLabels.TABLE))) {
-			List<LayoutToken> tokenizationTable = cluster.concatTokens();
-			Table result = parsers.getTableParser().processing(
-					tokenizationTable,
-					cluster.getFeatureBlock()
-			);
+			tokenizationTables.add(cluster.concatTokens());
+			featureBlocks.add(cluster.getFeatureBlock());
+		}
+		List<Table> tables = parsers.getTableParser().processing(tokenizationTables, featureBlocks);
+
+		for (int i = 0; i < tables.size(); i++) {
+			List<LayoutToken> tokenizationTable = tokenizationTables.get(i);
+			Table result = tables.get(i);
 
 			SortedSet<Integer> blockPtrs = new TreeSet<>();
 			for (LayoutToken lt : tokenizationTable) {
@@ -2287,18 +2542,48 @@ public class FullTextParser extends AbstractParser {
                        List<Table> tables,
                        List<Equation> equations,
                        GrobidAnalysisConfig config) {
+        StringBuilderWriter tei = new StringBuilderWriter();
+        if (toTEI(doc, reseBody, reseAnnex, layoutTokenization, tokenizationsAnnex, resHeader,
+                figures, tables, equations, config, tei)) {
+			doc.setTei(tei.toString());
+		}
+
+		//TODO: reevaluate
+//		doc.setTei(
+//				XmlBuilderUtils.toPrettyXml(
+//						XmlBuilderUtils.fromString(tei.toString())
+//				)
+//		);
+	}
+
+    /**
+     * Write the TEI representation of a document based on the parsed header, references
+     * and body sections. The TEI is written part by part as soon as each part is built:
+     * header, body text, each figure, table and note, acknowledgement, annex and then each
+     * bibliographical reference, so that the complete TEI is never held in memory.
+     *
+     * @return false if the document has no content and nothing was written
+     */
+    private boolean toTEI(Document doc,
+                          String reseBody,
+                          String reseAnnex,
+                          LayoutTokenization layoutTokenization,
+                          List<LayoutToken> tokenizationsAnnex,
+                          BiblioItem resHeader,
+                          List<Figure> figures,
+                          List<Table> tables,
+                          List<Equation> equations,
+                          GrobidAnalysisConfig config,
+                          Writer tei) {
         if (doc.getBlocks() == null) {
-            return;
+            return false;
         }
         List<BibDataSet> resCitations = doc.getBibDataSets();
         TEIFormatter teiFormatter = new TEIFormatter(doc, this);
-        StringBuilder tei;
         try {
-            tei = teiFormatter.toTEIHeader(resHeader, null, resCitations, config);
+            tei.append(teiFormatter.toTEIHeader(resHeader, null, resCitations, config));
 
-			//System.out.println(rese);
-            //int mode = config.getFulltextProcessingMode();
-			tei = teiFormatter.toTEIBody(tei, reseBody, resHeader, resCitations,
+			teiFormatter.toTEIBody(tei, reseBody, resHeader, resCitations,
 					layoutTokenization, figures, tables, equations, doc, config);
 
 			tei.append("\t\t<back>\n");
@@ -2317,31 +2602,25 @@ public class FullTextParser extends AbstractParser {
 				String reseAcknowledgement = null;
 				if ( (acknowledgementText != null) && (acknowledgementText.length() >0) )
 					reseAcknowledgement = label(acknowledgementText);
-				tei = teiFormatter.toTEIAcknowledgement(tei, reseAcknowledgement,
+				teiFormatter.toTEIAcknowledgement(tei, reseAcknowledgement,
 					tokenizationsAcknowledgement, resCitations, config);
 			}
 
-			tei = teiFormatter.toTEIAnnex(tei, reseAnnex, resHeader, resCitations,
+			teiFormatter.toTEIAnnex(tei, reseAnnex, resHeader, resCitations,
 				tokenizationsAnnex, doc, config);
 
-			tei = teiFormatter.toTEIReferences(tei, resCitations, config);
+			teiFormatter.toTEIReferences(tei, resCitations, config);
             doc.calculateTeiIdToBibDataSets();
 
             tei.append("\t\t</back>\n");
 
             tei.append("\t</text>\n");
             tei.append("</TEI>\n");
+            tei.flush();
         } catch (Exception e) {
             throw new GrobidException("An exception occurred while running Grobid.", e);
         }
-		doc.setTei(tei.toString());
-
-		//TODO: reevaluate
-//		doc.setTei(
-//				XmlBuilderUtils.toPrettyXml(
-//						XmlBuilderUtils.fromString(tei.toString())
-//				)
-//		);
+        return true;
 	}
 
 	private static List<TaggingLabel> inlineFullTextLabels = Arrays.asList(TaggingLabels.CITATION_MARKER, TaggingLabels.TABLE_MARKER, 
@@ -0,0 +1,214 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.BiblioItem;
+import org.grobid.core.document.Document;
+import org.grobid.core.document.DocumentSource;
+import org.grobid.core.engines.config.GrobidAnalysisConfig;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.utilities.GrobidProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staged version of {@link FullTextParser#processing(DocumentSource, GrobidAnalysisConfig)}.
+ *
+ * pdfalto conversion, ALTO loading, segmentation, header, references, body and TEI
+ * serialization each run on their own pool of worker threads, fed by a bounded queue.
+ * Several documents are then processed at the same time at different stages, and the
+ * slowest stages (usually the fulltext and citation models) can be given more threads
+ * than the others. The number of threads per stage is set in grobid.properties with the
+ * keys grobid.pipeline.threads.[stage name], the queue capacity with
+ * grobid.pipeline.queue.size.
+ *
+ * When a stage queue is full, the thread handing over a document waits, so that the
+ * number of documents in memory stays bounded.
+ */
+public class FullTextPipeline implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FullTextPipeline.class);
+
+    public enum Stage {
+        PDFALTO("pdfalto"),
+        ALTO("alto"),
+        SEGMENTATION("segmentation"),
+        HEADER("header"),
+        CITATION("citation"),
+        FULLTEXT("fulltext"),
+        TEI("tei");
+
+        private final String name;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final EngineParsers parsers;
+    private final Map<Stage, ThreadPoolExecutor> executors = new EnumMap<>(Stage.class);
+
+    /**
+     * @param parsers the parsers shared by all the worker threads, the parsers are
+     * stateless and the underlying taggers are shared anyway through TaggerFactory
+     */
+    public FullTextPipeline(EngineParsers parsers) {
+        this.parsers = parsers;
+        int queueSize = GrobidProperties.getPipelineQueueSize();
+        for (Stage stage : Stage.values()) {
+            int nbThreads = GrobidProperties.getPipelineStageThreads(stage.getName());
+            executors.put(stage, newStageExecutor(stage, nbThreads, queueSize));
+            LOGGER.debug("Pipeline stage " + stage.getName() + ": " + nbThreads + " thread(s)");
+        }
+    }
+
+    /**
+     * Pipeline with the same number of threads for every stage
+     */
+    FullTextPipeline(EngineParsers parsers, int nbThreads, int queueSize) {
+        this.parsers = parsers;
+        for (Stage stage : Stage.values()) {
+            executors.put(stage, newStageExecutor(stage, nbThreads, queueSize));
+        }
+    }
+
+    private static ThreadPoolExecutor newStageExecutor(Stage stage, int nbThreads, int queueSize) {
+        AtomicInteger count = new AtomicInteger(0);
+        return new ThreadPoolExecutor(nbThreads, nbThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            r -> {
+                Thread t = Executors.defaultThreadFactory().newThread(r);
+                t.setName("grobid-" + stage.getName() + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new BlockWhenFullPolicy());
+    }
+
+    /**
+     * Back pressure: the submitting thread waits for a free slot in the stage queue
+     * instead of dropping the document.
+     */
+    private static class BlockWhenFullPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Pipeline stage has been shut down");
+            }
+            try {
+                executor.getQueue().put(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for a pipeline stage", e);
+            }
+        }
+    }
+
+    /**
+     * Submit a PDF file to the pipeline.
+     *
+     * @return a future completed with the document with built TEI
+     */
+    public CompletableFuture<Document> submit(File inputPdf, GrobidAnalysisConfig config) {
+        return CompletableFuture
+            .supplyAsync(() -> DocumentSource.fromPdf(inputPdf, config.getStartPage(), config.getEndPage(),
+                config.getPdfAssetPath() != null, true, false), executors.get(Stage.PDFALTO))
+            .thenCompose(documentSource -> submit(documentSource, config));
+    }
+
+    /**
+     * Submit an already converted document source to the pipeline. The document source
+     * is closed once the segmentation stage is done or if the processing fails before.
+     *
+     * @return a future completed with the document with built TEI
+     */
+    public CompletableFuture<Document> submit(DocumentSource documentSource, GrobidAnalysisConfig config) {
+        FullTextParser fullTextParser = parsers.getFullTextParser();
+        Segmentation segmentation = parsers.getSegmentationParser();
+
+        CompletableFuture<Document> segmented = CompletableFuture
+            .supplyAsync(() -> segmentation.tokenize(documentSource, config), executors.get(Stage.ALTO))
+            .thenApplyAsync(doc -> segmentation.processing(documentSource, doc, config), executors.get(Stage.SEGMENTATION))
+            .whenComplete((doc, e) -> DocumentSource.close(documentSource, true, true, true));
+
+        return segmented
+            .thenApplyAsync(doc -> new StagedDocument(doc, fullTextParser.processingHeaderStage(doc, config)),
+                executors.get(Stage.HEADER))
+            .thenApplyAsync(staged -> {
+                fullTextParser.processingReferenceStage(staged.doc, config);
+                return staged;
+            }, executors.get(Stage.CITATION))
+            .thenApplyAsync(staged -> {
+                staged.body = fullTextParser.processingBodyStage(staged.doc, config);
+                return staged;
+            }, executors.get(Stage.FULLTEXT))
+            .thenApplyAsync(staged -> fullTextParser.processingTEIStage(staged.doc, staged.resHeader, staged.body, config),
+                executors.get(Stage.TEI));
+    }
+
+    /**
+     * Blocking processing of a PDF file through the pipeline, with the same contract as
+     * {@link FullTextParser#processing(File, GrobidAnalysisConfig)}.
+     */
+    public Document processing(File inputPdf, GrobidAnalysisConfig config) {
+        try {
+            return submit(inputPdf, config).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GrobidException) {
+                throw (GrobidException) e.getCause();
+            }
+            throw new GrobidException("An exception occurred while running Grobid.", e.getCause());
+        }
+    }
+
+    /**
+     * Number of documents currently waiting in front of the given stage.
+     */
+    public int getQueueSize(Stage stage) {
+        return executors.get(stage).getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : executors.values()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Intermediary results of a document passed from one stage to the next.
+     */
+    private static class StagedDocument {
+        private final Document doc;
+        private final BiblioItem resHeader;
+        private FullTextParser.BodyResult body;
+
+        StagedDocument(Document doc, BiblioItem resHeader) {
+            this.doc = doc;
+            this.resHeader = resHeader;
+        }
+    }
+}
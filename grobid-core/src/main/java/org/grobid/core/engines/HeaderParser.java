@@ -778,7 +778,7 @@ public class HeaderParser extends AbstractParser {
                     }
 
                     if (previousFeatures != null)
-                        header.append(previousFeatures.printVector());
+                        previousFeatures.printVector(header);
                     previousFeatures = features;
 
                     n++;
@@ -787,7 +787,7 @@ public class HeaderParser extends AbstractParser {
                 if (previousFeatures != null) {
                     previousFeatures.blockStatus = "BLOCKEND";
                     previousFeatures.lineStatus = "LINEEND";
-                    header.append(previousFeatures.printVector());
+                    previousFeatures.printVector(header);
                     previousFeatures = null;
                 }
             }
@@ -596,8 +596,7 @@ public class MonographParser extends AbstractParser {
                     }
 
                     if (previousFeatures != null) {
-                        String vector = previousFeatures.printVector();
-                        fulltext.append(vector);
+                        previousFeatures.printVector(fulltext);
                     }
                     previousFeatures = features;
                 }
@@ -616,7 +615,7 @@ public class MonographParser extends AbstractParser {
             }
         }
         if (previousFeatures != null)
-            fulltext.append(previousFeatures.printVector());
+            previousFeatures.printVector(fulltext);
 
         return fulltext.toString();
     }
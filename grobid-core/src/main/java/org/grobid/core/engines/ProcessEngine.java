@@ -16,13 +16,19 @@ import org.grobid.core.document.DocumentSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 
@@ -151,6 +157,94 @@ public class ProcessEngine implements Closeable {
         }
     }
 
+    /**
+     * Process the full text using pGbdArgs parameters with the staged pipeline: documents
+     * are processed concurrently, each stage having its own number of threads as set in
+     * grobid.properties (grobid.pipeline.threads.*).
+     *
+     * @param pGbdArgs The parameters.
+     * @throws Exception
+     */
+    public void processFullTextPipeline(final GrobidMainArgs pGbdArgs) throws Exception {
+        inferPdfInputPath(pGbdArgs);
+        inferOutputPath(pGbdArgs);
+        final File pdfDirectory = new File(pGbdArgs.getPath2Input());
+        File[] files = pdfDirectory.listFiles();
+        if (files == null) {
+            LOGGER.warn("No files in directory: " + pdfDirectory);
+        } else {
+            List<String> elementCoordinates = null;
+            if (pGbdArgs.getTeiCoordinates()) {
+                elementCoordinates = Arrays.asList("figure", "persName", "ref", "biblStruct", "formula", "s");
+            }
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            try (FullTextPipeline pipeline = new FullTextPipeline(getEngine().getParsers())) {
+                submitFullTextDirectory(pipeline, files, pGbdArgs, pGbdArgs.getPath2Output(), pGbdArgs.getSaveAssets(),
+                    elementCoordinates, pGbdArgs.getSegmentSentences(), futures);
+                // each future is completed with false when its file failed, the failure being logged
+                int nbFailures = 0;
+                for (CompletableFuture<Boolean> future : futures) {
+                    if (!future.join()) {
+                        nbFailures++;
+                    }
+                }
+                if (nbFailures > 0) {
+                    LOGGER.error(nbFailures + " of the " + futures.size() + " PDF files could not be processed, see the errors above");
+                }
+            }
+            System.out.println(Engine.getCntManager());
+        }
+    }
+
+    private void submitFullTextDirectory(FullTextPipeline pipeline,
+                                         File[] files,
+                                         final GrobidMainArgs pGbdArgs,
+                                         String outputPath,
+                                         boolean saveAssets,
+                                         List<String> elementCoordinates,
+                                         boolean segmentSentences,
+                                         List<CompletableFuture<Boolean>> futures) {
+        boolean recurse = pGbdArgs.isRecursive();
+        for (final File currPdf : files) {
+            if (currPdf.getName().toLowerCase().endsWith(".pdf")) {
+                System.out.println("Processing: " + currPdf.getPath());
+                String baseName = currPdf.getName().replace(".pdf", "").replace(".PDF", "");
+                GrobidAnalysisConfig.GrobidAnalysisConfigBuilder builder = GrobidAnalysisConfig.builder()
+                        .generateTeiCoordinates(elementCoordinates)
+                        .withSentenceSegmentation(segmentSentences);
+                if (saveAssets) {
+                    builder.pdfAssetPath(new File(outputPath + File.separator + baseName + "_assets"));
+                }
+                futures.add(pipeline.submit(currPdf, builder.build())
+                    .thenAccept(doc -> {
+                        File outputPathFile = new File(outputPath);
+                        if (!outputPathFile.exists()) {
+                            outputPathFile.mkdirs();
+                        }
+                        try {
+                            IOUtilities.writeInFile(outputPath + File.separator + baseName + ".tei.xml", doc.getTei());
+                        } catch (IOException e) {
+                            throw new GrobidResourceException("Cannot write the TEI result for " + currPdf.getAbsolutePath(), e);
+                        }
+                    })
+                    .handle((v, e) -> {
+                        if (e != null) {
+                            LOGGER.error("An error occured while processing the file " + currPdf.getAbsolutePath()
+                                    + ". Continuing the process for the other files", e);
+                            return false;
+                        }
+                        return true;
+                    }));
+            } else if (recurse && currPdf.isDirectory()) {
+                File[] newFiles = currPdf.listFiles();
+                if (newFiles != null) {
+                    submitFullTextDirectory(pipeline, newFiles, pGbdArgs, outputPath + File.separator + currPdf.getName(),
+                        saveAssets, elementCoordinates, segmentSentences, futures);
+                }
+            }
+        }
+    }
+
     /**
      * Process the full text recursively or not using pGbdArgs parameters.
      *
@@ -166,7 +260,6 @@ public class ProcessEngine implements Closeable {
                                           boolean segmentSentences) {
         if (files != null) {
             boolean recurse = pGbdArgs.isRecursive();
-            String result;
             for (final File currPdf : files) {
                 try {
                     if (currPdf.getName().toLowerCase().endsWith(".pdf")) {
@@ -186,19 +279,29 @@ public class ProcessEngine implements Closeable {
                                     .generateTeiCoordinates(elementCoordinates)
                                     .withSentenceSegmentation(segmentSentences)
                                     .build();
-                        result = getEngine().fullTextToTEI(currPdf, config);
                         File outputPathFile = new File(outputPath);
                         if (!outputPathFile.exists()) {
                             outputPathFile.mkdir();
                         }
+                        String teiName;
                         if (currPdf.getName().endsWith(".pdf")) {
-                            IOUtilities.writeInFile(outputPath + File.separator
-                                    + new File(currPdf.getAbsolutePath())
-                                    .getName().replace(".pdf", ".tei.xml"), result.toString());
+                            teiName = currPdf.getName().replace(".pdf", ".tei.xml");
                         } else if (currPdf.getName().endsWith(".PDF")) {
-                            IOUtilities.writeInFile(outputPath + File.separator
-                                    + new File(currPdf.getAbsolutePath())
-                                    .getName().replace(".PDF", ".tei.xml"), result.toString());
+                            teiName = currPdf.getName().replace(".PDF", ".tei.xml");
+                        } else {
+                            teiName = currPdf.getName() + ".tei.xml";
+                        }
+                        // the TEI is written to the file part by part while it is built
+                        File teiFile = new File(outputPath + File.separator + teiName);
+                        boolean written = false;
+                        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                                new FileOutputStream(teiFile), StandardCharsets.UTF_8))) {
+                            written = getEngine().fullTextToTEI(currPdf, config, writer);
+                        } finally {
+                            if (!written) {
+                                // no partial or empty result file
+                                teiFile.delete();
+                            }
                         }
                     } else if (recurse && currPdf.isDirectory()) {
                         File[] newFiles = currPdf.listFiles();
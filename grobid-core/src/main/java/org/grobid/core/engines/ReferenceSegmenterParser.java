@@ -779,13 +779,13 @@ System.out.println("");
 				features.punctuationProfile = currentLineProfile;
 
                 if (previousFeatures != null)
-                    citations.append(previousFeatures.printVector());
+                    previousFeatures.printVector(citations);
                 //mm++;
                 previousFeatures = features;
 			}
 		}
 		if (previousFeatures != null)
-	      	citations.append(previousFeatures.printVector());
+	      	previousFeatures.printVector(citations);
 
 	   	return Pair.of(citations.toString(), tokenizationsReferences);
 	}
@@ -11,6 +11,7 @@ import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.exceptions.GrobidExceptionStatus;
 import org.grobid.core.features.FeatureFactory;
 import org.grobid.core.features.FeaturesVectorSegmentation;
+import org.grobid.core.features.PageTasks;
 import org.grobid.core.layout.*;
 import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.LanguageUtilities;
@@ -88,20 +89,8 @@ public class Segmentation extends AbstractParser {
      */
     public Document processing(DocumentSource documentSource, GrobidAnalysisConfig config) {
         try {
-            Document doc = new Document(documentSource);
-            if (config.getAnalyzer() != null)
-                doc.setAnalyzer(config.getAnalyzer());
-            doc.addTokenizedDocument(config);
-            doc = prepareDocument(doc);
-
-            // if assets is true, the images are still there under directory pathXML+"_data"
-            // we copy them to the assetPath directory
-
-            File assetFile = config.getPdfAssetPath();
-            if (assetFile != null) {
-                dealWithImages(documentSource, doc, assetFile, config);
-            }
-            return doc;
+            Document doc = tokenize(documentSource, config);
+            return processing(documentSource, doc, config);
         } finally {
             // keep it clean when leaving...
             /*if (config.getPdfAssetPath() == null) {
@@ -114,6 +103,42 @@ public class Segmentation extends AbstractParser {
         }
     }
 
+    /**
+     * Load the ALTO representation of a document source into a tokenized Document, 
+     * without applying the segmentation model. The document source is not closed.
+     *
+     * @param documentSource     document source
+     * @return tokenized Document object
+     */
+    public Document tokenize(DocumentSource documentSource, GrobidAnalysisConfig config) {
+        Document doc = new Document(documentSource);
+        if (config.getAnalyzer() != null)
+            doc.setAnalyzer(config.getAnalyzer());
+        doc.addTokenizedDocument(config);
+        return doc;
+    }
+
+    /**
+     * Apply the segmentation model to an already tokenized document and copy the 
+     * possible assets. The document source is not closed.
+     *
+     * @param documentSource     document source
+     * @param doc                tokenized document, see {@link #tokenize(DocumentSource, GrobidAnalysisConfig)}
+     * @return Document object with segmentation information
+     */
+    public Document processing(DocumentSource documentSource, Document doc, GrobidAnalysisConfig config) {
+        doc = prepareDocument(doc);
+
+        // if assets is true, the images are still there under directory pathXML+"_data"
+        // we copy them to the assetPath directory
+
+        File assetFile = config.getPdfAssetPath();
+        if (assetFile != null) {
+            dealWithImages(documentSource, doc, assetFile, config);
+        }
+        return doc;
+    }
+
     public Document processing(String text) {
         Document doc = Document.createFromText(text);
         return prepareDocument(doc);
@@ -291,358 +316,383 @@ public class Segmentation extends AbstractParser {
 
     private String getFeatureVectorsAsString(Document doc, Map<String, Integer> patterns,
                                      Map<String, Boolean> firstTimePattern) {
+        // the features local to a page are computed independently for each page, possibly
+        // in parallel, the features depending on the previous pages are then set in order
+        boolean parallel = PageTasks.isParallel(doc.getPages().size());
+        List<List<LineFeatures>> pagesLines = PageTasks.map(doc.getPages(),
+            page -> getPageLinesFeatured(doc, page, patterns), parallel);
+        linkPagesLines(doc, pagesLines, firstTimePattern);
+
+        List<StringBuilder> pagesVectors = PageTasks.map(pagesLines, pageLines -> {
+            StringBuilder pageVectors = new StringBuilder();
+            for (LineFeatures lineFeatures : pageLines) {
+                if (lineFeatures.kept)
+                    lineFeatures.features.printVector(pageVectors);
+            }
+            return pageVectors;
+        }, parallel);
+
         StringBuilder fulltext = new StringBuilder();
-        int documentLength = doc.getDocumentLenghtChar();
+        for (StringBuilder pageVectors : pagesVectors) {
+            fulltext.append(pageVectors);
+        }
+        return fulltext.toString();
+    }
 
-        String currentFont = null;
-        int currentFontSize = -1;
+    /**
+     * Features of a line which only depend on its page, with what is needed to complete
+     * them once the previous pages are processed
+     */
+    private static class LineFeatures {
+        FeaturesVectorSegmentation features;
+        // index of the line in its block and number of lines of the block
+        int lineIndex;
+        int nbLines;
+        // position of the block of the line in the page
+        int pagePosition;
+        // repetitive pattern of the line, the first line having it in the document is flagged
+        String pattern;
+        // false if the line is filtered out, it is then only kept for its pattern
+        boolean kept;
+    }
+
+    private List<LineFeatures> getPageLinesFeatured(Document doc, Page page, Map<String, Integer> patterns) {
+        List<LineFeatures> pageLines = new ArrayList<>();
 
-        boolean newPage;
-        boolean start = true;
         int mm = 0; // page position
-        int nn = 0; // document position
         int pageLength = 0; // length of the current page
         double pageHeight = 0.0;
 
         // vector for features
         FeaturesVectorSegmentation features;
-        FeaturesVectorSegmentation previousFeatures = null;
 
-        for (Page page : doc.getPages()) {
-            pageHeight = page.getHeight();
-            newPage = true;
-            double spacingPreviousBlock = 0.0; // discretized
-            double lowestPos = 0.0;
-            pageLength = page.getPageLengthChar();
-            BoundingBox pageBoundingBox = page.getMainArea();
-            mm = 0;
-            //endPage = true;
-            
-            if ((page.getBlocks() == null) || (page.getBlocks().size() == 0)) 
-                continue;
+        pageHeight = page.getHeight();
+        double spacingPreviousBlock = 0.0; // discretized
+        double lowestPos = 0.0;
+        pageLength = page.getPageLengthChar();
+        BoundingBox pageBoundingBox = page.getMainArea();
 
-            for(int blockIndex=0; blockIndex < page.getBlocks().size(); blockIndex++) {
-                Block block = page.getBlocks().get(blockIndex);
-                /*if (start) {
-                    newPage = true;
-                    start = false;
-                }*/
-                boolean graphicVector = false;
-                boolean graphicBitmap = false;
-                
-                boolean lastPageBlock = false;
-                boolean firstPageBlock = false;
-                if (blockIndex == page.getBlocks().size()-1) {        
-                    lastPageBlock = true;
-                }
-                
-                if (blockIndex == 0) {
-                    firstPageBlock = true;
+        if ((page.getBlocks() == null) || (page.getBlocks().size() == 0))
+            return pageLines;
+
+        for(int blockIndex=0; blockIndex < page.getBlocks().size(); blockIndex++) {
+            Block block = page.getBlocks().get(blockIndex);
+            boolean graphicVector = false;
+            boolean graphicBitmap = false;
+
+            boolean lastPageBlock = false;
+            boolean firstPageBlock = false;
+            if (blockIndex == page.getBlocks().size()-1) {
+                lastPageBlock = true;
+            }
+
+            if (blockIndex == 0) {
+                firstPageBlock = true;
+            }
+
+            // check if we have a graphical object connected to the current block
+            List<GraphicObject> localImages = Document.getConnectedGraphics(block, doc);
+            if (localImages != null) {
+                for(GraphicObject localImage : localImages) {
+                    if (localImage.getType() == GraphicObjectType.BITMAP)
+                        graphicBitmap = true;
+                    if (localImage.getType() == GraphicObjectType.VECTOR)
+                        graphicVector = true;
                 }
-                
-                //endblock = false;
-
-                /*if (endPage) {
-                    newPage = true;
-                    mm = 0;
-                }*/
-
-                // check if we have a graphical object connected to the current block
-                List<GraphicObject> localImages = Document.getConnectedGraphics(block, doc);
-                if (localImages != null) {
-                    for(GraphicObject localImage : localImages) {
-                        if (localImage.getType() == GraphicObjectType.BITMAP)
-                            graphicBitmap = true;
-                        if (localImage.getType() == GraphicObjectType.VECTOR)
-                            graphicVector = true;
+            }
+
+            if (lowestPos >  block.getY()) {
+                // we have a vertical shift, which can be due to a change of column or other particular layout formatting 
+                spacingPreviousBlock = doc.getMaxBlockSpacing() / 5.0; // default
+            } else
+                spacingPreviousBlock = block.getY() - lowestPos;
+
+            String localText = block.getText();
+            if (localText == null)
+                continue;
+
+            // character density of the block
+            double density = 0.0;
+            if ( (block.getHeight() != 0.0) && (block.getWidth() != 0.0) && 
+                 (block.getText() != null) && (!block.getText().contains("@PAGE")) && 
+                 (!block.getText().contains("@IMAGE")) )
+                density = (double)block.getText().length() / (block.getHeight() * block.getWidth());
+
+            // is the current block in the main area of the page or not?
+            boolean inPageMainArea = true;
+            BoundingBox blockBoundingBox = BoundingBox.fromPointAndDimensions(page.getNumber(), 
+                block.getX(), block.getY(), block.getWidth(), block.getHeight());
+            if (pageBoundingBox == null || (!pageBoundingBox.contains(blockBoundingBox) && !pageBoundingBox.intersect(blockBoundingBox)))
+                inPageMainArea = false;
+
+            String[] lines = localText.split("[\\n\\r]");
+            // set the max length of the lines in the block, in number of characters
+            int maxLineLength = 0;
+            for(int p=0; p<lines.length; p++) {
+                if (lines[p].length() > maxLineLength) 
+                    maxLineLength = lines[p].length();
+            }
+            List<LayoutToken> tokens = block.getTokens();
+            if ((tokens == null) || (tokens.size() == 0)) {
+                continue;
+            }
+            for (int li = 0; li < lines.length; li++) {
+                String line = lines[li];
+
+                // for the layout information of the block, we take simply the first layout token
+                LayoutToken token = null;
+                if (tokens.size() > 0)
+                    token = tokens.get(0);
+
+                double coordinateLineY = token.getY();
+
+                features = new FeaturesVectorSegmentation();
+                features.token = token;
+                features.line = line;
+
+                LineFeatures lineFeatures = new LineFeatures();
+                lineFeatures.features = features;
+                lineFeatures.lineIndex = li;
+                lineFeatures.nbLines = lines.length;
+                lineFeatures.pagePosition = mm;
+
+                if ( (blockIndex < 2) || (blockIndex > page.getBlocks().size()-2)) {
+                    String pattern = featureFactory.getPattern(line);
+                    Integer nb = patterns.get(pattern);
+                    if ((nb != null) && (nb > 1)) {
+                        features.repetitivePattern = true;
+                        lineFeatures.pattern = pattern;
+                        pageLines.add(lineFeatures);
                     }
                 }
 
-                if (lowestPos >  block.getY()) {
-                    // we have a vertical shift, which can be due to a change of column or other particular layout formatting 
-                    spacingPreviousBlock = doc.getMaxBlockSpacing() / 5.0; // default
-                } else
-                    spacingPreviousBlock = block.getY() - lowestPos;
-
-                String localText = block.getText();
-                if (localText == null)
+                // we consider the first token of the line as usual lexical CRF token
+                // and the second token of the line as feature
+                StringTokenizer st2 = new StringTokenizer(line, " \t\f\u00A0");
+                // alternatively, use a grobid analyser
+                String text = null;
+                String text2 = null;
+                if (st2.hasMoreTokens())
+                    text = st2.nextToken();
+                if (st2.hasMoreTokens())
+                    text2 = st2.nextToken();
+
+                if (text == null)
                     continue;
 
-                // character density of the block
-                double density = 0.0;
-                if ( (block.getHeight() != 0.0) && (block.getWidth() != 0.0) && 
-                     (block.getText() != null) && (!block.getText().contains("@PAGE")) && 
-                     (!block.getText().contains("@IMAGE")) )
-                    density = (double)block.getText().length() / (block.getHeight() * block.getWidth());
-
-                // is the current block in the main area of the page or not?
-                boolean inPageMainArea = true;
-                BoundingBox blockBoundingBox = BoundingBox.fromPointAndDimensions(page.getNumber(), 
-                    block.getX(), block.getY(), block.getWidth(), block.getHeight());
-                if (pageBoundingBox == null || (!pageBoundingBox.contains(blockBoundingBox) && !pageBoundingBox.intersect(blockBoundingBox)))
-                    inPageMainArea = false;
-
-                String[] lines = localText.split("[\\n\\r]");
-    			// set the max length of the lines in the block, in number of characters
-    			int maxLineLength = 0;
-    			for(int p=0; p<lines.length; p++) {
-    				if (lines[p].length() > maxLineLength) 
-    					maxLineLength = lines[p].length();
-    			}
-                List<LayoutToken> tokens = block.getTokens();
-                if ((tokens == null) || (tokens.size() == 0)) {
+                // final sanitisation and filtering
+                text = text.replaceAll("[ \n\r]", "");
+                text = text.trim();
+
+                if ( (text.length() == 0) ||
+                        (TextUtilities.filterLine(line))) {
                     continue;
                 }
-                for (int li = 0; li < lines.length; li++) {
-                    String line = lines[li];
-                    /*boolean firstPageBlock = false;
-                    boolean lastPageBlock = false;
-
-                    if (newPage)
-                        firstPageBlock = true;
-                    if (endPage)
-                        lastPageBlock = true;
-                    */
-                    
-                    // for the layout information of the block, we take simply the first layout token
-    				LayoutToken token = null;
-    				if (tokens.size() > 0)
-    					token = tokens.get(0);
-
-    				double coordinateLineY = token.getY();
-
-                    features = new FeaturesVectorSegmentation();
-                    features.token = token;
-                    features.line = line;
 
-                    if ( (blockIndex < 2) || (blockIndex > page.getBlocks().size()-2)) {
-                        String pattern = featureFactory.getPattern(line);
-                        Integer nb = patterns.get(pattern);
-                        if ((nb != null) && (nb > 1)) {
-                            features.repetitivePattern = true;
-
-                            Boolean firstTimeDone = firstTimePattern.get(pattern);
-                            if ((firstTimeDone != null) && !firstTimeDone) {
-                                features.firstRepetitivePattern = true;
-                                firstTimePattern.put(pattern, true);
-                            }
-                        }
-                    }
+                features.string = text;
+                features.secondString = text2;
 
-                    // we consider the first token of the line as usual lexical CRF token
-                    // and the second token of the line as feature
-                    StringTokenizer st2 = new StringTokenizer(line, " \t\f\u00A0");
-                    // alternatively, use a grobid analyser
-                    String text = null;
-                    String text2 = null;
-                    if (st2.hasMoreTokens())
-                        text = st2.nextToken();
-                    if (st2.hasMoreTokens())
-                        text2 = st2.nextToken();
-
-                    if (text == null)
-                        continue;
+                features.firstPageBlock = firstPageBlock;
+                features.lastPageBlock = lastPageBlock;
+                features.lineLength = featureFactory
+                        .linearScaling(line.length(), maxLineLength, LINESCALE);
 
-                    // final sanitisation and filtering
-                    text = text.replaceAll("[ \n\r]", "");
-                    text = text.trim();
+                features.punctuationProfile = TextUtilities.punctuationProfile(line);
 
-                    if ( (text.length() == 0) ||
-//                            (text.equals("\n")) ||
-//                            (text.equals("\r")) ||
-//                            (text.equals("\n\r")) ||
-                            (TextUtilities.filterLine(line))) {
-                        continue;
-                    }
+                if (graphicBitmap) {
+                    features.bitmapAround = true;
+                }
+                if (graphicVector) {
+                    features.vectorAround = true;
+                }
 
-                    features.string = text;
-                    features.secondString = text2;
+                features.lineStatus = null;
+                features.punctType = null;
 
-                    features.firstPageBlock = firstPageBlock;
-                    features.lastPageBlock = lastPageBlock;
-                    //features.lineLength = line.length() / LINESCALE;
-                    features.lineLength = featureFactory
-                            .linearScaling(line.length(), maxLineLength, LINESCALE);
-    				
-                    features.punctuationProfile = TextUtilities.punctuationProfile(line);
+                if (text.length() == 1) {
+                    features.singleChar = true;
+                }
 
-                    if (graphicBitmap) {
-                    	features.bitmapAround = true;
-                    }
-                    if (graphicVector) {
-                    	features.vectorAround = true;
-                    }
+                if (Character.isUpperCase(text.charAt(0))) {
+                    features.capitalisation = "INITCAP";
+                }
 
-                    features.lineStatus = null;
-                    features.punctType = null;
-
-                    if ((li == 0) ||
-                            ((previousFeatures != null) && previousFeatures.blockStatus.equals("BLOCKEND"))) {
-                        features.blockStatus = "BLOCKSTART";
-                    } else if (li == lines.length - 1) {
-                        features.blockStatus = "BLOCKEND";
-                        //endblock = true;
-                    } else if (features.blockStatus == null) {
-                        features.blockStatus = "BLOCKIN";
-                    }
+                if (featureFactory.test_all_capital(text)) {
+                    features.capitalisation = "ALLCAP";
+                }
 
-                    if (newPage) {
-                        features.pageStatus = "PAGESTART";
-                        newPage = false;
-                        //endPage = false;
-                        if (previousFeatures != null)
-                            previousFeatures.pageStatus = "PAGEEND";
-                    } else {
-                        features.pageStatus = "PAGEIN";
-                        newPage = false;
-                        //endPage = false;
-                    }
+                if (featureFactory.test_digit(text)) {
+                    features.digit = "CONTAINSDIGITS";
+                }
 
-                    if (text.length() == 1) {
-                        features.singleChar = true;
-                    }
+                if (featureFactory.test_common(text)) {
+                    features.commonName = true;
+                }
 
-                    if (Character.isUpperCase(text.charAt(0))) {
-                        features.capitalisation = "INITCAP";
-                    }
+                if (featureFactory.test_names(text)) {
+                    features.properName = true;
+                }
 
-                    if (featureFactory.test_all_capital(text)) {
-                        features.capitalisation = "ALLCAP";
-                    }
+                if (featureFactory.test_month(text)) {
+                    features.month = true;
+                }
 
-                    if (featureFactory.test_digit(text)) {
-                        features.digit = "CONTAINSDIGITS";
-                    }
+                Matcher m = featureFactory.isDigit.matcher(text);
+                if (m.find()) {
+                    features.digit = "ALLDIGIT";
+                }
 
-                    if (featureFactory.test_common(text)) {
-                        features.commonName = true;
-                    }
+                Matcher m2 = featureFactory.year.matcher(text);
+                if (m2.find()) {
+                    features.year = true;
+                }
 
-                    if (featureFactory.test_names(text)) {
-                        features.properName = true;
-                    }
+                Matcher m3 = featureFactory.email.matcher(text);
+                if (m3.find()) {
+                    features.email = true;
+                }
 
-                    if (featureFactory.test_month(text)) {
-                        features.month = true;
-                    }
+                Matcher m4 = featureFactory.http.matcher(text);
+                if (m4.find()) {
+                    features.http = true;
+                }
 
-                    Matcher m = featureFactory.isDigit.matcher(text);
-                    if (m.find()) {
-                        features.digit = "ALLDIGIT";
-                    }
+                if (token.getBold())
+                    features.bold = true;
 
-                    Matcher m2 = featureFactory.year.matcher(text);
-                    if (m2.find()) {
-                        features.year = true;
-                    }
+                if (token.getItalic())
+                    features.italic = true;
 
-                    Matcher m3 = featureFactory.email.matcher(text);
-                    if (m3.find()) {
-                        features.email = true;
-                    }
+                if (features.capitalisation == null)
+                    features.capitalisation = "NOCAPS";
 
-                    Matcher m4 = featureFactory.http.matcher(text);
-                    if (m4.find()) {
-                        features.http = true;
-                    }
+                if (features.digit == null)
+                    features.digit = "NODIGIT";
 
-                    if (currentFont == null) {
-                        currentFont = token.getFont();
-                        features.fontStatus = "NEWFONT";
-                    } else if (!currentFont.equals(token.getFont())) {
-                        currentFont = token.getFont();
-                        features.fontStatus = "NEWFONT";
-                    } else
-                        features.fontStatus = "SAMEFONT";
-
-                    int newFontSize = (int) token.getFontSize();
-                    if (currentFontSize == -1) {
-                        currentFontSize = newFontSize;
-                        features.fontSize = "HIGHERFONT";
-                    } else if (currentFontSize == newFontSize) {
-                        features.fontSize = "SAMEFONTSIZE";
-                    } else if (currentFontSize < newFontSize) {
-                        features.fontSize = "HIGHERFONT";
-                        currentFontSize = newFontSize;
-                    } else if (currentFontSize > newFontSize) {
-                        features.fontSize = "LOWERFONT";
-                        currentFontSize = newFontSize;
-                    }
+                features.relativePagePositionChar = featureFactory
+                        .linearScaling(mm, pageLength, NBBINS_POSITION);
+                int pagePos = featureFactory
+                        .linearScaling(coordinateLineY, pageHeight, NBBINS_POSITION);
+                if (pagePos > NBBINS_POSITION)
+                    pagePos = NBBINS_POSITION;
+                features.relativePagePosition = pagePos;
 
-                    if (token.getBold())
-                        features.bold = true;
-
-                    if (token.getItalic())
-                        features.italic = true;
-
-                    // HERE horizontal information
-                    // CENTERED
-                    // LEFTAJUSTED
-                    // CENTERED
-
-                    if (features.capitalisation == null)
-                        features.capitalisation = "NOCAPS";
-
-                    if (features.digit == null)
-                        features.digit = "NODIGIT";
-
-                    //if (features.punctType == null)
-                    //    features.punctType = "NOPUNCT";
-
-                    features.relativeDocumentPosition = featureFactory
-                            .linearScaling(nn, documentLength, NBBINS_POSITION);
-//System.out.println(nn + " " + documentLength + " " + NBBINS_POSITION + " " + features.relativeDocumentPosition); 
-                    features.relativePagePositionChar = featureFactory
-                            .linearScaling(mm, pageLength, NBBINS_POSITION); 
-//System.out.println(mm + " " + pageLength + " " + NBBINS_POSITION + " " + features.relativePagePositionChar);                     			
-    				int pagePos = featureFactory
-                            .linearScaling(coordinateLineY, pageHeight, NBBINS_POSITION);
-//System.out.println(coordinateLineY + " " + pageHeight + " " + NBBINS_POSITION + " " + pagePos);  
-    				if (pagePos > NBBINS_POSITION)
-    					pagePos = NBBINS_POSITION;
-                    features.relativePagePosition = pagePos;
-//System.out.println(coordinateLineY + "\t" + pageHeight);
-
-                    if (spacingPreviousBlock != 0.0) {
-                        features.spacingWithPreviousBlock = featureFactory
-                            .linearScaling(spacingPreviousBlock-doc.getMinBlockSpacing(), doc.getMaxBlockSpacing()-doc.getMinBlockSpacing(), NBBINS_SPACE);                          
-                    }
+                if (spacingPreviousBlock != 0.0) {
+                    features.spacingWithPreviousBlock = featureFactory
+                        .linearScaling(spacingPreviousBlock-doc.getMinBlockSpacing(), doc.getMaxBlockSpacing()-doc.getMinBlockSpacing(), NBBINS_SPACE);                          
+                }
 
-                    features.inMainArea = inPageMainArea;
+                features.inMainArea = inPageMainArea;
 
-                    if (density != -1.0) {
-                        features.characterDensity = featureFactory
-                            .linearScaling(density-doc.getMinCharacterDensity(), doc.getMaxCharacterDensity()-doc.getMinCharacterDensity(), NBBINS_DENSITY);
-//System.out.println((density-doc.getMinCharacterDensity()) + " " + (doc.getMaxCharacterDensity()-doc.getMinCharacterDensity()) + " " + NBBINS_DENSITY + " " + features.characterDensity);             
-                    }
+                if (density != -1.0) {
+                    features.characterDensity = featureFactory
+                        .linearScaling(density-doc.getMinCharacterDensity(), doc.getMaxCharacterDensity()-doc.getMinCharacterDensity(), NBBINS_DENSITY);
+                }
+
+                lineFeatures.kept = true;
+                if (lineFeatures.pattern == null)
+                    pageLines.add(lineFeatures);
+            }
+
+            // lowest position of the block
+            lowestPos = block.getY() + block.getHeight();
+
+            // update page-level position
+            mm += tokens.size();
+        }
+
+        return pageLines;
+    }
+
+    /**
+     * Set the features of the lines depending on the previous pages: block and page status,
+     * font changes, position in the document and first occurrence of a repetitive pattern.
+     */
+    private void linkPagesLines(Document doc, List<List<LineFeatures>> pagesLines,
+                                Map<String, Boolean> firstTimePattern) {
+        int documentLength = doc.getDocumentLenghtChar();
+
+        String currentFont = null;
+        int currentFontSize = -1;
+        int nn = 0; // document position of the current page
 
-                    if (previousFeatures != null) {
-                        String vector = previousFeatures.printVector();
-                        fulltext.append(vector);
+        FeaturesVectorSegmentation previousFeatures = null;
+
+        for (int pageIndex = 0; pageIndex < pagesLines.size(); pageIndex++) {
+            boolean newPage = true;
+            for (LineFeatures lineFeatures : pagesLines.get(pageIndex)) {
+                FeaturesVectorSegmentation features = lineFeatures.features;
+
+                if (lineFeatures.pattern != null) {
+                    Boolean firstTimeDone = firstTimePattern.get(lineFeatures.pattern);
+                    if ((firstTimeDone != null) && !firstTimeDone) {
+                        features.firstRepetitivePattern = true;
+                        firstTimePattern.put(lineFeatures.pattern, true);
                     }
-                    previousFeatures = features;
+                }
+                if (!lineFeatures.kept)
+                    continue;
+
+                if ((lineFeatures.lineIndex == 0) ||
+                        ((previousFeatures != null) && previousFeatures.blockStatus.equals("BLOCKEND"))) {
+                    features.blockStatus = "BLOCKSTART";
+                } else if (lineFeatures.lineIndex == lineFeatures.nbLines - 1) {
+                    features.blockStatus = "BLOCKEND";
+                } else if (features.blockStatus == null) {
+                    features.blockStatus = "BLOCKIN";
+                }
+
+                if (newPage) {
+                    features.pageStatus = "PAGESTART";
+                    newPage = false;
+                    if (previousFeatures != null)
+                        previousFeatures.pageStatus = "PAGEEND";
+                } else {
+                    features.pageStatus = "PAGEIN";
+                }
+
+                LayoutToken token = features.token;
+                if (currentFont == null) {
+                    currentFont = token.getFont();
+                    features.fontStatus = "NEWFONT";
+                } else if (!currentFont.equals(token.getFont())) {
+                    currentFont = token.getFont();
+                    features.fontStatus = "NEWFONT";
+                } else
+                    features.fontStatus = "SAMEFONT";
+
+                int newFontSize = (int) token.getFontSize();
+                if (currentFontSize == -1) {
+                    currentFontSize = newFontSize;
+                    features.fontSize = "HIGHERFONT";
+                } else if (currentFontSize == newFontSize) {
+                    features.fontSize = "SAMEFONTSIZE";
+                } else if (currentFontSize < newFontSize) {
+                    features.fontSize = "HIGHERFONT";
+                    currentFontSize = newFontSize;
+                } else if (currentFontSize > newFontSize) {
+                    features.fontSize = "LOWERFONT";
+                    currentFontSize = newFontSize;
                 }
 
-//System.out.println((spacingPreviousBlock-doc.getMinBlockSpacing()) + " " + (doc.getMaxBlockSpacing()-doc.getMinBlockSpacing()) + " " + NBBINS_SPACE + " " 
-//    + featureFactory.linearScaling(spacingPreviousBlock-doc.getMinBlockSpacing(), doc.getMaxBlockSpacing()-doc.getMinBlockSpacing(), NBBINS_SPACE));    
+                features.relativeDocumentPosition = featureFactory
+                        .linearScaling(nn + lineFeatures.pagePosition, documentLength, NBBINS_POSITION);
 
-                // lowest position of the block
-                lowestPos = block.getY() + block.getHeight();
+                previousFeatures = features;
+            }
 
-                // update page-level and document-level positions
-                if (tokens != null) {
-                    mm += tokens.size();
-                    nn += tokens.size();
+            // document-level position, the blocks without text are not counted, as when
+            // the lines are featured
+            Page page = doc.getPages().get(pageIndex);
+            if (page.getBlocks() != null) {
+                for (Block block : page.getBlocks()) {
+                    if ((block.getText() != null) && (block.getTokens() != null))
+                        nn += block.getTokens().size();
                 }
             }
         }
-        if (previousFeatures != null)
-            fulltext.append(previousFeatures.printVector());
-
-        return fulltext.toString();
     }
 
-
     /**
      * Process the content of the specified pdf and format the result as training data.
      *
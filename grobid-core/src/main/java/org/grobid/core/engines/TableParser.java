@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -49,6 +50,28 @@ public class TableParser extends AbstractParser {
         return getExtractionResult(tokenizationTable, res);
     }
 
+    /**
+     * Batch version of {@link #processing(List, String)}: all the tables of a document
+     * are labelled with a single call to the tagger. The result list is aligned with
+     * the input lists.
+     */
+    public List<Table> processing(List<List<LayoutToken>> tokenizationTables, List<String> featureVectors) {
+        List<String> res;
+        try {
+            res = labelBatch(featureVectors);
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling with table model fails.", e);
+        }
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < tokenizationTables.size(); i++) {
+            if (res.get(i) == null)
+                tables.add(null);
+            else
+                tables.add(getExtractionResult(tokenizationTables.get(i), res.get(i)));
+        }
+        return tables;
+    }
+
     private Table getExtractionResult(List<LayoutToken> tokenizations, String result) {
         Table table = new Table();
         table.setTextArea(Collections.singletonList(BoundingBoxCalculator.calculateOneBox(tokenizations, true)));
@@ -11,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * User: zholudev
@@ -32,30 +34,59 @@ public class CRFPPTagger implements GenericTagger {
 
     protected String getTaggerResult(Iterable<String> st, String type) {
         Tagger tagger = null;
-        StringBuilder res;
         try {
             tagger = feedTaggerAndParse(st);
+            return getTaggerResult(tagger, type);
+        } finally {
+            if (tagger != null) {
+                tagger.delete();
+            }
+        }
+    }
 
-            res = new StringBuilder();
-            for (int i = 0; i < tagger.size(); i++) {
-                for (int j = 0; j < tagger.xsize(); j++) {
-                    res.append(tagger.x(i, j)).append("\t");
-                }
+    private static String getTaggerResult(Tagger tagger, String type) {
+        StringBuilder res = new StringBuilder();
+        for (int i = 0; i < tagger.size(); i++) {
+            for (int j = 0; j < tagger.xsize(); j++) {
+                res.append(tagger.x(i, j)).append("\t");
+            }
 
-                if (type != null) {
-                    res.append(type).append("\t");
-                }
+            if (type != null) {
+                res.append(type).append("\t");
+            }
 
-                res.append(tagger.y2(i));
-                res.append("\n");
+            res.append(tagger.y2(i));
+            res.append("\n");
+        }
+        return res.toString();
+    }
+
+    /**
+     * CRF++ decodes one sequence per parse, the batch reuses the same native tagger 
+     * for all the sequences instead of creating and deleting one per sequence.
+     */
+    @Override
+    public List<String> labelBatch(List<String> data) {
+        List<String> results = new ArrayList<>(data.size());
+        Tagger tagger = null;
+        try {
+            for (String sequence : data) {
+                if (sequence == null || sequence.trim().isEmpty()) {
+                    results.add("");
+                    continue;
+                }
+                if (tagger == null) {
+                    tagger = getNewTagger();
+                }
+                feedTaggerAndParse(tagger, Splitter.on("\n").split(sequence));
+                results.add(getTaggerResult(tagger, null));
             }
         } finally {
             if (tagger != null) {
                 tagger.delete();
             }
         }
-
-        return res.toString();
+        return results;
     }
 
     @Override
@@ -6,6 +6,7 @@ import org.grobid.core.GrobidModels;
 import org.grobid.core.jni.DeLFTModel;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * 
@@ -33,6 +34,17 @@ public class DeLFTTagger implements GenericTagger {
         return delftModel.label(data);
     }
 
+    @Override
+    public List<String> labelBatch(List<String> data) {
+        // a single JEP round trip for all the sequences, so that they are tagged as one 
+        // batch by the DeLFT model
+        String batch = GenericTaggerUtils.joinBatch(data);
+        if (batch.isEmpty()) {
+            return GenericTaggerUtils.splitBatch(data, null);
+        }
+        return GenericTaggerUtils.splitBatch(data, delftModel.label(batch));
+    }
+
     @Override
     public void close() throws IOException {
         delftModel.close();
@@ -1,6 +1,7 @@
 package org.grobid.core.engines.tagging;
 
 import java.io.Closeable;
+import java.util.List;
 
 /**
  * User: zholudev
@@ -9,4 +10,11 @@ import java.io.Closeable;
 public interface GenericTagger extends Closeable {
     String label(Iterable<String> data);
     String label(String data);
+
+    /**
+     * Label several independent sequences, with as few calls to the underlying 
+     * sequence labelling engine as possible. The result list is aligned with the input
+     * list, an empty input sequence gives an empty result.
+     */
+    List<String> labelBatch(List<String> data);
 }
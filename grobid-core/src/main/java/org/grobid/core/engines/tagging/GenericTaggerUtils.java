@@ -72,6 +72,62 @@ public class GenericTaggerUtils {
         return res;
     }
 
+    /**
+     * Concatenate independent sequences for a batch labelling call, the sequences being
+     * separated by an empty line. Empty sequences are skipped.
+     */
+    public static String joinBatch(List<String> sequences) {
+        StringBuilder builder = new StringBuilder();
+        for (String sequence : sequences) {
+            if (StringUtils.isBlank(sequence))
+                continue;
+            builder.append(sequence.trim());
+            builder.append("\n\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Split the labeled result of a batch labelling call, see {@link #joinBatch(List)}, 
+     * into the result of each input sequence. The split relies on the number of 
+     * non-empty lines of each input sequence, the taggers producing one labeled line per 
+     * input token line, so that empty lines inside a sequence do not shift the results.
+     * An empty input sequence gives an empty result.
+     */
+    public static List<String> splitBatch(List<String> sequences, String labeledResult) {
+        List<String> results = new ArrayList<>(sequences.size());
+        String[] lines = labeledResult == null ? new String[0] : labeledResult.split("\n");
+        int linePtr = 0;
+        for (String sequence : sequences) {
+            if (StringUtils.isBlank(sequence)) {
+                results.add("");
+                continue;
+            }
+            int nbTokens = 0;
+            for (String inputLine : sequence.split("\n")) {
+                if (!inputLine.trim().isEmpty())
+                    nbTokens++;
+            }
+            StringBuilder result = new StringBuilder();
+            int nbLabeled = 0;
+            while (nbLabeled < nbTokens && linePtr < lines.length) {
+                String line = lines[linePtr++];
+                if (line.trim().isEmpty()) {
+                    // keep the sub-sequence separators inside a sequence
+                    if (nbLabeled > 0)
+                        result.append("\n");
+                    continue;
+                }
+                if (nbLabeled > 0)
+                    result.append("\n");
+                result.append(line);
+                nbLabeled++;
+            }
+            results.add(result.toString());
+        }
+        return results;
+    }
+
     public static String getPlainIOBLabel(String label) {
         return isBeginningOfIOBEntity(label) ? StringUtil.substring(label, 2) : label;
     }
@@ -3,11 +3,11 @@ package org.grobid.core.engines.tagging;
 import org.grobid.core.GrobidModel;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.utilities.GrobidProperties;
-import org.grobid.core.main.LibraryLoader;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,48 +16,94 @@ import org.slf4j.LoggerFactory;
  * Factory for a sequence labelling, aka a tagger, instance.
  * Supported implementations are CRF (CRFPP, Wapiti) and Deep Learning (DeLFT)  
  *
+ * By default a single tagger instance is shared for a given model. For the CRF engines,
+ * a pool of independent instances can be configured per model in grobid.properties 
+ * (grobid.tagger.instances.[model name]), see {@link TaggerPool}. For DeLFT, the copies 
+ * of a model are loaded in the interpreters of the JEP pool by the tagger itself.
+ * 
+ * The lookup of an already created tagger is lock-free. A model is loaded once, by the
+ * first thread asking for it and outside of the map lock, the other threads asking for
+ * the same model wait for this loading while the other models stay available.
  */
 public class TaggerFactory {
     public static final Logger LOGGER = LoggerFactory.getLogger(TaggerFactory.class);
 
-    private static Map<GrobidModel, GenericTagger> cache = new HashMap<>();
+    private static Map<GrobidModel, FutureTask<GenericTagger>> cache = new ConcurrentHashMap<>();
 
     private TaggerFactory() {}
 
-    public static synchronized GenericTagger getTagger(GrobidModel model) {
+    public static GenericTagger getTagger(GrobidModel model) {
         return getTagger(model, GrobidProperties.getGrobidCRFEngine(model), GrobidProperties.getDelftArchitecture());
     }
 
-    public static synchronized GenericTagger getTagger(GrobidModel model, GrobidCRFEngine engine) {
+    public static GenericTagger getTagger(GrobidModel model, GrobidCRFEngine engine) {
         return getTagger(model, engine, GrobidProperties.getDelftArchitecture());
     }
 
-    public static synchronized GenericTagger getTagger(GrobidModel model, GrobidCRFEngine engine, String architecture) {
-        GenericTagger t = cache.get(model);
+    public static GenericTagger getTagger(GrobidModel model, GrobidCRFEngine engine, String architecture) {
+        FutureTask<GenericTagger> t = cache.get(model);
         if (t == null) {
             if(model.equals(GrobidModels.DUMMY)) {
                 return new DummyTagger(model);
             }
+            if(engine == null) {
+                throw new IllegalStateException("Unsupported or null Grobid sequence labelling engine: " + GrobidProperties.getGrobidCRFEngine());
+            }
+            FutureTask<GenericTagger> creation = new FutureTask<>(() -> createTagger(model, engine, architecture));
+            t = cache.computeIfAbsent(model, m -> creation);
+            if (t == creation) {
+                // the model is loaded by this thread, without holding the lock of the map
+                creation.run();
+            }
+        }
+        return get(model, t);
+    }
 
-            if(engine != null) {
-                switch (engine) {
-                    case CRFPP:
-                        t = new CRFPPTagger(model);
-                        break;
-                    case WAPITI:
-                        t = new WapitiTagger(model);
-                        break;
-                    case DELFT:
-                        t = new DeLFTTagger(model, architecture);
-                        break;
-                    default:
-                        throw new IllegalStateException("Unsupported Grobid sequence labelling engine: " + GrobidProperties.getGrobidCRFEngine());
+    private static GenericTagger get(GrobidModel model, FutureTask<GenericTagger> t) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return t.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
-                cache.put(model, t);
-            } else {
-                throw new IllegalStateException("Unsupported or null Grobid sequence labelling engine: " + GrobidProperties.getGrobidCRFEngine());
             }
+        } catch (ExecutionException e) {
+            // a failed loading is not kept, the next call tries again
+            cache.remove(model, t);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Cannot create the tagger of model " + model.getModelName(), e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static GenericTagger createTagger(GrobidModel model, GrobidCRFEngine engine, String architecture) {
+        int instances = GrobidProperties.getTaggerInstances(model);
+        if ((instances > 1) && (engine != GrobidCRFEngine.DELFT)) {
+            return new TaggerPool(model, instances, () -> createSingleTagger(model, engine, architecture));
+        }
+        return createSingleTagger(model, engine, architecture);
+    }
+
+    private static GenericTagger createSingleTagger(GrobidModel model, GrobidCRFEngine engine, String architecture) {
+        switch (engine) {
+            case CRFPP:
+                return new CRFPPTagger(model);
+            case WAPITI:
+                return new WapitiTagger(model);
+            case DELFT:
+                return new DeLFTTagger(model, architecture);
+            default:
+                throw new IllegalStateException("Unsupported Grobid sequence labelling engine: " + GrobidProperties.getGrobidCRFEngine());
         }
-        return t;
     }
 }
@@ -0,0 +1,90 @@
+package org.grobid.core.engines.tagging;
+
+import org.grobid.core.GrobidModel;
+import org.grobid.core.exceptions.GrobidException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of independent tagger instances for the same model, each one with its 
+ * own copy of the model. A labelling call borrows a free instance and gives it back 
+ * when done, so that concurrent engines do not contend on a single native model object.
+ *
+ * The pool size is set per model in grobid.properties, see {@link TaggerFactory}.
+ */
+public class TaggerPool implements GenericTagger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaggerPool.class);
+
+    private final GrobidModel model;
+    private final List<GenericTagger> taggers;
+    private final BlockingQueue<GenericTagger> available;
+
+    public TaggerPool(GrobidModel model, int size, Supplier<GenericTagger> taggerSupplier) {
+        this.model = model;
+        this.taggers = new ArrayList<>(size);
+        this.available = new ArrayBlockingQueue<>(size);
+        LOGGER.info("Creating a pool of " + size + " taggers for model " + model.getModelName());
+        for (int i = 0; i < size; i++) {
+            GenericTagger tagger = taggerSupplier.get();
+            taggers.add(tagger);
+            available.add(tagger);
+        }
+    }
+
+    private GenericTagger borrow() {
+        try {
+            return available.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrobidException("Interrupted while waiting for a tagger of model " + model.getModelName(), e);
+        }
+    }
+
+    @Override
+    public String label(Iterable<String> data) {
+        GenericTagger tagger = borrow();
+        try {
+            return tagger.label(data);
+        } finally {
+            available.offer(tagger);
+        }
+    }
+
+    @Override
+    public String label(String data) {
+        GenericTagger tagger = borrow();
+        try {
+            return tagger.label(data);
+        } finally {
+            available.offer(tagger);
+        }
+    }
+
+    @Override
+    public List<String> labelBatch(List<String> data) {
+        GenericTagger tagger = borrow();
+        try {
+            return tagger.labelBatch(data);
+        } finally {
+            available.offer(tagger);
+        }
+    }
+
+    public int size() {
+        return taggers.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (GenericTagger tagger : taggers) {
+            tagger.close();
+        }
+    }
+}
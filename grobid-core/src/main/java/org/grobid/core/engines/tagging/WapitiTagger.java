@@ -6,6 +6,7 @@ import org.grobid.core.GrobidModels;
 import org.grobid.core.jni.WapitiModel;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * User: zholudev
@@ -29,6 +30,17 @@ public class WapitiTagger implements GenericTagger {
         return wapitiModel.label(data);
     }
 
+    @Override
+    public List<String> labelBatch(List<String> data) {
+        // a single JNI call for all the sequences, separated by empty lines as in the 
+        // Wapiti input format
+        String batch = GenericTaggerUtils.joinBatch(data);
+        if (batch.isEmpty()) {
+            return GenericTaggerUtils.splitBatch(data, null);
+        }
+        return GenericTaggerUtils.splitBatch(data, wapitiModel.label(batch));
+    }
+
     @Override
     public void close() throws IOException {
         wapitiModel.close();
@@ -0,0 +1,242 @@
+package org.grobid.core.factory;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.grobid.core.engines.Engine;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.utilities.GrobidProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed size pool of warm {@link Engine} objects.
+ *
+ * All the engines are created when the pool is created and are never destroyed, so a
+ * burst of requests never pays the creation of engines. Borrowing and returning an engine
+ * are lock-free: the free engines and the requests waiting for one are kept in concurrent
+ * queues, an engine returned to the pool is handed directly to the oldest waiting request. 
+ * A free engine is taken right away only if no request is already waiting, so that the 
+ * synchronous and asynchronous requests are served in their arrival order.
+ *
+ * When no engine is free, a request waits at most org.grobid.pool.max.wait seconds. If
+ * already org.grobid.pool.max.queue requests are waiting, it is rejected right away. In
+ * both cases a {@link NoSuchElementException} is thrown, which the service turns into a 503.
+ */
+public class GrobidEnginePool extends AbstractEngineFactory {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GrobidEnginePool.class);
+
+	private static volatile GrobidEnginePool instance;
+
+	private final int size;
+	private final long maxWaitMs;
+	private final int maxQueue;
+
+	private final Queue<Engine> idle = new ConcurrentLinkedQueue<>();
+	private final Queue<CompletableFuture<Engine>> waiters = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger nbWaiting = new AtomicInteger(0);
+	private final ScheduledExecutorService timer;
+
+	public static GrobidEnginePool getInstance(boolean preload) {
+		if (instance == null) {
+			getNewInstance(preload);
+		}
+		return instance;
+	}
+
+	private static synchronized void getNewInstance(boolean preload) {
+		if (instance == null) {
+			LOGGER.debug("Get new instance of GrobidEnginePool");
+			instance = new GrobidEnginePool(GrobidProperties.getMaxPoolConnections(),
+				GrobidProperties.getPoolMaxWait(), GrobidProperties.getPoolMaxQueue(), preload);
+		}
+	}
+
+	/**
+	 * Hidden constructor
+	 */
+	private GrobidEnginePool(int size, long maxWaitMs, int maxQueue, boolean preload) {
+		this(size, maxWaitMs, maxQueue);
+		init();
+		for (int i = 0; i < size; i++) {
+			idle.add(createEngine(preload));
+		}
+		LOGGER.info("Engine pool started with " + size + " engine(s)");
+	}
+
+	/**
+	 * Pool of the given engines
+	 */
+	GrobidEnginePool(List<Engine> engines, long maxWaitMs, int maxQueue) {
+		this(engines.size(), maxWaitMs, maxQueue);
+		idle.addAll(engines);
+	}
+
+	private GrobidEnginePool(int size, long maxWaitMs, int maxQueue) {
+		this.size = size;
+		this.maxWaitMs = maxWaitMs;
+		this.maxQueue = maxQueue;
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = Executors.defaultThreadFactory().newThread(r);
+			t.setName("grobid-engine-pool-timer");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Obtains an engine, waiting for a free one at most org.grobid.pool.max.wait seconds.<br>
+	 *
+	 * By contract, clients must call {@link #returnEngine} when they finish to use the engine.
+	 *
+	 * @throws NoSuchElementException if no engine became free in time or too many requests
+	 * are already waiting
+	 */
+	public Engine borrowEngine() {
+		Engine engine = pollIfNoWaiter();
+		if (engine != null) {
+			return engine;
+		}
+		CompletableFuture<Engine> waiter = enqueue();
+		try {
+			return waiter.get(maxWaitMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			if (waiter.completeExceptionally(e)) {
+				throw new NoSuchElementException("No engine became free within " + maxWaitMs + " ms");
+			}
+			// an engine was handed over meanwhile
+			return waiter.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			releaseWaiter(waiter);
+			throw new GrobidException("Interrupted while waiting for an engine", e);
+		} catch (ExecutionException e) {
+			throw new GrobidException("An error occurred while getting an engine from the engine pool", e.getCause());
+		}
+	}
+
+	/**
+	 * Obtains an engine only if one is free right now and no request is waiting for one.
+	 *
+	 * @return an engine, to be given back with {@link #returnEngine}, or null
+	 */
+	public Engine tryBorrowEngine() {
+		return pollIfNoWaiter();
+	}
+
+	/**
+	 * Asynchronous version of {@link #borrowEngine()}: the returned future is completed with
+	 * an engine as soon as one is free, or exceptionally with a {@link NoSuchElementException}
+	 * under the same conditions as {@link #borrowEngine()}.
+	 */
+	public CompletableFuture<Engine> borrowEngineAsync() {
+		Engine engine = pollIfNoWaiter();
+		if (engine != null) {
+			return CompletableFuture.completedFuture(engine);
+		}
+		CompletableFuture<Engine> waiter;
+		try {
+			waiter = enqueue();
+		} catch (NoSuchElementException e) {
+			CompletableFuture<Engine> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		ScheduledFuture<?> timeout = timer.schedule(() -> waiter.completeExceptionally(
+				new NoSuchElementException("No engine became free within " + maxWaitMs + " ms")),
+			maxWaitMs, TimeUnit.MILLISECONDS);
+		waiter.whenComplete((e, t) -> timeout.cancel(false));
+		return waiter;
+	}
+
+	/**
+	 * Give an engine back to the pool, by contract the engine must have been obtained with
+	 * {@link #borrowEngine()} or {@link #borrowEngineAsync()}.
+	 */
+	public void returnEngine(Engine engine) {
+		idle.offer(engine);
+		dispatch();
+	}
+
+	/**
+	 * Number of requests currently waiting for an engine.
+	 */
+	public int getNbWaiting() {
+		return nbWaiting.get();
+	}
+
+	/**
+	 * Number of engines currently free.
+	 */
+	public int getNbIdle() {
+		return idle.size();
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * A free engine is taken directly only when no request is waiting, the waiting requests 
+	 * being served first, in their arrival order, when an engine is returned.
+	 */
+	private Engine pollIfNoWaiter() {
+		if (nbWaiting.get() > 0) {
+			return null;
+		}
+		return idle.poll();
+	}
+
+	private CompletableFuture<Engine> enqueue() {
+		int waiting = nbWaiting.incrementAndGet();
+		if (maxQueue > 0 && waiting > maxQueue) {
+			nbWaiting.decrementAndGet();
+			throw new NoSuchElementException("All the " + size + " engines are busy and "
+				+ maxQueue + " requests are already waiting");
+		}
+		CompletableFuture<Engine> waiter = new CompletableFuture<>();
+		waiter.whenComplete((e, t) -> nbWaiting.decrementAndGet());
+		waiters.offer(waiter);
+		// an engine may have been returned between the first poll and the enqueuing
+		dispatch();
+		return waiter;
+	}
+
+	/**
+	 * Hand the free engines over to the waiting requests. Both the returning and the waiting
+	 * threads call it after adding themselves to their queue, so that the last one always
+	 * sees both an engine and a waiter.
+	 */
+	private void dispatch() {
+		while (!waiters.isEmpty() && !idle.isEmpty()) {
+			Engine engine = idle.poll();
+			if (engine == null) {
+				break;
+			}
+			CompletableFuture<Engine> waiter = waiters.poll();
+			if (waiter == null || !waiter.complete(engine)) {
+				// no more waiter, or this one timed out
+				idle.offer(engine);
+			}
+		}
+	}
+
+	/**
+	 * Cancel a waiting request, giving back the engine if one was handed over meanwhile.
+	 */
+	private void releaseWaiter(CompletableFuture<Engine> waiter) {
+		if (!waiter.cancel(false) && !waiter.isCompletedExceptionally()) {
+			returnEngine(waiter.join());
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package org.grobid.core.factory;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.pool.PoolableObjectFactory;
 import org.apache.commons.pool.impl.GenericObjectPool;
@@ -63,9 +64,52 @@ public class GrobidPoolingFactory extends AbstractEngineFactory implements
 	 * Obtains an instance from this pool.<br>
 	 * 
 	 * By contract, clients must call {@link GrobidPoolingFactory#returnEngine}
+	 * when they finish to use the engine.<br>
+	 * 
+	 * Unless org.grobid.pool.warm is false, the engines come from the
+	 * {@link GrobidEnginePool} of warm engines.
+	 */
+	public static Engine getEngineFromPool(boolean preloadModels) {
+		if (GrobidProperties.isPoolWarm()) {
+			return GrobidEnginePool.getInstance(preloadModels).borrowEngine();
+		}
+		return getEngineFromGenericPool(preloadModels);
+	}
+
+	/**
+	 * Asynchronous version of {@link GrobidPoolingFactory#getEngineFromPool}, the
+	 * future is completed exceptionally with a NoSuchElementException if no engine
+	 * becomes available in time.
+	 */
+	public static CompletableFuture<Engine> getEngineFromPoolAsync(boolean preloadModels) {
+		if (GrobidProperties.isPoolWarm()) {
+			return GrobidEnginePool.getInstance(preloadModels).borrowEngineAsync();
+		}
+		return CompletableFuture.supplyAsync(() -> getEngineFromGenericPool(preloadModels));
+	}
+
+	/**
+	 * Obtains an engine without waiting, only if one is free right now.<br>
+	 * 
+	 * By contract, clients must call {@link GrobidPoolingFactory#returnEngine}
 	 * when they finish to use the engine.
+	 * 
+	 * @return an engine, or null if all the engines are busy
 	 */
-	public static synchronized Engine getEngineFromPool(boolean preloadModels) {
+	public static Engine getIdleEngineFromPool(boolean preloadModels) {
+		if (GrobidProperties.isPoolWarm()) {
+			return GrobidEnginePool.getInstance(preloadModels).tryBorrowEngine();
+		}
+		synchronized (GrobidPoolingFactory.class) {
+			if (grobidEnginePool != null 
+					&& grobidEnginePool.getNumActive() >= grobidEnginePool.getMaxActive()) {
+				return null;
+			}
+			return getEngineFromGenericPool(preloadModels);
+		}
+	}
+
+	private static synchronized Engine getEngineFromGenericPool(boolean preloadModels) {
 		preload = preloadModels;
 		if (grobidEnginePool == null) {
 			grobidEnginePool = newPoolInstance();
@@ -78,7 +122,7 @@ public class GrobidPoolingFactory extends AbstractEngineFactory implements
 		} catch (Exception exp) {
 			throw new GrobidException("An error occurred while getting an engine from the engine pool", exp);
 		}
-		LOGGER.info("Number of Engines in pool active/max: "
+		LOGGER.debug("Number of Engines in pool active/max: "
 				+ grobidEnginePool.getNumActive() + "/"
 				+ grobidEnginePool.getMaxActive());
 		return engine;
@@ -89,6 +133,10 @@ public class GrobidPoolingFactory extends AbstractEngineFactory implements
 	 * {@link GrobidPoolingFactory#getEngineFromPool}.<br>
 	 */
 	public static void returnEngine(Engine engine) {
+		if (GrobidProperties.isPoolWarm()) {
+			GrobidEnginePool.getInstance(preload).returnEngine(engine);
+			return;
+		}
 		try {
 			//engine.close();
 			if (grobidEnginePool == null) 
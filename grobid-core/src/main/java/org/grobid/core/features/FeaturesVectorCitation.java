@@ -54,7 +54,21 @@ public class FeaturesVectorCitation {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuilder res = new StringBuilder();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
@@ -63,16 +77,16 @@ public class FeaturesVectorCitation {
         res.append(" ").append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
         // line information (1)
         res.append(" ").append(lineStatus);
@@ -170,8 +184,6 @@ public class FeaturesVectorCitation {
             res.append(" ").append(label).append("\n");
         else
             res.append(" 0\n");
-
-        return res.toString();
     }
 
 
@@ -584,7 +596,7 @@ public class FeaturesVectorCitation {
 
             features.label = tag;
 
-            citation.append(features.printVector());
+            features.printVector(citation);
 
             previousTag = tag;
             previousText = text;
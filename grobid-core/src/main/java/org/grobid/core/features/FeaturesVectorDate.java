@@ -27,37 +27,51 @@ public class FeaturesVectorDate {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
         // line information (1)
-        res.append(" " + lineStatus);
+        res.append(' ').append(lineStatus);
 
         // capitalisation (1)
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -77,15 +91,13 @@ public class FeaturesVectorDate {
             res.append(" 0");
 
         // punctuation information (2)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // label - for training data (1)
         if (label != null)
-            res.append(" " + label + "\n");
+            res.append(' ').append(label).append('\n');
         else
             res.append(" 0\n");
-
-        return res.toString();
     }
 
     /**
@@ -286,7 +298,7 @@ public class FeaturesVectorDate {
 
             features.label = tag;
 
-            header.append(features.printVector());
+            features.printVector(header);
 
             previousTag = tag;
             previousText = text;
@@ -48,44 +48,58 @@ public class FeaturesVectorFigure {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
         // block information (1)
-        res.append(" " + blockStatus);
+        res.append(' ').append(blockStatus);
         //res.append(" 0");
 
         // line information (1)
-        res.append(" " + lineStatus);
+        res.append(' ').append(lineStatus);
 
         // page information (1)
-        res.append(" " + pageStatus);
+        res.append(' ').append(pageStatus);
 
         // alignmet/horizontal position information (1)
         //res.append(" " + alignmentStatus);
 
         // font information (1)
-        res.append(" " + fontStatus);
+        res.append(' ').append(fontStatus);
 
         // font size information (1)
-        res.append(" " + fontSize);
+        res.append(' ').append(fontSize);
 
         // string type information (3)
         if (bold)
@@ -102,10 +116,10 @@ public class FeaturesVectorFigure {
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -150,13 +164,13 @@ public class FeaturesVectorFigure {
             res.append(" 0");
 
         // punctuation information (2)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // relative document position (1)
-        res.append(" " + relativeDocumentPosition);
+        res.append(' ').append(relativeDocumentPosition);
 
         // relative page position (1)
-        res.append(" " + relativePagePosition);
+        res.append(' ').append(relativePagePosition);
 
         if (bitmapAround)
             res.append(" 1");
@@ -176,8 +190,6 @@ public class FeaturesVectorFigure {
           */
 
         res.append("\n");
-
-        return res.toString();
     }
 
 }
\ No newline at end of file
@@ -50,42 +50,56 @@ public class FeaturesVectorFulltext {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
 		// at this stage, we have written 10 features
 
         // block information (1)
-        res.append(" " + blockStatus);
+        res.append(' ').append(blockStatus);
 
         // line information (1)
-        res.append(" " + lineStatus);
+        res.append(' ').append(lineStatus);
 		
 		// line position/identation (1)
-		res.append(" " + alignmentStatus);
+		res.append(' ').append(alignmentStatus);
 
         // font information (1)
-        res.append(" " + fontStatus);
+        res.append(' ').append(fontStatus);
 
         // font size information (1)
-        res.append(" " + fontSize);
+        res.append(' ').append(fontSize);
 
         // string type information (3)
         if (bold)
@@ -102,10 +116,10 @@ public class FeaturesVectorFulltext {
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -116,13 +130,13 @@ public class FeaturesVectorFulltext {
 		// at this stage, we have written 20 features
 
         // punctuation information (1)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // relative document position (1)
-        res.append(" " + relativeDocumentPosition);
+        res.append(' ').append(relativeDocumentPosition);
 
         // relative page position (1)
-        res.append(" " + relativePagePosition);
+        res.append(' ').append(relativePagePosition);
 
 		// proximity of a graphic to the current block (2)
         if (bitmapAround)
@@ -151,7 +165,7 @@ public class FeaturesVectorFulltext {
           */
 
         if (calloutType != null) 
-            res.append(" " + calloutType);
+            res.append(' ').append(calloutType);
         else 
             res.append(" UNKNOWN");
  
@@ -166,8 +180,6 @@ public class FeaturesVectorFulltext {
             res.append(" 0");
 
         res.append("\n");
-
-        return res.toString();
     }
 
 }
\ No newline at end of file
@@ -55,42 +55,56 @@ public class FeaturesVectorHeader {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
         // 10 first features written at this stage
 
         // block information (1)
-        res.append(" " + blockStatus);
+        res.append(' ').append(blockStatus);
 
         // line information (1)
-        res.append(" " + lineStatus);
+        res.append(' ').append(lineStatus);
 		
 		// line position/indentation (1)
-        res.append(" " + alignmentStatus);
+        res.append(' ').append(alignmentStatus);
 
         // font information (1)
-        res.append(" " + fontStatus);
+        res.append(' ').append(fontStatus);
 
         // font size information (1)
-        res.append(" " + fontSize);
+        res.append(' ').append(fontSize);
 
         // string type information (2)
         if (bold)
@@ -107,10 +121,10 @@ public class FeaturesVectorHeader {
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -162,7 +176,7 @@ public class FeaturesVectorHeader {
             res.append(" 0");
 
         // punctuation information (1)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // 28 features written at this point
 
@@ -193,11 +207,9 @@ public class FeaturesVectorHeader {
 
         // label - for training data (1)
         if (label != null)
-            res.append(" " + label + "\n");
+            res.append(' ').append(label).append('\n');
         else
             res.append(" 0\n");
-
-        return res.toString();
     }
 
 }
\ No newline at end of file
@@ -57,46 +57,60 @@ public class FeaturesVectorMonograph {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
 		
 		// second token string
 		if (secondString != null)
-			res.append(" " + secondString);
+			res.append(' ').append(secondString);
 		else
-			res.append(" " + string);
+			res.append(' ').append(string);
 		
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // block information (1)
 		if (blockStatus != null)
-			res.append(" " + blockStatus);
+			res.append(' ').append(blockStatus);
         //res.append(" 0");
 
         // line information (1)
 		if (lineStatus != null)
-			res.append(" " + lineStatus);
+			res.append(' ').append(lineStatus);
 		
         // line alignment/identation information (1)
         //res.append(" " + alignmentStatus);
 
         // page information (1)
-        res.append(" " + pageStatus);
+        res.append(' ').append(pageStatus);
 
         // font information (1)
-        res.append(" " + fontStatus);
+        res.append(' ').append(fontStatus);
 
         // font size information (1)
-        res.append(" " + fontSize);
+        res.append(' ').append(fontSize);
 
         // string type information (3)
         if (bold)
@@ -113,10 +127,10 @@ public class FeaturesVectorMonograph {
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -162,16 +176,16 @@ public class FeaturesVectorMonograph {
 
         // punctuation information (1)
 		if (punctType != null)
-			res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+			res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // relative document position (1)
-        res.append(" " + relativeDocumentPosition);
+        res.append(' ').append(relativeDocumentPosition);
 
         // relative page position coordinate (1)
         //res.append(" " + relativePagePosition);
 		
         // relative page position characters (1)
-        res.append(" " + relativePagePositionChar);
+        res.append(' ').append(relativePagePositionChar);
 		
 		// punctuation profile
 		if ( (punctuationProfile == null) || (punctuationProfile.length() == 0) ) {
@@ -182,13 +196,13 @@ public class FeaturesVectorMonograph {
 		}
 		else {
 			// string profile
-			res.append(" " + punctuationProfile);
+			res.append(' ').append(punctuationProfile);
 			// number of punctuation symbols in the line
-			res.append(" "+punctuationProfile.length());
+			res.append(' ').append(punctuationProfile.length());
 		}
 
 		// current line length on a predefined scale and relative to the longest line of the current block
-		res.append(" " + lineLength);
+		res.append(' ').append(lineLength);
 
         if (bitmapAround) {
             res.append(" 1");
@@ -237,8 +251,6 @@ public class FeaturesVectorMonograph {
           */
 
         res.append("\n");
-
-        return res.toString();
     }
 
 }
\ No newline at end of file
@@ -49,7 +49,21 @@ public class FeaturesVectorReferenceSegmenter {
     public String printVector() {
         if (string == null) return null;
         if (string.length() == 0) return null;
-        StringBuilder res = new StringBuilder();
+        StringBuilder res = new StringBuilder(128);
+        printVector(res);
+        return res.toString();
+    }
+
+    /**
+     * Append the feature vector to the given buffer without building intermediary strings,
+     * same output as appending the result of {@link #printVector()}.
+     */
+    public void printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0)) {
+            // same as appending the null vector
+            res.append("null");
+            return;
+        }
 
         // token string (1)
         res.append(string);
@@ -58,22 +72,22 @@ public class FeaturesVectorReferenceSegmenter {
         res.append(" ").append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
+        TextUtilities.appendPrefix(res.append(' '), string, 1);
+        TextUtilities.appendPrefix(res.append(' '), string, 2);
+        TextUtilities.appendPrefix(res.append(' '), string, 3);
+        TextUtilities.appendPrefix(res.append(' '), string, 4);
 
         // suffix (4)
-        res.append(" " + TextUtilities.suffix(string, 1));
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
+        TextUtilities.appendSuffix(res.append(' '), string, 1);
+        TextUtilities.appendSuffix(res.append(' '), string, 2);
+        TextUtilities.appendSuffix(res.append(' '), string, 3);
+        TextUtilities.appendSuffix(res.append(' '), string, 4);
 
         // line information (1)
         res.append(" ").append(lineStatus);
 		
 		// line position/indentation (1)
-		res.append(" " + alignmentStatus);
+		res.append(' ').append(alignmentStatus);
 
         // capitalisation (1)
         if (digit.equals("ALLDIGIT"))
@@ -140,11 +154,11 @@ public class FeaturesVectorReferenceSegmenter {
         res.append(" ").append(relativePosition);
 
 		// relative position in the line on a predefined scale (1)
-		res.append(" " + lineLength);
+		res.append(' ').append(lineLength);
 
         // block information (1)
 		//if (blockStatus != null)
-		res.append(" " + blockStatus);
+		res.append(' ').append(blockStatus);
 
 		// punctuation profile
 		if ( (punctuationProfile == null) || (punctuationProfile.length() == 0) )
@@ -153,14 +167,12 @@ public class FeaturesVectorReferenceSegmenter {
 			int theLength = punctuationProfile.length();
 			if (theLength > 10) 
 				theLength = 10;
-			res.append(" " + theLength);
+			res.append(' ').append(theLength);
 		}
         // label - for training data (1)
         if (label != null)
             res.append(" ").append(label).append("\n");
         else
             res.append(" 0\n");
-
-        return res.toString();
     }
 }
@@ -0,0 +1,98 @@
+package org.grobid.core.features;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.grobid.core.utilities.GrobidProperties;
+
+/**
+ * Apply a computation to each page of a document, in the calling thread or, for the documents
+ * having at least grobid.features.parallel.pages pages, with one fork-join task per page.
+ * The page tasks run in a pool of grobid.features.parallel.threads threads dedicated to them,
+ * rather than in the common pool shared with the rest of the JVM.
+ * In both cases the results are returned in the order of the pages, so that they can be
+ * stitched together as if the pages were processed one after the other.
+ *
+ * The computation must only depend on its page and on document-level statistics computed
+ * beforehand, everything carried over from one page to the next has to be resolved
+ * afterwards by walking the results in order.
+ */
+public class PageTasks {
+
+    private static volatile ForkJoinPool pool;
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (PageTasks.class) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(GrobidProperties.getFeaturesParallelThreads(), p -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                        thread.setName("grobid-page-task-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Returns true if the features of a document with the given number of pages are
+     * computed in parallel
+     */
+    public static boolean isParallel(int nbPages) {
+        int minPages = GrobidProperties.getFeaturesParallelPages();
+        return (minPages > 0) && (nbPages >= minPages) && (nbPages > 1);
+    }
+
+    public static <P, R> List<R> map(List<P> pages, Function<? super P, ? extends R> task) {
+        return map(pages, task, isParallel(pages.size()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <P, R> List<R> map(List<P> pages, Function<? super P, ? extends R> task, boolean parallel) {
+        Object[] results = new Object[pages.size()];
+        if (parallel && (pages.size() > 1)) {
+            getPool().invoke(new PageRangeTask<>(pages, task, results, 0, pages.size()));
+        } else {
+            for (int i = 0; i < pages.size(); i++) {
+                results[i] = task.apply(pages.get(i));
+            }
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * Split a range of pages in two until a single page is left
+     */
+    private static class PageRangeTask<P, R> extends RecursiveAction {
+        private final List<P> pages;
+        private final Function<? super P, ? extends R> task;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+
+        PageRangeTask(List<P> pages, Function<? super P, ? extends R> task, Object[] results, int from, int to) {
+            this.pages = pages;
+            this.task = task;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = task.apply(pages.get(from));
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PageRangeTask<>(pages, task, results, from, middle),
+                    new PageRangeTask<>(pages, task, results, middle, to));
+            }
+        }
+    }
+}
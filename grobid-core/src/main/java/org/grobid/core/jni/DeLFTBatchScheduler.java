@@ -0,0 +1,157 @@
+package org.grobid.core.jni;
+
+import org.grobid.core.engines.tagging.GenericTaggerUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gather the labelling calls made concurrently on a DeLFT model by different threads, so
+ * that they are tagged together in a single inference. A dispatcher thread takes the first
+ * pending call, waits for other calls up to the maximum batch size or the maximum waiting
+ * time, labels the joined sequences and splits the result back to each caller. The calls
+ * arriving while a batch is being tagged are gathered in the next batch. The waiting time is
+ * only spent when the previous batch of the dispatcher gathered several calls, so that
+ * sequential calls are not delayed. With several copies of the model, one dispatcher thread
+ * per copy tags its batches in parallel with the others.
+ */
+public class DeLFTBatchScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeLFTBatchScheduler.class);
+
+    /**
+     * Labelling of sequences, separated by empty lines, in a single inference
+     */
+    public interface Labeller {
+        String label(String data) throws Exception;
+    }
+
+    private static class PendingLabel {
+        private final String data;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        PendingLabel(String data) {
+            this.data = data;
+        }
+    }
+
+    private final Labeller labeller;
+    private final int maxBatchSize;
+    private final long maxWaitMicros;
+    private final BlockingQueue<PendingLabel> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    public DeLFTBatchScheduler(String name, Labeller labeller, int maxBatchSize, long maxWaitMicros) {
+        this(name, labeller, maxBatchSize, maxWaitMicros, 1);
+    }
+
+    /**
+     * @param nbDispatchers number of batches tagged at the same time
+     */
+    public DeLFTBatchScheduler(String name, Labeller labeller, int maxBatchSize, long maxWaitMicros, int nbDispatchers) {
+        this.labeller = labeller;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitMicros = Math.max(0, maxWaitMicros);
+        for (int i = 0; i < Math.max(1, nbDispatchers); i++) {
+            Thread dispatcher = new Thread(this::dispatch, "delft-batch-" + name + "-" + i);
+            dispatcher.setDaemon(true);
+            dispatchers.add(dispatcher);
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Label the data together with the data of the other pending calls, waiting until the
+     * batch is tagged
+     */
+    public String label(String data) throws InterruptedException, ExecutionException {
+        if (closed) {
+            throw new IllegalStateException("The DeLFT batch scheduler is closed");
+        }
+        PendingLabel pending = new PendingLabel(data);
+        queue.add(pending);
+        // closed while being added, after the dispatcher has released the pending calls
+        if (closed && queue.remove(pending)) {
+            throw new IllegalStateException("The DeLFT batch scheduler is closed");
+        }
+        return pending.result.get();
+    }
+
+    public void close() {
+        closed = true;
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.interrupt();
+        }
+    }
+
+    private void dispatch() {
+        List<PendingLabel> batch = new ArrayList<>();
+        // calls are only waited for when they have recently been concurrent
+        boolean concurrent = false;
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + (concurrent ? TimeUnit.MICROSECONDS.toNanos(maxWaitMicros) : 0);
+                while (batch.size() < maxBatchSize) {
+                    // calls already waiting are taken without delay
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0)
+                        break;
+                    PendingLabel next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                concurrent = batch.size() > 1;
+                process(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } finally {
+            List<PendingLabel> remaining = new ArrayList<>(batch);
+            queue.drainTo(remaining);
+            for (PendingLabel pending : remaining) {
+                pending.result.completeExceptionally(new IllegalStateException("The DeLFT batch scheduler is closed"));
+            }
+        }
+    }
+
+    private void process(List<PendingLabel> batch) {
+        try {
+            if (batch.size() == 1) {
+                batch.get(0).result.complete(labeller.label(batch.get(0).data));
+                return;
+            }
+            List<String> sequences = new ArrayList<>(batch.size());
+            for (PendingLabel pending : batch) {
+                sequences.add(pending.data == null ? "" : pending.data);
+            }
+            String joined = GenericTaggerUtils.joinBatch(sequences);
+            List<String> results = GenericTaggerUtils.splitBatch(sequences,
+                joined.isEmpty() ? null : labeller.label(joined));
+            LOGGER.debug(batch.size() + " labelling calls tagged in one batch");
+            for (int i = 0; i < batch.size(); i++) {
+                String result = results.get(i);
+                // same ending as the labelling of a single call, one line per token
+                batch.get(i).result.complete(result.isEmpty() ? result : result + "\n");
+            }
+        } catch (Throwable e) {
+            // also errors from the native code, the dispatcher keeps serving the next calls
+            LOGGER.error("Labelling of a batch of " + batch.size() + " calls failed", e);
+            for (PendingLabel pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.grobid.core.jni;
+
+import org.grobid.core.engines.label.TaggingLabels;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structured form of the CRF-style input of a DeLFT model, exchanged with the embedded
+ * Python interpreter without formatting and parsing the whole data as text: the distinct
+ * tokens and feature values form a vocabulary, and each token line is a row of vocabulary
+ * ids (token first, then its features) in a direct buffer which is shared with NumPy.
+ * The labels come back as one label id per token, see {@link #toLabelled(int[], List)}.
+ */
+public class DeLFTInput {
+
+    // the non-empty token lines of all the sequences
+    private final List<String> lines = new ArrayList<>();
+    // number of tokens of each sequence
+    private final List<Integer> lengths = new ArrayList<>();
+    private final List<String> vocabulary = new ArrayList<>();
+    private int nbColumns = -1;
+    private IntBuffer ids;
+
+    private DeLFTInput() {
+    }
+
+    /**
+     * @param data the sequences in CRF format, one token with its features per line and the
+     *             sequences separated by an empty line
+     * @return the structured input, or null when the lines do not all have the same number
+     * of columns
+     */
+    public static DeLFTInput parse(String data) {
+        DeLFTInput input = new DeLFTInput();
+        List<String[]> rows = new ArrayList<>();
+        int length = 0;
+        for (String line : data.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                if (length > 0) {
+                    input.lengths.add(length);
+                    length = 0;
+                }
+                continue;
+            }
+            String[] columns = line.split("[ \t]+");
+            if (input.nbColumns == -1) {
+                input.nbColumns = columns.length;
+            } else if (columns.length != input.nbColumns) {
+                return null;
+            }
+            input.lines.add(line);
+            rows.add(columns);
+            length++;
+        }
+        if (length > 0) {
+            input.lengths.add(length);
+        }
+        if (rows.isEmpty()) {
+            input.nbColumns = 0;
+        }
+
+        Map<String, Integer> index = new HashMap<>();
+        input.ids = ByteBuffer.allocateDirect(4 * Math.max(1, rows.size() * input.nbColumns))
+            .order(ByteOrder.nativeOrder()).asIntBuffer();
+        for (String[] columns : rows) {
+            for (String column : columns) {
+                Integer id = index.get(column);
+                if (id == null) {
+                    id = input.vocabulary.size();
+                    index.put(column, id);
+                    input.vocabulary.add(column);
+                }
+                input.ids.put(id);
+            }
+        }
+        input.ids.rewind();
+        return input;
+    }
+
+    public int getNbTokens() {
+        return lines.size();
+    }
+
+    /**
+     * @return number of columns of a token line, the token itself and its features
+     */
+    public int getNbColumns() {
+        return nbColumns;
+    }
+
+    /**
+     * @return the vocabulary ids of the token lines, row by row
+     */
+    public IntBuffer getIds() {
+        return ids;
+    }
+
+    public int[] getLengths() {
+        int[] result = new int[lengths.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = lengths.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the vocabulary, one entry per line, tokens and features having no whitespace
+     */
+    public String getVocabulary() {
+        return String.join("\n", vocabulary);
+    }
+
+    /**
+     * Same labelled output as the text exchange: each token line followed by its label,
+     * the tokens without label (e.g. beyond the maximum length of the model) being
+     * labelled as other.
+     *
+     * @param labelIds the id of the label of each token, -1 for no label
+     * @param labels   the labels, indexed by their ids
+     */
+    public String toLabelled(int[] labelIds, List<String> labels) {
+        StringBuilder labelled = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            labelled.append(lines.get(i)).append(" ");
+            int labelId = (i < labelIds.length) ? labelIds[i] : -1;
+            if (labelId < 0 || labelId >= labels.size()) {
+                labelled.append(TaggingLabels.OTHER_LABEL);
+            } else {
+                labelled.append(labels.get(labelId));
+            }
+            labelled.append("\n");
+        }
+        return labelled.toString();
+    }
+}
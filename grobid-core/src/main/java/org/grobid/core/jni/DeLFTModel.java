@@ -9,13 +9,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.*;  
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.*;
 import java.lang.StringBuilder;
 import java.util.*;
 import java.util.regex.*;
 
+import jep.DirectNDArray;
 import jep.Jep;
 import jep.JepException;
+import jep.NDArray;
 
 import java.util.function.Consumer;
 
@@ -30,15 +33,40 @@ public class DeLFTModel {
     private String modelName;
     private String architecture;
 
+    // interpreters of the JEP pool with a copy of the model loaded
+    private int[] interpreters;
+
+    // gathers the concurrent labelling calls on the model in a single inference, null if no batching
+    private DeLFTBatchScheduler batchScheduler = null;
+
+    // number of consecutive failures of the structured exchange after which it is disabled
+    private static final int MAX_STRUCTURED_FAILURES = 5;
+
+    // the input is passed to the interpreter as arrays rather than as text, until it fails 
+    // MAX_STRUCTURED_FAILURES times in a row
+    private volatile boolean structuredExchange = true;
+    private final AtomicInteger structuredFailures = new AtomicInteger();
+
     public DeLFTModel(GrobidModel model, String architecture) {
         this.modelName = model.getModelName().replace("-", "_");
         this.architecture = architecture;
+        JEPThreadPool pool = JEPThreadPool.getInstance();
+        this.interpreters = pool.pin(GrobidProperties.getDelftModelCopies(model, pool.getNbInterpreters()));
         try {
-            LOGGER.info("Loading DeLFT model for " + model.getModelName() + " with architecture " + architecture + "...");            
-            JEPThreadPool.getInstance().run(new InitModel(this.modelName, GrobidProperties.getInstance().getModelPath(), architecture));
+            LOGGER.info("Loading DeLFT model for " + model.getModelName() + " with architecture " + architecture + 
+                " in " + interpreters.length + " interpreter(s)...");
+            for (int interpreter : interpreters) {
+                pool.run(interpreter, new InitModel(this.modelName, GrobidProperties.getInstance().getModelPath(), architecture));
+            }
         } catch(InterruptedException e) {
             LOGGER.error("DeLFT model " + this.modelName + " initialization failed", e);
         }
+        int batchSize = GrobidProperties.getDelftBatchSize();
+        if (batchSize > 1) {
+            batchScheduler = new DeLFTBatchScheduler(this.modelName, 
+                data -> JEPThreadPool.getInstance().call(interpreters, new LabelTask(this.modelName, data, this.architecture)), 
+                batchSize, GrobidProperties.getDelftBatchMaxWait(), interpreters.length);
+        }
     }
 
     class InitModel implements Runnable { 
@@ -106,9 +134,81 @@ public class DeLFTModel {
             }
         }
 
+        /**
+         * Structured exchange: the token and feature ids are shared with NumPy, the x_all and 
+         * f_all lists are built from them in Python, and the labels come back as an int array,
+         * so that the data is neither formatted nor parsed as a whole.
+         */
+        private String callStructured(Jep jep) throws JepException {
+            DeLFTInput input = DeLFTInput.parse(this.data);
+            if (input == null)
+                return null;
+            if (input.getNbTokens() == 0)
+                return "";
+            try {
+                int[] lengths = input.getLengths();
+                jep.set("vocab_str", input.getVocabulary());
+                jep.set("input_ids", new DirectNDArray<>(input.getIds(), input.getNbTokens(), input.getNbColumns()));
+                jep.set("input_lengths", new NDArray<>(lengths, lengths.length));
+                jep.eval("vocab = np.array(vocab_str.split('\\n'), dtype=object)");
+                jep.eval("input_columns = vocab[input_ids]");
+                jep.eval("input_offsets = np.concatenate(([0], np.cumsum(input_lengths))).astype(int)");
+                jep.eval("x_all = [input_columns[input_offsets[i]:input_offsets[i+1], 0].tolist() for i in range(len(input_lengths))]");
+                jep.eval("f_all = [input_columns[input_offsets[i]:input_offsets[i+1], 1:].tolist() for i in range(len(input_lengths))]");
+                if (architecture.indexOf("FEATURE") != -1) {
+                    // model is expecting features
+                    jep.eval("results = " + this.modelName + ".tag(x_all, None, features=f_all)");
+                } else {
+                    // no features used by the model
+                    jep.eval("results = " + this.modelName + ".tag(x_all, None)");
+                }
+
+                // one label id per input token, -1 for the tokens not labelled by the model
+                jep.eval("labels = sorted(set(pair[1] for result in results for pair in result))");
+                jep.eval("label_index = dict((label, i) for i, label in enumerate(labels))");
+                jep.eval("label_ids = np.array([(label_index[results[i][j][1]] if i < len(results) and j < len(results[i]) else -1) " + 
+                    "for i in range(len(input_lengths)) for j in range(input_lengths[i])], dtype=np.int32)");
+                Object labelIds = jep.getValue("label_ids");
+                String labelNames = (String) jep.getValue("'\\n'.join(labels)");
+
+                List<String> labels = new ArrayList<>();
+                if (!labelNames.isEmpty()) {
+                    for (String label : labelNames.split("\n")) {
+                        labels.add(DeLFTModel.delft2grobidLabel(label));
+                    }
+                }
+                int[] ids = (labelIds instanceof NDArray) ? (int[]) ((NDArray<?>) labelIds).getData() : (int[]) labelIds;
+                return input.toLabelled(ids, labels);
+            } finally {
+                // cleaning
+                jep.eval("vocab_str = vocab = input_ids = input_lengths = input_columns = input_offsets = None");
+                jep.eval("x_all = f_all = results = labels = label_index = label_ids = None");
+            }
+        }
+
         @Override
         public String call() { 
             Jep jep = JEPThreadPool.getInstance().getJEPInstance(); 
+            if (structuredExchange) {
+                try {
+                    String result = callStructured(jep);
+                    structuredFailures.set(0);
+                    if (result != null)
+                        return result;
+                } catch(JepException | RuntimeException e) {
+                    // a failure can come from the data of this call only, the next calls still 
+                    // try the structured exchange
+                    if (structuredFailures.incrementAndGet() >= MAX_STRUCTURED_FAILURES) {
+                        structuredExchange = false;
+                        LOGGER.error("Structured data exchange with DeLFT model " + this.modelName + 
+                            " failed " + MAX_STRUCTURED_FAILURES + " times in a row, it is disabled " + 
+                            "and the text exchange is used from now on", e);
+                    } else {
+                        LOGGER.warn("Structured data exchange with DeLFT model " + this.modelName + 
+                            " failed, falling back to text exchange for this call", e);
+                    }
+                }
+            }
             StringBuilder labelledData = new StringBuilder();
             try {
                 //System.out.println(this.data);
@@ -183,7 +283,10 @@ public class DeLFTModel {
     public String label(String data) {
         String result = null;
         try {
-            result = JEPThreadPool.getInstance().call(new LabelTask(this.modelName, data, this.architecture));
+            if (batchScheduler != null)
+                result = batchScheduler.label(data);
+            else
+                result = JEPThreadPool.getInstance().call(interpreters, new LabelTask(this.modelName, data, this.architecture));
         } catch(InterruptedException e) {
             LOGGER.error("DeLFT model " + this.modelName + " labelling interrupted", e);
         } catch(ExecutionException e) {
@@ -315,11 +418,18 @@ public class DeLFTModel {
     }
 
     public synchronized void close() {
+        if (batchScheduler != null) {
+            batchScheduler.close();
+        }
         try {
             LOGGER.info("Close DeLFT model " + this.modelName + "...");
-            JEPThreadPool.getInstance().run(new CloseModel(this.modelName));
+            for (int interpreter : interpreters) {
+                JEPThreadPool.getInstance().run(interpreter, new CloseModel(this.modelName));
+            }
         } catch(InterruptedException e) {
             LOGGER.error("Close DeLFT model " + this.modelName + " task failed", e);
+        } finally {
+            JEPThreadPool.getInstance().unpin(interpreters);
         }
     }
 
@@ -1,6 +1,7 @@
 package org.grobid.core.jni;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.*;
 import java.io.*;
 import java.nio.file.Path;
@@ -20,6 +21,11 @@ import org.slf4j.LoggerFactory;
  * JEP presents the following constraint: A thread that creates a JEP instance
  * must be reused for all method calls to that JEP instance. For ensuring this,
  * we pool the Jep instances in a singleton class.
+ *
+ * The pool has one or several interpreters (grobid.delft.interpreters), each one with 
+ * its own thread and JEP instance, so with its own copies of the models loaded in it. 
+ * A model is pinned to some of the interpreters, and its tasks are sent to the least 
+ * loaded of them.
  */
 
 public class JEPThreadPool {
@@ -27,9 +33,17 @@ public class JEPThreadPool {
 
     private int POOL_SIZE = 1;
 
-    private ExecutorService executor;
+    // one single thread executor per interpreter
+    private List<ExecutorService> executors;
+    // number of tasks submitted to each interpreter and not yet completed
+    private AtomicInteger[] loads;
+    // number of models pinned to each interpreter
+    private int[] nbPinnedModels;
     private Map<Long, Jep> jepInstances;
 
+    // the extension modules imported, directly or not, by DeLFT
+    static final String[] SHARED_MODULES = {"numpy", "scipy", "h5py", "tensorflow", "keras", "sklearn"};
+
     private static volatile JEPThreadPool instance;
 
     public static JEPThreadPool getInstance() {
@@ -51,11 +65,59 @@ public class JEPThreadPool {
      * Hidden constructor
      */
     private JEPThreadPool() {
+        this(GrobidProperties.getDelftInterpreters());
+    }
+
+    JEPThreadPool(int nbInterpreters) {
         // creating a pool of POOL_SIZE threads
-        //executor = Executors.newFixedThreadPool(POOL_SIZE); 
-        executor = Executors.newSingleThreadExecutor();
+        POOL_SIZE = Math.max(1, nbInterpreters);
+        executors = new ArrayList<>();
+        loads = new AtomicInteger[POOL_SIZE];
+        nbPinnedModels = new int[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            final String name = "jep-interpreter-" + i;
+            executors.add(Executors.newSingleThreadExecutor(task -> new Thread(task, name)));
+            loads[i] = new AtomicInteger();
+        }
         // each of these threads is associated to a JEP instance
         jepInstances = new ConcurrentHashMap<>();
+        if (POOL_SIZE > 1) {
+            LOGGER.warn("Experimental: " + POOL_SIZE + " DeLFT interpreters sharing the modules " + 
+                String.join(", ", SHARED_MODULES));
+        }
+    }
+
+    public int getNbInterpreters() {
+        return POOL_SIZE;
+    }
+
+    /**
+     * Pin a model to the given number of interpreters, the ones with the fewest models 
+     * so that the model copies are spread over the interpreters.
+     *
+     * @return the indexes of the interpreters of the model
+     */
+    public synchronized int[] pin(int copies) {
+        copies = Math.max(1, Math.min(copies, POOL_SIZE));
+        Integer[] order = new Integer[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> nbPinnedModels[i1] != nbPinnedModels[i2] ? 
+            Integer.compare(nbPinnedModels[i1], nbPinnedModels[i2]) : Integer.compare(i1, i2));
+        int[] interpreters = new int[copies];
+        for (int i = 0; i < copies; i++) {
+            interpreters[i] = order[i];
+            nbPinnedModels[order[i]]++;
+        }
+        Arrays.sort(interpreters);
+        return interpreters;
+    }
+
+    public synchronized void unpin(int[] interpreters) {
+        for (int interpreter : interpreters) {
+            nbPinnedModels[interpreter] = Math.max(0, nbPinnedModels[interpreter] - 1);
+        }
     }
 
     private File getAndValidateDelftPath() {
@@ -78,6 +140,11 @@ public class JEPThreadPool {
             config.addIncludePaths(sitePackagesPath.toString());
         }
         config.setClassLoader(Thread.currentThread().getContextClassLoader());
+        if (POOL_SIZE > 1) {
+            // CPython extension modules do not support being loaded separately in each 
+            // sub-interpreter, they are loaded once and shared by all the interpreters
+            config.addSharedModules(SHARED_MODULES);
+        }
         return config;
     }
 
@@ -149,8 +216,15 @@ public class JEPThreadPool {
     }
 
     public void run(Runnable task) throws InterruptedException {
+        run(0, task);
+    }
+
+    /**
+     * Run a task in the given interpreter, e.g. loading a model copy
+     */
+    public void run(int interpreter, Runnable task) throws InterruptedException {
         System.out.println("running thread: " + Thread.currentThread().getId());
-        Future future = executor.submit(task);
+        Future future = executors.get(interpreter).submit(task);
         // wait until done (in ms)
         while (!future.isDone()) {
             Thread.sleep(1);
@@ -158,9 +232,41 @@ public class JEPThreadPool {
     }
 
     public String call(Callable<String> task) throws InterruptedException, ExecutionException {
-        Future<String> future = executor.submit(task);
+        return call(new int[] {0}, task);
+    }
+
+    /**
+     * Call a task in the least loaded of the given interpreters
+     */
+    public <T> T call(int[] interpreters, Callable<T> task) throws InterruptedException, ExecutionException {
+        int interpreter = interpreters[0];
+        for (int i = 1; i < interpreters.length; i++) {
+            if (loads[interpreters[i]].get() < loads[interpreter].get())
+                interpreter = interpreters[i];
+        }
+        final AtomicInteger load = loads[interpreter];
+        load.incrementAndGet();
+        Future<T> future;
+        try {
+            future = executors.get(interpreter).submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    load.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            load.decrementAndGet();
+            throw e;
+        }
         // block until done
         return future.get();
     }
 
+    void shutdown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+    }
+
 }
\ No newline at end of file
@@ -49,7 +49,7 @@ public class WapitiModel {
         String label = WapitiWrapper.label(model, data).trim();
         //TODO: VZ: Grobid currently expects tabs as separators whereas wapiti uses spaces for separating features.
         // for now it is safer to replace, although it does not look nice
-        label = label.replaceAll(" ", "\t");
+        label = label.replace(' ', '\t');
         return label;
     }
 
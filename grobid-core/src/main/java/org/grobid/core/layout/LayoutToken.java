@@ -67,7 +67,7 @@ public class LayoutToken implements Comparable<LayoutToken>, Serializable {
 
         // deep copy of the TaggingLabel list
         if (token.labels != null) {
-            this.labels = new ArrayList<TaggingLabel>();
+            this.labels = new ArrayList<TaggingLabel>(token.labels.size());
             for(TaggingLabel l : token.labels) {
                 this.labels.add(l);
             }
@@ -252,8 +252,9 @@ public class LayoutToken implements Comparable<LayoutToken>, Serializable {
 	 * Add a TaggingLabel to this token
 	 */
 	public void addLabel(TaggingLabel label) {
+		// tokens usually get very few labels, avoid the default capacity of 10
 		if (this.labels == null)
-			this.labels = new ArrayList<TaggingLabel>();
+			this.labels = new ArrayList<TaggingLabel>(2);
 		if (!hasLabel(label))
 			this.labels.add(label);
 	}
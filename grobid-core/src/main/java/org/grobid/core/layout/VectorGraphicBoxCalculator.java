@@ -6,17 +6,21 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import net.sf.saxon.om.Item;
-import net.sf.saxon.om.SequenceIterator;
-import net.sf.saxon.trans.XPathException;
 import org.grobid.core.document.Document;
-import org.grobid.core.exceptions.GrobidException;
-import org.grobid.core.utilities.XQueryProcessor;
-
+import org.grobid.core.features.PageTasks;
+import org.grobid.core.sax.PDFALTOVectorGraphicsSaxHandler;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.SAXParserPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.IOException;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,13 +28,13 @@ import java.util.List;
  * Workign with vector graphics
  */
 public class VectorGraphicBoxCalculator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VectorGraphicBoxCalculator.class);
 
     public static final int MINIMUM_VECTOR_BOX_AREA = 3000;
-    public static final int VEC_GRAPHICS_FILE_SIZE_LIMIT = 10 * 1024 * 1024;
 
-    public static Multimap<Integer, GraphicObject> calculate(Document document) throws IOException, XPathException {
+    public static Multimap<Integer, GraphicObject> calculate(final Document document) {
 
-        Multimap<Integer, Block> blockMultimap = HashMultimap.create();
+        final Multimap<Integer, Block> blockMultimap = HashMultimap.create();
 
         Multimap<Integer, GraphicObject> result = LinkedHashMultimap.create();
 
@@ -42,60 +46,74 @@ public class VectorGraphicBoxCalculator {
 //            }
         //}
 
+        List<Integer> pageNumbers = new ArrayList<>();
         for (int pageNum = 1; pageNum <= document.getPages().size(); pageNum++) {
-            BoundingBox mainPageArea = document.getPage(pageNum).getMainArea();
+            pageNumbers.add(pageNum);
+        }
 
-            String q = XQueryProcessor.getQueryFromResources("vector-coords.xq");
-            File vecFile = new File(document.getDocumentSource().getXmlFile().getAbsolutePath() + "_data", "image-" + pageNum + ".svg");
-            if (vecFile.exists()) {
-                if (vecFile.length() > VEC_GRAPHICS_FILE_SIZE_LIMIT) {
-                    throw new GrobidException("The vector file " + vecFile + " is too large to be processed, size: " + vecFile.length());
-                }
-                XQueryProcessor pr = new XQueryProcessor(vecFile);
+        // the SVG file of each page is independent from the other pages
+        List<List<BoundingBox>> pageBoxes = PageTasks.map(pageNumbers,
+            pageNum -> calculatePage(document, pageNum, blockMultimap.get(pageNum)));
 
-                SequenceIterator it = pr.getSequenceIterator(q);
-                Item item;
-                List<BoundingBox> boxes = new ArrayList<>();
+        for (int i = 0; i < pageNumbers.size(); i++) {
+            for (BoundingBox b : pageBoxes.get(i)) {
+                result.put(pageNumbers.get(i), new GraphicObject(b, GraphicObjectType.VECTOR_BOX));
+            }
+        }
+        return result;
+    }
 
-                while ((item = it.next()) != null) {
-                    String c = item.getStringValue();
-                    // TODO: figure out why such string are returned at all (AS:602281691082754@1520606553791)
-                    if (c.equals(",,,")) {
-                        continue;
-                    }
-                    String coords = pageNum + "," + c;
-                    BoundingBox e = BoundingBox.fromString(coords);
-                    if (!mainPageArea.contains(e) || e.area() / mainPageArea.area() > 0.7) {
-                        continue;
-                    }
-                    boxes.add(e);
-                }
+    private static List<BoundingBox> calculatePage(Document document, int pageNum, Collection<Block> col) {
+        File vecFile = new File(document.getDocumentSource().getXmlFile().getAbsolutePath() + "_data", "image-" + pageNum + ".svg");
+        if (!vecFile.exists()) {
+            return Collections.emptyList();
+        }
+        long maxSize = GrobidProperties.getPdfVectorGraphicsMaxSize() * 1024L * 1024L;
+        if ((maxSize > 0) && (vecFile.length() > maxSize)) {
+            // only the vector graphics of this page are lost
+            LOGGER.warn("The vector file " + vecFile + " is larger than the limit of "
+                + GrobidProperties.getPdfVectorGraphicsMaxSize() + "MB, size: " + vecFile.length());
+            return Collections.emptyList();
+        }
 
+        PDFALTOVectorGraphicsSaxHandler handler = new PDFALTOVectorGraphicsSaxHandler(pageNum);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(vecFile))) {
+            SAXParserPool.getParser().parse(in, handler);
+        } catch (Exception e) {
+            LOGGER.warn("Cannot parse the vector file " + vecFile, e);
+            return Collections.emptyList();
+        }
+
+        BoundingBox mainPageArea = document.getPage(pageNum).getMainArea();
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (BoundingBox e : handler.getBoundingBoxes()) {
+            if (!mainPageArea.contains(e) || e.area() / mainPageArea.area() > 0.7) {
+                continue;
+            }
+            boxes.add(e);
+        }
 
-                List<BoundingBox> remainingBoxes = mergeBoxes(boxes);
+        List<BoundingBox> remainingBoxes = mergeBoxes(boxes);
 
-                for (int i = 0; i < remainingBoxes.size(); i++) {
-                    Collection<Block> col = blockMultimap.get(pageNum);
-                    for (Block bl : col) {
+        for (int i = 0; i < remainingBoxes.size(); i++) {
+            for (Block bl : col) {
 //                    if (!bl.getPage().getMainArea().contains(b)) {
 //                        continue;
 //                    }
 
-                        BoundingBox b = BoundingBox.fromPointAndDimensions(pageNum, bl.getX(), bl.getY(), bl.getWidth(), bl.getHeight());
-                        if (remainingBoxes.get(i).intersect(b)) {
-                            remainingBoxes.set(i, remainingBoxes.get(i).boundBox(b));
-                        }
-                    }
+                BoundingBox b = BoundingBox.fromPointAndDimensions(pageNum, bl.getX(), bl.getY(), bl.getWidth(), bl.getHeight());
+                if (remainingBoxes.get(i).intersect(b)) {
+                    remainingBoxes.set(i, remainingBoxes.get(i).boundBox(b));
                 }
+            }
+        }
 
-                remainingBoxes = mergeBoxes(remainingBoxes);
-
-                for (BoundingBox b : remainingBoxes) {
-                    if (b.area() > MINIMUM_VECTOR_BOX_AREA) {
-                        result.put(pageNum, new GraphicObject(b, GraphicObjectType.VECTOR_BOX));
-                    }
-                }
+        remainingBoxes = mergeBoxes(remainingBoxes);
 
+        List<BoundingBox> result = new ArrayList<>();
+        for (BoundingBox b : remainingBoxes) {
+            if (b.area() > MINIMUM_VECTOR_BOX_AREA) {
+                result.add(b);
             }
         }
         return result;
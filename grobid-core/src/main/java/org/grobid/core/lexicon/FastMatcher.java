@@ -26,12 +26,9 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * @author Patrice Lopez
  */
 public final class FastMatcher {
-    private Map terms = null;
+    private TokenTrie terms = new TokenTrie();
 
     public FastMatcher() {
-        if (terms == null) {
-            terms = new HashMap();
-        }
     }
 
     public FastMatcher(File file) {
@@ -137,10 +134,6 @@ public final class FastMatcher {
         InputStreamReader reader = new InputStreamReader(is, UTF_8);
         BufferedReader bufReader = new BufferedReader(reader);
         String line;
-        if (terms == null) {
-            terms = new HashMap();
-        }
-        //Map t = terms;
         int nbTerms = 0;
         //String token = null;
         while ((line = bufReader.readLine()) != null) {
@@ -181,7 +174,7 @@ public final class FastMatcher {
         int nbTerms = 0;
         if (isBlank(term))
             return 0;
-        Map t = terms;
+        int t = TokenTrie.ROOT;
         //StringTokenizer st = new StringTokenizer(term, " \n\t" + TextUtilities.fullPunctuations, false);
         //while (st.hasMoreTokens()) {
         List<String> tokens = analyzer.tokenize(term, new Language("en", 1.0));
@@ -199,26 +192,84 @@ public final class FastMatcher {
             if (!caseSensitive) {
                 token = token.toLowerCase();
             }
-            Map t2 = (Map) t.get(token);
-            if (t2 == null) {
-                t2 = new HashMap();
-                t.put(token, t2);
-            }
-            t = t2;
+            t = terms.addChild(t, token);
         }
         // end of the term
-        if (t != terms) {
-            Map t2 = (Map) t.get("#");
-            if (t2 == null) {
-                t2 = new HashMap();
-                t.put("#", t2);
-            }
+        if (t != TokenTrie.ROOT) {
+            terms.setTerminal(t);
             nbTerms++;
-            t = terms;
         }
         return nbTerms;
     }
 
+    /**
+     * Matchings in progress while going through the tokens: current trie node, position of 
+     * the first token and position of the end of the last matched token.
+     */
+    private static final class OpenMatches {
+        private int[] nodes = new int[8];
+        private int[] starts = new int[8];
+        private int[] lastPositions = new int[8];
+        private int size = 0;
+
+        void add(int node, int start, int lastPosition) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                lastPositions = Arrays.copyOf(lastPositions, size * 2);
+            }
+            nodes[size] = node;
+            starts[size] = start;
+            lastPositions[size] = lastPosition;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Extend the open matchings with the next token and start a new matching at this token. 
+     * The matchings ending right before the token are added to the results.
+     *
+     * @param current the open matchings before the token
+     * @param next receives the open matchings after the token
+     * @param lastPosition position of the end of the token, recorded for the extended matchings
+     */
+    private void step(String token, int position, int lastPosition, OpenMatches current, OpenMatches next,
+                      List<OffsetPosition> results) {
+        int tokenId = terms.getTokenId(token);
+        for (int i = 0; i < current.size; i++) {
+            int child = terms.getChild(current.nodes[i], tokenId);
+            if (child != TokenTrie.NONE) {
+                next.add(child, current.starts[i], lastPosition);
+            }
+            if (terms.isTerminal(current.nodes[i])) {
+                // end of the current term, matching successful
+                results.add(new OffsetPosition(current.starts[i], current.lastPositions[i]));
+            }
+        }
+
+        // we start new matching starting at the current token
+        int child = terms.getChild(TokenTrie.ROOT, tokenId);
+        if (child != TokenTrie.NONE) {
+            next.add(child, position, lastPosition);
+        }
+    }
+
+    /**
+     * Test if the end of the input corresponds to the end of terms.
+     */
+    private void finish(OpenMatches current, List<OffsetPosition> results) {
+        for (int i = 0; i < current.size; i++) {
+            if (terms.isTerminal(current.nodes[i])) {
+                // end of the current term, matching successful
+                results.add(new OffsetPosition(current.starts[i], current.lastPositions[i]));
+            }
+        }
+    }
+
     private static String delimiters = TextUtilities.delimiters;
 
     /**
@@ -242,9 +293,8 @@ public final class FastMatcher {
      */
     public List<OffsetPosition> matchToken(String text, boolean caseSensitive) {
         List<OffsetPosition> results = new ArrayList<OffsetPosition>();
-        List<Integer> startPos = new ArrayList<Integer>();
-        List<Integer> lastNonSeparatorPos = new ArrayList<Integer>();
-        List<Map> t = new ArrayList<Map>();
+        OpenMatches current = new OpenMatches();
+        OpenMatches next = new OpenMatches();
         int currentPos = 0;
         StringTokenizer st = new StringTokenizer(text, delimiters, true);
         while (st.hasMoreTokens()) {
@@ -264,62 +314,18 @@ public final class FastMatcher {
             if (!caseSensitive) 
                 token = token.toLowerCase();
 
-            // we try to complete opened matching
-            int i = 0;
-            List<Map> new_t = new ArrayList<Map>();
-            List<Integer> new_startPos = new ArrayList<Integer>();
-            List<Integer> new_lastNonSeparatorPos = new ArrayList<Integer>();
-            // continuation of current opened matching
-            for (Map tt : t) {
-                Map t2 = (Map) tt.get(token);
-                if (t2 != null) {
-                    new_t.add(t2);
-                    new_startPos.add(startPos.get(i));
-                    new_lastNonSeparatorPos.add(currentPos);
-                }
-                //else
-                {
-                    t2 = (Map) tt.get("#");
-                    if (t2 != null) {
-                        // end of the current term, matching sucesssful
-                        OffsetPosition ofp = new OffsetPosition();
-                        ofp.start = startPos.get(i).intValue();
-                        ofp.end = lastNonSeparatorPos.get(i).intValue();
-                        results.add(ofp);
-                    }
-                }
-                i++;
-            }
-
-            // we start new matching starting at the current token
-            Map t2 = (Map) terms.get(token);
-            if (t2 != null) {
-                new_t.add(t2);
-                new_startPos.add(Integer.valueOf(currentPos));
-                new_lastNonSeparatorPos.add(currentPos);
-            }
+            // we try to complete opened matching and start a new one at the current token
+            step(token, currentPos, currentPos, current, next, results);
 
-            t = new_t;
-            startPos = new_startPos;
-            lastNonSeparatorPos = new_lastNonSeparatorPos;
+            OpenMatches tmp = current;
+            current = next;
+            next = tmp;
+            next.clear();
             currentPos++;
         }
 
         // test if the end of the string correspond to the end of a term
-        int i = 0;
-        if (t != null) {
-            for (Map tt : t) {
-                Map t2 = (Map) tt.get("#");
-                if (t2 != null) {
-                    // end of the current term, matching sucesssful
-                    OffsetPosition ofp = new OffsetPosition();
-                    ofp.start = startPos.get(i).intValue();
-                    ofp.end = lastNonSeparatorPos.get(i).intValue();
-                    results.add(ofp);
-                }
-                i++;
-            }
-        }
+        finish(current, results);
 
         return results;
     }
@@ -365,9 +371,8 @@ public final class FastMatcher {
         }
 
         List<OffsetPosition> results = new ArrayList<>();
-        List<Integer> startPosition = new ArrayList<>();
-        List<Integer> lastNonSeparatorPos = new ArrayList<>();
-        List<Map> currentMatches = new ArrayList<>();
+        OpenMatches currentMatches = new OpenMatches();
+        OpenMatches nextMatches = new OpenMatches();
         int currentPos = 0;
         for(LayoutToken token : tokens) {
             if (token.getText().equals(" ") || token.getText().equals("\n")) {
@@ -384,59 +389,19 @@ public final class FastMatcher {
             if (!caseSensitive)
                 tokenText = tokenText.toLowerCase();
 
-            // we try to complete opened matching
-            int i = 0;
-            List<Map> matchesTreeList = new ArrayList<>();
-            List<Integer> matchesPosition = new ArrayList<>();
-            List<Integer> new_lastNonSeparatorPos = new ArrayList<>();
-
-            // we check whether the current token matches as continuation of a previous match.
-            for (Map currentMatch : currentMatches) {
-                Map childMatches = (Map) currentMatch.get(tokenText);
-                if (childMatches != null) {
-                    matchesTreeList.add(childMatches);
-                    matchesPosition.add(startPosition.get(i));
-                    new_lastNonSeparatorPos.add(currentPos);
-                }
-
-                //check if the token itself is present, I add the match in the list of results
-                childMatches = (Map) currentMatch.get("#");
-                if (childMatches != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-
-                i++;
-            }
-
-            // we start new matching starting at the current token
-            Map match = (Map) terms.get(tokenText);
-            if (match != null) {
-                matchesTreeList.add(match);
-                matchesPosition.add(currentPos);
-                new_lastNonSeparatorPos.add(currentPos);
-            }
+            // we check whether the current token matches as continuation of a previous match, 
+            // and start a new matching at the current token
+            step(tokenText, currentPos, currentPos, currentMatches, nextMatches, results);
 
-            currentMatches = matchesTreeList;
-            startPosition = matchesPosition;
-            lastNonSeparatorPos = new_lastNonSeparatorPos;
+            OpenMatches tmp = currentMatches;
+            currentMatches = nextMatches;
+            nextMatches = tmp;
+            nextMatches.clear();
             currentPos++;
         }
 
         // test if the end of the string correspond to the end of a term
-        int i = 0;
-        if (currentMatches != null) {
-            for (Map tt : currentMatches) {
-                Map t2 = (Map) tt.get("#");
-                if (t2 != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-                i++;
-            }
-        }
+        finish(currentMatches, results);
 
         return results;
     }
@@ -473,9 +438,8 @@ public final class FastMatcher {
      */
     public List<OffsetPosition> matchCharacter(String text, boolean caseSensitive) {
         List<OffsetPosition> results = new ArrayList<>();
-        List<Integer> startPosition = new ArrayList<>();
-        List<Integer> lastNonSeparatorPos = new ArrayList<>();
-        List<Map> currentMatches = new ArrayList<>();
+        OpenMatches currentMatches = new OpenMatches();
+        OpenMatches nextMatches = new OpenMatches();
         int currentPos = 0;
         StringTokenizer st = new StringTokenizer(text, delimiters, true);
         while (st.hasMoreTokens()) {
@@ -496,61 +460,21 @@ public final class FastMatcher {
             if (!caseSensitive) 
                 token = token.toLowerCase();
 
-            // we try to complete opened matching
-            int i = 0;
-            List<Map> matchesTreeList = new ArrayList<>();
-            List<Integer> matchesPosition = new ArrayList<>();
-            List<Integer> new_lastNonSeparatorPos = new ArrayList<>();
-
-            // we check whether the current token matches as continuation of a previous match.
-            for (Map currentMatch : currentMatches) {
-                Map childMatches = (Map) currentMatch.get(token);
-                if (childMatches != null) {
-                    matchesTreeList.add(childMatches);
-                    matchesPosition.add(startPosition.get(i));
-                    new_lastNonSeparatorPos.add(currentPos + token.length());
-                }
-
-                //check if the token itself is present, I add the match in the list of results
-                childMatches = (Map) currentMatch.get("#");
-                if (childMatches != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-
-                i++;
-            }
-
             //TODO: e.g. The Bronx matches 'The Bronx' and 'Bronx' is this correct? 
 
-            // we start new matching starting at the current token
-            Map match = (Map) terms.get(token);
-            if (match != null) {
-                matchesTreeList.add(match);
-                matchesPosition.add(currentPos);
-                new_lastNonSeparatorPos.add(currentPos + token.length());
-            }
+            // we check whether the current token matches as continuation of a previous match, 
+            // and start a new matching at the current token
+            step(token, currentPos, currentPos + token.length(), currentMatches, nextMatches, results);
 
-            currentMatches = matchesTreeList;
-            startPosition = matchesPosition;
-            lastNonSeparatorPos = new_lastNonSeparatorPos;
+            OpenMatches tmp = currentMatches;
+            currentMatches = nextMatches;
+            nextMatches = tmp;
+            nextMatches.clear();
             currentPos += token.length();
         }
 
         // test if the end of the string correspond to the end of a term
-        int i = 0;
-        if (currentMatches != null) {
-            for (Map tt : currentMatches) {
-                Map t2 = (Map) tt.get("#");
-                if (t2 != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-                i++;
-            }
-        }
+        finish(currentMatches, results);
 
         return results;
     }
@@ -582,9 +506,8 @@ public final class FastMatcher {
      */
     public List<OffsetPosition> matchCharacterLayoutToken(List<LayoutToken> tokens, boolean caseSensitive) {
         List<OffsetPosition> results = new ArrayList<>();
-        List<Integer> startPosition = new ArrayList<>();
-        List<Integer> lastNonSeparatorPos = new ArrayList<>();
-        List<Map> currentMatches = new ArrayList<>();
+        OpenMatches currentMatches = new OpenMatches();
+        OpenMatches nextMatches = new OpenMatches();
 
         int currentPos = 0;
 
@@ -606,59 +529,19 @@ public final class FastMatcher {
             if (!caseSensitive)
                 tokenString = tokenString.toLowerCase();
 
-            // we try to complete opened matching
-            int i = 0;
-            List<Map> matchesTreeList = new ArrayList<>();
-            List<Integer> matchesPosition = new ArrayList<>();
-            List<Integer> new_lastNonSeparatorPos = new ArrayList<>();
-
-            // we check whether the current token matches as continuation of a previous match.
-            for (Map currentMatch : currentMatches) {
-                Map childMatches = (Map) currentMatch.get(tokenString);
-                if (childMatches != null) {
-                    matchesTreeList.add(childMatches);
-                    matchesPosition.add(startPosition.get(i));
-                    new_lastNonSeparatorPos.add(currentPos);
-                }
-
-                //check if the token itself is present, I add the match in the list of results
-                childMatches = (Map) currentMatch.get("#");
-                if (childMatches != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-
-                i++;
-            }
-
-            // we start new matching starting at the current token
-            Map match = (Map) terms.get(tokenString);
-            if (match != null) {
-                matchesTreeList.add(match);
-                matchesPosition.add(currentPos);
-                new_lastNonSeparatorPos.add(currentPos);
-            }
+            // we check whether the current token matches as continuation of a previous match, 
+            // and start a new matching at the current token
+            step(tokenString, currentPos, currentPos, currentMatches, nextMatches, results);
 
-            currentMatches = matchesTreeList;
-            startPosition = matchesPosition;
-            lastNonSeparatorPos = new_lastNonSeparatorPos;
+            OpenMatches tmp = currentMatches;
+            currentMatches = nextMatches;
+            nextMatches = tmp;
+            nextMatches.clear();
             currentPos++;
         }
 
         // test if the end of the string correspond to the end of a term
-        int i = 0;
-        if (currentMatches != null) {
-            for (Map tt : currentMatches) {
-                Map t2 = (Map) tt.get("#");
-                if (t2 != null) {
-                    // end of the current term, matching successful
-                    OffsetPosition ofp = new OffsetPosition(startPosition.get(i), lastNonSeparatorPos.get(i));
-                    results.add(ofp);
-                }
-                i++;
-            }
-        }
+        finish(currentMatches, results);
 
         return results;
     }
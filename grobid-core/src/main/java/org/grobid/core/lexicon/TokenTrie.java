@@ -0,0 +1,140 @@
+package org.grobid.core.lexicon;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact trie over token sequences used by {@link FastMatcher}.
+ *
+ * Tokens are mapped once to integer ids, the nodes are plain integers and all the
+ * transitions (node, token id) -> child node of the trie are stored in a single open
+ * addressing hash table made of primitive arrays. Compared to a tree of nested maps,
+ * there is no object per node or per transition, which matters for the large gazetteers
+ * (journals, organisations, cities...), and following a transition is a lookup in an
+ * array without boxing.
+ */
+final class TokenTrie {
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private static final long EMPTY = -1L;
+    private static final float MAX_LOAD = 0.6f;
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+
+    // transitions, key is (node << 32 | token id)
+    private long[] keys;
+    private int[] children;
+    private int mask;
+    private int nbTransitions = 0;
+
+    // nodes where a term ends
+    private final BitSet terminals = new BitSet();
+    private int nbNodes = 1;
+
+    TokenTrie() {
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        children = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the id of the token, {@link #NONE} if the token does not appear in any term
+     */
+    int getTokenId(String token) {
+        Integer id = tokenIds.get(token);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * @return the child of the node for the given token id, {@link #NONE} if there is none
+     */
+    int getChild(int node, int tokenId) {
+        if (tokenId == NONE) {
+            return NONE;
+        }
+        long key = key(node, tokenId);
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return children[slot];
+            }
+            if (k == EMPTY) {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the child of the node for the given token, created if not yet present
+     */
+    int addChild(int node, String token) {
+        Integer id = tokenIds.get(token);
+        if (id == null) {
+            id = tokenIds.size();
+            tokenIds.put(token, id);
+        }
+        int child = getChild(node, id);
+        if (child != NONE) {
+            return child;
+        }
+        if (nbTransitions + 1 > keys.length * MAX_LOAD) {
+            rehash();
+        }
+        child = nbNodes++;
+        insert(key(node, id), child);
+        nbTransitions++;
+        return child;
+    }
+
+    boolean isTerminal(int node) {
+        return terminals.get(node);
+    }
+
+    void setTerminal(int node) {
+        terminals.set(node);
+    }
+
+    private void insert(long key, int child) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        children[slot] = child;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldChildren = children;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldChildren[i]);
+            }
+        }
+    }
+
+    private static long key(int node, int tokenId) {
+        return ((long) node << 32) | (tokenId & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        // murmur3 finalizer, the keys are very regular
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,261 @@
+package org.grobid.core.process;
+
+import org.apache.commons.io.IOUtils;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.exceptions.GrobidExceptionStatus;
+import org.grobid.core.utilities.GrobidProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Pool of long-lived pdfalto workers.
+ *
+ * Each worker is a shell started once and kept warm, which receives the pdfalto jobs over
+ * its stdin and streams back the pdfalto messages and exit code over its stdout. This avoids
+ * forking the JVM process and starting a new bash for every PDF. The memory limit
+ * (grobid.3rdparty.pdf2xml.memory.limit.mb) is applied to each job with ulimit in a sub-shell,
+ * the timeout (grobid.3rdparty.pdf2xml.timeout.sec) is enforced per job by killing the pdfalto
+ * process, the worker itself surviving to the next job.
+ *
+ * Not available under Windows.
+ */
+public class PdfAltoWorkerPool implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PdfAltoWorkerPool.class);
+
+    /**
+     * Exit code returned when a job is killed due to the timeout, same as pdfalto_server
+     */
+    public static final int KILLED_DUE_2_TIMEOUT = 143;
+
+    private static final String END_OF_JOB = "__GROBID_PDFALTO_END__";
+
+    private static volatile PdfAltoWorkerPool instance;
+
+    private final List<Worker> workers = new ArrayList<>();
+    private final BlockingQueue<Worker> available;
+    private final ScheduledExecutorService watchdog;
+
+    public static PdfAltoWorkerPool getInstance() {
+        if (instance == null) {
+            getNewInstance();
+        }
+        return instance;
+    }
+
+    private static synchronized void getNewInstance() {
+        if (instance == null) {
+            LOGGER.debug("Get new instance of PdfAltoWorkerPool");
+            instance = new PdfAltoWorkerPool(GrobidProperties.getPdfToXMLWorkers());
+        }
+    }
+
+    /**
+     * Hidden constructor
+     */
+    PdfAltoWorkerPool(int size) {
+        available = new ArrayBlockingQueue<>(size);
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setName("grobid-pdfalto-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < size; i++) {
+            Worker worker = new Worker(i);
+            workers.add(worker);
+            available.add(worker);
+        }
+        LOGGER.info("Started " + size + " pdfalto worker(s)");
+    }
+
+    /**
+     * Run a pdfalto command on a free worker, waiting for one if all of them are busy.
+     *
+     * @param cmd       pdfalto executable and its arguments
+     * @param timeoutMs maximum running time of the job
+     * @return the exit code of pdfalto, {@link #KILLED_DUE_2_TIMEOUT} if the job timed out
+     */
+    public Integer process(List<String> cmd, long timeoutMs) {
+        Worker worker;
+        try {
+            worker = available.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrobidException("Interrupted while waiting for a pdfalto worker", e);
+        }
+        try {
+            return worker.run(cmd, timeoutMs);
+        } finally {
+            available.offer(worker);
+        }
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    /**
+     * Single quote a token for the shell.
+     */
+    static String quote(String token) {
+        return "'" + token.replace("'", "'\\''") + "'";
+    }
+
+    static String buildJob(List<String> cmd, int memoryLimitMb) {
+        StringBuilder job = new StringBuilder();
+        job.append("( ulimit -Sv ").append(memoryLimitMb * 1024).append(" && exec");
+        for (String token : cmd) {
+            job.append(' ').append(quote(token));
+        }
+        job.append(" ) </dev/null 2>&1; echo \"").append(END_OF_JOB).append(" $?\"\n");
+        return job.toString();
+    }
+
+    /**
+     * One long-lived shell receiving pdfalto commands.
+     */
+    private class Worker {
+        private final int id;
+        private Process shell;
+        private Writer stdin;
+        private BufferedReader stdout;
+        private String shellPid;
+        // id of the current job, the watchdog of a previous job must not kill it
+        private long currentJob = 0;
+        private boolean jobRunning = false;
+
+        Worker(int id) {
+            this.id = id;
+            start();
+        }
+
+        private void start() {
+            try {
+                ProcessBuilder builder = new ProcessBuilder("bash");
+                builder.redirectErrorStream(true);
+                shell = builder.start();
+                stdin = new OutputStreamWriter(shell.getOutputStream(), UTF_8);
+                stdout = new BufferedReader(new InputStreamReader(shell.getInputStream(), UTF_8));
+                stdin.write("echo $$\n");
+                stdin.flush();
+                shellPid = stdout.readLine();
+            } catch (IOException e) {
+                throw new GrobidException("Cannot start pdfalto worker " + id, e,
+                    GrobidExceptionStatus.PDFTOXML_CONVERSION_FAILURE);
+            }
+            if (shellPid == null) {
+                throw new GrobidException("Cannot start pdfalto worker " + id,
+                    GrobidExceptionStatus.PDFTOXML_CONVERSION_FAILURE);
+            }
+            LOGGER.debug("pdfalto worker " + id + " started with PID " + shellPid.trim());
+        }
+
+        private void stop() {
+            if (shell != null) {
+                IOUtils.closeQuietly(stdin, stdout);
+                shell.destroy();
+                shell = null;
+            }
+        }
+
+        private void restart() {
+            stop();
+            start();
+        }
+
+        Integer run(List<String> cmd, long timeoutMs) {
+            if (shell == null || !shell.isAlive()) {
+                restart();
+            }
+            final long job;
+            synchronized (this) {
+                job = ++currentJob;
+                jobRunning = true;
+            }
+            AtomicBoolean timedOut = new AtomicBoolean(false);
+            ScheduledFuture<?> killer = watchdog.schedule(() -> killJob(job, timedOut),
+                timeoutMs, TimeUnit.MILLISECONDS);
+
+            StringBuilder messages = new StringBuilder();
+            Integer exit = null;
+            try {
+                stdin.write(buildJob(cmd, GrobidProperties.getPdfToXMLMemoryLimitMb()));
+                stdin.flush();
+                String line;
+                while ((line = stdout.readLine()) != null) {
+                    if (line.startsWith(END_OF_JOB)) {
+                        exit = Integer.parseInt(line.substring(END_OF_JOB.length()).trim());
+                        break;
+                    }
+                    messages.append(line).append("\n");
+                }
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.error("pdfalto worker " + id + " failed while running the command " + cmd, e);
+            } finally {
+                // a watchdog already running either has killed this job or will do nothing, 
+                // before the worker goes back to the pool
+                synchronized (this) {
+                    jobRunning = false;
+                }
+                killer.cancel(false);
+            }
+
+            if (exit == null) {
+                // the shell itself is gone, a fresh one is started for the next job
+                LOGGER.warn("pdfalto worker " + id + " lost, restarting it");
+                restart();
+                return null;
+            }
+            if (timedOut.get() && exit != 0) {
+                return KILLED_DUE_2_TIMEOUT;
+            }
+            if (exit != 0) {
+                LOGGER.error("pdftoxml process finished with error code: " + exit + ". " + cmd);
+                LOGGER.error("pdftoxml return message: \n" + messages);
+            }
+            return exit;
+        }
+
+        /**
+         * The job is the direct child of the worker shell (the sub-shell is replaced by
+         * pdfalto with exec), so killing the children of the shell stops the current job only.
+         * Nothing is killed if the given job is already finished.
+         */
+        private synchronized void killJob(long job, AtomicBoolean timedOut) {
+            if (!jobRunning || job != currentJob) {
+                return;
+            }
+            timedOut.set(true);
+            try {
+                LOGGER.info("Killing pdf to xml job of worker " + id + " (PID " + shellPid.trim() + ")");
+                Runtime.getRuntime().exec(new String[]{"pkill", "-9", "-P", shellPid.trim()}).waitFor();
+            } catch (IOException e) {
+                LOGGER.error("Cannot kill the pdf to xml job of worker " + id, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
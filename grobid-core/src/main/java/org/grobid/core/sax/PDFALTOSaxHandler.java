@@ -47,6 +47,8 @@ public class PDFALTOSaxHandler extends DefaultHandler {
 	private int nbTokens = 0; // nb tokens in the current block
 	private List<GraphicObject> images = null;
     private HashMap<String, TextStyle> textStyles = new HashMap<String, TextStyle>();
+    // one String instance per distinct token text of the document, instead of one per token
+    private HashMap<String, String> tokenTexts = new HashMap<String, String>();
     private boolean currentRotation = false;
 
 	private StringBuffer blabla = null;
@@ -76,6 +78,11 @@ public class PDFALTOSaxHandler extends DefaultHandler {
 		return this.analyzer;
 	}
 
+	private String shareText(String text) {
+		String shared = tokenTexts.putIfAbsent(text, text);
+		return shared != null ? shared : text;
+	}
+
 	private void addToken(LayoutToken layoutToken) {
 		layoutToken.setOffset(currentOffset);
 		currentOffset += layoutToken.getText().length();
@@ -589,7 +596,7 @@ public class PDFALTOSaxHandler extends DefaultHandler {
 
                                 // blabla.append(" ");
                                 blabla.append(tok);
-                                token.setText(tok);
+                                token.setText(shareText(tok));
 
                                 addToken(token);
 
@@ -600,7 +607,7 @@ public class PDFALTOSaxHandler extends DefaultHandler {
                             }
 
                             if (textStyle.getFontName() != null)
-                                token.setFont(textStyle.getFontName().toLowerCase());
+                                token.setFont(textStyle.getLowerCaseFontName());
                             else
                                 token.setFont("default");
                             token.setItalic(textStyle.isItalic());
@@ -631,7 +638,7 @@ public class PDFALTOSaxHandler extends DefaultHandler {
 
                             if (block.getFont() == null) {
                                 if (textStyle.getFontName() != null)
-                                    block.setFont(textStyle.getFontName().toLowerCase());
+                                    block.setFont(textStyle.getLowerCaseFontName());
                                 else
                                     token.setFont("default");
                             }
@@ -765,6 +772,7 @@ class TextStyle {
 
     private double fontSize = 0.0;
     private String fontName = null;
+    private String lowerCaseFontName = null;
     private String fontColor = null;
 
     private boolean bold = false;
@@ -793,6 +801,17 @@ class TextStyle {
 
     public void setFontName(String fontName) {
         this.fontName = fontName;
+        this.lowerCaseFontName = null;
+    }
+
+    /**
+     * Lower case font name, computed once for all the tokens of this style
+     */
+    public String getLowerCaseFontName() {
+        if (lowerCaseFontName == null && fontName != null) {
+            lowerCaseFontName = fontName.toLowerCase();
+        }
+        return lowerCaseFontName;
     }
 
     public String getFontColor() {
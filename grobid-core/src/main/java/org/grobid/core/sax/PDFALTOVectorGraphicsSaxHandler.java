@@ -0,0 +1,193 @@
+package org.grobid.core.sax;
+
+import org.grobid.core.layout.BoundingBox;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ *  SAX parser for the vector graphics of a page (image-N.svg) produced by pdfalto, computing
+ *  in a single pass the area covered by the paths of each group (g element), without
+ *  building a tree of the SVG file.
+ *
+ *  The area of a group is the one given previously by the vector-coords.xq query:
+ *  x coordinates from the x, x1, x2 and x3 attributes of the descendants of the group (only
+ *  the direct children for the right-most x attribute), y coordinates from the y1, y2 and
+ *  y3 attributes of the descendants and the y attributes of the direct children.
+ *  The groups are returned in document order, nested groups included.
+ */
+public class PDFALTOVectorGraphicsSaxHandler extends DefaultHandler {
+    private static final String GROUP = "g";
+
+    private final int pageNumber;
+
+    // one slot per group in document order, filled when the group is closed
+    private final List<BoundingBox> boxes = new ArrayList<>();
+    private final Deque<Group> groups = new ArrayDeque<>();
+    // default namespace of the open elements, only the groups without namespace are considered
+    private final Deque<String> namespaces = new ArrayDeque<>();
+    private int depth = 0;
+
+    private static class Range {
+        private double min;
+        private double max;
+        private boolean empty = true;
+
+        private void add(double value) {
+            if (empty) {
+                min = value;
+                max = value;
+                empty = false;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+
+        private void add(Range range) {
+            if (!range.empty) {
+                add(range.min);
+                add(range.max);
+            }
+        }
+    }
+
+    private static class Group {
+        private final int depth;
+        private final int index;
+        // x attributes of the descendants
+        private final Range x = new Range();
+        // x1, x2, x3 attributes of the descendants
+        private final Range x123 = new Range();
+        // y1, y2, y3 attributes of the descendants
+        private final Range y123 = new Range();
+        // x and y attributes of the children
+        private final Range childX = new Range();
+        private final Range childY = new Range();
+
+        private Group(int depth, int index) {
+            this.depth = depth;
+            this.index = index;
+        }
+    }
+
+    public PDFALTOVectorGraphicsSaxHandler(int pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    /**
+     * @return the areas of the groups having coordinates, in document order
+     */
+    public List<BoundingBox> getBoundingBoxes() {
+        List<BoundingBox> result = new ArrayList<>();
+        for (BoundingBox box : boxes) {
+            if (box != null) {
+                result.add(box);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) {
+        depth++;
+        String namespace = atts.getValue("xmlns");
+        if (namespace == null) {
+            namespace = namespaces.isEmpty() ? "" : namespaces.peek();
+        }
+        namespaces.push(namespace);
+
+        Group parent = groups.peek();
+        if (parent != null) {
+            boolean child = (parent.depth == depth - 1);
+            double value = getCoordinate(atts, "x");
+            if (!Double.isInfinite(value)) {
+                parent.x.add(value);
+                if (child) {
+                    parent.childX.add(value);
+                }
+            }
+            if (child) {
+                value = getCoordinate(atts, "y");
+                if (!Double.isInfinite(value)) {
+                    parent.childY.add(value);
+                }
+            }
+            for (int i = 1; i <= 3; i++) {
+                value = getCoordinate(atts, "x" + i);
+                if (!Double.isInfinite(value)) {
+                    parent.x123.add(value);
+                }
+                value = getCoordinate(atts, "y" + i);
+                if (!Double.isInfinite(value)) {
+                    parent.y123.add(value);
+                }
+            }
+        }
+
+        // with a namespace aware parser the namespace is given by the uri, otherwise it is
+        // tracked from the xmlns attributes
+        boolean noNamespace = ((uri == null) || uri.isEmpty()) && namespace.isEmpty();
+        if (noNamespace && (GROUP.equals(qName) || GROUP.equals(localName))) {
+            groups.push(new Group(depth, boxes.size()));
+            boxes.add(null);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        Group group = groups.peek();
+        if ((group != null) && (group.depth == depth)) {
+            groups.pop();
+            boxes.set(group.index, getBoundingBox(group));
+
+            // the descendants of the group are also descendants of the enclosing group
+            Group parent = groups.peek();
+            if (parent != null) {
+                parent.x.add(group.x);
+                parent.x123.add(group.x123);
+                parent.y123.add(group.y123);
+            }
+        }
+        namespaces.pop();
+        depth--;
+    }
+
+    private BoundingBox getBoundingBox(Group group) {
+        Range left = new Range();
+        left.add(group.x);
+        left.add(group.x123);
+        Range right = new Range();
+        right.add(group.childX);
+        right.add(group.x123);
+        Range vertical = new Range();
+        vertical.add(group.childY);
+        vertical.add(group.y123);
+
+        // groups without any coordinates (or only partial ones) are ignored
+        if (left.empty || right.empty || vertical.empty) {
+            return null;
+        }
+        return BoundingBox.fromPointAndDimensions(pageNumber, (float) left.min, (float) vertical.min,
+            (float) (right.max - left.min), (float) (vertical.max - vertical.min));
+    }
+
+    /**
+     * @return the value of a coordinate attribute, or infinity if absent or not a number
+     */
+    private static double getCoordinate(Attributes atts, String name) {
+        String value = atts.getValue(name);
+        if (value == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+}
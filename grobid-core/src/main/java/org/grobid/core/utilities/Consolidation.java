@@ -32,6 +32,8 @@ import java.util.StringTokenizer;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.rockymadden.stringmetric.similarity.RatcliffObershelpMetric;
 import scala.Option;
@@ -51,6 +53,7 @@ public class Consolidation {
     private CrossrefClient client = null;
     private WorkDeserializer workDeserializer = null;
     private CntManager cntManager = null;
+    private ConsolidationCache cache = null;
 
     public enum GrobidConsolidationService {
         CROSSREF("crossref"),
@@ -106,6 +109,7 @@ public class Consolidation {
         else 
             client = CrossrefClient.getInstance();
         workDeserializer = new WorkDeserializer();   
+        cache = ConsolidationCache.fromProperties();
     }
 
     public void setCntManager(CntManager cntManager) {
@@ -169,7 +173,7 @@ public class Consolidation {
         if (cntManager != null) 
             cntManager.i(ConsolidationCounters.CONSOLIDATION);
 
-        long threadId = Thread.currentThread().getId();
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
         Map<String, String> arguments = null;
 
         if (StringUtils.isNotBlank(doi)) {
@@ -262,8 +266,15 @@ public class Consolidation {
                 doiQuery = false;
             }
 
-            client.<BiblioItem>pushRequest("works", arguments, workDeserializer, threadId, new CrossrefRequestListener<BiblioItem>(0) {
-                
+            final String cacheKey = ConsolidationCache.getKey(
+                GrobidProperties.getInstance().getConsolidationService().getExt(), "works", arguments);
+            CrossrefRequestListener<BiblioItem> listener = new CrossrefRequestListener<BiblioItem>(0) {
+
+                @Override
+                public void onResponse(Response<BiblioItem> response) {
+                    cache.put(cacheKey, response);
+                }
+
                 @Override
                 public void onSuccess(List<BiblioItem> res) {
                     if ((res != null) && (res.size() > 0) ) {
@@ -310,12 +321,13 @@ public class Consolidation {
                 public void onError(int status, String message, Exception exception) {
                     LOGGER.info("Consolidation service returns error ("+status+") : "+message);
                 }
-            });
+            };
+            requests.add(pushRequest(arguments, cacheKey, listener));
         } catch(Exception e) {
             LOGGER.info("Consolidation error - " + ExceptionUtils.getStackTrace(e));
         } 
 
-        client.finish(threadId);
+        waitFor(requests);
         if (results.size() == 0)
             return null;
         else
@@ -323,6 +335,43 @@ public class Consolidation {
     }
 
 
+    /**
+     * Send a query to the consolidation service, unless its response is already in the cache. 
+     * In this case, the listener is called right away with the cached results.
+     *
+     * @return a future completed once the listener has been notified
+     */
+    private CompletableFuture<Void> pushRequest(Map<String, String> arguments, String cacheKey, 
+                                                CrossrefRequestListener<BiblioItem> listener) throws Exception {
+        if (cache.isEnabled()) {
+            String body = cache.get(cacheKey);
+            if (body != null) {
+                if (cntManager != null)
+                    cntManager.i(ConsolidationCounters.CONSOLIDATION_CACHE_HIT);
+                if (body.length() > 0) {
+                    List<BiblioItem> res = workDeserializer.parse(body);
+                    if ((res != null) && (res.size() > 0))
+                        listener.onSuccess(res);
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            if (cntManager != null)
+                cntManager.i(ConsolidationCounters.CONSOLIDATION_CACHE_MISS);
+        }
+        return client.<BiblioItem>pushRequest("works", arguments, workDeserializer, listener);
+    }
+
+    /**
+     * Wait for the completion of consolidation requests
+     */
+    private static void waitFor(List<CompletableFuture<Void>> requests) {
+        try {
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            LOGGER.error("Consolidation request execution fails", e.getCause());
+        }
+    }
+
     /**
      * Try tp consolidate a list of bibliographical objects in one operation with consolidation services
      */
@@ -336,7 +385,7 @@ public class Consolidation {
             results.put(Integer.valueOf(n), null);
         }
         n = 0;
-        long threadId = Thread.currentThread().getId();
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
         for(BibDataSet bibDataSet : biblios) {
             final BiblioItem theBiblio = bibDataSet.getResBib();
 
@@ -475,8 +524,15 @@ public class Consolidation {
                     doiQuery = false;
                 }
 
-                client.<BiblioItem>pushRequest("works", arguments, workDeserializer, threadId, new CrossrefRequestListener<BiblioItem>(n) {
-                    
+                final String cacheKey = ConsolidationCache.getKey(
+                    GrobidProperties.getInstance().getConsolidationService().getExt(), "works", arguments);
+                CrossrefRequestListener<BiblioItem> listener = new CrossrefRequestListener<BiblioItem>(n) {
+
+                    @Override
+                    public void onResponse(Response<BiblioItem> response) {
+                        cache.put(cacheKey, response);
+                    }
+
                     @Override
                     public void onSuccess(List<BiblioItem> res) {
                         if ((res != null) && (res.size() > 0) ) {
@@ -501,13 +557,15 @@ public class Consolidation {
                     public void onError(int status, String message, Exception exception) {
                         LOGGER.info("Consolidation service returns error ("+status+") : "+message);
                     }
-                });
+                };
+                requests.add(pushRequest(arguments, cacheKey, listener));
             } catch(Exception e) {
                 LOGGER.info("Consolidation error - " + ExceptionUtils.getStackTrace(e));
             } 
             n++;
         }
-        client.finish(threadId);
+        // all the references of the document are in flight at this stage, they are waited for together
+        waitFor(requests);
 
         return results;
     }
@@ -0,0 +1,170 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.core.utilities.crossref.CrossrefRequestListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cache of the responses of the consolidation service, so that the same reference found
+ * in many documents is looked up only once.
+ *
+ * The cache is keyed by the consolidation service and the normalized query arguments
+ * (DOI, raw citation, title, author...). The raw service response is cached, not the
+ * consolidated result, so the post-validation against the extracted reference is still
+ * done for every reference. A reference not found by the service is cached too, as an
+ * empty response.
+ *
+ * There are two tiers: an in-memory LRU (grobid.consolidation.cache.size entries, 0 to
+ * disable) and, if grobid.consolidation.cache.path is set, an on-disk store shared by
+ * restarts, where entries expire after grobid.consolidation.cache.ttl.days.
+ */
+public class ConsolidationCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsolidationCache.class);
+
+    private static final String NOT_FOUND = "";
+
+    private final Map<String, String> memory;
+    private final File directory;
+    private final long ttlMs;
+
+    public ConsolidationCache(int size, File directory, int ttlDays) {
+        this.memory = size > 0 ? Collections.synchronizedMap(new LruMap(size)) : null;
+        this.directory = directory;
+        this.ttlMs = TimeUnit.DAYS.toMillis(ttlDays);
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            LOGGER.warn("Cannot create the consolidation cache directory " + directory + ", disk cache disabled");
+        }
+    }
+
+    public static ConsolidationCache fromProperties() {
+        String path = GrobidProperties.getConsolidationCachePath();
+        return new ConsolidationCache(GrobidProperties.getConsolidationCacheSize(),
+            StringUtils.isBlank(path) ? null : new File(path),
+            GrobidProperties.getConsolidationCacheTtlDays());
+    }
+
+    public boolean isEnabled() {
+        return memory != null || isDiskEnabled();
+    }
+
+    private boolean isDiskEnabled() {
+        return directory != null && directory.isDirectory();
+    }
+
+    /**
+     * Build the cache key of a consolidation query. Argument values are normalized
+     * (case and spaces) and sorted by argument name.
+     */
+    public static String getKey(String service, String model, Map<String, String> arguments) {
+        StringBuilder key = new StringBuilder();
+        key.append(service).append('|').append(model);
+        for (Map.Entry<String, String> argument : new TreeMap<>(arguments).entrySet()) {
+            key.append('|').append(argument.getKey()).append('=');
+            if (argument.getValue() != null) {
+                key.append(StringUtils.normalizeSpace(argument.getValue()).toLowerCase());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the cached response body, an empty string if the reference is known to be
+     * not found by the service, null if nothing is cached for this key
+     */
+    public String get(String key) {
+        if (memory != null) {
+            String body = memory.get(key);
+            if (body != null) {
+                return body;
+            }
+        }
+        if (isDiskEnabled()) {
+            File file = getFile(key);
+            if (file.exists()) {
+                if (System.currentTimeMillis() - file.lastModified() > ttlMs) {
+                    FileUtils.deleteQuietly(file);
+                    return null;
+                }
+                try {
+                    String body = FileUtils.readFileToString(file, UTF_8);
+                    if (memory != null) {
+                        memory.put(key, body);
+                    }
+                    return body;
+                } catch (IOException e) {
+                    LOGGER.warn("Cannot read consolidation cache entry " + file, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cache a service response. Successful responses and "not found" responses are cached,
+     * errors (time out, rate limit, service unavailable...) are not.
+     */
+    public void put(String key, CrossrefRequestListener.Response<?> response) {
+        if (response == null || response.errorException != null) {
+            return;
+        }
+        if (response.status == 404) {
+            put(key, NOT_FOUND);
+        } else if (response.status >= 200 && response.status < 300 && response.body != null) {
+            put(key, response.body);
+        }
+    }
+
+    private void put(String key, String body) {
+        if (memory != null) {
+            memory.put(key, body);
+        }
+        if (isDiskEnabled()) {
+            File file = getFile(key);
+            try {
+                File parent = file.getParentFile();
+                if (!parent.exists()) {
+                    parent.mkdirs();
+                }
+                // write then move, concurrent readers never see a partial entry
+                File tmp = new File(parent, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+                FileUtils.writeStringToFile(tmp, body, UTF_8);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.warn("Cannot write consolidation cache entry " + file, e);
+            }
+        }
+    }
+
+    private File getFile(String key) {
+        String hash = SHA1.getSHA1(key);
+        return new File(new File(directory, hash.substring(0, 2)), hash);
+    }
+
+    private static class LruMap extends LinkedHashMap<String, String> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -32,6 +32,18 @@ public class ConsolidationCounters {
             return "CONSOLIDATION_PER_DOI_SUCCESS";
         }
     };
+    public static final Countable CONSOLIDATION_CACHE_HIT = new Countable() {
+        @Override
+        public String getName() {
+            return "CONSOLIDATION_CACHE_HIT";
+        }
+    };
+    public static final Countable CONSOLIDATION_CACHE_MISS = new Countable() {
+        @Override
+        public String getName() {
+            return "CONSOLIDATION_CACHE_MISS";
+        }
+    };
     public static final Countable TOTAL_BIB_REF = new Countable() {
         @Override
         public String getName() {
@@ -506,6 +506,38 @@ public class GrobidProperties {
         setPropertyValue(GrobidPropertyKeys.PROP_DELFT_ARCHITECTURE, theArchitecture);
     }
 
+    /**
+     * Returns the maximum number of concurrent labelling calls on a DeLFT model which are 
+     * tagged together in a single inference, 1 by default for no batching.
+     *
+     * @return maximum number of labelling calls in a DeLFT batch
+     */
+    public static int getDelftBatchSize() {
+        return Math.max(1, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_DELFT_BATCH_SIZE, "1")));
+    }
+
+    /**
+     * Returns the maximum time in microseconds a labelling call on a DeLFT model waits for 
+     * other calls before the batch is tagged, 2000 by default.
+     *
+     * @return maximum waiting time of a DeLFT batch in microseconds
+     */
+    public static long getDelftBatchMaxWait() {
+        return Math.max(0, Long.parseLong(getPropertyValue(GrobidPropertyKeys.PROP_DELFT_BATCH_MAX_WAIT, "2000")));
+    }
+
+    /**
+     * Returns the number of embedded Python interpreters (JEP) serving the DeLFT models, each 
+     * interpreter running in its own thread with its own copies of the models, 1 by default. 
+     * Several interpreters are experimental, as they share the numpy, tensorflow and keras 
+     * modules.
+     *
+     * @return number of DeLFT interpreters
+     */
+    public static int getDelftInterpreters() {
+        return Math.max(1, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_DELFT_INTERPRETERS, "1")));
+    }
+
     /**
      * Returns the host for a proxy connection, given in the grobid-property
      * file.
@@ -617,6 +649,16 @@ public class GrobidProperties {
         return Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML_TIMEOUT_SEC, "60"), 10) * 1000;
     }
 
+    /**
+     * Returns the number of long-lived pdfalto workers to be used for converting PDF, 
+     * 0 (default) if a new pdfalto process is started for each PDF.
+     *
+     * @return number of pdfalto workers
+     */
+    public static int getPdfToXMLWorkers() {
+        return Math.max(0, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML_WORKERS, "0"), 10));
+    }
+
     /**
      * Returns the number of threads, given in the grobid-property file.
      *
@@ -630,6 +672,40 @@ public class GrobidProperties {
         return nbThreadsConfig;
     }
 
+    /**
+     * Returns the number of folds trained and evaluated at the same time in n-fold 
+     * cross-evaluation, 1 (the default) to process the folds one after the other. The 
+     * training threads (grobid.nb_threads) are split between these folds.
+     *
+     * @return number of folds processed in parallel
+     */
+    public static int getNFoldParallelFolds() {
+        return Math.max(1, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_NFOLD_PARALLEL_FOLDS, "1")));
+    }
+
+    /**
+     * Returns the number of threads creating the training data of a model from the corpus 
+     * files, all the available processors by default.
+     *
+     * @return number of threads for creating the training data
+     */
+    public static int getTrainingDataThreads() {
+        int nbThreads = Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_TRAINING_DATA_THREADS, "0"));
+        if (nbThreads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return nbThreads;
+    }
+
+    /**
+     * Returns the directory of the cache of the training data created for each corpus file.
+     *
+     * @return path of the training data cache, null if not used
+     */
+    public static String getTrainingDataCachePath() {
+        return getPropertyValue(GrobidPropertyKeys.PROP_TRAINING_DATA_CACHE_PATH);
+    }
+
 
     // PDFs with more blocks will be skipped
 
@@ -641,6 +717,119 @@ public class GrobidProperties {
         return Integer.valueOf(getPropertyValue(GrobidPropertyKeys.PROP_PDF_TOKENS_MAX, "1000000"));
     }
 
+    /**
+     * Returns the maximum size in MB of the vector graphics file of a page, 10 by default, 
+     * 0 for no limit. The vector graphics of a page with a larger file are ignored: the files 
+     * are parsed as a stream, but merging their boxes is quadratic in the number of paths.
+     *
+     * @return maximum size in MB of a vector graphics file
+     */
+    public static int getPdfVectorGraphicsMaxSize() {
+        return Math.max(0, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_PDF_VECTOR_GRAPHICS_MAX_SIZE, "10")));
+    }
+
+    /**
+     * Returns the minimum number of pages of a document for computing its segmentation and 
+     * full text features, and its vector graphics boxes, with one fork-join task per page, 
+     * 0 (the default) when they are always computed in a single thread.
+     *
+     * @return minimum number of pages for the parallel feature computation
+     */
+    public static int getFeaturesParallelPages() {
+        return Math.max(0, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_FEATURES_PARALLEL_PAGES, "0")));
+    }
+
+    /**
+     * Returns the number of threads of the fork-join pool running the page tasks of all the 
+     * documents, the number of available processors when set to 0 (the default).
+     *
+     * @return number of threads for the page tasks
+     */
+    public static int getFeaturesParallelThreads() {
+        int nbThreads = Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_FEATURES_PARALLEL_THREADS, "0"));
+        return nbThreads > 0 ? nbThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns true if the reference markers are matched with an inverted map of the 
+     * bibliographical references kept in the heap, false (the default) for a Lucene 
+     * index built for each document.
+     *
+     * @return true if the in-memory reference marker index is used
+     */
+    public static boolean isReferenceMarkersIndexInMemory() {
+        return "memory".equalsIgnoreCase(getPropertyValue(GrobidPropertyKeys.PROP_REFERENCE_MARKERS_INDEX, "lucene"));
+    }
+
+    /**
+     * Returns the number of raw citations labelled together by an engine when a list of 
+     * citations is processed, 100 by default.
+     *
+     * @return size of the chunks of a citation list
+     */
+    public static int getCitationListChunkSize() {
+        return Math.max(1, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_CITATION_LIST_CHUNK_SIZE, "100")));
+    }
+
+    /**
+     * Returns the maximum number of engines of the pool labelling the chunks of one list of 
+     * citations at the same time, by default half of the pool, so that a large list never 
+     * takes all the engines.
+     *
+     * @return maximum number of engines for a citation list
+     */
+    public static int getCitationListMaxEngines() {
+        int maxEngines = Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_CITATION_LIST_MAX_ENGINES, "0"));
+        if (maxEngines <= 0) {
+            maxEngines = getMaxPoolConnections() / 2;
+        }
+        return Math.max(1, Math.min(maxEngines, getMaxPoolConnections()));
+    }
+
+    /**
+     * Returns the folder of the cache of the TEI results of the PDF processing services.
+     *
+     * @return path of the cache folder, or null when the results are not cached
+     */
+    public static String getServiceCachePath() {
+        return getPropertyValue(GrobidPropertyKeys.PROP_SERVICE_CACHE_PATH, null);
+    }
+
+    /**
+     * Returns the maximum size of the cache of the TEI results, in MB, 1024 by default. 
+     * The least recently used results are removed beyond this size.
+     *
+     * @return maximum size of the cache in bytes
+     */
+    public static long getServiceCacheMaxSize() {
+        return Math.max(1, Long.parseLong(getPropertyValue(GrobidPropertyKeys.PROP_SERVICE_CACHE_MAX_SIZE, "1024"))) * 1024 * 1024;
+    }
+
+    /**
+     * Returns the number of worker threads for a given stage of the pipelined full text 
+     * processing, by default one thread per stage.
+     *
+     * @param stageName name of the stage, e.g. "fulltext"
+     * @return number of threads for the stage
+     */
+    public static int getPipelineStageThreads(final String stageName) {
+        int nbThreads = Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_PIPELINE_THREADS + "." + stageName, "1"));
+        if (nbThreads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return nbThreads;
+    }
+
+    /**
+     * Returns the maximum number of documents waiting in front of each stage of the 
+     * pipelined full text processing.
+     *
+     * @return queue capacity of a pipeline stage
+     */
+    public static int getPipelineQueueSize() {
+        return Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_PIPELINE_QUEUE_SIZE, "4"));
+    }
+
     /**
      * Sets the number of threads, given in the grobid-property file.
      *
@@ -730,6 +919,37 @@ public class GrobidProperties {
         return grobidCRFEngine;
     }
 
+    /**
+     * Returns the number of tagger instances to load for the given model. With more than 
+     * one instance, concurrent labelling calls for this model are spread over a pool of 
+     * independent model copies instead of sharing a single one.
+     *
+     * @param model the model
+     * @return number of tagger instances, at least 1
+     */
+    public static int getTaggerInstances(final GrobidModel model) {
+        int instances = Integer.parseInt(getPropertyValue(
+            GrobidPropertyKeys.PROP_TAGGER_INSTANCES + "." + getModelPropertySuffix(model.getModelName()), "1"));
+        return Math.max(1, instances);
+    }
+
+    /**
+     * Returns the number of DeLFT interpreters loading a copy of the given model, given by 
+     * the number of tagger instances of the model when set, and by default all of them.
+     *
+     * @param model the model
+     * @param nbInterpreters number of DeLFT interpreters
+     * @return number of copies of the DeLFT model, between 1 and the number of interpreters
+     */
+    public static int getDelftModelCopies(final GrobidModel model, int nbInterpreters) {
+        String copies = getPropertyValue(
+            GrobidPropertyKeys.PROP_TAGGER_INSTANCES + "." + getModelPropertySuffix(model.getModelName()), null);
+        if (copies == null) {
+            return Math.max(1, nbInterpreters);
+        }
+        return Math.max(1, Math.min(nbInterpreters, Integer.parseInt(copies)));
+    }
+
     public static File getModelPath(final GrobidModel model) {
         String extension = getGrobidCRFEngine(model).getExt();
         return new File(get_GROBID_HOME_PATH(), FOLDER_NAME_MODELS + File.separator
@@ -793,6 +1013,25 @@ public class GrobidProperties {
         return Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_GROBID_POOL_MAX_WAIT)) * 1000;
     }
 
+    /**
+     * Returns the maximum number of requests waiting for an engine when the pool is full, 
+     * beyond it the requests are rejected right away. 0 for no limit.
+     *
+     * @return maximum number of waiting requests
+     */
+    public static int getPoolMaxQueue() {
+        return Math.max(0, Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_GROBID_POOL_MAX_QUEUE, "0")));
+    }
+
+    /**
+     * Returns true if the engines are served by the fixed size pool of warm engines 
+     * ({@link org.grobid.core.factory.GrobidEnginePool}), false for the legacy commons-pool 
+     * implementation.
+     */
+    public static boolean isPoolWarm() {
+        return Boolean.parseBoolean(getPropertyValue(GrobidPropertyKeys.PROP_GROBID_POOL_WARM, "true"));
+    }
+
     /**
      * Returns the consolidation service to be used.
      *
@@ -802,6 +1041,33 @@ public class GrobidProperties {
         return GrobidConsolidationService.get(getPropertyValue(GrobidPropertyKeys.PROP_CONSOLIDATION_SERVICE));
     }
 
+    /**
+     * Returns the maximum number of consolidation service responses kept in memory.
+     *
+     * @return size of the in-memory consolidation cache, 0 if disabled
+     */
+    public static int getConsolidationCacheSize() {
+        return Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_CONSOLIDATION_CACHE_SIZE, "1000"));
+    }
+
+    /**
+     * Returns the directory of the on-disk consolidation cache.
+     *
+     * @return path of the disk cache, null if not used
+     */
+    public static String getConsolidationCachePath() {
+        return getPropertyValue(GrobidPropertyKeys.PROP_CONSOLIDATION_CACHE_PATH);
+    }
+
+    /**
+     * Returns the time to live of the on-disk consolidation cache entries.
+     *
+     * @return number of days
+     */
+    public static int getConsolidationCacheTtlDays() {
+        return Integer.parseInt(getPropertyValue(GrobidPropertyKeys.PROP_CONSOLIDATION_CACHE_TTL_DAYS, "30"));
+    }
+
     /**
      * Set which consolidation service to use
      */
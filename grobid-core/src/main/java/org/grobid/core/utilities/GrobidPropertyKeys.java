@@ -14,11 +14,34 @@ public interface GrobidPropertyKeys {
     String PROP_3RD_PARTY_PDFTOXML = "grobid.3rdparty.pdf2xml.path";
     String PROP_3RD_PARTY_PDFTOXML_MEMORY_LIMIT = "grobid.3rdparty.pdf2xml.memory.limit.mb";
     String PROP_3RD_PARTY_PDFTOXML_TIMEOUT_SEC = "grobid.3rdparty.pdf2xml.memory.timeout.sec";
+    /**
+     * Number of long-lived pdfalto workers, 0 for starting a new pdfalto process per document
+     */
+    String PROP_3RD_PARTY_PDFTOXML_WORKERS = "grobid.3rdparty.pdf2xml.workers";
 
     String PROP_GROBID_CRF_ENGINE = "grobid.crf.engine";
+    /**
+     * Number of independent tagger instances loaded for a CRF model, the model name is 
+     * appended to the key, e.g. grobid.tagger.instances.fulltext
+     */
+    String PROP_TAGGER_INSTANCES = "grobid.tagger.instances";
     String PROP_GROBID_DELFT_PATH = "grobid.delft.install";
     String PROP_GROBID_DELFT_ELMO = "grobid.delft.useELMo";
     String PROP_DELFT_ARCHITECTURE = "grobid.delft.architecture";
+    /**
+     * Maximum number of labelling calls on a DeLFT model gathered in a single inference, 
+     * 1 for no batching
+     */
+    String PROP_DELFT_BATCH_SIZE = "grobid.delft.batch.size";
+    /**
+     * Maximum time in microseconds that a labelling call on a DeLFT model waits for other 
+     * calls to be batched with
+     */
+    String PROP_DELFT_BATCH_MAX_WAIT = "grobid.delft.batch.max.wait";
+    /**
+     * Number of embedded Python interpreter threads serving the DeLFT models
+     */
+    String PROP_DELFT_INTERPRETERS = "grobid.delft.interpreters";
 
     String PROP_LANG_DETECTOR_FACTORY = "grobid.language_detector_factory";
     String PROP_SENTENCE_DETECTOR_FACTORY = "grobid.sentence_detector_factory";
@@ -46,11 +69,82 @@ public interface GrobidPropertyKeys {
 
     String PROP_NB_THREADS = "grobid.nb_threads";
 
+    /**
+     * Number of folds trained and evaluated at the same time in n-fold cross-evaluation, 
+     * the training threads being split between them
+     */
+    String PROP_NFOLD_PARALLEL_FOLDS = "grobid.nfold.parallel.folds";
+
+    /**
+     * Number of threads creating the training data of a model from its corpus files
+     */
+    String PROP_TRAINING_DATA_THREADS = "grobid.training.data.threads";
+
+    /**
+     * Directory of the cache of the training data created for each corpus file, no cache if not set
+     */
+    String PROP_TRAINING_DATA_CACHE_PATH = "grobid.training.data.cache.path";
+
     String PROP_PDF_BLOCKS_MAX = "grobid.pdf.blocks.max";
     String PROP_PDF_TOKENS_MAX = "grobid.pdf.tokens.max";
 
+    /**
+     * Maximum size in MB of the vector graphics file of a page, 10 by default, 0 for no limit
+     */
+    String PROP_PDF_VECTOR_GRAPHICS_MAX_SIZE = "grobid.pdf.vector.graphics.max.size";
+
+    /**
+     * Minimum number of pages of a document for computing its segmentation and full text 
+     * features and its vector graphics boxes with one task per page, 0 to always use a single 
+     * thread
+     */
+    String PROP_FEATURES_PARALLEL_PAGES = "grobid.features.parallel.pages";
+
+    /**
+     * Number of threads of the pool running the page tasks, shared by all the documents, 
+     * 0 for the number of processors
+     */
+    String PROP_FEATURES_PARALLEL_THREADS = "grobid.features.parallel.threads";
+
+    /**
+     * Index used to match the reference markers to the bibliographical references, either 
+     * "lucene" or "memory" for the in-heap inverted map
+     */
+    String PROP_REFERENCE_MARKERS_INDEX = "grobid.reference.markers.index";
+
+    /**
+     * Number of raw citations labelled together by an engine when a list of citations is 
+     * processed, the chunks of the list being processed in parallel
+     */
+    String PROP_CITATION_LIST_CHUNK_SIZE = "grobid.citation.list.chunk.size";
+
+    /**
+     * Maximum number of engines of the pool used by the processing of one list of citations
+     */
+    String PROP_CITATION_LIST_MAX_ENGINES = "grobid.citation.list.max.engines";
+
+    /**
+     * Folder of the cache of the TEI results of the PDF processing services (no cache when 
+     * not set), and maximum size of this cache in MB
+     */
+    String PROP_SERVICE_CACHE_PATH = "grobid.service.cache.path";
+    String PROP_SERVICE_CACHE_MAX_SIZE = "grobid.service.cache.max.size";
+
+    /**
+     * Number of worker threads of a stage of the pipelined full text processing, the stage 
+     * name is appended to the key, e.g. grobid.pipeline.threads.fulltext
+     */
+    String PROP_PIPELINE_THREADS = "grobid.pipeline.threads";
+    /**
+     * Maximum number of documents waiting in front of each stage of the pipelined full 
+     * text processing
+     */
+    String PROP_PIPELINE_QUEUE_SIZE = "grobid.pipeline.queue.size";
+
     String PROP_GROBID_MAX_CONNECTIONS = "org.grobid.max.connections";
     String PROP_GROBID_POOL_MAX_WAIT = "org.grobid.pool.max.wait";
+    String PROP_GROBID_POOL_MAX_QUEUE = "org.grobid.pool.max.queue";
+    String PROP_GROBID_POOL_WARM = "org.grobid.pool.warm";
 
     String PROP_GLUTTON_HOST = "org.grobid.glutton.host";
     String PROP_GLUTTON_PORT = "org.grobid.glutton.port";
@@ -84,6 +178,19 @@ public interface GrobidPropertyKeys {
      */
     String PROP_CONSOLIDATION_SERVICE = "grobid.consolidation.service";
 
+    /**
+     * Number of consolidation responses kept in memory, 0 to disable the in-memory cache
+     */
+    String PROP_CONSOLIDATION_CACHE_SIZE = "grobid.consolidation.cache.size";
+    /**
+     * Directory of the on-disk consolidation cache, no disk cache if not set
+     */
+    String PROP_CONSOLIDATION_CACHE_PATH = "grobid.consolidation.cache.path";
+    /**
+     * Number of days before an entry of the on-disk consolidation cache expires
+     */
+    String PROP_CONSOLIDATION_CACHE_TTL_DAYS = "grobid.consolidation.cache.ttl.days";
+
     /**
      * The defined paths to create.
      */
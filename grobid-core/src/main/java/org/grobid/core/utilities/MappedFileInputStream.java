@@ -0,0 +1,143 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream over a memory-mapped file. Large files are read directly from the 
+ * page cache, without copying them through the intermediary buffers of a 
+ * FileInputStream. The mapping is released when the stream is closed, with the 
+ * buffer cleaner of the JVM; if the JVM does not give access to it, the mapping is 
+ * only released when the buffer is garbage collected. As for the other streams, the 
+ * stream must not be closed while another thread is reading it.
+ */
+public class MappedFileInputStream extends InputStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedFileInputStream.class);
+
+    // Java 9+: Unsafe.invokeCleaner(ByteBuffer)
+    private static Object unsafe;
+    private static Method invokeCleaner;
+    // Java 8: DirectBuffer.cleaner().clean()
+    private static Method cleaner;
+    private static Method clean;
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception e) {
+            invokeCleaner = null;
+            try {
+                cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            } catch (Exception e2) {
+                cleaner = null;
+                LOGGER.debug("No access to the buffer cleaner, the mapped files are released when garbage collected", e2);
+            }
+        }
+    }
+
+    private MappedByteBuffer buffer;
+
+    public MappedFileInputStream(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * A file can be mapped if it fits in a single buffer. Under Windows, a mapped file 
+     * cannot be deleted before the mapping is released, which would prevent the cleaning 
+     * of the temporary files, so mapping is not used on this platform.
+     */
+    public static boolean canMap(File file) {
+        return !SystemUtils.IS_OS_WINDOWS && file.length() < Integer.MAX_VALUE;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return buffer.remaining();
+    }
+
+    /**
+     * Release the mapping of the file, the stream cannot be read anymore
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        unmap(mapped);
+    }
+
+    private static void unmap(MappedByteBuffer mapped) {
+        try {
+            if (invokeCleaner != null) {
+                invokeCleaner.invoke(unsafe, mapped);
+            } else if (cleaner != null) {
+                Object bufferCleaner = cleaner.invoke(mapped);
+                // no cleaner for an empty mapping
+                if (bufferCleaner != null) {
+                    clean.invoke(bufferCleaner);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Cannot release the mapped file, it will be released when garbage collected", e);
+        }
+    }
+}
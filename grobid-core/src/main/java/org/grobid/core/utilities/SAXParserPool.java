@@ -0,0 +1,40 @@
+package org.grobid.core.utilities;
+
+import org.grobid.core.exceptions.GrobidException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Reusable SAX parsers, one per thread, to avoid looking up a parser factory and 
+ * building a new parser for each XML file to be parsed. A parser is reset to its 
+ * initial state each time it is handed out.
+ */
+public class SAXParserPool {
+    private static final SAXParserFactory FACTORY = SAXParserFactory.newInstance();
+
+    private static final ThreadLocal<SAXParser> PARSERS = ThreadLocal.withInitial(() -> {
+        try {
+            synchronized (FACTORY) {
+                return FACTORY.newSAXParser();
+            }
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new GrobidException("Cannot create a SAX parser", e);
+        }
+    });
+
+    private SAXParserPool() {
+    }
+
+    /**
+     * @return a SAX parser ready to be used by the current thread
+     */
+    public static SAXParser getParser() {
+        SAXParser parser = PARSERS.get();
+        parser.reset();
+        return parser;
+    }
+}
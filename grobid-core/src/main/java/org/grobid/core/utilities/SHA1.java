@@ -1,5 +1,9 @@
 package org.grobid.core.utilities;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -45,6 +49,31 @@ public class SHA1 {
 		return sha1;
 	}
 
+	/**
+	 * Return the hash value of the content of a file using SHA1 algorithm.
+	 * 
+	 * @param file the file to hash.
+	 * @return The hashed value.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static String getSHA1(File file) throws IOException {
+		MessageDigest crypt;
+		try {
+			crypt = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException exp) {
+			LOGGER.error(ERROR_WHILE_EXECUTING_SHA1 + exp);
+			return "";
+		}
+		byte[] buffer = new byte[8192];
+		try (InputStream in = new FileInputStream(file)) {
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				crypt.update(buffer, 0, n);
+			}
+		}
+		return byteToHex(crypt.digest());
+	}
+
 	/**
 	 * Convert from byte to hexa.
 	 * @param hash the input in bytes.
@@ -1263,6 +1263,28 @@ public class TextUtilities {
         return s.substring(s.length() - count);
     }
 
+    /**
+     * Append the prefix of a string to a buffer, same as appending prefix(s, count)
+     * but without creating the substring.
+     */
+    public static StringBuilder appendPrefix(StringBuilder buffer, String s, int count) {
+        if (s == null) {
+            return buffer.append((String) null);
+        }
+        return buffer.append(s, 0, Math.min(count, s.length()));
+    }
+
+    /**
+     * Append the suffix of a string to a buffer, same as appending suffix(s, count)
+     * but without creating the substring.
+     */
+    public static StringBuilder appendSuffix(StringBuilder buffer, String s, int count) {
+        if (s == null) {
+            return buffer.append((String) null);
+        }
+        return buffer.append(s, Math.max(0, s.length() - count), s.length());
+    }
+
     public static String JSONEncode(String json) {
         // we assume all json string will be bounded by double quotes
         return json.replaceAll("\"", "\\\"").replaceAll("\n", "\\\n");
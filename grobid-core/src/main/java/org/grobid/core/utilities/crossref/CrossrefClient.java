@@ -7,17 +7,21 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.Future;
 import java.util.concurrent.ExecutionException;
 
-import org.apache.commons.lang3.concurrent.TimedSemaphore;
+import org.apache.http.HttpHost;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.crossref.CrossrefRequestListener.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +30,10 @@ import org.slf4j.LoggerFactory;
  * Request pool to get data from api.crossref.org without exceeding limits
  * supporting multi-thread.
  *
+ * All the requests share a single pooled HTTP client, so the connections to the service
+ * are kept alive and reused from one request to the next. The rate limit is a token bucket,
+ * the threads waiting for a permit do not block the other ones.
+ *
  * @author Vincent Kaestle, Patrice
  */
 public class CrossrefClient implements Closeable {
@@ -36,7 +44,12 @@ public class CrossrefClient implements Closeable {
 	protected volatile ExecutorService executorService;
 		
 	protected static boolean limitAuto = true;
-	protected volatile TimedSemaphore timedSemaphore;
+	protected volatile TokenBucket rateLimiter;
+
+	// maximum number of open connections to the consolidation service
+	private static final int MAX_CONNECTIONS = 64;
+
+	private static volatile CloseableHttpClient httpClient;
 
 	// this list is used to maintain a list of Futures that were submitted,
 	// that we can use to check if the requests are completed
@@ -67,29 +80,49 @@ public class CrossrefClient implements Closeable {
             t.setDaemon(true);
             return t;
         });
-		this.timedSemaphore = null;
+		this.rateLimiter = null;
 		this.futures = new HashMap<>();
 		setLimits(1, 1000);
 	}
 
+	/**
+	 * HTTP client shared by all the consolidation requests, with a pool of keep-alive connections.
+	 */
+	public static CloseableHttpClient getHttpClient() {
+		if (httpClient == null) {
+			createHttpClient();
+		}
+		return httpClient;
+	}
+
+	private static synchronized void createHttpClient() {
+		if (httpClient != null) {
+			return;
+		}
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(MAX_CONNECTIONS);
+		connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+		HttpClientBuilder builder = HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.evictIdleConnections(30, TimeUnit.SECONDS);
+		if (GrobidProperties.getProxyHost() != null) {
+			HttpHost proxy = new HttpHost(GrobidProperties.getProxyHost(), GrobidProperties.getProxyPort());
+			builder.setRoutePlanner(new DefaultProxyRoutePlanner(proxy));
+		}
+		httpClient = builder.build();
+	}
+
 	public static void printLog(CrossrefRequest<?> request, String message) {
 		logger.info((request != null ? request+": " : "")+message);
 		//System.out.println((request != null ? request+": " : "")+message);
 	}
 	
 	public void setLimits(int iterations, int interval) {
-		if ((this.timedSemaphore == null)
-			|| (this.timedSemaphore.getLimit() != iterations)
-			|| (this.timedSemaphore.getPeriod() != interval)) {
-			// custom executor to prevent stopping JVM from exiting
-			this.timedSemaphore = new TimedSemaphore(new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread t = Executors.defaultThreadFactory().newThread(r);
-					t.setDaemon(true);
-					return t;
-				}
-			}), interval, TimeUnit.MILLISECONDS, iterations);
+		if (this.rateLimiter == null) {
+			this.rateLimiter = new TokenBucket(iterations, interval, TimeUnit.MILLISECONDS);
+		} else if ((this.rateLimiter.getPermits() != iterations)
+			|| (this.rateLimiter.getPeriodMillis() != interval)) {
+			this.rateLimiter.setRate(iterations, interval, TimeUnit.MILLISECONDS);
 		}
 	}
 	
@@ -100,13 +133,9 @@ public class CrossrefClient implements Closeable {
 		}
 	}
 	
-	public synchronized void checkLimits() throws InterruptedException {
+	public void checkLimits() throws InterruptedException {
 		if (this.limitAuto) {
-			synchronized(this.timedSemaphore) {
-				printLog(null, "timedSemaphore acquire... current total: " + this.timedSemaphore.getAcquireCount() + 
-					", still available: " + this.timedSemaphore.getAvailablePermits() );
-				this.timedSemaphore.acquire();
-			}
+			this.rateLimiter.acquire();
 		}
 	}
 	
@@ -140,12 +169,39 @@ public class CrossrefClient implements Closeable {
 	 */
 	public <T extends Object> void pushRequest(String model, Map<String, String> params, CrossrefDeserializer<T> deserializer, 
 			long threadId, CrossrefRequestListener<T> listener) throws URISyntaxException, ClientProtocolException, IOException {
-		CrossrefRequest<T> request = new CrossrefRequest<T>(model, params, deserializer);
+		CompletableFuture<Void> f = pushRequest(model, params, deserializer, listener);
 		synchronized(this) {
-			this.<T>pushRequest(request, listener, threadId);
+			List<Future<?>> localFutures = this.futures.get(new Long(threadId));
+			if (localFutures == null)
+				localFutures = new ArrayList<Future<?>>();
+			localFutures.add(f);
+			this.futures.put(new Long(threadId), localFutures);
 		}
 	}
 
+	/**
+	 * Push a request in pool to be executed soon as possible, the listener receiving the response.
+	 * The caller is not blocked and can push all its requests before waiting for the returned futures, 
+	 * so that many requests are in flight at the same time.
+	 * 
+	 * @param params		query parameters, can be null, ex: ?query.title=[title]&query.author=[author]
+	 * @param deserializer	json response deserializer, ex: WorkDeserializer to convert Work to BiblioItem
+	 * @param listener		catch response from request
+	 * @return a future completed once the listener has been notified of the response
+	 */
+	public <T extends Object> CompletableFuture<Void> pushRequest(String model, Map<String, String> params, 
+			CrossrefDeserializer<T> deserializer, CrossrefRequestListener<T> listener) {
+		return CompletableFuture.runAsync(newRequestTask(model, params, deserializer, listener), executorService);
+	}
+
+	protected <T extends Object> Runnable newRequestTask(String model, Map<String, String> params, 
+			CrossrefDeserializer<T> deserializer, CrossrefRequestListener<T> listener) {
+		CrossrefRequest<T> request = new CrossrefRequest<T>(model, params, deserializer);
+		if (listener != null)
+			request.addListener(listener);
+		return new CrossrefRequestTask<T>(this, request);
+	}
+
 	/**
 	 * Wait for all request from a specific thread to be completed
 	 */
@@ -173,6 +229,7 @@ public class CrossrefClient implements Closeable {
 
 	@Override
 	public void close() throws IOException {
-		timedSemaphore.shutdown();
+		// the client is shared by all the engines, its daemon threads and pooled connections
+		// live as long as the JVM, there is nothing to release per engine
 	}
 }
@@ -2,15 +2,12 @@ package org.grobid.core.utilities.crossref;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
 import org.apache.http.util.EntityUtils;
 import org.grobid.core.utilities.GrobidProperties;
 
@@ -89,16 +86,7 @@ public class CrossrefRequest<T extends Object> extends Observable {
             notifyListeners(message);
             return;
         }
-		CloseableHttpClient httpclient = null;
-		if (GrobidProperties.getProxyHost() != null) {
-			HttpHost proxy = new HttpHost(GrobidProperties.getProxyHost(), GrobidProperties.getProxyPort());
-			DefaultProxyRoutePlanner routePlanner = new DefaultProxyRoutePlanner(proxy);
-			httpclient = HttpClients.custom()
-		  		.setRoutePlanner(routePlanner)
-		  		.build();
-		} else {
-			httpclient = HttpClients.createDefault();	
-		}
+		CloseableHttpClient httpclient = CrossrefClient.getHttpClient();
 
 		try {
 			URIBuilder uriBuilder = new URIBuilder(BASE_URL);
@@ -170,6 +158,7 @@ public class CrossrefRequest<T extends Object> extends Observable {
 					
 					if (entity != null) {
 						String body = EntityUtils.toString(entity);
+						message.body = body;
 						message.results = deserializer.parse(body);
 					}
 					
@@ -187,15 +176,6 @@ public class CrossrefRequest<T extends Object> extends Observable {
 			CrossrefRequestListener.Response<T> message = new CrossrefRequestListener.Response<T>();
 			message.setException(e, this.toString());
 			notifyListeners(message);
-        } finally {
-            try {
-				httpclient.close();
-			} catch (IOException e) {			
-				CrossrefRequestListener.Response<T> message = new CrossrefRequestListener.Response<T>();
-				message.setException(e, this.toString());
-				notifyListeners(message);
-				
-			}
         }
 	}
 	
@@ -20,6 +20,8 @@ public class CrossrefRequestListener<T extends Object> {
 	public static class Response<T> {
 		public int status = -1;
 		public List<T> results = null;
+		// raw response body, as returned by the service
+		public String body = null;
 		public int interval;
 		public int limitIterations;
 		public long time;
@@ -0,0 +1,66 @@
+package org.grobid.core.utilities.crossref;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter: at most a given number of permits per period, with bursts up
+ * to this number. Unlike a TimedSemaphore, the permits are refilled continuously, and a
+ * thread only holds the lock of the bucket while computing its waiting time, not while
+ * waiting.
+ */
+public class TokenBucket {
+    private int permits;
+    private long periodNanos;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(int permits, long period, TimeUnit unit) {
+        setRate(permits, period, unit);
+        this.tokens = this.permits;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Change the rate, the tokens already available are kept within the new capacity
+     */
+    public synchronized void setRate(int permits, long period, TimeUnit unit) {
+        this.permits = Math.max(1, permits);
+        this.periodNanos = Math.max(1, unit.toNanos(period));
+        this.tokens = Math.min(this.tokens, this.permits);
+    }
+
+    public synchronized int getPermits() {
+        return permits;
+    }
+
+    public synchronized long getPeriodMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(periodNanos);
+    }
+
+    /**
+     * Take one permit, waiting until one is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one permit, possibly in advance, and return how long the caller has to wait
+     * before using it
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(permits, tokens + (now - lastRefill) * (double) permits / periodNanos);
+        lastRefill = now;
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        // negative balance: the permit will be available once the debt is refilled
+        return (long) (-tokens * periodNanos / permits);
+    }
+}
@@ -126,21 +126,13 @@ public class GluttonClient extends CrossrefClient {
         }
     }
     
-    /**
-     * Push a request in pool to be executed soon as possible, then wait a response through the listener.
-     * 
-     * @param params        query parameters, can be null, ex: ?query.title=[title]&query.author=[author]
-     * @param deserializer  json response deserializer, ex: WorkDeserializer to convert Work to BiblioItem
-     * @param threadId      the java identifier of the thread providing the request (e.g. via Thread.currentThread().getId())
-     * @param listener      catch response from request
-     */
     @Override
-    public <T extends Object> void pushRequest(String model, Map<String, String> params, CrossrefDeserializer<T> deserializer, 
-            long threadId, CrossrefRequestListener<T> listener) throws URISyntaxException, ClientProtocolException, IOException {
+    protected <T extends Object> Runnable newRequestTask(String model, Map<String, String> params, 
+            CrossrefDeserializer<T> deserializer, CrossrefRequestListener<T> listener) {
         GluttonRequest<T> request = new GluttonRequest<T>(model, params, deserializer);
-        synchronized(this) {
-            this.<T>pushRequest(request, listener, threadId);
-        }
+        if (listener != null)
+            request.addListener(listener);
+        return new GluttonRequestTask<T>(this, request);
     }
 
     /**
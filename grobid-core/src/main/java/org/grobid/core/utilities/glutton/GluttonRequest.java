@@ -19,7 +19,6 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.apache.http.HttpHost;
 import org.apache.http.conn.params.*;
@@ -29,6 +28,7 @@ import org.grobid.core.utilities.crossref.CrossrefRequestListener;
 import org.grobid.core.utilities.crossref.CrossrefRequestListener.Response;
 import org.grobid.core.utilities.crossref.CrossrefDeserializer;
 import org.grobid.core.utilities.crossref.CrossrefRequest;
+import org.grobid.core.utilities.crossref.CrossrefClient;
 import org.grobid.core.exceptions.GrobidResourceException;
 
 import org.apache.commons.io.IOUtils;
@@ -91,16 +91,7 @@ public class GluttonRequest<T extends Object> extends Observable {
             notifyListeners(message);
             return;
         }
-        CloseableHttpClient httpclient = null;
-        if (GrobidProperties.getProxyHost() != null) {
-            HttpHost proxy = new HttpHost(GrobidProperties.getProxyHost(), GrobidProperties.getProxyPort());
-            DefaultProxyRoutePlanner routePlanner = new DefaultProxyRoutePlanner(proxy);
-            httpclient = HttpClients.custom()
-                .setRoutePlanner(routePlanner)
-                .build();
-        } else {
-            httpclient = HttpClients.createDefault();   
-        }
+        CloseableHttpClient httpclient = CrossrefClient.getHttpClient();
 
         try {
             String url = GrobidProperties.getInstance().getGluttonHost();
@@ -175,6 +166,7 @@ public class GluttonRequest<T extends Object> extends Observable {
 
                     if (entity != null) {
                         String body = EntityUtils.toString(entity);
+                        message.body = body;
                         message.results = deserializer.parse(body);
                     }
                 }
@@ -187,11 +179,6 @@ public class GluttonRequest<T extends Object> extends Observable {
             httpclient.execute(httpget, responseHandler);
             
         } catch (GrobidResourceException gre) {
-            try {
-                httpclient.close();
-            } catch (IOException e) { 
-                // to log
-            }
             try {
                 TimeUnit.SECONDS.sleep(1);
             } catch (InterruptedException ie) {
@@ -202,14 +189,6 @@ public class GluttonRequest<T extends Object> extends Observable {
             CrossrefRequestListener.Response<T> message = new CrossrefRequestListener.Response<T>();
             message.setException(e, this.toString());
             notifyListeners(message);
-        } finally {
-            try {
-                httpclient.close();
-            } catch (IOException e) {           
-                CrossrefRequestListener.Response<T> message = new CrossrefRequestListener.Response<T>();
-                message.setException(e, this.toString());
-                notifyListeners(message);
-            }
         }
     }
 
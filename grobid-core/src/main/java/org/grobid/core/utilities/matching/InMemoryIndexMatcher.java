@@ -0,0 +1,194 @@
+package org.grobid.core.utilities.matching;
+
+import com.google.common.base.Function;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.ClassicAnalyzer;
+import org.apache.lucene.util.SmallFloat;
+import org.apache.lucene.util.Version;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same matching as LuceneIndexMatcher, but with a plain inverted map of the analyzed
+ * terms kept in the heap: no index directory, writer or searcher have to be created
+ * for each document.
+ *
+ * The ranking reproduces the default Lucene 4.5 TF-IDF similarity (including the
+ * encoding of the field length norms on one byte), so that the same entities are
+ * returned in the same order when more than maxResults of them match.
+ */
+public class InMemoryIndexMatcher<T, V> implements IndexMatcher<T, V> {
+    private Analyzer analyzer = new ClassicAnalyzer(Version.LUCENE_45);
+    private final Function<T, Object> indexedFieldSelector;
+    private final Function<V, Object> searchedFieldSelector;
+
+    // indexed entities, the position in this list is the document id
+    private final List<T> entities = new ArrayList<T>();
+    private final Map<String, Postings> index = new HashMap<String, Postings>();
+    private float[] norms = new float[0];
+
+    // -- settings
+    private double mustMatchPercentage = 0.9;
+    private int maxResults = 10;
+    // -- settings
+
+    /**
+     * Document ids containing a term, in increasing order, with the frequency of the term
+     */
+    private static class Postings {
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int size = 0;
+
+        private void add(int doc) {
+            if ((size > 0) && (docs[size - 1] == doc)) {
+                freqs[size - 1]++;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = 1;
+            size++;
+        }
+    }
+
+    public InMemoryIndexMatcher(Function<T, Object> indexedFieldSelector, Function<V, Object> searchedFieldSelector) {
+        this.indexedFieldSelector = indexedFieldSelector;
+        this.searchedFieldSelector = searchedFieldSelector;
+    }
+
+    @Override
+    public void load(Iterable<T> entities) throws EntityMatcherException {
+        close();
+
+        List<Float> lengthNorms = new ArrayList<Float>();
+        for (T entity : entities) {
+            Object indexedFieldObj = indexedFieldSelector.apply(entity);
+            if (indexedFieldObj == null) {
+                continue;
+            }
+
+            int doc = this.entities.size();
+            this.entities.add(entity);
+            List<String> tokens = LuceneUtil.tokenizeString(analyzer, indexedFieldObj.toString());
+            for (String token : tokens) {
+                Postings postings = index.get(token);
+                if (postings == null) {
+                    postings = new Postings();
+                    index.put(token, postings);
+                }
+                postings.add(doc);
+            }
+            lengthNorms.add(lengthNorm(tokens.size()));
+        }
+
+        norms = new float[lengthNorms.size()];
+        for (int i = 0; i < norms.length; i++) {
+            norms[i] = lengthNorms.get(i);
+        }
+    }
+
+    @Override
+    public List<T> match(V entity) throws EntityMatcherException {
+        Object searchedObj = searchedFieldSelector.apply(entity);
+        if ((searchedObj == null) || entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = LuceneUtil.tokenizeString(analyzer, searchedObj.toString());
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int minShouldMatch = Math.max(1, (int) (tokens.size() * mustMatchPercentage));
+
+        // one clause per query token, as in the boolean query of LuceneIndexMatcher
+        Postings[] clauses = new Postings[tokens.size()];
+        float[] idfs = new float[tokens.size()];
+        float sumOfSquaredWeights = 0.0f;
+        for (int i = 0; i < tokens.size(); i++) {
+            clauses[i] = index.get(tokens.get(i));
+            idfs[i] = idf(clauses[i] == null ? 0 : clauses[i].size, entities.size());
+            sumOfSquaredWeights += idfs[i] * idfs[i];
+        }
+        float queryNorm = (float) (1.0 / Math.sqrt(sumOfSquaredWeights));
+        if (Float.isInfinite(queryNorm) || Float.isNaN(queryNorm)) {
+            queryNorm = 1.0f;
+        }
+
+        // scores are summed in double precision, as in the boolean scorers
+        double[] sums = new double[entities.size()];
+        int[] overlaps = new int[entities.size()];
+        for (int i = 0; i < clauses.length; i++) {
+            Postings postings = clauses[i];
+            if (postings == null) {
+                continue;
+            }
+            float weight = (idfs[i] * queryNorm) * idfs[i];
+            for (int j = 0; j < postings.size; j++) {
+                int doc = postings.docs[j];
+                sums[doc] += ((float) Math.sqrt(postings.freqs[j]) * weight) * norms[doc];
+                overlaps[doc]++;
+            }
+        }
+
+        final float[] scores = new float[entities.size()];
+        List<Integer> hits = new ArrayList<Integer>();
+        for (int doc = 0; doc < overlaps.length; doc++) {
+            if (overlaps[doc] >= minShouldMatch) {
+                scores[doc] = (float) sums[doc] * (overlaps[doc] / (float) clauses.length);
+                hits.add(doc);
+            }
+        }
+        // best score first, ties in indexing order
+        Collections.sort(hits, (doc1, doc2) -> {
+            int comp = Float.compare(scores[doc2], scores[doc1]);
+            return (comp != 0) ? comp : Integer.compare(doc1, doc2);
+        });
+
+        List<T> result = new ArrayList<T>();
+        for (int i = 0; (i < hits.size()) && (i < maxResults); i++) {
+            result.add(entities.get(hits.get(i)));
+        }
+        return result;
+    }
+
+    private static float idf(long docFreq, long numDocs) {
+        return (float) (Math.log(numDocs / (double) (docFreq + 1)) + 1.0);
+    }
+
+    private static float lengthNorm(int numTerms) {
+        // norms are stored by Lucene on a single byte
+        return SmallFloat.byte315ToFloat(SmallFloat.floatToByte315((float) (1.0 / Math.sqrt(numTerms))));
+    }
+
+    @Override
+    public InMemoryIndexMatcher<T, V> setMustMatchPercentage(double mustMatchPercentage) {
+        this.mustMatchPercentage = mustMatchPercentage;
+        return this;
+    }
+
+    @Override
+    public InMemoryIndexMatcher<T, V> setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    public InMemoryIndexMatcher<T, V> setAnalyzer(Analyzer analyzer) {
+        this.analyzer = analyzer;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        entities.clear();
+        index.clear();
+        norms = new float[0];
+    }
+}
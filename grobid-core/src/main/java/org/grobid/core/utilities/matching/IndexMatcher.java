@@ -0,0 +1,22 @@
+package org.grobid.core.utilities.matching;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Index of entities retrieved with the tokens of a searched object, all the tokens
+ * (or the given percentage of them) having to be present in the indexed field.
+ */
+public interface IndexMatcher<T, V> extends Closeable {
+
+    void load(Iterable<T> entities) throws EntityMatcherException;
+
+    List<T> match(V entity) throws EntityMatcherException;
+
+    IndexMatcher<T, V> setMustMatchPercentage(double mustMatchPercentage);
+
+    IndexMatcher<T, V> setMaxResults(int maxResults);
+
+    @Override
+    void close();
+}
@@ -19,7 +19,6 @@ import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.RAMDirectory;
 import org.apache.lucene.util.Version;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -31,7 +30,7 @@ import java.util.Map;
  * User: zholudev
  * Date: 3/4/14
  */
-public class LuceneIndexMatcher<T, V> implements Closeable {
+public class LuceneIndexMatcher<T, V> implements IndexMatcher<T, V> {
     private Analyzer analyzer = new ClassicAnalyzer(Version.LUCENE_45);
     private static final String ID_LUCENE_FIELD_NAME = "idField";
     public static final String INDEXED_LUCENE_FIELD_NAME = "indexedField";
@@ -52,6 +51,7 @@ public class LuceneIndexMatcher<T, V> implements Closeable {
     }
 
 
+    @Override
     public void load(Iterable<T> entities) throws EntityMatcherException {
         close();
 
@@ -102,6 +102,7 @@ public class LuceneIndexMatcher<T, V> implements Closeable {
     }
 
 
+    @Override
     public List<T> match(V entity) throws EntityMatcherException {
         try {
             Query query = createLuceneQuery(getSearchedObject(entity));
@@ -159,11 +160,13 @@ public class LuceneIndexMatcher<T, V> implements Closeable {
         return query;
     }
 
+    @Override
     public LuceneIndexMatcher<T, V> setMustMatchPercentage(double mustMatchPercentage) {
         this.mustMatchPercentage = mustMatchPercentage;
         return this;
     }
 
+    @Override
     public LuceneIndexMatcher<T, V> setMaxResults(int maxResults) {
         this.maxResults = maxResults;
         return this;
@@ -8,6 +8,7 @@ import org.apache.lucene.analysis.standard.ClassicAnalyzer;
 import org.apache.lucene.util.Version;
 import org.grobid.core.data.BibDataSet;
 import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.LayoutTokensUtil;
 import org.grobid.core.utilities.Pair;
 import org.grobid.core.utilities.TextUtilities;
@@ -75,14 +76,23 @@ public class ReferenceMarkerMatcher {
             return s;
         }
     };
-    private final LuceneIndexMatcher<BibDataSet, String> authorMatcher;
-    private final LuceneIndexMatcher<BibDataSet, String> labelMatcher;
+    private final IndexMatcher<BibDataSet, String> authorMatcher;
+    private final IndexMatcher<BibDataSet, String> labelMatcher;
     private CntManager cntManager;
     private Set<String> allLabels = null;
     private Set<String> allFirstAuthors = null;
 
     public ReferenceMarkerMatcher(List<BibDataSet> bds, CntManager cntManager)
             throws EntityMatcherException {
+        this(bds, cntManager, GrobidProperties.isReferenceMarkersIndexInMemory());
+    }
+
+    /**
+     * @param inMemoryIndex if true, the bibliographical references are indexed in a map kept
+     *                      in the heap instead of a Lucene index, the matches are identical
+     */
+    public ReferenceMarkerMatcher(List<BibDataSet> bds, CntManager cntManager, boolean inMemoryIndex)
+            throws EntityMatcherException {
         allLabels = new HashSet<String>();
         allFirstAuthors = new HashSet<String>();
         if ( (bds != null) && (bds.size() > 0) ) {
@@ -96,7 +106,7 @@ public class ReferenceMarkerMatcher {
         }
 
         this.cntManager = cntManager;
-        authorMatcher = new LuceneIndexMatcher<>(
+        authorMatcher = createIndexMatcher(inMemoryIndex,
                 new Function<BibDataSet, Object>() {
                     @Override
                     public Object apply(BibDataSet bibDataSet) {
@@ -107,21 +117,19 @@ public class ReferenceMarkerMatcher {
 //                        System.out.println("Indexing: " + authorString);
                         return authorString;
                     }
-                },
-                IDENTITY
+                }
         );
 
         authorMatcher.setMustMatchPercentage(1.0);
         if (bds != null)
             authorMatcher.load(bds);
-        labelMatcher = new LuceneIndexMatcher<>(
+        labelMatcher = createIndexMatcher(inMemoryIndex,
                 new Function<BibDataSet, Object>() {
                     @Override
                     public Object apply(BibDataSet bibDataSet) {
                         return bibDataSet.getRefSymbol();
                     }
-                },
-                IDENTITY
+                }
         );
 
         labelMatcher.setMustMatchPercentage(1.0);
@@ -129,6 +137,14 @@ public class ReferenceMarkerMatcher {
             labelMatcher.load(bds);
     }
 
+    private static IndexMatcher<BibDataSet, String> createIndexMatcher(boolean inMemoryIndex,
+                                                                     Function<BibDataSet, Object> indexedFieldSelector) {
+        if (inMemoryIndex) {
+            return new InMemoryIndexMatcher<>(indexedFieldSelector, IDENTITY);
+        }
+        return new LuceneIndexMatcher<>(indexedFieldSelector, IDENTITY);
+    }
+
     public List<MatchResult> match(List<LayoutToken> refTokens) throws EntityMatcherException {
         cntManager.i(ReferenceMarkerMatcherCounters.INPUT_REF_STRINGS_CNT);
         String text = LayoutTokensUtil.toText(LayoutTokensUtil.dehyphenize(LayoutTokensUtil.enrichWithNewLineInfo(refTokens)));
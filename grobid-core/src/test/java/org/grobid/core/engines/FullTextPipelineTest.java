@@ -0,0 +1,151 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.BiblioItem;
+import org.grobid.core.document.Document;
+import org.grobid.core.document.DocumentSource;
+import org.grobid.core.engines.config.GrobidAnalysisConfig;
+import org.grobid.core.exceptions.GrobidException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class FullTextPipelineTest {
+
+    private static final int NB_DOCUMENTS = 6;
+
+    private final List<DocumentSource> sources = new ArrayList<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Set<DocumentSource> closed = ConcurrentHashMap.newKeySet();
+    private final List<Document> completed = Collections.synchronizedList(new ArrayList<>());
+    // documents failing at the tokenization and the body stages
+    private final Set<Document> failingTokenization = ConcurrentHashMap.newKeySet();
+    private final Set<Document> failingBody = ConcurrentHashMap.newKeySet();
+    private final GrobidAnalysisConfig config = GrobidAnalysisConfig.defaultInstance();
+    private FullTextPipeline target;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < NB_DOCUMENTS; i++) {
+            DocumentSource source = createMock(DocumentSource.class);
+            source.close(true, true, true);
+            expectLastCall().andStubAnswer(() -> {
+                closed.add(source);
+                return null;
+            });
+            replay(source);
+            sources.add(source);
+            Document doc = createMock(Document.class);
+            replay(doc);
+            documents.add(doc);
+        }
+
+        Segmentation segmentation = createMock(Segmentation.class);
+        expect(segmentation.tokenize(anyObject(DocumentSource.class), anyObject(GrobidAnalysisConfig.class)))
+            .andStubAnswer(() -> {
+                Document doc = documents.get(sources.indexOf(getCurrentArguments()[0]));
+                if (failingTokenization.contains(doc)) {
+                    throw new GrobidException("Tokenization failed");
+                }
+                return doc;
+            });
+        expect(segmentation.processing(anyObject(DocumentSource.class), anyObject(Document.class),
+            anyObject(GrobidAnalysisConfig.class))).andStubAnswer(() -> (Document) getCurrentArguments()[1]);
+
+        FullTextParser fullTextParser = createMock(FullTextParser.class);
+        expect(fullTextParser.processingHeaderStage(anyObject(Document.class), anyObject(GrobidAnalysisConfig.class)))
+            .andStubReturn(new BiblioItem());
+        expect(fullTextParser.processingReferenceStage(anyObject(Document.class), anyObject(GrobidAnalysisConfig.class)))
+            .andStubReturn(new ArrayList<>());
+        // the first documents are the slowest ones, so that the documents are not finished in order
+        expect(fullTextParser.processingBodyStage(anyObject(Document.class), anyObject(GrobidAnalysisConfig.class)))
+            .andStubAnswer(() -> {
+                Document doc = (Document) getCurrentArguments()[0];
+                Thread.sleep(20 * (NB_DOCUMENTS - documents.indexOf(doc)));
+                if (failingBody.contains(doc)) {
+                    throw new GrobidException("Body processing failed");
+                }
+                return new FullTextParser.BodyResult();
+            });
+        expect(fullTextParser.processingTEIStage(anyObject(Document.class), anyObject(BiblioItem.class),
+            anyObject(FullTextParser.BodyResult.class), anyObject(GrobidAnalysisConfig.class)))
+            .andStubAnswer(() -> {
+                Document doc = (Document) getCurrentArguments()[0];
+                completed.add(doc);
+                return doc;
+            });
+
+        EngineParsers parsers = createMock(EngineParsers.class);
+        expect(parsers.getSegmentationParser()).andStubReturn(segmentation);
+        expect(parsers.getFullTextParser()).andStubReturn(fullTextParser);
+        replay(segmentation, fullTextParser, parsers);
+
+        target = new FullTextPipeline(parsers, 3, 2);
+    }
+
+    @After
+    public void tearDown() {
+        target.close();
+    }
+
+    private List<CompletableFuture<Document>> submitAll() {
+        List<CompletableFuture<Document>> futures = new ArrayList<>();
+        for (DocumentSource source : sources) {
+            futures.add(target.submit(source, config));
+        }
+        return futures;
+    }
+
+    @Test
+    public void testSubmit_severalDocuments_shouldCompleteEachDocument() throws Exception {
+        List<CompletableFuture<Document>> futures = submitAll();
+
+        for (int i = 0; i < NB_DOCUMENTS; i++) {
+            assertThat(futures.get(i).join(), is(documents.get(i)));
+        }
+        assertThat(new HashSet<>(completed), is(new HashSet<>(documents)));
+        assertThat(closed.size(), is(NB_DOCUMENTS));
+    }
+
+    @Test
+    public void testSubmit_failingDocument_shouldOnlyFailThisDocument() throws Exception {
+        failingBody.add(documents.get(1));
+        failingTokenization.add(documents.get(3));
+        List<CompletableFuture<Document>> futures = submitAll();
+
+        for (int i = 0; i < NB_DOCUMENTS; i++) {
+            if (i == 1 || i == 3) {
+                try {
+                    futures.get(i).join();
+                    fail("The processing of the document " + i + " should fail");
+                } catch (CompletionException e) {
+                    assertThat(e.getCause(), instanceOf(GrobidException.class));
+                }
+            } else {
+                assertThat(futures.get(i).join(), is(documents.get(i)));
+            }
+        }
+        assertThat(completed.size(), is(NB_DOCUMENTS - 2));
+        // the document source is closed even when the processing failed
+        assertThat(closed.size(), is(NB_DOCUMENTS));
+    }
+}
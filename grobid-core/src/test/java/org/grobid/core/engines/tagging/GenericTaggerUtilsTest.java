@@ -2,6 +2,9 @@ package org.grobid.core.engines.tagging;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
@@ -54,4 +57,23 @@ public class GenericTaggerUtilsTest {
     public void testIsBeginningOfEntity_B_false2() throws Exception {
         assertFalse(GenericTaggerUtils.isBeginningOfEntity("<B-status>"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testJoinAndSplitBatch() throws Exception {
+        List<String> sequences = Arrays.asList("a f1\nb f2", "", "c f3\n\nd f4\n");
+        assertThat(GenericTaggerUtils.joinBatch(sequences), is("a f1\nb f2\n\nc f3\n\nd f4\n\n"));
+
+        String labeled = "a\tf1\tL1\nb\tf2\tL2\n\nc\tf3\tL3\n\nd\tf4\tL4\n";
+        List<String> results = GenericTaggerUtils.splitBatch(sequences, labeled);
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0), is("a\tf1\tL1\nb\tf2\tL2"));
+        assertThat(results.get(1), is(""));
+        assertThat(results.get(2), is("c\tf3\tL3\n\nd\tf4\tL4"));
+    }
+
+    @Test
+    public void testSplitBatch_nullResult() throws Exception {
+        List<String> results = GenericTaggerUtils.splitBatch(Arrays.asList("a f1", "b f2"), null);
+        assertThat(results, is(Arrays.asList("", "")));
+    }
+}
@@ -0,0 +1,159 @@
+package org.grobid.core.engines.tagging;
+
+import org.grobid.core.GrobidModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TaggerPoolTest {
+
+    private ExecutorService executor;
+    private final List<RecordingTagger> created = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tagger labelling with its name, blocking while its model is blocked
+     */
+    private static class RecordingTagger implements GenericTagger {
+        private final String name;
+        private final CountDownLatch blocked;
+        private final CountDownLatch started;
+        private boolean closed = false;
+
+        RecordingTagger(String name, CountDownLatch started, CountDownLatch blocked) {
+            this.name = name;
+            this.started = started;
+            this.blocked = blocked;
+        }
+
+        @Override
+        public String label(Iterable<String> data) {
+            return label(String.join(" ", data));
+        }
+
+        @Override
+        public String label(String data) {
+            started.countDown();
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return name;
+        }
+
+        @Override
+        public List<String> labelBatch(List<String> data) {
+            return Collections.singletonList(label(data));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static GrobidModel model(String name) {
+        GrobidModel model = createNiceMock(GrobidModel.class);
+        expect(model.getModelName()).andStubReturn(name);
+        replay(model);
+        return model;
+    }
+
+    private TaggerPool pool(String modelName, int size, CountDownLatch started, CountDownLatch blocked) {
+        AtomicInteger nb = new AtomicInteger();
+        return new TaggerPool(model(modelName), size, () -> {
+            RecordingTagger tagger = new RecordingTagger(modelName + "-" + nb.getAndIncrement(), started, blocked);
+            created.add(tagger);
+            return tagger;
+        });
+    }
+
+    @Test
+    public void testLabel_shouldUseFreeInstances() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch blocked = new CountDownLatch(1);
+        TaggerPool target = pool("date", 2, started, blocked);
+        assertThat(target.size(), is(2));
+        assertThat(created.size(), is(2));
+
+        Future<String> first = executor.submit(() -> target.label("a"));
+        Future<String> second = executor.submit(() -> target.label("b"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        blocked.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS), is(not(second.get(10, TimeUnit.SECONDS))));
+    }
+
+    @Test
+    public void testLabel_noFreeInstance_shouldWaitForTheReturn() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        TaggerPool target = pool("date", 1, started, blocked);
+
+        Future<String> first = executor.submit(() -> target.label("a"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<List<String>> second = executor.submit(() -> target.labelBatch(Collections.singletonList("b")));
+        Thread.sleep(100);
+        assertThat(second.isDone(), is(false));
+
+        blocked.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS), is("date-0"));
+        assertThat(second.get(10, TimeUnit.SECONDS), is(Collections.singletonList("date-0")));
+    }
+
+    @Test
+    public void testLabel_busyModel_shouldNotBlockOtherModels() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        TaggerPool busy = pool("date", 1, started, blocked);
+        TaggerPool other = pool("name", 1, new CountDownLatch(1), new CountDownLatch(0));
+
+        try {
+            executor.submit(() -> busy.label("a"));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertThat(executor.submit(() -> other.label("b")).get(10, TimeUnit.SECONDS), is("name-0"));
+        } finally {
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    public void testClose_shouldCloseAllInstances() throws Exception {
+        TaggerPool target = pool("date", 3, new CountDownLatch(1), new CountDownLatch(0));
+        target.close();
+
+        assertThat(created.size(), is(3));
+        for (RecordingTagger tagger : created) {
+            assertThat(tagger.closed, is(true));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.grobid.core.factory;
+
+import org.grobid.core.engines.Engine;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.easymock.EasyMock.createMock;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GrobidEnginePoolTest {
+
+    private Engine engine1;
+    private Engine engine2;
+
+    @Before
+    public void setUp() {
+        engine1 = createMock(Engine.class);
+        engine2 = createMock(Engine.class);
+    }
+
+    private static void waitForWaiting(GrobidEnginePool pool, int nbWaiting) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getNbWaiting() != nbWaiting) {
+            assertTrue("Expected " + nbWaiting + " waiting requests", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testBorrowEngine_shouldReturnFreeEngines() throws Exception {
+        GrobidEnginePool target = new GrobidEnginePool(Arrays.asList(engine1, engine2), 1000, 0);
+
+        assertThat(target.getSize(), is(2));
+        assertThat(target.getNbIdle(), is(2));
+        Engine first = target.borrowEngine();
+        Engine second = target.borrowEngine();
+        assertThat(first, is(not(second)));
+        assertThat(target.getNbIdle(), is(0));
+
+        target.returnEngine(first);
+        assertThat(target.getNbIdle(), is(1));
+        assertThat(target.borrowEngine(), is(first));
+        assertThat(target.getNbWaiting(), is(0));
+    }
+
+    @Test
+    public void testBorrowEngine_noEngineInTime_shouldThrowNoSuchElementException() throws Exception {
+        GrobidEnginePool target = new GrobidEnginePool(Arrays.asList(engine1), 100, 0);
+        target.borrowEngine();
+
+        try {
+            target.borrowEngine();
+            fail("No engine should be available");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        assertThat(target.getNbWaiting(), is(0));
+
+        CompletableFuture<Engine> future = target.borrowEngineAsync();
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("No engine should be available");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(NoSuchElementException.class));
+        }
+        assertThat(target.getNbWaiting(), is(0));
+    }
+
+    @Test
+    public void testBorrowEngine_tooManyWaiting_shouldBeRejected() throws Exception {
+        GrobidEnginePool target = new GrobidEnginePool(Arrays.asList(engine1), 10000, 1);
+        target.borrowEngine();
+        CompletableFuture<Engine> waiting = target.borrowEngineAsync();
+        assertThat(target.getNbWaiting(), is(1));
+
+        try {
+            target.borrowEngine();
+            fail("The request should be rejected");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        assertThat(target.getNbWaiting(), is(1));
+        waiting.cancel(false);
+    }
+
+    @Test
+    public void testReturnEngine_shouldServeWaitersInArrivalOrder() throws Exception {
+        GrobidEnginePool target = new GrobidEnginePool(Arrays.asList(engine1), 10000, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Engine engine = target.borrowEngine();
+            CompletableFuture<Engine> first = target.borrowEngineAsync();
+            waitForWaiting(target, 1);
+            Future<Engine> second = executor.submit(target::borrowEngine);
+            waitForWaiting(target, 2);
+
+            // a new request does not take an engine ahead of the waiting ones
+            assertThat(target.tryBorrowEngine(), is(nullValue()));
+
+            target.returnEngine(engine);
+            assertThat(first.get(10, TimeUnit.SECONDS), is(engine));
+            assertThat(second.isDone(), is(false));
+            assertThat(target.getNbWaiting(), is(1));
+
+            target.returnEngine(engine);
+            assertThat(second.get(10, TimeUnit.SECONDS), is(engine));
+            assertThat(target.getNbWaiting(), is(0));
+            assertThat(target.getNbIdle(), is(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
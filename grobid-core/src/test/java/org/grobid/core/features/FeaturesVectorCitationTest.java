@@ -0,0 +1,47 @@
+package org.grobid.core.features;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FeaturesVectorCitationTest {
+
+    private static FeaturesVectorCitation features() {
+        FeaturesVectorCitation features = new FeaturesVectorCitation();
+        features.string = "Grobid";
+        features.lineStatus = "LINESTART";
+        features.capitalisation = "INITCAP";
+        features.digit = "NODIGIT";
+        features.properName = true;
+        features.punctType = "NOPUNCT";
+        features.relativePosition = 3;
+        features.label = "I-<author>";
+        return features;
+    }
+
+    @Test
+    public void testPrintVector() {
+        assertThat(features().printVector(),
+            is("Grobid grobid G Gr Gro Grob d id bid obid LINESTART INITCAP NODIGIT 0 1 0 0 0 0 0 0 0 0 0 0 0 0 NOPUNCT 3 I-<author>\n"));
+    }
+
+    @Test
+    public void testPrintVector_appendShouldGiveSameOutput() {
+        FeaturesVectorCitation features = features();
+        StringBuilder buffer = new StringBuilder("previous\n");
+        features.printVector(buffer);
+
+        assertThat(buffer.toString(), is("previous\n" + features.printVector()));
+    }
+
+    @Test
+    public void testPrintVector_emptyString_appendShouldGiveSameOutput() {
+        FeaturesVectorCitation features = features();
+        features.string = "";
+        StringBuilder buffer = new StringBuilder();
+        features.printVector(buffer);
+
+        assertThat(buffer.toString(), is(new StringBuilder().append(features.printVector()).toString()));
+    }
+}
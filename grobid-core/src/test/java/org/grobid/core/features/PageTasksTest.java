@@ -0,0 +1,65 @@
+package org.grobid.core.features;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PageTasksTest {
+
+    private static List<Integer> pages(int nbPages) {
+        List<Integer> pages = new ArrayList<>();
+        for (int i = 0; i < nbPages; i++) {
+            pages.add(i);
+        }
+        return pages;
+    }
+
+    @Test
+    public void testMap_parallel_shouldKeepPageOrder() {
+        List<String> results = PageTasks.map(pages(500), page -> "page " + page, true);
+
+        assertThat(results.size(), is(500));
+        for (int i = 0; i < 500; i++) {
+            assertThat(results.get(i), is("page " + i));
+        }
+    }
+
+    @Test
+    public void testMap_parallel_shouldProcessEachPageOnce() {
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        List<Boolean> results = PageTasks.map(pages(300), processed::add, true);
+
+        assertThat(processed.size(), is(300));
+        assertThat(Collections.frequency(results, Boolean.TRUE), is(300));
+    }
+
+    @Test
+    public void testMap_sequential_shouldGiveSameResults() {
+        List<Integer> pages = pages(50);
+
+        assertThat(PageTasks.map(pages, page -> page * page, false),
+            is(PageTasks.map(pages, page -> page * page, true)));
+    }
+
+    @Test
+    public void testMap_parallel_shouldNotRunInTheCommonPool() {
+        List<Boolean> inCommonPool = PageTasks.map(pages(100),
+            page -> ForkJoinTask.getPool() == ForkJoinPool.commonPool(), true);
+
+        assertThat(Collections.frequency(inCommonPool, Boolean.TRUE), is(0));
+    }
+
+    @Test
+    public void testMap_noPage() {
+        assertThat(PageTasks.map(new ArrayList<Integer>(), page -> page, true).size(), is(0));
+    }
+}
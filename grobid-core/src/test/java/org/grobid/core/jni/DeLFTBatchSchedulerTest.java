@@ -0,0 +1,148 @@
+package org.grobid.core.jni;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeLFTBatchSchedulerTest {
+
+    private final AtomicInteger nbInferences = new AtomicInteger();
+    private final CountDownLatch firstInference = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DeLFTBatchScheduler target;
+
+    // labels each token line with its upper case form, as a DeLFT inference would do
+    private String label(String data) throws Exception {
+        if (nbInferences.incrementAndGet() == 1) {
+            firstInference.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        }
+        StringBuilder result = new StringBuilder();
+        for (String line : data.split("\n")) {
+            if (!line.trim().isEmpty())
+                result.append(line.trim()).append(" ").append(line.trim().toUpperCase()).append("\n");
+        }
+        return result.toString();
+    }
+
+    @After
+    public void tearDown() {
+        if (target != null)
+            target.close();
+    }
+
+    @Test
+    public void testLabel_singleCall() throws Exception {
+        release.countDown();
+        target = new DeLFTBatchScheduler("test", this::label, 8, 0);
+
+        assertThat(target.label("a\nb\n"), is("a A\nb B\n"));
+    }
+
+    @Test
+    public void testLabel_concurrentCallsShouldBeTaggedTogether() throws Exception {
+        target = new DeLFTBatchScheduler("test", this::label, 8, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            // the first call blocks the inference, the next ones are then gathered in one batch
+            Future<String> first = executor.submit(() -> target.label("x"));
+            assertTrue(firstInference.await(10, TimeUnit.SECONDS));
+            List<Future<String>> others = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final String data = "t" + i + "\nu" + i;
+                others.add(executor.submit(() -> target.label(data)));
+            }
+            // leaves the calls some time to reach the scheduler
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(first.get(), is("x X\n"));
+            for (int i = 0; i < 4; i++) {
+                assertThat(others.get(i).get(), is("t" + i + " T" + i + "\nu" + i + " U" + i + "\n"));
+            }
+            assertTrue(nbInferences.get() < 5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLabel_severalDispatchersShouldTagInParallel() throws Exception {
+        target = new DeLFTBatchScheduler("test", this::label, 8, 0, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> target.label("x"));
+            assertTrue(firstInference.await(10, TimeUnit.SECONDS));
+
+            // tagged by the second dispatcher while the first inference is still running
+            assertThat(executor.submit(() -> target.label("y")).get(10, TimeUnit.SECONDS), is("y Y\n"));
+            release.countDown();
+            assertThat(first.get(), is("x X\n"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLabel_emptyCallInBatch() throws Exception {
+        release.countDown();
+        target = new DeLFTBatchScheduler("test", this::label, 8, 200000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> empty = executor.submit(() -> target.label(""));
+            Future<String> other = executor.submit(() -> target.label("a"));
+
+            assertThat(empty.get(), is(""));
+            assertThat(other.get(), is("a A\n"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLabel_sequentialCallsShouldNotWait() throws Exception {
+        release.countDown();
+        // 2 seconds of maximum waiting time
+        target = new DeLFTBatchScheduler("test", this::label, 8, 2000000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertThat(target.label("a"), is("a A\n"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+
+    @Test
+    public void testLabel_errorShouldFailTheBatchAndKeepTheDispatcher() throws Exception {
+        release.countDown();
+        target = new DeLFTBatchScheduler("test", data -> {
+            if (data.startsWith("crash"))
+                throw new UnsatisfiedLinkError("native failure");
+            return label(data);
+        }, 8, 0);
+
+        try {
+            target.label("crash");
+            fail("The error of the labelling should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(UnsatisfiedLinkError.class));
+        }
+        assertThat(target.label("a"), is("a A\n"));
+    }
+}
@@ -0,0 +1,40 @@
+package org.grobid.core.jni;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DeLFTInputTest {
+
+    @Test
+    public void testParse_shouldShareVocabularyBetweenTokensAndFeatures() throws Exception {
+        DeLFTInput input = DeLFTInput.parse("John john INITCAP\nSmith smith INITCAP\n\n\nand and NOCAPS\n");
+
+        assertThat(input.getNbTokens(), is(3));
+        assertThat(input.getNbColumns(), is(3));
+        assertThat(input.getLengths(), is(new int[] {2, 1}));
+        assertThat(input.getVocabulary(), is("John\njohn\nINITCAP\nSmith\nsmith\nand\nNOCAPS"));
+        int[] ids = new int[9];
+        input.getIds().get(ids);
+        assertThat(ids, is(new int[] {0, 1, 2, 3, 4, 2, 5, 5, 6}));
+    }
+
+    @Test
+    public void testParse_differentNumberOfColumns_shouldReturnNull() throws Exception {
+        assertThat(DeLFTInput.parse("John john INITCAP\nSmith smith\n"), is(nullValue()));
+    }
+
+    @Test
+    public void testToLabelled_tokensWithoutLabelShouldBeOther() throws Exception {
+        DeLFTInput input = DeLFTInput.parse("John john\tINITCAP\n\nSmith smith INITCAP\nand and NOCAPS");
+
+        assertThat(input.toLabelled(new int[] {1, 0, -1}, Arrays.asList("I-<surname>", "I-<forename>")),
+            is("John john\tINITCAP I-<forename>\n" +
+                "Smith smith INITCAP I-<surname>\n" +
+                "and and NOCAPS <other>\n"));
+    }
+}
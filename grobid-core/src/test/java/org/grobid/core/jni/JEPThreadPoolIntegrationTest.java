@@ -0,0 +1,85 @@
+package org.grobid.core.jni;
+
+import org.grobid.core.GrobidModels;
+import org.grobid.core.data.Date;
+import org.grobid.core.engines.DateParser;
+import org.grobid.core.engines.EngineParsers;
+import org.grobid.core.engines.tagging.GrobidCRFEngine;
+import org.grobid.core.main.LibraryLoader;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.GrobidPropertyKeys;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Labelling with a DeLFT model loaded in two interpreters sharing the extension modules
+ * (numpy, tensorflow, keras...). Only run when the date model uses DeLFT, with a JEP and
+ * DeLFT installation.
+ */
+public class JEPThreadPoolIntegrationTest {
+
+    private static final List<String> DATES = Arrays.asList(
+        "23 november 2019", "2001-05-12", "March 3rd, 1999", "Sept. 2010", "12/01/2016", "Summer 2005");
+
+    private static EngineParsers engineParsers;
+
+    @BeforeClass
+    public static void setInitialContext() throws Exception {
+        GrobidProperties.getInstance();
+        assumeTrue(GrobidProperties.getGrobidCRFEngine(GrobidModels.DATE) == GrobidCRFEngine.DELFT);
+        GrobidProperties.setPropertyValue(GrobidPropertyKeys.PROP_DELFT_INTERPRETERS, "2");
+        LibraryLoader.load();
+        // the pool is created once per JVM, possibly before with a single interpreter
+        assumeTrue(JEPThreadPool.getInstance().getNbInterpreters() == 2);
+        engineParsers = new EngineParsers();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (engineParsers != null) {
+            engineParsers.close();
+        }
+    }
+
+    private static List<String> parse(DateParser parser) {
+        List<String> results = new ArrayList<>();
+        for (String date : DATES) {
+            List<Date> dates = parser.processing(date);
+            results.add(dates == null ? null : dates.toString());
+        }
+        return results;
+    }
+
+    @Test
+    public void testLabel_twoInterpretersAtTheSameTime_shouldGiveTheSequentialResults() throws Exception {
+        DateParser parser = engineParsers.getDateParser();
+        List<String> expected = parse(parser);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit((Callable<List<String>>) () -> parse(parser)));
+            }
+            for (Future<List<String>> future : futures) {
+                assertThat(future.get(5, TimeUnit.MINUTES), is(expected));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
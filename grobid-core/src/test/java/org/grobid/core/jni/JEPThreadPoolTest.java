@@ -0,0 +1,72 @@
+package org.grobid.core.jni;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class JEPThreadPoolTest {
+
+    private JEPThreadPool target;
+
+    @After
+    public void tearDown() {
+        if (target != null)
+            target.shutdown();
+    }
+
+    @Test
+    public void testPin_shouldSpreadModelsOverInterpreters() throws Exception {
+        target = new JEPThreadPool(3);
+
+        assertThat(target.getNbInterpreters(), is(3));
+        assertThat(target.pin(2), is(new int[] {0, 1}));
+        assertThat(target.pin(2), is(new int[] {0, 2}));
+        assertThat(target.pin(5), is(new int[] {0, 1, 2}));
+    }
+
+    @Test
+    public void testUnpin_shouldFreeInterpreters() throws Exception {
+        target = new JEPThreadPool(2);
+        int[] first = target.pin(1);
+        target.pin(1);
+        target.unpin(first);
+
+        assertThat(target.pin(1), is(first));
+    }
+
+    @Test
+    public void testCall_shouldUseLeastLoadedInterpreter() throws Exception {
+        target = new JEPThreadPool(2);
+        int[] interpreters = target.pin(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // keeps the first interpreter busy
+            Future<String> busy = executor.submit(() -> target.call(interpreters, () -> {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return Thread.currentThread().getName();
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertThat(target.call(interpreters, () -> Thread.currentThread().getName()), is("jep-interpreter-1"));
+            release.countDown();
+            assertThat(busy.get(), is("jep-interpreter-0"));
+            // no load left, the first interpreter is used again
+            assertThat(target.call(interpreters, () -> Thread.currentThread().getName()), is("jep-interpreter-0"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
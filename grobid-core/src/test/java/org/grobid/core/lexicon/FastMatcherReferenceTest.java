@@ -0,0 +1,265 @@
+package org.grobid.core.lexicon;
+
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.core.analyzers.Analyzer;
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.OffsetPosition;
+import org.grobid.core.utilities.TextUtilities;
+import org.grobid.core.utilities.UnicodeUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringTokenizer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Compare the matches of FastMatcher with the ones of its previous implementation, a tree of
+ * nested maps with a "#" entry marking the end of a term, on the same lexicon and texts.
+ */
+public class FastMatcherReferenceTest {
+
+    // overlapping and nested terms, multi-token terms, terms with punctuation and case variants
+    private static final List<String> LEXICON = Arrays.asList(
+        "New York", "New York City", "York", "York City", "City", "new", "University of New York",
+        "St. Louis", "St Louis Park", "U.S.A.", "O'Brien", "The Bronx", "Bronx", "PARIS", "Paris",
+        "Paris-Sud", "Rio de Janeiro", "de", "Journal of Physics", "Journal of Physics A", "J. Phys.",
+        "Physics", "Phys. Rev. Lett.", "Nature", "Nature Physics");
+
+    // "#" is left out: the previous implementation took it for the end of a term
+    private static final List<String> SEPARATORS = Arrays.asList(
+        " ", " ", " ", ", ", ". ", "-", "\n", "  ", "'", " (", ") ", "; ", "\t", "/");
+
+    private static final List<String> NOISE = Arrays.asList(
+        "in", "of", "the", "at", "Lett", "Rev", "Sud", "Janeiro", "Park", "A", "St", "USA", "2019", "é");
+
+    private static Analyzer analyzer;
+
+    @BeforeClass
+    public static void setInitialContext() throws Exception {
+        GrobidProperties.getInstance();
+        analyzer = GrobidAnalyzer.getInstance();
+    }
+
+    private static final String delimiters = TextUtilities.delimiters;
+
+    /**
+     * The previous matching: the terms are stored in nested maps, each token of a text extends
+     * the matchings in progress and starts a new one.
+     */
+    private static class MapMatcher {
+        private final Map<String, Map> terms = new HashMap<>();
+
+        MapMatcher(List<String> lexicon, boolean caseSensitive) {
+            for (String line : lexicon) {
+                line = StringUtils.normalizeSpace(UnicodeUtil.normaliseText(line));
+                if (!caseSensitive)
+                    line = line.toLowerCase();
+                Map t = terms;
+                for (String token : analyzer.tokenize(line, new Language("en", 1.0))) {
+                    if (token.length() == 0 || token.equals(" ") || token.equals("\n") || delimiters.contains(token))
+                        continue;
+                    Map t2 = (Map) t.get(token);
+                    if (t2 == null) {
+                        t2 = new HashMap();
+                        t.put(token, t2);
+                    }
+                    t = t2;
+                }
+                if (t != terms && t.get("#") == null)
+                    t.put("#", new HashMap());
+            }
+        }
+
+        /**
+         * @param tokens the tokens to match, with the position of their start and end
+         */
+        List<OffsetPosition> match(List<String> tokens, List<Integer> positions, List<Integer> lastPositions) {
+            List<OffsetPosition> results = new ArrayList<>();
+            List<Map> current = new ArrayList<>();
+            List<Integer> startPos = new ArrayList<>();
+            List<Integer> lastPos = new ArrayList<>();
+            for (int k = 0; k < tokens.size(); k++) {
+                List<Map> newCurrent = new ArrayList<>();
+                List<Integer> newStartPos = new ArrayList<>();
+                List<Integer> newLastPos = new ArrayList<>();
+                for (int i = 0; i < current.size(); i++) {
+                    Map t2 = (Map) current.get(i).get(tokens.get(k));
+                    if (t2 != null) {
+                        newCurrent.add(t2);
+                        newStartPos.add(startPos.get(i));
+                        newLastPos.add(lastPositions.get(k));
+                    }
+                    if (current.get(i).get("#") != null)
+                        results.add(new OffsetPosition(startPos.get(i), lastPos.get(i)));
+                }
+                Map t2 = terms.get(tokens.get(k));
+                if (t2 != null) {
+                    newCurrent.add(t2);
+                    newStartPos.add(positions.get(k));
+                    newLastPos.add(lastPositions.get(k));
+                }
+                current = newCurrent;
+                startPos = newStartPos;
+                lastPos = newLastPos;
+            }
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i).get("#") != null)
+                    results.add(new OffsetPosition(startPos.get(i), lastPos.get(i)));
+            }
+            return results;
+        }
+
+        // positions of the tokens as computed by FastMatcher.matchToken()
+        List<OffsetPosition> matchToken(String text, boolean caseSensitive) {
+            List<String> tokens = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            int currentPos = 0;
+            StringTokenizer st = new StringTokenizer(text, delimiters, true);
+            while (st.hasMoreTokens()) {
+                String token = st.nextToken();
+                if (token.equals(" ") || token.equals("\n"))
+                    continue;
+                if (delimiters.contains(token)) {
+                    currentPos++;
+                    continue;
+                }
+                tokens.add(caseSensitive ? token : token.toLowerCase());
+                positions.add(currentPos++);
+            }
+            return match(tokens, positions, positions);
+        }
+
+        // positions of the tokens as computed by FastMatcher.matchCharacter()
+        List<OffsetPosition> matchCharacter(String text, boolean caseSensitive) {
+            List<String> tokens = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            List<Integer> lastPositions = new ArrayList<>();
+            int currentPos = 0;
+            StringTokenizer st = new StringTokenizer(text, delimiters, true);
+            while (st.hasMoreTokens()) {
+                String token = st.nextToken();
+                if (delimiters.contains(token)) {
+                    currentPos++;
+                    continue;
+                }
+                tokens.add(caseSensitive ? token : token.toLowerCase());
+                positions.add(currentPos);
+                currentPos += token.length();
+                lastPositions.add(currentPos);
+            }
+            return match(tokens, positions, lastPositions);
+        }
+
+        // positions of the tokens as computed by FastMatcher.matchLayoutToken() and matchCharacterLayoutToken()
+        List<OffsetPosition> matchLayoutToken(List<LayoutToken> layoutTokens, boolean ignoreDelimiters,
+                                              boolean caseSensitive, boolean normalise) {
+            List<String> tokens = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            int currentPos = 0;
+            for (LayoutToken layoutToken : layoutTokens) {
+                String token = layoutToken.getText();
+                if (token.equals(" ") || (normalise && token.equals("\n"))
+                    || (ignoreDelimiters && delimiters.contains(token))) {
+                    currentPos++;
+                    continue;
+                }
+                if (normalise)
+                    token = UnicodeUtil.normaliseText(token);
+                tokens.add(caseSensitive ? token : token.toLowerCase());
+                positions.add(currentPos++);
+            }
+            return match(tokens, positions, positions);
+        }
+    }
+
+    private static FastMatcher fastMatcher(boolean caseSensitive) {
+        byte[] lexicon = String.join("\n", LEXICON).getBytes(StandardCharsets.UTF_8);
+        return new FastMatcher(new ByteArrayInputStream(lexicon), analyzer, caseSensitive);
+    }
+
+    private static List<String> texts() {
+        List<String> texts = new ArrayList<>(Arrays.asList(
+            "I'm walking in The Bronx",
+            "University of New York City, New York, U.S.A.",
+            "new york city new york city",
+            "NEW YORK-City and york\ncity",
+            "St. Louis Park (St Louis) and O'Brien",
+            "Journal of Physics A; J. Phys. A; Phys. Rev. Lett. and Nature Physics",
+            "Rio de Janeiro - de Paris-Sud - PARIS paris Paris",
+            "",
+            "   ",
+            "Nature"));
+        // random mixes of terms, term pieces and separators with random case
+        Random random = new Random(42);
+        List<String> pieces = new ArrayList<>(NOISE);
+        for (String term : LEXICON) {
+            pieces.add(term);
+            pieces.addAll(Arrays.asList(term.split("[ .'-]+")));
+        }
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int nbPieces = 1 + random.nextInt(25);
+            for (int j = 0; j < nbPieces; j++) {
+                String piece = pieces.get(random.nextInt(pieces.size()));
+                int caseMix = random.nextInt(4);
+                if (caseMix == 0)
+                    piece = piece.toUpperCase();
+                else if (caseMix == 1)
+                    piece = piece.toLowerCase();
+                text.append(piece).append(SEPARATORS.get(random.nextInt(SEPARATORS.size())));
+            }
+            texts.add(text.toString());
+        }
+        return texts;
+    }
+
+    @Test
+    public void testMatches_shouldBeTheSameAsTheMapImplementation() throws Exception {
+        for (boolean caseSensitiveLexicon : new boolean[] {false, true}) {
+            FastMatcher target = fastMatcher(caseSensitiveLexicon);
+            MapMatcher reference = new MapMatcher(LEXICON, caseSensitiveLexicon);
+
+            for (String text : texts()) {
+                List<LayoutToken> layoutTokens = analyzer.tokenizeWithLayoutToken(text);
+                for (boolean caseSensitive : new boolean[] {false, true}) {
+                    String message = "'" + text + "', case sensitive lexicon: " + caseSensitiveLexicon
+                        + ", case sensitive matching: " + caseSensitive;
+
+                    assertThat(message, target.matchToken(text, caseSensitive),
+                        is(reference.matchToken(text, caseSensitive)));
+                    assertThat(message, target.matchCharacter(text, caseSensitive),
+                        is(reference.matchCharacter(text, caseSensitive)));
+                    assertThat(message, target.matchCharacterLayoutToken(layoutTokens, caseSensitive),
+                        is(reference.matchLayoutToken(layoutTokens, true, caseSensitive, false)));
+                    for (boolean ignoreDelimiters : new boolean[] {false, true}) {
+                        assertThat(message, target.matchLayoutToken(layoutTokens, ignoreDelimiters, caseSensitive),
+                            is(reference.matchLayoutToken(layoutTokens, ignoreDelimiters, caseSensitive, true)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchToken_overlappingTerms_shouldReturnAllMatches() throws Exception {
+        FastMatcher target = fastMatcher(false);
+
+        // new, new york, new york city, york, york city, city
+        List<OffsetPosition> positions = target.matchToken("New York City");
+        assertThat(positions, is(Arrays.asList(new OffsetPosition(0, 0), new OffsetPosition(0, 1),
+            new OffsetPosition(1, 1), new OffsetPosition(0, 2), new OffsetPosition(1, 2), new OffsetPosition(2, 2))));
+    }
+}
@@ -0,0 +1,50 @@
+package org.grobid.core.process;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+
+public class PdfAltoWorkerPoolTest {
+
+    @Test
+    public void testQuote_shouldEscapeSingleQuotes() {
+        assertThat(PdfAltoWorkerPool.quote("/tmp/it's a file.pdf"), is("'/tmp/it'\\''s a file.pdf'"));
+    }
+
+    @Test
+    public void testBuildJob() {
+        String job = PdfAltoWorkerPool.buildJob(Arrays.asList("/pdf2xml/pdfalto", "-noImage", "/tmp/a b.pdf"), 2);
+
+        assertThat(job, is("( ulimit -Sv 2048 && exec '/pdf2xml/pdfalto' '-noImage' '/tmp/a b.pdf' ) </dev/null 2>&1; " +
+            "echo \"__GROBID_PDFALTO_END__ $?\"\n"));
+    }
+
+    @Test
+    public void testProcess_timeout_shouldKillTheJobOnly() {
+        assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        try (PdfAltoWorkerPool target = new PdfAltoWorkerPool(1)) {
+            assertThat(target.process(Arrays.asList("sleep", "10"), 200), is(PdfAltoWorkerPool.KILLED_DUE_2_TIMEOUT));
+            assertThat(target.process(Arrays.asList("true"), 10000), is(0));
+        }
+    }
+
+    @Test
+    public void testProcess_timeoutRacingCompletion_shouldNotKillTheNextJob() {
+        assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        try (PdfAltoWorkerPool target = new PdfAltoWorkerPool(1)) {
+            for (int i = 0; i < 20; i++) {
+                // the watchdog fires about when the job ends
+                assertThat(target.process(Arrays.asList("sleep", "0.02"), 20),
+                    anyOf(is(0), is(PdfAltoWorkerPool.KILLED_DUE_2_TIMEOUT)));
+                // the next job on the same shell is never killed by the previous watchdog
+                assertThat(target.process(Arrays.asList("sleep", "0.1"), 10000), is(0));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.grobid.core.sax;
+
+import org.grobid.core.layout.BoundingBox;
+import org.grobid.core.utilities.SAXParserPool;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertThat;
+
+public class PDFALTOVectorGraphicsSaxHandlerTest {
+
+    private static List<BoundingBox> parse(String svg) throws Exception {
+        PDFALTOVectorGraphicsSaxHandler target = new PDFALTOVectorGraphicsSaxHandler(3);
+        SAXParserPool.getParser().parse(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)), target);
+        return target.getBoundingBoxes();
+    }
+
+    @Test
+    public void testParsing_paths_shouldGiveGroupArea() throws Exception {
+        List<BoundingBox> boxes = parse("<svg><g style=\"stroke:none\">" +
+            "<M x=\"10\" y=\"20\"/><L x=\"110\" y=\"20\"/>" +
+            "<C x1=\"110\" y1=\"20\" x2=\"120\" y2=\"70\" x3=\"110\" y3=\"120\"/>" +
+            "</g></svg>");
+
+        assertThat(boxes, hasSize(1));
+        assertThat(boxes.get(0), is(BoundingBox.fromPointAndDimensions(3, 10, 20, 110, 100)));
+    }
+
+    @Test
+    public void testParsing_nestedGroups_shouldBeInDocumentOrder() throws Exception {
+        List<BoundingBox> boxes = parse("<svg><g>" +
+            "<M x=\"0\" y=\"0\"/><L x=\"10\" y=\"10\"/>" +
+            "<g><M x=\"50\" y=\"60\"/><L x=\"70\" y=\"80\"/></g>" +
+            "</g></svg>");
+
+        assertThat(boxes, hasSize(2));
+        // x and y attributes of the nested group only extend the left side of the outer group
+        assertThat(boxes.get(0), is(BoundingBox.fromPointAndDimensions(3, 0, 0, 10, 10)));
+        assertThat(boxes.get(1), is(BoundingBox.fromPointAndDimensions(3, 50, 60, 20, 20)));
+    }
+
+    @Test
+    public void testParsing_groupsWithoutCoordinates_shouldBeIgnored() throws Exception {
+        List<BoundingBox> boxes = parse("<svg><g/><g><M x=\"5\"/></g><g><M x=\"1\" y=\"2\"/></g></svg>");
+
+        assertThat(boxes, hasSize(1));
+        assertThat(boxes.get(0), is(BoundingBox.fromPointAndDimensions(3, 1, 2, 0, 0)));
+    }
+
+    @Test
+    public void testParsing_svgNamespace_shouldBeIgnored() throws Exception {
+        List<BoundingBox> boxes = parse("<svg xmlns=\"http://www.w3.org/2000/svg\"><g>" +
+            "<M x=\"10\" y=\"20\"/><L x=\"110\" y=\"20\"/></g></svg>");
+
+        assertThat(boxes, hasSize(0));
+    }
+}
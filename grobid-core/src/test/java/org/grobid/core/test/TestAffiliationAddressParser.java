@@ -2,7 +2,9 @@ package org.grobid.core.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.grobid.core.data.Affiliation;
@@ -55,4 +57,20 @@ public class TestAffiliationAddressParser extends EngineTest{
 				assertNotNull(res.get(0).getInstitutions());
 			}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testParserMultiple() throws Exception {
+		String affiliationSequence1 = "Atomic Physics Division, Department of Atomic Physics and Luminescence, " + 
+									  "Faculty of Applied Physics and Mathematics, Gdansk University of " + 
+									  "Technology, Narutowicza 11/12, 80-233 Gdansk, Poland";
+		String affiliationSequence2 = "Faculty of Health, School of Biomedical Sciences, " + 
+				"University of Newcastle, New South Wales, Australia.";
+		List<List<Affiliation>> res = engine.processAffiliations(
+			Arrays.asList(affiliationSequence1, "", affiliationSequence2));
+		assertEquals(3, res.size());
+		assertNull(res.get(1));
+		// same results as when processed one by one
+		assertEquals(engine.processAffiliation(affiliationSequence1).get(0).toTEI(), res.get(0).get(0).toTEI());
+		assertEquals(engine.processAffiliation(affiliationSequence2).get(0).toTEI(), res.get(2).get(0).toTEI());
+	}
+}
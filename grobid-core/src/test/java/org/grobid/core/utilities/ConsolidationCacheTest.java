@@ -0,0 +1,74 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.utilities.crossref.CrossrefRequestListener;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ConsolidationCacheTest {
+
+    private static CrossrefRequestListener.Response<Object> response(int status, String body) {
+        CrossrefRequestListener.Response<Object> response = new CrossrefRequestListener.Response<>();
+        response.status = status;
+        response.body = body;
+        return response;
+    }
+
+    @Test
+    public void testGetKey_shouldNormalizeArguments() {
+        Map<String, String> arguments1 = new HashMap<>();
+        arguments1.put("query.bibliographic", "Smith  J. A  study");
+        arguments1.put("rows", "1");
+        Map<String, String> arguments2 = new HashMap<>();
+        arguments2.put("rows", "1");
+        arguments2.put("query.bibliographic", "smith j. a study ");
+
+        assertThat(ConsolidationCache.getKey("crossref", "works", arguments1),
+            is(ConsolidationCache.getKey("crossref", "works", arguments2)));
+    }
+
+    @Test
+    public void testPut_shouldCacheSuccessAndNotFoundOnly() {
+        ConsolidationCache cache = new ConsolidationCache(10, null, 1);
+        cache.put("a", response(200, "{}"));
+        cache.put("b", response(404, null));
+        cache.put("c", response(503, null));
+
+        assertThat(cache.get("a"), is("{}"));
+        assertThat(cache.get("b"), is(""));
+        assertThat(cache.get("c"), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_shouldEvictLeastRecentlyUsed() {
+        ConsolidationCache cache = new ConsolidationCache(2, null, 1);
+        cache.put("a", response(200, "A"));
+        cache.put("b", response(200, "B"));
+        cache.get("a");
+        cache.put("c", response(200, "C"));
+
+        assertThat(cache.get("a"), is("A"));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("c"), is("C"));
+    }
+
+    @Test
+    public void testGet_shouldReadFromDisk() throws Exception {
+        File directory = Files.createTempDirectory("consolidation").toFile();
+        try {
+            new ConsolidationCache(0, directory, 1).put("a", response(200, "A"));
+
+            assertThat(new ConsolidationCache(0, directory, 1).get("a"), is("A"));
+        } finally {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+}
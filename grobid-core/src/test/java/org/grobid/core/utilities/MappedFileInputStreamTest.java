@@ -0,0 +1,59 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MappedFileInputStreamTest {
+
+    @Test
+    public void testRead_shouldReturnFileContent() throws Exception {
+        File file = File.createTempFile("temp", "test");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "<alto>données</alto>", UTF_8);
+
+        try (InputStream in = new MappedFileInputStream(file)) {
+            assertThat(IOUtils.toString(in, UTF_8), is("<alto>données</alto>"));
+        }
+    }
+
+    @Test
+    public void testRead_emptyFile() throws Exception {
+        File file = File.createTempFile("temp", "test");
+        file.deleteOnExit();
+
+        try (InputStream in = new MappedFileInputStream(file)) {
+            assertThat(in.read(), is(-1));
+        }
+    }
+
+    @Test
+    public void testClose_shouldReleaseTheMapping() throws Exception {
+        File file = File.createTempFile("temp", "test");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "<alto/>", UTF_8);
+
+        InputStream in = new MappedFileInputStream(file);
+        assertThat(in.read(), is((int) '<'));
+        in.close();
+        // a second close does nothing
+        in.close();
+
+        try {
+            in.read();
+            fail("A closed stream cannot be read");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("Stream closed"));
+        }
+        assertThat(file.delete(), is(true));
+    }
+}
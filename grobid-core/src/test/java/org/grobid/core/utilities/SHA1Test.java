@@ -1,9 +1,13 @@
 package org.grobid.core.utilities;
 
+import org.apache.commons.io.FileUtils;
 import org.grobid.core.utilities.SHA1;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
 public class SHA1Test {
 
 	@Test
@@ -13,4 +17,17 @@ public class SHA1Test {
 				SHA1.getSHA1("pass"));
 	}
 
+	@Test
+	public void testgetSHA1_file() throws Exception {
+		File file = File.createTempFile("sha1", ".txt");
+		try {
+			FileUtils.writeStringToFile(file, "pass", StandardCharsets.UTF_8);
+			Assert.assertEquals("Hashed value is not the expected one",
+					SHA1.getSHA1("pass"),
+					SHA1.getSHA1(file));
+		} finally {
+			file.delete();
+		}
+	}
+
 }
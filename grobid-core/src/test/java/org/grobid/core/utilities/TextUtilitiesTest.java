@@ -8,6 +8,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 
@@ -205,6 +206,18 @@ public class TextUtilitiesTest extends EngineTest {
         assertEquals(null, TextUtilities.suffix(null, 1));
     }
 
+    @Test
+    public void testAppendPrefixAndSuffix_shouldMatchPrefixAndSuffix() {
+        for (String word : Arrays.asList("Grobid", "G", "", null)) {
+            for (int count = 0; count <= 7; count++) {
+                assertEquals(String.valueOf(TextUtilities.prefix(word, count)),
+                    TextUtilities.appendPrefix(new StringBuilder(), word, count).toString());
+                assertEquals(String.valueOf(TextUtilities.suffix(word, count)),
+                    TextUtilities.appendSuffix(new StringBuilder(), word, count).toString());
+            }
+        }
+    }
+
     @Test
     public void testWordShape() {
        testWordShape("This", "Xxxx", "Xx");
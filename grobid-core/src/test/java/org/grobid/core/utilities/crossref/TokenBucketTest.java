@@ -0,0 +1,47 @@
+package org.grobid.core.utilities.crossref;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testAcquire_burstShouldNotWait() throws Exception {
+        TokenBucket bucket = new TokenBucket(5, 10, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire();
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+    }
+
+    @Test
+    public void testAcquire_shouldWaitWhenEmpty() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 200, TimeUnit.MILLISECONDS);
+        bucket.acquire();
+        bucket.acquire();
+
+        long start = System.nanoTime();
+        bucket.acquire();
+
+        // one permit is refilled every 100ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(80L));
+    }
+
+    @Test
+    public void testSetRate() {
+        TokenBucket bucket = new TokenBucket(1, 1000, TimeUnit.MILLISECONDS);
+        bucket.setRate(25, 1, TimeUnit.SECONDS);
+
+        assertThat(bucket.getPermits(), is(25));
+        assertThat(bucket.getPeriodMillis(), is(1000L));
+    }
+}
@@ -0,0 +1,77 @@
+package org.grobid.core.utilities.matching;
+
+import com.google.common.base.Function;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InMemoryIndexMatcherTest {
+
+    private static final Function<String, Object> IDENTITY = ReferenceMarkerMatcher.IDENTITY;
+
+    private static final List<String> REFERENCES = Arrays.asList(
+        "Smith J et al 2015",
+        "Smith J Hoffmann K et al 2015",
+        "Smith J et al 2012",
+        "Creighton T et al 1990",
+        "Ptitsyn O Bychkova V et al 1990",
+        "Kuwajima K et al 1985",
+        "Smith A Smith B et al 2015",
+        "Grafton S et al 1995",
+        "Grafton S et al 1998",
+        "Privalov P et al 1979"
+    );
+
+    private static List<String> match(IndexMatcher<String, String> matcher, String query) throws Exception {
+        matcher.setMustMatchPercentage(1.0);
+        matcher.load(REFERENCES);
+        try {
+            return matcher.match(query);
+        } finally {
+            matcher.close();
+        }
+    }
+
+    private static List<String> matchInMemory(String query) throws Exception {
+        return match(new InMemoryIndexMatcher<String, String>(IDENTITY, IDENTITY), query);
+    }
+
+    private static List<String> matchLucene(String query) throws Exception {
+        return match(new LuceneIndexMatcher<String, String>(IDENTITY, IDENTITY), query);
+    }
+
+    @Test
+    public void testMatch_allTokensMustMatch() throws Exception {
+        assertThat(matchInMemory("Creighton, 1990"), is(Collections.singletonList("Creighton T et al 1990")));
+        assertThat(matchInMemory("Creighton, 1991"), is(Collections.<String>emptyList()));
+        assertThat(matchInMemory("Unknown et al., 1990"), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testMatch_emptyQuery_shouldReturnNothing() throws Exception {
+        assertThat(matchInMemory(""), is(Collections.<String>emptyList()));
+        assertThat(matchInMemory(null), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testMatch_shouldRankAsLucene() throws Exception {
+        for (String query : Arrays.asList("Smith et al., 2015", "Smith 2015", "(Smith, 2012)",
+                "Grafton et al. 1995", "et al", "1990", "Ptitsyn and Bychkova 1990", "Smith Smith")) {
+            assertThat(query, matchInMemory(query), is(matchLucene(query)));
+        }
+    }
+
+    @Test
+    public void testMatch_maxResults_shouldKeepBestAsLucene() throws Exception {
+        IndexMatcher<String, String> inMemory = new InMemoryIndexMatcher<String, String>(IDENTITY, IDENTITY).setMaxResults(2);
+        IndexMatcher<String, String> lucene = new LuceneIndexMatcher<String, String>(IDENTITY, IDENTITY).setMaxResults(2);
+
+        assertThat(match(inMemory, "et al"), is(match(lucene, "et al")));
+        assertThat(match(inMemory, "Smith"), is(match(lucene, "Smith")));
+    }
+}
@@ -56,11 +56,21 @@ public interface GrobidPaths {
 	 */
 	String PATH_DATE = "processDate";
 
+	/**
+	 * path extension for processing a list of dates.
+	 */
+	String PATH_DATE_LIST = "processDateList";
+
 	/**
 	 * path extension for processing names in header parts of documents headers.
 	 */
 	String PATH_HEADER_NAMES = "processHeaderNames";
 
+	/**
+	 * path extension for processing a list of names in header parts of documents headers.
+	 */
+	String PATH_HEADER_NAMES_LIST = "processHeaderNamesList";
+
 	/**
 	 * path extension for processing citation in patent documents in TEI.
 	 */
@@ -91,16 +101,31 @@ public interface GrobidPaths {
 	 */
 	String PATH_CITE_NAMES = "processCitationNames";
 
+	/**
+	 * path extension for processing a list of names as appearing in citations.
+	 */
+	String PATH_CITE_NAMES_LIST = "processCitationNamesList";
+
 	/**
 	 * path extension for processing affiliation in document headers.
 	 */
 	String PATH_AFFILIATION = "processAffiliations";
 
+	/**
+	 * path extension for processing a list of affiliations in document headers.
+	 */
+	String PATH_AFFILIATION_LIST = "processAffiliationsList";
+
 	/**
 	 * path extension for processing isolated citation.
 	 */
 	String PATH_CITATION = "processCitation";
 
+	/**
+	 * path extension for processing a list of isolated citations.
+	 */
+	String PATH_CITATION_LIST = "processCitationList";
+
 	/**
 	 * path extension for processing all the references in a PDF file.
 	 */
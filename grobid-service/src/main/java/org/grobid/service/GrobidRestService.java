@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.*;
 import javax.ws.rs.core.*;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -484,6 +485,106 @@ public class GrobidRestService implements GrobidPaths {
         return restProcessString.processAffiliations(affiliation);
     }
 
+    /**
+     * @see org.grobid.service.process.GrobidRestProcessString#processDateList(List)
+     */
+    @Path(PATH_DATE_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processDateList_post(@FormParam(DATE) List<String> dates) {
+        return restProcessString.processDateList(dates);
+    }
+
+    /**
+     * Dates sent in the request body, one raw date per line (text/plain) or one JSON string
+     * or object with a "date" field per line (JSON lines)
+     */
+    @Path(PATH_DATE_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processDateListLines_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return restProcessString.processDateList(GrobidRestUtils.readLines(inputStream, contentType, DATE));
+    }
+
+    /**
+     * @see org.grobid.service.process.GrobidRestProcessString#processNamesHeaderList(List)
+     */
+    @Path(PATH_HEADER_NAMES_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processNamesHeaderList_post(@FormParam(NAMES) List<String> names) {
+        return restProcessString.processNamesHeaderList(names);
+    }
+
+    /**
+     * Sequences of names sent in the request body, one per line (text/plain) or one JSON
+     * string or object with a "names" field per line (JSON lines)
+     */
+    @Path(PATH_HEADER_NAMES_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processNamesHeaderListLines_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return restProcessString.processNamesHeaderList(GrobidRestUtils.readLines(inputStream, contentType, NAMES));
+    }
+
+    /**
+     * @see org.grobid.service.process.GrobidRestProcessString#processNamesCitationList(List)
+     */
+    @Path(PATH_CITE_NAMES_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processNamesCitationList_post(@FormParam(NAMES) List<String> names) {
+        return restProcessString.processNamesCitationList(names);
+    }
+
+    /**
+     * Sequences of names sent in the request body, one per line (text/plain) or one JSON
+     * string or object with a "names" field per line (JSON lines)
+     */
+    @Path(PATH_CITE_NAMES_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processNamesCitationListLines_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return restProcessString.processNamesCitationList(GrobidRestUtils.readLines(inputStream, contentType, NAMES));
+    }
+
+    /**
+     * @see org.grobid.service.process.GrobidRestProcessString#processAffiliationsList(List)
+     */
+    @Path(PATH_AFFILIATION_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processAffiliationsList_post(@FormParam(AFFILIATIONS) List<String> affiliations) {
+        return restProcessString.processAffiliationsList(affiliations);
+    }
+
+    /**
+     * Affiliations sent in the request body, one per line (text/plain) or one JSON string
+     * or object with an "affiliations" field per line (JSON lines)
+     */
+    @Path(PATH_AFFILIATION_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response processAffiliationsListLines_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return restProcessString.processAffiliationsList(GrobidRestUtils.readLines(inputStream, contentType, AFFILIATIONS));
+    }
+
     @Path(PATH_CITATION)
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
     @Produces(MediaType.APPLICATION_XML)
@@ -536,6 +637,69 @@ public class GrobidRestService implements GrobidPaths {
         return processCitationReturnBibTeX_post(citation, consolidate, includeRawCitations);
     }
 
+    /**
+     * @see org.grobid.service.process.GrobidRestProcessString#processCitationList(List, GrobidAnalysisConfig, ExpectedResponseType)
+     */
+    @Path(PATH_CITATION_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.APPLICATION_XML)
+    @POST
+    public Response processCitationListReturnXml_post(
+        @FormParam(CITATION) List<String> citations,
+        @DefaultValue("0") @FormParam(CONSOLIDATE_CITATIONS) String consolidate,
+        @DefaultValue("0") @FormParam(INCLUDE_RAW_CITATIONS) String includeRawCitations) {
+        GrobidAnalysisConfig config = new GrobidAnalysisConfig.GrobidAnalysisConfigBuilder()
+            .consolidateCitations(validateConsolidationParam(consolidate))
+            .includeRawCitations(validateIncludeRawParam(includeRawCitations))
+            .build();
+        return restProcessString.processCitationList(citations, config, ExpectedResponseType.XML);
+    }
+
+    @Path(PATH_CITATION_LIST)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(BibTexMediaType.MEDIA_TYPE)
+    @POST
+    public Response processCitationListReturnBibTeX_post(
+        @FormParam(CITATION) List<String> citations,
+        @DefaultValue("0") @FormParam(CONSOLIDATE_CITATIONS) String consolidate,
+        @DefaultValue("0") @FormParam(INCLUDE_RAW_CITATIONS) String includeRawCitations) {
+        GrobidAnalysisConfig config = new GrobidAnalysisConfig.GrobidAnalysisConfigBuilder()
+            .consolidateCitations(validateConsolidationParam(consolidate))
+            .includeRawCitations(validateIncludeRawParam(includeRawCitations))
+            .build();
+        return restProcessString.processCitationList(citations, config, ExpectedResponseType.BIBTEX);
+    }
+
+    /**
+     * Citations sent in the request body, one citation per line (text/plain) or one JSON string
+     * or object with a "citations" field per line (JSON lines)
+     */
+    @Path(PATH_CITATION_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(MediaType.APPLICATION_XML)
+    @POST
+    public Response processCitationLinesReturnXml_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+        @DefaultValue("0") @QueryParam(CONSOLIDATE_CITATIONS) String consolidate,
+        @DefaultValue("0") @QueryParam(INCLUDE_RAW_CITATIONS) String includeRawCitations) throws IOException {
+        return processCitationListReturnXml_post(
+            GrobidRestUtils.readLines(inputStream, contentType, CITATION), consolidate, includeRawCitations);
+    }
+
+    @Path(PATH_CITATION_LIST)
+    @Consumes({MediaType.TEXT_PLAIN, GrobidRestUtils.JSON_LINES})
+    @Produces(BibTexMediaType.MEDIA_TYPE)
+    @POST
+    public Response processCitationLinesReturnBibTeX_post(
+        InputStream inputStream,
+        @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+        @DefaultValue("0") @QueryParam(CONSOLIDATE_CITATIONS) String consolidate,
+        @DefaultValue("0") @QueryParam(INCLUDE_RAW_CITATIONS) String includeRawCitations) throws IOException {
+        return processCitationListReturnBibTeX_post(
+            GrobidRestUtils.readLines(inputStream, contentType, CITATION), consolidate, includeRawCitations);
+    }
+
     /**
      * @see org.grobid.service.process.GrobidRestProcessAdmin#processSHA1(String)
      */
@@ -0,0 +1,190 @@
+package org.grobid.service.process;
+
+import org.grobid.core.data.BiblioItem;
+import org.grobid.core.engines.Engine;
+import org.grobid.core.factory.GrobidPoolingFactory;
+import org.grobid.core.utilities.GrobidProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Chunks of a list of citations processed in parallel. The engines used by the list are
+ * reserved from the pool before the processing starts, at most grobid.citation.list.max.engines
+ * of them so that the other services keep engines, and each chunk runs with one of them in a
+ * thread of an executor shared by all the lists. Only a few chunks are processed ahead of the
+ * one being returned, so that memory stays bounded for large lists.
+ */
+class CitationListChunks {
+
+    /**
+     * Labelling of a chunk of raw citations with an engine
+     */
+    interface ChunkProcessing {
+        List<BiblioItem> process(Engine engine, List<String> chunk) throws Exception;
+    }
+
+    private static volatile ExecutorService sharedExecutor;
+
+    private final List<String> citations;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final ChunkProcessing processing;
+    private final Consumer<Engine> release;
+    // the reserved engines not used by a running chunk
+    private final Deque<Engine> engines = new ArrayDeque<>();
+    private final int nbEngines;
+    private final Deque<Future<List<BiblioItem>>> pending = new ArrayDeque<>();
+    private int next = 0;
+    private boolean closed = false;
+
+    /**
+     * Reserve the engines for the list: one engine is waited for as any other service does,
+     * throwing a NoSuchElementException if none becomes free, the others are only taken if
+     * they are free right now.
+     */
+    static CitationListChunks reserve(List<String> citations, int consolidate) {
+        int chunkSize = GrobidProperties.getCitationListChunkSize();
+        int nbChunks = (citations.size() + chunkSize - 1) / chunkSize;
+        int maxEngines = Math.max(1, Math.min(nbChunks, GrobidProperties.getCitationListMaxEngines()));
+        List<Engine> engines = new ArrayList<>();
+        engines.add(Engine.getEngine(true));
+        try {
+            while (engines.size() < maxEngines) {
+                Engine engine = GrobidPoolingFactory.getIdleEngineFromPool(true);
+                if (engine == null) {
+                    break;
+                }
+                engines.add(engine);
+            }
+        } catch (RuntimeException e) {
+            engines.forEach(GrobidPoolingFactory::returnEngine);
+            throw e;
+        }
+        return new CitationListChunks(citations, chunkSize, engines, getSharedExecutor(),
+            (engine, chunk) -> process(engine, chunk, consolidate), GrobidPoolingFactory::returnEngine);
+    }
+
+    CitationListChunks(List<String> citations, int chunkSize, List<Engine> engines, ExecutorService executor,
+                       ChunkProcessing processing, Consumer<Engine> release) {
+        this.citations = citations;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.engines.addAll(engines);
+        this.nbEngines = engines.size();
+        this.processing = processing;
+        this.release = release;
+    }
+
+    private static ExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            synchronized (CitationListChunks.class) {
+                if (sharedExecutor == null) {
+                    // a running chunk holds an engine of the pool, so there are never more
+                    // running chunks than engines
+                    AtomicInteger nbThreads = new AtomicInteger();
+                    sharedExecutor = Executors.newFixedThreadPool(Math.max(1, GrobidProperties.getMaxPoolConnections()), r -> {
+                        Thread t = new Thread(r, "grobid-citation-list-" + nbThreads.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+            }
+        }
+        return sharedExecutor;
+    }
+
+    int getNbEngines() {
+        return nbEngines;
+    }
+
+    /**
+     * @return the results of the next chunk, in the order of its citations, null when all the
+     * chunks have been returned
+     */
+    List<BiblioItem> next() throws Exception {
+        // each chunk waiting or running uses one of the reserved engines
+        while ((next < citations.size()) && (pending.size() < nbEngines)) {
+            final List<String> chunk = citations.subList(next, Math.min(citations.size(), next + chunkSize));
+            next += chunk.size();
+            pending.add(executor.submit(() -> processChunk(chunk)));
+        }
+        Future<List<BiblioItem>> future = pending.poll();
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private List<BiblioItem> processChunk(List<String> chunk) throws Exception {
+        Engine engine = acquire();
+        try {
+            return processing.process(engine, chunk);
+        } finally {
+            giveBack(engine);
+        }
+    }
+
+    private synchronized Engine acquire() {
+        if (closed) {
+            throw new CancellationException("The processing of the citation list is closed");
+        }
+        return engines.poll();
+    }
+
+    private synchronized void giveBack(Engine engine) {
+        if (closed) {
+            release.accept(engine);
+        } else {
+            engines.add(engine);
+        }
+    }
+
+    /**
+     * Stop the processing of the remaining chunks and give the engines back to the pool, the
+     * engine of a running chunk being given back when the chunk is finished
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Engine engine : engines) {
+                release.accept(engine);
+            }
+            engines.clear();
+        }
+        for (Future<List<BiblioItem>> future : pending) {
+            future.cancel(false);
+        }
+    }
+
+    private static List<BiblioItem> process(Engine engine, List<String> chunk, int consolidate) throws Exception {
+        List<BiblioItem> results = engine.processRawReferences(chunk, consolidate);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                BiblioItem empty = new BiblioItem();
+                empty.setReference(chunk.get(i));
+                results.set(i, empty);
+            }
+        }
+        return results;
+    }
+}
@@ -2,6 +2,7 @@ package org.grobid.service.process;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import org.apache.commons.io.FileUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.grobid.core.data.BibDataSet;
 import org.grobid.core.data.PatentItem;
@@ -20,6 +21,7 @@ import org.grobid.service.exceptions.GrobidServiceException;
 import org.grobid.service.util.BibTexMediaType;
 import org.grobid.service.util.ExpectedResponseType;
 import org.grobid.service.util.GrobidRestUtils;
+import org.grobid.service.util.TEICache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,8 +29,11 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.*;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -67,13 +72,6 @@ public class GrobidRestProcessFiles {
         File originFile = null;
         Engine engine = null;
         try {
-            engine = Engine.getEngine(true);
-            // conservative check, if no engine is free in the pool a NoSuchElementException is normally thrown
-            if (engine == null) {
-                throw new GrobidServiceException(
-                    "No GROBID engine available", Status.SERVICE_UNAVAILABLE);
-            }
-
             originFile = IOUtilities.writeInputFile(inputStream);
             if (originFile == null) {
                 LOGGER.error("The input file cannot be written.");
@@ -81,6 +79,31 @@ public class GrobidRestProcessFiles {
                     "The input file cannot be written. ", Status.INTERNAL_SERVER_ERROR);
             } 
 
+            // a document already processed with the same parameters is served from the cache, 
+            // without waiting for an engine
+            TEICache cache = TEICache.isCacheable(consolidate) ? TEICache.getInstance() : null;
+            String cacheKey = null;
+            if (cache != null) {
+                cacheKey = cache.key(originFile, TEICache.headerParameters(consolidate, includeRawAffiliations));
+                InputStream cached = cache.get(cacheKey);
+                if (cached != null) {
+                    response = Response.status(Response.Status.OK)
+                        .entity(cached)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8")
+                        .header(TEICache.STATUS_HEADER, TEICache.HIT)
+                        .build();
+                    LOGGER.debug(methodLogOut());
+                    return response;
+                }
+            }
+
+            engine = Engine.getEngine(true);
+            // conservative check, if no engine is free in the pool a NoSuchElementException is normally thrown
+            if (engine == null) {
+                throw new GrobidServiceException(
+                    "No GROBID engine available", Status.SERVICE_UNAVAILABLE);
+            }
+
             // starts conversion process
             retVal = engine.processHeader(
                 originFile.getAbsolutePath(),
@@ -92,10 +115,16 @@ public class GrobidRestProcessFiles {
             if (GrobidRestUtils.isResultNullOrEmpty(retVal)) {
                 response = Response.status(Response.Status.NO_CONTENT).build();
             } else {
-                response = Response.status(Response.Status.OK)
+                if (cache != null) {
+                    cache.put(cacheKey, retVal);
+                }
+                Response.ResponseBuilder builder = Response.status(Response.Status.OK)
                     .entity(retVal)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8")
-                    .build();
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8");
+                if (cache != null) {
+                    builder.header(TEICache.STATUS_HEADER, TEICache.MISS);
+                }
+                response = builder.build();
             }
         } catch (NoSuchElementException nseExp) {
             LOGGER.error("Could not get an engine from the pool within configured time. Sending service unavailable.");
@@ -145,18 +174,11 @@ public class GrobidRestProcessFiles {
                                           final List<String> teiCoordinates) throws Exception {
         LOGGER.debug(methodLogIn());
 
-        String retVal = null;
         Response response = null;
         File originFile = null;
+        File teiFile = null;
         Engine engine = null;
         try {
-            engine = Engine.getEngine(true);
-            // conservative check, if no engine is free in the pool a NoSuchElementException is normally thrown
-            if (engine == null) {
-                throw new GrobidServiceException(
-                    "No GROBID engine available", Status.SERVICE_UNAVAILABLE);
-            }
-
             originFile = IOUtilities.writeInputFile(inputStream);
             if (originFile == null) {
                 LOGGER.error("The input file cannot be written.");
@@ -164,7 +186,6 @@ public class GrobidRestProcessFiles {
                     "The input file cannot be written.", Status.INTERNAL_SERVER_ERROR);
             } 
 
-            // starts conversion process
             GrobidAnalysisConfig config =
                 GrobidAnalysisConfig.builder()
                     .consolidateHeader(consolidateHeader)
@@ -178,15 +199,55 @@ public class GrobidRestProcessFiles {
                     .withSentenceSegmentation(segmentSentences)
                     .build();
 
-            retVal = engine.fullTextToTEI(originFile, config);
+            TEICache cache = TEICache.isCacheable(config) ? TEICache.getInstance() : null;
+            String cacheKey = null;
+            if (cache != null) {
+                cacheKey = cache.key(originFile, TEICache.fulltextParameters(config));
+                InputStream cached = cache.get(cacheKey);
+                if (cached != null) {
+                    response = Response.status(Response.Status.OK)
+                        .entity(cached)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8")
+                        .header(TEICache.STATUS_HEADER, TEICache.HIT)
+                        .build();
+                    LOGGER.debug(methodLogOut());
+                    return response;
+                }
+            }
 
-            if (GrobidRestUtils.isResultNullOrEmpty(retVal)) {
-                response = Response.status(Response.Status.NO_CONTENT).build();
+            engine = Engine.getEngine(true);
+            // conservative check, if no engine is free in the pool a NoSuchElementException is normally thrown
+            if (engine == null) {
+                throw new GrobidServiceException(
+                    "No GROBID engine available", Status.SERVICE_UNAVAILABLE);
+            }
+
+            // the TEI is written part by part into a temporary file, so that the engine is given 
+            // back as soon as the processing is done and the response status reflects its outcome
+            teiFile = IOUtilities.newTempFile("tei", ".xml");
+            boolean written;
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(teiFile), StandardCharsets.UTF_8))) {
+                written = engine.fullTextToTEI(originFile, config, writer);
+            }
+            GrobidPoolingFactory.returnEngine(engine);
+            engine = null;
+
+            if (!written) {
+                response = Response.status(Status.NO_CONTENT).build();
             } else {
-                response = Response.status(Response.Status.OK)
-                    .entity(retVal)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8")
-                    .build();
+                if (cache != null) {
+                    cache.put(cacheKey, teiFile);
+                }
+                // the file is removed once the response has been written
+                Response.ResponseBuilder builder = Response.status(Response.Status.OK)
+                    .entity(Files.newInputStream(teiFile.toPath(), StandardOpenOption.DELETE_ON_CLOSE))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML + "; charset=UTF-8");
+                if (cache != null) {
+                    builder.header(TEICache.STATUS_HEADER, TEICache.MISS);
+                }
+                response = builder.build();
+                teiFile = null;
             }
         } catch (NoSuchElementException nseExp) {
             LOGGER.error("Could not get an engine from the pool within configured time. Sending service unavailable.");
@@ -201,6 +262,9 @@ public class GrobidRestProcessFiles {
 
             if (originFile != null)
               IOUtilities.removeTempFile(originFile);
+
+            if (teiFile != null)
+              IOUtilities.removeTempFile(teiFile);
         }
 
         LOGGER.debug(methodLogOut());
@@ -277,48 +341,15 @@ public class GrobidRestProcessFiles {
             if (GrobidRestUtils.isResultNullOrEmpty(retVal)) {
                 response = Response.status(Status.NO_CONTENT).build();
             } else {
-
-                response = Response.status(Status.OK).type("application/zip").build();
-
-                ByteArrayOutputStream ouputStream = new ByteArrayOutputStream();
-                ZipOutputStream out = new ZipOutputStream(ouputStream);
-                out.putNextEntry(new ZipEntry("tei.xml"));
-                out.write(retVal.getBytes(Charset.forName("UTF-8")));
-                // put now the assets, i.e. all the files under the asset path
-                File assetPathDir = new File(assetPath);
-                if (assetPathDir.exists()) {
-                    File[] files = assetPathDir.listFiles();
-                    if (files != null) {
-                        byte[] buffer = new byte[1024];
-                        for (final File currFile : files) {
-                            if (currFile.getName().toLowerCase().endsWith(".jpg")
-                                || currFile.getName().toLowerCase().endsWith(".png")) {
-                                try {
-                                    ZipEntry ze = new ZipEntry(currFile.getName());
-                                    out.putNextEntry(ze);
-                                    FileInputStream in = new FileInputStream(currFile);
-                                    int len;
-                                    while ((len = in.read(buffer)) > 0) {
-                                        out.write(buffer, 0, len);
-                                    }
-                                    in.close();
-                                    out.closeEntry();
-                                } catch (IOException e) {
-                                    throw new GrobidServiceException("IO Exception when zipping", e, Status.INTERNAL_SERVER_ERROR);
-                                }
-                            }
-                        }
-                    }
-                }
-                out.finish();
-
+                // the archive is written into the response entry by entry, the engine is 
+                // given back to the pool without waiting for the transfer of the assets
                 response = Response
                     .ok()
                     .type("application/zip")
-                    .entity(ouputStream.toByteArray())
+                    .entity(streamAssetArchive(retVal, assetPath))
                     .header("Content-Disposition", "attachment; filename=\"result.zip\"")
                     .build();
-                out.close();
+                assetPath = null;
             }
         } catch (NoSuchElementException nseExp) {
             LOGGER.error("Could not get an engine from the pool within configured time. Sending service unavailable.");
@@ -344,6 +375,40 @@ public class GrobidRestProcessFiles {
     }
 
 
+    /**
+     * Writes the ZIP archive of the TEI and the extracted images directly into the HTTP 
+     * response. Each asset file is removed as soon as it is written, and the asset folder 
+     * when the response is written.
+     */
+    private StreamingOutput streamAssetArchive(final String tei, final String assetPath) {
+        return output -> {
+            try {
+                // not closed, the response stream is closed by the container
+                ZipOutputStream out = new ZipOutputStream(output);
+                out.putNextEntry(new ZipEntry("tei.xml"));
+                out.write(tei.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+                // put now the assets, i.e. all the files under the asset path
+                File[] files = new File(assetPath).listFiles();
+                if (files != null) {
+                    for (final File currFile : files) {
+                        if (currFile.getName().toLowerCase().endsWith(".jpg")
+                            || currFile.getName().toLowerCase().endsWith(".png")) {
+                            out.putNextEntry(new ZipEntry(currFile.getName()));
+                            Files.copy(currFile.toPath(), out);
+                            out.closeEntry();
+                        }
+                        FileUtils.deleteQuietly(currFile);
+                    }
+                }
+                out.finish();
+            } finally {
+                // with the remaining files if the transfer is interrupted
+                FileUtils.deleteQuietly(new File(assetPath));
+            }
+        };
+    }
+
     /**
      * Process a patent document in PDF for extracting and parsing citations in the description body.
      *
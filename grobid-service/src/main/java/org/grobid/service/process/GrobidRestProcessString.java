@@ -1,15 +1,23 @@
 package org.grobid.service.process;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.inject.Inject;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Singleton;
 import org.grobid.core.data.Affiliation;
 import org.grobid.core.data.BiblioItem;
@@ -37,6 +45,8 @@ public class GrobidRestProcessString {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(GrobidRestProcessString.class);
 
+	private static final ObjectMapper mapper = new ObjectMapper();
+
 	@Inject
 	public GrobidRestProcessString() {
 
@@ -249,6 +259,149 @@ public class GrobidRestProcessString {
 		return response;
 	}
 
+	/**
+	 * Parse a list of raw dates, labelled together with a single call to the date model.
+	 * 
+	 * @param dates list of raw date strings
+	 * @return a response object containing a JSON array with, for each raw date in the 
+	 *         order of the input, the structured xml representation of the dates or null
+	 */
+	public Response processDateList(List<String> dates) {
+		return processList(dates, (engine, inputs) -> {
+			List<String> results = new ArrayList<>();
+			for (List<Date> dateList : engine.processDates(clean(inputs, true))) {
+				String retVal = null;
+				if (dateList != null) {
+					for (Date theDate : dateList) {
+						retVal = (retVal == null) ? theDate.toTEI() : retVal + theDate.toTEI();
+					}
+				}
+				results.add(retVal);
+			}
+			return results;
+		});
+	}
+
+	/**
+	 * Parse a list of raw sequences of names from header sections, labelled together with 
+	 * a single call to the header names model.
+	 * 
+	 * @param names list of raw sequences of header authors
+	 * @return a response object containing a JSON array with, for each sequence in the 
+	 *         order of the input, the structured xml representation of the authors or null
+	 */
+	public Response processNamesHeaderList(List<String> names) {
+		return processList(names, (engine, inputs) -> 
+			toTEI(engine.processAuthorsHeaderLists(clean(inputs, true))));
+	}
+
+	/**
+	 * Parse a list of raw sequences of names from citations, labelled together with 
+	 * a single call to the citation names model.
+	 * 
+	 * @param names list of raw sequences of citation authors
+	 * @return a response object containing a JSON array with, for each sequence in the 
+	 *         order of the input, the structured xml representation of the authors or null
+	 */
+	public Response processNamesCitationList(List<String> names) {
+		return processList(names, (engine, inputs) -> 
+			toTEI(engine.processAuthorsCitationLists(clean(inputs, true))));
+	}
+
+	/**
+	 * Parse a list of raw sequences of affiliations, labelled together with a single call 
+	 * to the affiliation-address model.
+	 * 
+	 * @param affiliations list of raw sequences of affiliation+address
+	 * @return a response object containing a JSON array with, for each sequence in the 
+	 *         order of the input, the structured xml representation of the affiliations or null
+	 */
+	public Response processAffiliationsList(List<String> affiliations) {
+		return processList(affiliations, (engine, inputs) -> {
+			List<String> results = new ArrayList<>();
+			for (List<Affiliation> affiliationList : engine.processAffiliations(clean(inputs, false))) {
+				String retVal = null;
+				if (affiliationList != null) {
+					for (Affiliation affi : affiliationList) {
+						retVal = (retVal == null) ? affi.toTEI() : retVal + affi.toTEI();
+					}
+				}
+				results.add(retVal);
+			}
+			return results;
+		});
+	}
+
+	/**
+	 * Processing of all the inputs of a bulk request with a single engine
+	 */
+	private interface ListProcessing {
+		/**
+		 * @return the result of each input, in the order of the inputs
+		 */
+		List<String> process(Engine engine, List<String> inputs) throws Exception;
+	}
+
+	private Response processList(List<String> inputs, ListProcessing processing) {
+		LOGGER.debug(methodLogIn());
+		Response response = null;
+		Engine engine = null;
+		try {
+			if (inputs == null || inputs.size() == 0) {
+				response = Response.status(Status.NO_CONTENT).build();
+			} else {
+				engine = Engine.getEngine(true);
+				List<String> results = processing.process(engine, inputs);
+				response = Response.status(Status.OK)
+							.entity(mapper.writeValueAsString(results))
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON + "; charset=UTF-8")
+							.build();
+			}
+		} catch (NoSuchElementException nseExp) {
+			LOGGER.error("Could not get an engine from the pool within configured time. Sending service unavailable.");
+			response = Response.status(Status.SERVICE_UNAVAILABLE).build();
+		} catch (Exception e) {
+			LOGGER.error("An unexpected exception occurs. ", e);
+			response = Response.status(Status.INTERNAL_SERVER_ERROR).build();
+		} finally {
+			if (engine != null) {
+				GrobidPoolingFactory.returnEngine(engine);
+			}
+		}
+		LOGGER.debug(methodLogOut());
+		return response;
+	}
+
+	/**
+	 * Same cleaning of the raw inputs as for the single input services
+	 */
+	private static List<String> clean(List<String> inputs, boolean removeNewlines) {
+		List<String> cleaned = new ArrayList<>();
+		for (String input : inputs) {
+			if (input != null) {
+				if (removeNewlines)
+					input = input.replaceAll("\\n", " ");
+				input = input.replaceAll("\\t", " ");
+			}
+			cleaned.add(input);
+		}
+		return cleaned;
+	}
+
+	private static List<String> toTEI(List<List<Person>> authorsList) {
+		List<String> results = new ArrayList<>();
+		for (List<Person> authors : authorsList) {
+			String retVal = null;
+			if (authors != null) {
+				for (Person person : authors) {
+					retVal = (retVal == null) ? person.toTEI(false) : retVal + person.toTEI(false);
+				}
+			}
+			results.add(retVal);
+		}
+		return results;
+	}
+
 	/**
 	 * Parse a raw sequence of affiliations and return the corresponding
 	 * normalized affiliations with address.
@@ -297,6 +450,108 @@ public class GrobidRestProcessString {
 		return response;
 	}
 
+	/**
+	 * Parse a list of raw sequences of reference information and return the corresponding
+	 * normalized bibliographical objects, in the order of the input.
+	 * 
+	 * The citations are labelled by chunks (grobid.citation.list.chunk.size) in parallel over
+	 * some engines of the pool (at most grobid.citation.list.max.engines), reserved before the 
+	 * response starts, each chunk being consolidated in one batch, and the results are streamed
+	 * chunk by chunk as soon as they are available. A citation which cannot be parsed is returned
+	 * as an empty bibliographical object, so that the position of the results is kept. If a chunk 
+	 * fails once the response has started, an error comment is written and the response is aborted.
+	 * 
+	 * @param citations list of raw citation strings
+	 * @return a response object streaming a TEI listBibl or the BibTeX entries of the citations
+	 */
+	public Response processCitationList(List<String> citations, GrobidAnalysisConfig config, ExpectedResponseType expectedResponseType) {
+		LOGGER.debug(methodLogIn());
+		Response response;
+		CitationListChunks chunks = null;
+		try {
+			if (citations == null || citations.size() == 0) {
+				response = Response.status(Status.NO_CONTENT).build();
+			} else {
+				// the engines are reserved and the first chunk is waited for here, so that an unavailable 
+				// engine pool or a failing list are still reported with a status code
+				chunks = CitationListChunks.reserve(citations, config.getConsolidateCitations());
+				List<BiblioItem> first = chunks.next();
+				String mediaType = (expectedResponseType == ExpectedResponseType.BIBTEX) ? 
+					BibTexMediaType.MEDIA_TYPE : MediaType.APPLICATION_XML;
+				response = Response.status(Status.OK)
+							.entity(streamCitationList(chunks, first, config, expectedResponseType))
+							.header(HttpHeaders.CONTENT_TYPE, mediaType + "; charset=UTF-8")
+							.build();
+				// the chunks are closed once streamed
+				chunks = null;
+			}
+		} catch (NoSuchElementException nseExp) {
+			LOGGER.error("Could not get an engine from the pool within configured time. Sending service unavailable.");
+			response = Response.status(Status.SERVICE_UNAVAILABLE).build();
+		} catch (Exception e) {
+			LOGGER.error("An unexpected exception occurs. ", e);
+			response = Response.status(Status.INTERNAL_SERVER_ERROR).build();
+		} finally {
+			if (chunks != null) {
+				chunks.close();
+			}
+		}
+		LOGGER.debug(methodLogOut());
+		return response;
+	}
+
+	StreamingOutput streamCitationList(final CitationListChunks chunks, 
+											   final List<BiblioItem> first, 
+											   final GrobidAnalysisConfig config, 
+											   final ExpectedResponseType expectedResponseType) {
+		return output -> {
+			try {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+				boolean bibtex = (expectedResponseType == ExpectedResponseType.BIBTEX);
+				if (!bibtex) {
+					writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+					writer.write("<TEI xmlns=\"http://www.tei-c.org/ns/1.0\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">\n");
+					writer.write("\t<teiHeader/>\n\t<text>\n\t\t<back>\n\t\t\t<div>\n\t\t\t\t<listBibl>\n");
+				}
+				int n = 0;
+				List<BiblioItem> chunk = first;
+				while (chunk != null) {
+					for (BiblioItem biblioItem : chunk) {
+						if (bibtex)
+							writer.write(biblioItem.toBibTeX("" + n, config) + "\n");
+						else
+							writer.write(biblioItem.toTEI(n, config) + "\n");
+						n++;
+					}
+					writer.flush();
+					try {
+						chunk = chunks.next();
+					} catch (Exception exp) {
+						LOGGER.error("The processing of the citation list failed after " + n + " citations. ", exp);
+						// the status is already sent: the error is written in the body and the response is 
+						// aborted instead of being ended normally
+						String message = "GROBID error: the processing of the citations failed after " + n + " citations";
+						writer.write(bibtex ? "@comment{" + message + "}\n" : "<!-- " + message + " -->\n");
+						writer.flush();
+						throw new IOException(message, exp);
+					}
+				}
+				if (!bibtex) {
+					writer.write("\t\t\t\t</listBibl>\n\t\t\t</div>\n\t\t</back>\n\t</text>\n</TEI>\n");
+				}
+				writer.flush();
+			} catch (IOException | WebApplicationException e) {
+				throw e;
+			} catch (Exception exp) {
+				LOGGER.error("An unexpected exception occurs. ", exp);
+				throw new WebApplicationException(exp,
+					Response.status(Status.INTERNAL_SERVER_ERROR).entity(exp.getMessage()).build());
+			} finally {
+				chunks.close();
+			}
+		};
+	}
+
 	/**
 	 * Parse a patent description text and return the extracted and parsed patent and non-patent citations.
 	 * 
@@ -1,9 +1,21 @@
 package org.grobid.service.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
+import org.grobid.service.exceptions.GrobidServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.core.Response;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Damien, Patrice
  */
@@ -12,6 +24,13 @@ public class GrobidRestUtils {
     private static final Logger LOGGER = LoggerFactory
             .getLogger(GrobidRestUtils.class);
 
+    /**
+     * media type of JSON lines, one JSON value per line
+     */
+    public static final String JSON_LINES = "application/x-ndjson";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     // type of PDF annotation for visualization purposes
     public enum Annotation {
         CITATION, BLOCK, FIGURE
@@ -36,4 +55,40 @@ public class GrobidRestUtils {
         return annotType;
     }
 
+    /**
+     * Read the items of a bulk request, one item per line, blank lines being ignored. With JSON
+     * lines, each line is either a JSON string or a JSON object with the item in the given field,
+     * otherwise each line is an item.
+     */
+    public static List<String> readLines(InputStream input, String contentType, String field) throws IOException {
+        boolean jsonLines = (contentType != null) && contentType.toLowerCase().startsWith(JSON_LINES);
+        List<String> items = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (StringUtils.isBlank(line))
+                continue;
+            if (!jsonLines) {
+                items.add(line);
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = mapper.readTree(line);
+            } catch (IOException e) {
+                throw new GrobidServiceException("Invalid JSON at line " + lineNumber, e, Response.Status.BAD_REQUEST);
+            }
+            if (node.isObject() && node.has(field))
+                node = node.get(field);
+            if (!node.isTextual()) {
+                throw new GrobidServiceException("Expecting a string or an object with a '" + field + 
+                    "' string at line " + lineNumber, Response.Status.BAD_REQUEST);
+            }
+            items.add(node.asText());
+        }
+        return items;
+    }
+
 }
@@ -0,0 +1,315 @@
+package org.grobid.service.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.core.engines.config.GrobidAnalysisConfig;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.GrobidPropertyKeys;
+import org.grobid.core.utilities.SHA1;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of the TEI results of the PDF processing services. A result is stored under
+ * a key made of the hash of the PDF, the processing parameters and a fingerprint of the
+ * GROBID version, the engine settings and the model files, so that a new model or a new
+ * version never serves older results. The least recently used results are removed when the
+ * total size of the cache exceeds its maximum size.
+ */
+public class TEICache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TEICache.class);
+
+    /**
+     * Response header indicating if the result comes from the cache, HIT or MISS
+     */
+    public static final String STATUS_HEADER = "X-Grobid-Cache";
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+
+    private static final String EXTENSION = ".tei.xml";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private static volatile TEICache instance;
+    private static volatile boolean initialized = false;
+
+    private final File directory;
+    private final long maxSize;
+    private final String fingerprint;
+
+    // size of each cached result, from the least to the most recently used
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize = 0;
+
+    /**
+     * @return the cache configured in grobid.properties, or null when the results are not cached
+     */
+    public static TEICache getInstance() {
+        if (!initialized) {
+            synchronized (TEICache.class) {
+                if (!initialized) {
+                    String path = GrobidProperties.getServiceCachePath();
+                    if (path != null) {
+                        try {
+                            instance = new TEICache(new File(path), GrobidProperties.getServiceCacheMaxSize(),
+                                computeFingerprint());
+                            LOGGER.info("TEI results cached in " + path);
+                        } catch (IOException e) {
+                            LOGGER.error("The TEI cache cannot be created in " + path + ", the results are not cached", e);
+                        }
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public TEICache(File directory, long maxSize, String fingerprint) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.fingerprint = fingerprint;
+        Files.createDirectories(directory.toPath());
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Cannot list the cache folder " + directory.getAbsolutePath());
+        }
+        // the access order is restored from the modification times, updated at each hit
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TEMP_EXTENSION)) {
+                // interrupted writing
+                Files.deleteIfExists(file.toPath());
+            } else if (name.endsWith(EXTENSION)) {
+                index.put(name.substring(0, name.length() - EXTENSION.length()), file.length());
+                totalSize += file.length();
+            }
+        }
+        evict();
+    }
+
+    /**
+     * @param pdfFile    the processed document
+     * @param parameters the normalized processing parameters, see {@link #headerParameters(int, boolean)}
+     *                   and {@link #fulltextParameters(GrobidAnalysisConfig)}
+     * @return the key of the result
+     */
+    public String key(File pdfFile, String parameters) throws IOException {
+        return SHA1.getSHA1(SHA1.getSHA1(pdfFile) + "|" + parameters + "|" + fingerprint);
+    }
+
+    /**
+     * The consolidated metadata change with the consolidation service and are not cached, 
+     * so that they are never served outdated
+     */
+    public static boolean isCacheable(int consolidate) {
+        return consolidate == 0;
+    }
+
+    /**
+     * Besides the consolidation, the results with generated identifiers are not cached, as 
+     * their identifiers are expected to be new for each request
+     */
+    public static boolean isCacheable(GrobidAnalysisConfig config) {
+        return isCacheable(config.getConsolidateHeader()) && isCacheable(config.getConsolidateCitations()) 
+            && !config.isGenerateTeiIds();
+    }
+
+    public static String headerParameters(int consolidate, boolean includeRawAffiliations) {
+        return "header|" + consolidate + "|" + includeRawAffiliations;
+    }
+
+    /**
+     * Parameters of the full text processing having an effect on the TEI result, in a fixed
+     * order and with the coordinate types sorted
+     */
+    public static String fulltextParameters(GrobidAnalysisConfig config) {
+        List<String> coordinates = config.getGenerateTeiCoordinates() == null ? new ArrayList<>() :
+            new ArrayList<>(new TreeSet<>(config.getGenerateTeiCoordinates()));
+        return "fulltext|" + config.getConsolidateHeader() +
+            "|" + config.getConsolidateCitations() +
+            "|" + config.getIncludeRawAffiliations() +
+            "|" + config.getIncludeRawCitations() +
+            "|" + config.getStartPage() +
+            "|" + config.getEndPage() +
+            "|" + config.isGenerateTeiIds() +
+            "|" + config.isWithSentenceSegmentation() +
+            "|" + config.isWithXslStylesheet() +
+            "|" + String.join(",", coordinates);
+    }
+
+    /**
+     * @return the cached result, to be closed by the caller, or null when the result is not
+     * in the cache
+     */
+    public synchronized InputStream get(String key) {
+        if (index.get(key) == null) {
+            return null;
+        }
+        File file = getFile(key);
+        try {
+            InputStream result = new FileInputStream(file);
+            file.setLastModified(System.currentTimeMillis());
+            return result;
+        } catch (IOException e) {
+            LOGGER.warn("Cached TEI result " + file.getName() + " cannot be read", e);
+            remove(key);
+            return null;
+        }
+    }
+
+    public void put(String key, String tei) {
+        File tempFile = null;
+        try {
+            tempFile = createTempFile();
+            Files.write(tempFile.toPath(), tei.getBytes(StandardCharsets.UTF_8));
+            commit(key, tempFile);
+        } catch (IOException e) {
+            LOGGER.warn("The TEI result cannot be cached", e);
+            discard(tempFile);
+        }
+    }
+
+    /**
+     * Add a copy of a result written in a file, the file being left unchanged
+     */
+    public void put(String key, File tei) {
+        File tempFile = null;
+        try {
+            tempFile = createTempFile();
+            Files.copy(tei.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            commit(key, tempFile);
+        } catch (IOException e) {
+            LOGGER.warn("The TEI result cannot be cached", e);
+            discard(tempFile);
+        }
+    }
+
+    /**
+     * @return a new file where a result can be written before being added to the cache by
+     * {@link #commit(String, File)}, or removed by {@link #discard(File)}
+     */
+    public File createTempFile() throws IOException {
+        return File.createTempFile("tei", TEMP_EXTENSION, directory);
+    }
+
+    public void commit(String key, File tempFile) throws IOException {
+        File file = getFile(key);
+        long size = tempFile.length();
+        synchronized (this) {
+            Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = index.put(key, size);
+            totalSize += size - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    public void discard(File tempFile) {
+        if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+            LOGGER.warn("The temporary file " + tempFile.getAbsolutePath() + " cannot be removed");
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized long getSize() {
+        return totalSize;
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + EXTENSION);
+    }
+
+    private void remove(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalSize -= size;
+        }
+        try {
+            Files.deleteIfExists(getFile(key).toPath());
+        } catch (IOException e) {
+            LOGGER.warn("Cached TEI result " + key + " cannot be removed", e);
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalSize > maxSize && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalSize -= eldest.getValue();
+            try {
+                Files.deleteIfExists(getFile(eldest.getKey()).toPath());
+            } catch (IOException e) {
+                LOGGER.warn("Cached TEI result " + eldest.getKey() + " cannot be removed", e);
+            }
+        }
+    }
+
+    /**
+     * Fingerprint of what the results depend on besides the document and the parameters:
+     * the GROBID version, the engine, pdfalto, PDF limits and consolidation service settings,
+     * the model files and the pdfalto executables
+     */
+    static String computeFingerprint() throws IOException {
+        StringBuilder fingerprint = new StringBuilder(GrobidProperties.getVersion());
+        GrobidProperties.getProps().stringPropertyNames().stream()
+            .filter(k -> k.startsWith(GrobidPropertyKeys.PROP_GROBID_CRF_ENGINE)
+                || k.equals(GrobidPropertyKeys.PROP_CONSOLIDATION_SERVICE)
+                || k.equals(GrobidPropertyKeys.PROP_DELFT_ARCHITECTURE)
+                || k.equals(GrobidPropertyKeys.PROP_GROBID_DELFT_ELMO)
+                || k.equals(GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML)
+                || k.equals(GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML_MEMORY_LIMIT)
+                || k.equals(GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML_TIMEOUT_SEC)
+                || k.equals(GrobidPropertyKeys.PROP_PDF_BLOCKS_MAX)
+                || k.equals(GrobidPropertyKeys.PROP_PDF_TOKENS_MAX)
+                || k.equals(GrobidPropertyKeys.PROP_PDF_VECTOR_GRAPHICS_MAX_SIZE))
+            .sorted()
+            .forEach(k -> fingerprint.append("|").append(k).append("=")
+                .append(StringUtils.trimToEmpty(GrobidProperties.getProps().getProperty(k))));
+
+        appendFiles(fingerprint, GrobidProperties.getModelPath());
+        appendFiles(fingerprint, GrobidProperties.getPdfToXMLPath());
+        return SHA1.getSHA1(fingerprint.toString());
+    }
+
+    /**
+     * Append the relative path, size and modification time of the files of a folder
+     */
+    private static void appendFiles(StringBuilder fingerprint, File folder) throws IOException {
+        if (folder == null || !folder.isDirectory()) {
+            return;
+        }
+        Path root = folder.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                File file = path.toFile();
+                fingerprint.append("|").append(root.relativize(path))
+                    .append(":").append(file.length())
+                    .append(":").append(file.lastModified());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.grobid.service.process;
+
+import org.grobid.core.data.BiblioItem;
+import org.grobid.core.engines.Engine;
+import org.grobid.core.engines.config.GrobidAnalysisConfig;
+import org.grobid.service.util.ExpectedResponseType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.easymock.EasyMock.createMock;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CitationListChunksTest {
+
+    private ExecutorService executor;
+    private List<Engine> engines;
+    private final List<Engine> released = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        engines = Arrays.asList(createMock(Engine.class), createMock(Engine.class));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // one result per citation, with the citation as title, failing for the citation "fail"
+    private List<BiblioItem> label(Engine engine, List<String> chunk) throws Exception {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            List<BiblioItem> results = new ArrayList<>();
+            for (String citation : chunk) {
+                if (citation.equals("fail")) {
+                    throw new IllegalStateException("labelling failed");
+                }
+                BiblioItem biblioItem = new BiblioItem();
+                biblioItem.setTitle(citation);
+                results.add(biblioItem);
+            }
+            return results;
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private CitationListChunks chunks(List<String> citations) {
+        return new CitationListChunks(citations, 2, engines, executor, this::label, released::add);
+    }
+
+    @Test
+    public void testNext_shouldReturnChunksInOrderWithTheReservedEngines() throws Exception {
+        CitationListChunks target = chunks(Arrays.asList("a", "b", "c", "d", "e", "f", "g"));
+        List<String> titles = new ArrayList<>();
+        List<BiblioItem> chunk;
+        while ((chunk = target.next()) != null) {
+            for (BiblioItem biblioItem : chunk) {
+                titles.add(biblioItem.getTitle());
+            }
+        }
+        target.close();
+
+        assertThat(titles, is(Arrays.asList("a", "b", "c", "d", "e", "f", "g")));
+        assertThat(maxRunning.get() <= 2, is(true));
+        assertThat(released.size(), is(2));
+    }
+
+    @Test
+    public void testNext_failureAfterFirstChunk_shouldThrowAndReleaseEngines() throws Exception {
+        CitationListChunks target = chunks(Arrays.asList("a", "b", "fail", "d", "e", "f"));
+
+        assertThat(target.next().size(), is(2));
+        try {
+            target.next();
+            fail("The failure of the second chunk should be thrown");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("labelling failed"));
+        }
+        target.close();
+        // the engine of a chunk still running is given back when the chunk is finished
+        Thread.sleep(200);
+        assertThat(released.size(), is(2));
+    }
+
+    @Test
+    public void testStreamCitationList_failureAfterFirstChunk_shouldWriteErrorAndAbort() throws Exception {
+        CitationListChunks target = chunks(Arrays.asList("a", "b", "fail", "d"));
+        List<BiblioItem> first = target.next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            new GrobidRestProcessString().streamCitationList(target, first,
+                GrobidAnalysisConfig.defaultInstance(), ExpectedResponseType.BIBTEX).write(output);
+            fail("The response should be aborted");
+        } catch (IOException e) {
+            assertThat(e.getCause().getMessage(), is("labelling failed"));
+        }
+
+        String bibtex = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(bibtex, containsString("title = {b}"));
+        assertThat(bibtex, containsString("@comment{GROBID error: the processing of the citations failed after 2 citations}"));
+        assertThat(target.next(), is(nullValue()));
+    }
+}
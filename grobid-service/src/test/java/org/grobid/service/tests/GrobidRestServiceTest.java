@@ -286,6 +286,20 @@ public class GrobidRestServiceTest {
             response.readEntity(String.class));
     }
 
+    @Test
+    public void processCitationListReturnsBibTeXInInputOrder() {
+        Response response = getClient().target(baseUrl()).path(GrobidPaths.PATH_CITATION_LIST)
+                                       .request()
+                                       .accept(BibTexMediaType.MEDIA_TYPE)
+                                       .post(Entity.entity("Graff, Expert. Opin. Ther. Targets (2002) 6(1): 103-113\n" +
+                                           "Kolb, S., Wirtz G.: Towards Application Portability in Platform as a Service. SOSE, 2014.\n",
+                                           MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        String bibtex = response.readEntity(String.class);
+        assertTrue(bibtex.startsWith("@article{0,\n  author = {Graff},"));
+        assertTrue(bibtex.contains("{1,\n  author = {Kolb, S and Wirtz, G},"));
+    }
+
     @Ignore
     public void processStatelessReferencesDocumentReturnsValidBibTeXForKolbAndKopp() throws Exception {
         final FileDataBodyPart filePart = new FileDataBodyPart(GrobidRestService.INPUT, new File(this.getClass().getResource("/sample5/gadr.pdf").toURI()));
@@ -1,7 +1,13 @@
 package org.grobid.service.util;
 
+import org.grobid.service.exceptions.GrobidServiceException;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -24,4 +30,25 @@ public class GrobidRestUtilsTest {
         assertNull(GrobidRestUtils.getAnnotationFor(3));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void readLines_plainText_shouldSkipBlankLines() throws Exception {
+        InputStream input = new ByteArrayInputStream("first citation\n\n  \nsecond citation\n".getBytes(StandardCharsets.UTF_8));
+        assertThat(GrobidRestUtils.readLines(input, "text/plain", "citations"),
+            is(Arrays.asList("first citation", "second citation")));
+    }
+
+    @Test
+    public void readLines_jsonLines_shouldReadStringsAndObjects() throws Exception {
+        InputStream input = new ByteArrayInputStream(("\"first \\\"citation\\\"\"\n" +
+            "{\"citations\": \"second citation\"}\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(GrobidRestUtils.readLines(input, GrobidRestUtils.JSON_LINES + "; charset=UTF-8", "citations"),
+            is(Arrays.asList("first \"citation\"", "second citation")));
+    }
+
+    @Test(expected = GrobidServiceException.class)
+    public void readLines_jsonLinesWithoutField_shouldThrowException() throws Exception {
+        InputStream input = new ByteArrayInputStream("{\"names\": \"John Doe\"}\n".getBytes(StandardCharsets.UTF_8));
+        GrobidRestUtils.readLines(input, GrobidRestUtils.JSON_LINES, "citations");
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.grobid.service.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.grobid.core.engines.config.GrobidAnalysisConfig;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.GrobidPropertyKeys;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class TEICacheTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("tei-cache").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private static String read(InputStream input) throws Exception {
+        try (InputStream in = input) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testGet_shouldReadFromDisk() throws Exception {
+        new TEICache(directory, 100, "v1").put("a", "<TEI/>");
+
+        TEICache target = new TEICache(directory, 100, "v1");
+        assertThat(read(target.get("a")), is("<TEI/>"));
+        assertThat(target.get("b"), is(nullValue()));
+    }
+
+    @Test
+    public void testPutFile_shouldCopyTheFile() throws Exception {
+        File tei = Files.createTempFile("tei", ".xml").toFile();
+        try {
+            FileUtils.writeStringToFile(tei, "<TEI/>", StandardCharsets.UTF_8);
+            TEICache target = new TEICache(directory, 100, "v1");
+            target.put("a", tei);
+
+            assertThat(read(target.get("a")), is("<TEI/>"));
+            assertThat(FileUtils.readFileToString(tei, StandardCharsets.UTF_8), is("<TEI/>"));
+        } finally {
+            FileUtils.deleteQuietly(tei);
+        }
+    }
+
+    @Test
+    public void testPut_shouldEvictLeastRecentlyUsed() throws Exception {
+        TEICache target = new TEICache(directory, 10, "v1");
+        target.put("a", "AAAA");
+        target.put("b", "BBBB");
+        read(target.get("a"));
+        target.put("c", "CCCC");
+
+        assertThat(target.contains("a"), is(true));
+        assertThat(target.contains("b"), is(false));
+        assertThat(target.contains("c"), is(true));
+        assertThat(target.getSize(), is(8L));
+        assertThat(new File(directory, "b.tei.xml").exists(), is(false));
+    }
+
+    @Test
+    public void testCommit_discardedEntryShouldNotBeCached() throws Exception {
+        TEICache target = new TEICache(directory, 100, "v1");
+        File tempFile = target.createTempFile();
+        target.discard(tempFile);
+
+        assertThat(tempFile.exists(), is(false));
+        assertThat(target.contains("a"), is(false));
+    }
+
+    @Test
+    public void testKey_shouldDependOnParametersAndFingerprint() throws Exception {
+        File pdf = new File(directory, "document.pdf");
+        FileUtils.writeStringToFile(pdf, "%PDF-1.4", StandardCharsets.UTF_8);
+        TEICache target = new TEICache(directory, 100, "v1");
+
+        GrobidAnalysisConfig config1 = GrobidAnalysisConfig.builder()
+            .generateTeiCoordinates(Arrays.asList("ref", "figure")).build();
+        GrobidAnalysisConfig config2 = GrobidAnalysisConfig.builder()
+            .generateTeiCoordinates(Arrays.asList("figure", "ref", "ref")).build();
+        GrobidAnalysisConfig config3 = GrobidAnalysisConfig.builder()
+            .generateTeiCoordinates(Arrays.asList("figure", "ref")).consolidateCitations(1).build();
+
+        String key = target.key(pdf, TEICache.fulltextParameters(config1));
+        assertThat(target.key(pdf, TEICache.fulltextParameters(config2)), is(key));
+        assertThat(target.key(pdf, TEICache.fulltextParameters(config3)), is(not(key)));
+        assertThat(new TEICache(directory, 100, "v2").key(pdf, TEICache.fulltextParameters(config1)), is(not(key)));
+    }
+
+    @Test
+    public void testIsCacheable_consolidationOrGeneratedIds_shouldNotBeCached() throws Exception {
+        assertThat(TEICache.isCacheable(0), is(true));
+        assertThat(TEICache.isCacheable(1), is(false));
+        assertThat(TEICache.isCacheable(GrobidAnalysisConfig.builder().build()), is(true));
+        assertThat(TEICache.isCacheable(GrobidAnalysisConfig.builder().consolidateHeader(2).build()), is(false));
+        assertThat(TEICache.isCacheable(GrobidAnalysisConfig.builder().consolidateCitations(1).build()), is(false));
+        assertThat(TEICache.isCacheable(GrobidAnalysisConfig.builder().generateTeiIds(true).build()), is(false));
+    }
+
+    @Test
+    public void testComputeFingerprint_shouldDependOnThePdfaltoSettings() throws Exception {
+        GrobidProperties.getInstance();
+        String key = GrobidPropertyKeys.PROP_3RD_PARTY_PDFTOXML_MEMORY_LIMIT;
+        String value = GrobidProperties.getProps().getProperty(key);
+        String fingerprint = TEICache.computeFingerprint();
+        try {
+            GrobidProperties.setPropertyValue(key, "1");
+            assertThat(TEICache.computeFingerprint(), is(not(fingerprint)));
+        } finally {
+            GrobidProperties.setPropertyValue(key, value);
+        }
+        assertThat(TEICache.computeFingerprint(), is(fingerprint));
+    }
+}
@@ -32,7 +32,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -179,7 +182,6 @@ public abstract class AbstractTrainer implements Trainer {
     public String nFoldEvaluate(int numFolds, boolean includeRawResults) {
         final File dataPath = trainDataPath;
         createCRFPPData(getCorpusPath(), dataPath);
-        GenericTrainer trainer = TrainerFactory.getTrainer();
 
         String randomString = randomStringGenerator.generate(10);
 
@@ -190,14 +192,6 @@ public abstract class AbstractTrainer implements Trainer {
         // Split into folds
         List<ImmutablePair<String, String>> foldMap = splitNFold(trainingData, numFolds);
 
-        // Train and evaluation
-        if (epsilon != 0.0)
-            trainer.setEpsilon(epsilon);
-        if (window != 0)
-            trainer.setWindow(window);
-        if (nbMaxIterations != 0)
-            trainer.setNbMaxIterations(nbMaxIterations);
-
         //We dump the model in the tmp directory
         File tmpDirectory = new File(GrobidProperties.getTempPath().getAbsolutePath());
         if (!tmpDirectory.exists()) {
@@ -210,57 +204,47 @@ public abstract class AbstractTrainer implements Trainer {
         StringBuilder sb = new StringBuilder();
         sb.append("Recap results for each fold:").append("\n\n");
 
-        AtomicInteger counter = new AtomicInteger(0);
-        List<ModelStats> evaluationResults = foldMap.stream().map(fold -> {
-            sb.append("\n");
-            sb.append("====================== Fold " + counter.get() + " ====================== ").append("\n");
-            System.out.println("====================== Fold " + counter.get() + " ====================== ");
-
-            final File tempModelPath = new File(tmpDirectory + File.separator + getModel().getModelName()
-                + "_nfold_" + counter.getAndIncrement() + "_" + randomString + ".wapiti");
-            sb.append("Saving model in " + tempModelPath).append("\n");
-
-            // Collecting generated paths to be deleted at the end of the process
-            tempFilePaths.add(tempModelPath.getAbsolutePath());
-            tempFilePaths.add(fold.getLeft());
-            tempFilePaths.add(fold.getRight());
-
-            sb.append("Training input data: " + fold.getLeft()).append("\n");
-            trainer.train(getTemplatePath(), new File(fold.getLeft()), tempModelPath, GrobidProperties.getNBThreads(), model);
-            sb.append("Evaluation input data: " + fold.getRight()).append("\n");
-
-            //TODO: find a better solution!!
-            GrobidModel tmpModel = new GrobidModel() {
-                @Override
-                public String getFolderName() {
-                    return tmpDirectory.getAbsolutePath();
-                }
-
-                @Override
-                public String getModelPath() {
-                    return tempModelPath.getAbsolutePath();
-                }
-
-                @Override
-                public String getModelName() {
-                    return model.getModelName();
-                }
-
-                @Override
-                public String getTemplateName() {
-                    return model.getTemplateName();
-                }
-            };
-
-            ModelStats modelStats = EvaluationUtilities.evaluateStandard(fold.getRight(), TaggerFactory.getTagger(tmpModel));
-
-            sb.append(modelStats.toString(includeRawResults));
-            sb.append("\n");
-            sb.append("\n");
+        // Train and evaluation, several folds can be processed at the same time, sharing the
+        // thread budget of the trainer
+        int parallelFolds = getParallelFolds(numFolds);
+        int foldThreads = getFoldThreads(GrobidProperties.getNBThreads(), parallelFolds);
+        if (parallelFolds > 1) {
+            LOGGER.info("Processing " + parallelFolds + " folds at the same time, with " + foldThreads + " training threads per fold");
+        }
 
-            return modelStats;
-        }).collect(Collectors.toList());
+        List<ModelStats> evaluationResults = new ArrayList<>();
+        List<Future<ImmutablePair<ModelStats, String>>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelFolds);
+        try {
+            for (int foldIndex = 0; foldIndex < foldMap.size(); foldIndex++) {
+                ImmutablePair<String, String> fold = foldMap.get(foldIndex);
+                final File tempModelPath = new File(tmpDirectory + File.separator + getModel().getModelName()
+                    + "_nfold_" + foldIndex + "_" + randomString + ".wapiti");
+
+                // Collecting generated paths to be deleted at the end of the process
+                tempFilePaths.add(tempModelPath.getAbsolutePath());
+                tempFilePaths.add(fold.getLeft());
+                tempFilePaths.add(fold.getRight());
+
+                final int index = foldIndex;
+                futures.add(executor.submit(() ->
+                    trainAndEvaluateFold(index, fold, tmpDirectory, tempModelPath, foldThreads, includeRawResults)));
+            }
 
+            // the fold reports are appended in the order of the folds, whatever the order of completion
+            for (Future<ImmutablePair<ModelStats, String>> future : futures) {
+                ImmutablePair<ModelStats, String> foldResult = future.get();
+                sb.append(foldResult.getRight());
+                evaluationResults.add(foldResult.getLeft());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrobidException("The n-fold evaluation has been interrupted. ", e);
+        } catch (ExecutionException e) {
+            throw new GrobidException("Error when training or evaluating a fold. ", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
 
         sb.append("\n").append("Summary results: ").append("\n");
 
@@ -401,6 +385,91 @@ public abstract class AbstractTrainer implements Trainer {
         return sb.toString();
     }
 
+    /**
+     * Train a model on the training part of a fold and evaluate it on the evaluation part, 
+     * returning the evaluation with the report of the fold
+     */
+    protected ImmutablePair<ModelStats, String> trainAndEvaluateFold(int foldIndex,
+                                                                     ImmutablePair<String, String> fold,
+                                                                     File tmpDirectory,
+                                                                     File tempModelPath,
+                                                                     int numThreads,
+                                                                     boolean includeRawResults) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n");
+        sb.append("====================== Fold " + foldIndex + " ====================== ").append("\n");
+        LOGGER.info("====================== Fold " + foldIndex + " ====================== ");
+        sb.append("Saving model in " + tempModelPath).append("\n");
+
+        sb.append("Training input data: " + fold.getLeft()).append("\n");
+        createTrainer().train(getTemplatePath(), new File(fold.getLeft()), tempModelPath, numThreads, model);
+        sb.append("Evaluation input data: " + fold.getRight()).append("\n");
+
+        //TODO: find a better solution!!
+        GrobidModel tmpModel = new GrobidModel() {
+            @Override
+            public String getFolderName() {
+                return tmpDirectory.getAbsolutePath();
+            }
+
+            @Override
+            public String getModelPath() {
+                return tempModelPath.getAbsolutePath();
+            }
+
+            @Override
+            public String getModelName() {
+                return model.getModelName();
+            }
+
+            @Override
+            public String getTemplateName() {
+                return model.getTemplateName();
+            }
+        };
+
+        ModelStats modelStats = EvaluationUtilities.evaluateStandard(fold.getRight(), TaggerFactory.getTagger(tmpModel));
+
+        sb.append(modelStats.toString(includeRawResults));
+        sb.append("\n");
+        sb.append("\n");
+
+        return new ImmutablePair<>(modelStats, sb.toString());
+    }
+
+    /**
+     * A new trainer with the training parameters of this trainer, so that each fold has its own one
+     */
+    private GenericTrainer createTrainer() {
+        GenericTrainer trainer = TrainerFactory.getTrainer();
+        if (epsilon != 0.0)
+            trainer.setEpsilon(epsilon);
+        if (window != 0)
+            trainer.setWindow(window);
+        if (nbMaxIterations != 0)
+            trainer.setNbMaxIterations(nbMaxIterations);
+        return trainer;
+    }
+
+    /**
+     * Number of folds trained and evaluated at the same time, DeLFT models being always 
+     * processed one after the other
+     */
+    protected int getParallelFolds(int numFolds) {
+        if (GrobidProperties.getGrobidCRFEngine() == GrobidCRFEngine.DELFT) {
+            return 1;
+        }
+        return Math.max(1, Math.min(numFolds, GrobidProperties.getNFoldParallelFolds()));
+    }
+
+    /**
+     * Split the thread budget of the trainer between the folds processed at the same time,
+     * each fold having at least one training thread
+     */
+    protected static int getFoldThreads(int threadBudget, int parallelFolds) {
+        return Math.max(1, threadBudget / Math.max(1, parallelFolds));
+    }
+
     /**
      * Partition the corpus in n folds, dump them in n files and return the pairs of (trainingPath, evaluationPath)
      */
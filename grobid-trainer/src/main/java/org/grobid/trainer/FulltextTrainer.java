@@ -3,11 +3,10 @@ package org.grobid.trainer;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.SAXParserPool;
 import org.grobid.core.utilities.UnicodeUtil;
 import org.grobid.trainer.sax.TEIFulltextSaxParser;
 
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import java.io.*;
 import java.util.List;
 import java.util.ArrayList;
@@ -107,28 +106,50 @@ public class FulltextTrainer extends AbstractTrainer{
             /*OutputStream os2 = new FileOutputStream(outputPath);
             Writer writer2 = new OutputStreamWriter(os2, "UTF8");*/
 
-            // get a factory for SAX parser
-            SAXParserFactory spf = SAXParserFactory.newInstance();
+            totalExamples = new TrainingDataBuilder(model,
+                (tf, inputFiles) -> createFulltextExample(tf, sourceRawPathLabel, inputFiles))
+                .build(refFiles, writer2, writer3, splitRatio);
 
-            for (File tf : refFiles) {
-                String name = tf.getName();
-                LOGGER.info("Processing: " + name);
+            if (writer2 != null) {
+                writer2.close();
+                os2.close();
+            }
 
-                TEIFulltextSaxParser parser2 = new TEIFulltextSaxParser();
-            
-                //get a new instance of parser
-                SAXParser p = spf.newSAXParser();
-                p.parse(tf, parser2);
+            if (writer3 != null) {
+                writer3.close();
+                os3.close();
+            }
+        } catch (Exception e) {
+            LOGGER.error("An exception occured while running Grobid.", e);
+        }
+        return totalExamples;					
+	}
 
-                List<String> labeled = parser2.getLabeledResult();
+    /**
+     * Create the training data of the fulltext model for a TEI corpus file and its raw file
+     *
+     * @param tf                 TEI corpus file
+     * @param sourceRawPathLabel path to corpus raw files
+     * @param inputFiles         the raw file used is added to this list
+     * @return the training data, null if the file cannot be used
+     */
+    private String createFulltextExample(File tf, String sourceRawPathLabel, List<File> inputFiles) throws Exception {
+        String name = tf.getName();
+        LOGGER.info("Processing: " + name);
 
-                // removing the @newline
-                /*List<String> newLabeled = new ArrayList<String>();
-                for(String label : labeled) {
-                    if (!label.startsWith("@newline"))
-                        newLabeled.add(label);
-                }
-                labeled = newLabeled;*/
+        TEIFulltextSaxParser parser2 = new TEIFulltextSaxParser();
+    
+        SAXParserPool.getParser().parse(tf, parser2);
+
+        List<String> labeled = parser2.getLabeledResult();
+
+        // removing the @newline
+        /*List<String> newLabeled = new ArrayList<String>();
+        for(String label : labeled) {
+            if (!label.startsWith("@newline"))
+                newLabeled.add(label);
+        }
+        labeled = newLabeled;*/
 
 /*StringBuilder temp = new StringBuilder();
 for(String label : labeled) {
@@ -136,113 +157,90 @@ for(String label : labeled) {
 }
 FileUtils.writeStringToFile(new File("/tmp/expected-"+name+".txt"), temp.toString());*/
 
-                // we can now (try to) add the features
-                // we open the featured file
-                try {
-                    File rawFile = new File(sourceRawPathLabel + File.separator + 
-                                    name.replace(".tei.xml", ""));
-                    if (!rawFile.exists()) {
-                        LOGGER.error("The raw file does not exist: " + rawFile.getPath());
-                        continue;
-                    }
+        // we can now (try to) add the features
+        // we open the featured file
+        try {
+            File rawFile = new File(sourceRawPathLabel + File.separator + 
+                            name.replace(".tei.xml", ""));
+            if (!rawFile.exists()) {
+                LOGGER.error("The raw file does not exist: " + rawFile.getPath());
+                return null;
+            }
+            inputFiles.add(rawFile);
 
-                    BufferedReader bis = new BufferedReader(
-                            new InputStreamReader(new FileInputStream(
-                            rawFile), "UTF8"));
-                    int q = 0; // current position in the TEI labeled list
-                    StringBuilder fulltext = new StringBuilder();
+            BufferedReader bis = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(
+                    rawFile), "UTF8"));
+            int q = 0; // current position in the TEI labeled list
+            StringBuilder fulltext = new StringBuilder();
 
-                    String line;
-                    int l = 0;
-                    String previousTag = null;
-                    int nbInvalid = 0;
-                    while ((line = bis.readLine()) != null) {
-                        if (line.trim().length() == 0)
-                            continue;
-                        // we could apply here some more check on the wellformedness of the line
-                        //fulltext.append(line);
-                        l++;
-                        int ii = line.indexOf(' ');
-                        String token = null;
-                        if (ii != -1) {
-                            token = line.substring(0, ii);
-                            // unicode normalisation of the token - it should not be necessary if the training data
-                            // has been gnerated by a recent version of grobid
-                            token = UnicodeUtil.normaliseTextAndRemoveSpaces(token);
-                        }
+            String line;
+            int l = 0;
+            String previousTag = null;
+            int nbInvalid = 0;
+            while ((line = bis.readLine()) != null) {
+                if (line.trim().length() == 0)
+                    continue;
+                // we could apply here some more check on the wellformedness of the line
+                //fulltext.append(line);
+                l++;
+                int ii = line.indexOf(' ');
+                String token = null;
+                if (ii != -1) {
+                    token = line.substring(0, ii);
+                    // unicode normalisation of the token - it should not be necessary if the training data
+                    // has been gnerated by a recent version of grobid
+                    token = UnicodeUtil.normaliseTextAndRemoveSpaces(token);
+                }
     //                    boolean found = false;
-                        // we get the label in the labelled data file for the same token
-                        for (int pp = q; pp < labeled.size(); pp++) {
-                            String localLine = labeled.get(pp);
-                            StringTokenizer st = new StringTokenizer(localLine, " ");
-                            if (st.hasMoreTokens()) {
-                                String localToken = st.nextToken();
-                                // unicode normalisation of the token - it should not be necessary if the training data
-                                // has been gnerated by a recent version of grobid
-                                localToken = UnicodeUtil.normaliseTextAndRemoveSpaces(localToken);
+                // we get the label in the labelled data file for the same token
+                for (int pp = q; pp < labeled.size(); pp++) {
+                    String localLine = labeled.get(pp);
+                    StringTokenizer st = new StringTokenizer(localLine, " ");
+                    if (st.hasMoreTokens()) {
+                        String localToken = st.nextToken();
+                        // unicode normalisation of the token - it should not be necessary if the training data
+                        // has been gnerated by a recent version of grobid
+                        localToken = UnicodeUtil.normaliseTextAndRemoveSpaces(localToken);
 
-                                if (localToken.equals(token)) {
-                                    String tag = st.nextToken();
-                                    fulltext.append(line).append(" ").append(tag);
-                                    previousTag = tag;
-                                    q = pp + 1;
-                                    nbInvalid = 0;
-                                    //pp = q + 10;
-                                    break;
-                                }
-                            }
-                            if (pp - q > 5) {
-                                LOGGER.warn(name + " / Fulltext trainer: TEI and raw file unsynchronized at raw line " + l + " : " + localLine);
-                                nbInvalid++;
-                                // let's reuse the latest tag
-                                if (previousTag != null)
-                                   fulltext.append(line).append(" ").append(previousTag);
-                                break;
-                            }
-                        }
-                        if (nbInvalid > 20) {
-                            // too many consecutive synchronization issues
+                        if (localToken.equals(token)) {
+                            String tag = st.nextToken();
+                            fulltext.append(line).append(" ").append(tag);
+                            previousTag = tag;
+                            q = pp + 1;
+                            nbInvalid = 0;
+                            //pp = q + 10;
                             break;
                         }
                     }
-                    
-                    bis.close();   
-
-                    // format with features for sequence tagging...
-                    if (nbInvalid < 10) {
-                        if ((writer2 == null) && (writer3 != null))
-                            writer3.write(fulltext.toString() + "\n");
-                        if ((writer2 != null) && (writer3 == null))
-                            writer2.write(fulltext.toString() + "\n");
-                        else {
-                            if (Math.random() <= splitRatio)
-                                writer2.write(fulltext.toString() + "\n");
-                            else
-                                writer3.write(fulltext.toString() + "\n");
-                        }
-                        totalExamples++;
-                    } else {
-                        LOGGER.error(name + " / too many synchronization issues, file not used in training data and to be fixed!");
+                    if (pp - q > 5) {
+                        LOGGER.warn(name + " / Fulltext trainer: TEI and raw file unsynchronized at raw line " + l + " : " + localLine);
+                        nbInvalid++;
+                        // let's reuse the latest tag
+                        if (previousTag != null)
+                           fulltext.append(line).append(" ").append(previousTag);
+                        break;
                     }
-                } catch (Exception e) {
-                    LOGGER.error("Fail to open or process raw file", e);
+                }
+                if (nbInvalid > 20) {
+                    // too many consecutive synchronization issues
+                    break;
                 }
             }
+            
+            bis.close();   
 
-            if (writer2 != null) {
-                writer2.close();
-                os2.close();
-            }
-
-            if (writer3 != null) {
-                writer3.close();
-                os3.close();
+            // format with features for sequence tagging...
+            if (nbInvalid < 10) {
+                return fulltext.toString();
+            } else {
+                LOGGER.error(name + " / too many synchronization issues, file not used in training data and to be fixed!");
             }
         } catch (Exception e) {
-            LOGGER.error("An exception occured while running Grobid.", e);
+            LOGGER.error("Fail to open or process raw file", e);
         }
-        return totalExamples;					
-	}
+        return null;
+    }
 
     /**
      * Command line execution.
@@ -3,13 +3,13 @@ package org.grobid.trainer;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.SAXParserPool;
 import org.grobid.core.utilities.UnicodeUtil;
 import org.grobid.trainer.sax.TEIHeaderSaxParser;
 
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.StringTokenizer;
 
 
@@ -116,161 +116,11 @@ public class HeaderTrainer extends AbstractTrainer{
 				writer3 = new OutputStreamWriter(os3, "UTF8");
 			}
 
-            for (File teifile : refFiles) {
-                String name = teifile.getName();
-                System.out.println(name);
-
-                TEIHeaderSaxParser parser2 = new TEIHeaderSaxParser();
-                parser2.setFileName(name);
-
-                // get a factory
-                SAXParserFactory spf = SAXParserFactory.newInstance();
-                //get a new instance of parser
-                SAXParser par = spf.newSAXParser();
-                par.parse(teifile, parser2);
-
-                ArrayList<String> labeled = parser2.getLabeledResult();
-
-                //System.out.println(labeled);
-                //System.out.println(parser2.getPDFName()+"._");
-
-                File refDir2 = new File(headerPath);
-                String headerFile = null;
-                File[] refFiles2 = refDir2.listFiles();
-                for (File aRefFiles2 : refFiles2) {
-                    String localFileName = aRefFiles2.getName();
-                    if (localFileName.equals(parser2.getPDFName() + ".header") || 
-                        localFileName.equals(parser2.getPDFName() + ".training.header")) {
-                        headerFile = localFileName;
-                        break;
-                    }
-                    if ((localFileName.startsWith(parser2.getPDFName() + "._")) &&
-                            (localFileName.endsWith(".header") || localFileName.endsWith(".training.header") )) {
-                        headerFile = localFileName;
-                        break;
-                    }
-                }
-
-                if (headerFile == null)
-                    continue;
-
-                String pathHeader = headerPath + File.separator + headerFile;
-                int p = 0;
-                BufferedReader bis = new BufferedReader(
-                        new InputStreamReader(new FileInputStream(pathHeader), "UTF8"));
-
-                StringBuilder header = new StringBuilder();
-
-                String line;
-                while ((line = bis.readLine()) != null) {
-                    header.append(line);
-                    int ii = line.indexOf(' ');
-                    String token = null;
-                    if (ii != -1) {
-                        token = line.substring(0, ii);
-                        // unicode normalisation of the token - it should not be necessary if the training data
-                        // has been gnerated by a recent version of grobid
-                        token = UnicodeUtil.normaliseTextAndRemoveSpaces(token);
-                    }
-
-                    // we get the label in the labelled data file for the same token
-                    for (int pp = p; pp < labeled.size(); pp++) {
-                        String localLine = labeled.get(pp);
-                        StringTokenizer st = new StringTokenizer(localLine, " ");
-                        if (st.hasMoreTokens()) {
-                            String localToken = st.nextToken();
-                            // unicode normalisation of the token - it should not be necessary if the training data
-                            // has been gnerated by a recent version of grobid
-                            localToken = UnicodeUtil.normaliseTextAndRemoveSpaces(localToken);
-
-                            if (localToken.equals(token)) {
-                                String tag = st.nextToken();
-                                header.append(" ").append(tag);
-                                p = pp + 1;
-                                pp = p + 10;
-                            } /*else {
-                                System.out.println("feature:"+token + " / tei:" + localToken);
-                            }*/
-                        }
-                        if (pp - p > 5) {
-                            break;
-                        }
-                    }
-                    header.append("\n");
-                }
-                bis.close();
-
-                // post process for ensuring continous labelling
-                StringBuilder header2 = new StringBuilder();
-                String headerStr = header.toString();
-                StringTokenizer sto = new StringTokenizer(headerStr, "\n");
-                String lastLabel = null;
-                String lastLastLabel = null;
-                String previousLine = null;
-
-                while (sto.hasMoreTokens()) {
-                    String linee = sto.nextToken();
-                    StringTokenizer sto2 = new StringTokenizer(linee, " ");
-                    String label = null;
-                    while (sto2.hasMoreTokens()) {
-                        label = sto2.nextToken();
-                    }
-                    if (label != null) {
-                        if (label.length() > 0) {
-                            if (!((label.charAt(0) == '<') | (label.startsWith("I-<")))) {
-                                label = null;
-                            }
-                        }
-                    }
-
-                    if (previousLine != null) {
-                        if ((label != null) & (lastLabel == null) & (lastLastLabel != null)) {
-                            if (label.equals(lastLastLabel)) {
-                                lastLabel = label;
-                                previousLine += " " + label;
-                                header2.append(previousLine);
-                                header2.append("\n");
-                            } else {
-                                //if (lastLabel == null)
-                                //	previousLine += " <note>";
-                                if (lastLabel != null) {
-                                    header2.append(previousLine);
-                                    header2.append("\n");
-                                }
-                            }
-                        } else {
-                            //if (lastLabel == null)
-                            //	previousLine += " <note>";
-                            if (lastLabel != null) {
-                                header2.append(previousLine);
-                                header2.append("\n");
-                            }
-                        }
-                    }
-
-//                    previousPreviousLine = previousLine;
-                    previousLine = linee;
-
-                    lastLastLabel = lastLabel;
-                    lastLabel = label;
-                }
-
-                if (lastLabel != null) {
-                    header2.append(previousLine);
-                    header2.append("\n");
-                }
- 
-				if ( (writer2 == null) && (writer3 != null) )
-					writer3.write(header2.toString() + "\n");
-				if ( (writer2 != null) && (writer3 == null) )
-					writer2.write(header2.toString() + "\n");
-				else {		
-					if (Math.random() <= splitRatio)
-						writer2.write(header2.toString() + "\n");
-					else 
-						writer3.write(header2.toString() + "\n");
-				}
-            }
+            // the header files are listed once for all the TEI files
+            File[] headerFiles = new File(headerPath).listFiles();
+            new TrainingDataBuilder(model,
+                (teifile, inputFiles) -> createHeaderExample(teifile, headerPath, headerFiles, inputFiles))
+                .build(refFiles, writer2, writer3, splitRatio);
 
             if (writer2 != null) {
 				writer2.close();
@@ -288,6 +138,157 @@ public class HeaderTrainer extends AbstractTrainer{
         return nbExamples;
     }
 
+    /**
+     * Create the training data of the header model for a TEI corpus file and its header file
+     *
+     * @param teifile     TEI corpus file
+     * @param headerPath  header path
+     * @param headerFiles files of the header path
+     * @param inputFiles  the header file used is added to this list
+     * @return the training data, null if no header file corresponds to the TEI file
+     */
+    private String createHeaderExample(File teifile, String headerPath, File[] headerFiles, List<File> inputFiles) throws Exception {
+        String name = teifile.getName();
+        System.out.println(name);
+
+        TEIHeaderSaxParser parser2 = new TEIHeaderSaxParser();
+        parser2.setFileName(name);
+
+        SAXParserPool.getParser().parse(teifile, parser2);
+
+        ArrayList<String> labeled = parser2.getLabeledResult();
+
+        //System.out.println(labeled);
+        //System.out.println(parser2.getPDFName()+"._");
+
+        String headerFile = null;
+        for (File aRefFiles2 : headerFiles) {
+            String localFileName = aRefFiles2.getName();
+            if (localFileName.equals(parser2.getPDFName() + ".header") || 
+                localFileName.equals(parser2.getPDFName() + ".training.header")) {
+                headerFile = localFileName;
+                break;
+            }
+            if ((localFileName.startsWith(parser2.getPDFName() + "._")) &&
+                    (localFileName.endsWith(".header") || localFileName.endsWith(".training.header") )) {
+                headerFile = localFileName;
+                break;
+            }
+        }
+
+        if (headerFile == null)
+            return null;
+
+        String pathHeader = headerPath + File.separator + headerFile;
+        inputFiles.add(new File(pathHeader));
+        int p = 0;
+        BufferedReader bis = new BufferedReader(
+                new InputStreamReader(new FileInputStream(pathHeader), "UTF8"));
+
+        StringBuilder header = new StringBuilder();
+
+        String line;
+        while ((line = bis.readLine()) != null) {
+            header.append(line);
+            int ii = line.indexOf(' ');
+            String token = null;
+            if (ii != -1) {
+                token = line.substring(0, ii);
+                // unicode normalisation of the token - it should not be necessary if the training data
+                // has been gnerated by a recent version of grobid
+                token = UnicodeUtil.normaliseTextAndRemoveSpaces(token);
+            }
+
+            // we get the label in the labelled data file for the same token
+            for (int pp = p; pp < labeled.size(); pp++) {
+                String localLine = labeled.get(pp);
+                StringTokenizer st = new StringTokenizer(localLine, " ");
+                if (st.hasMoreTokens()) {
+                    String localToken = st.nextToken();
+                    // unicode normalisation of the token - it should not be necessary if the training data
+                    // has been gnerated by a recent version of grobid
+                    localToken = UnicodeUtil.normaliseTextAndRemoveSpaces(localToken);
+
+                    if (localToken.equals(token)) {
+                        String tag = st.nextToken();
+                        header.append(" ").append(tag);
+                        p = pp + 1;
+                        pp = p + 10;
+                    } /*else {
+                        System.out.println("feature:"+token + " / tei:" + localToken);
+                    }*/
+                }
+                if (pp - p > 5) {
+                    break;
+                }
+            }
+            header.append("\n");
+        }
+        bis.close();
+
+        // post process for ensuring continous labelling
+        StringBuilder header2 = new StringBuilder();
+        String headerStr = header.toString();
+        StringTokenizer sto = new StringTokenizer(headerStr, "\n");
+        String lastLabel = null;
+        String lastLastLabel = null;
+        String previousLine = null;
+
+        while (sto.hasMoreTokens()) {
+            String linee = sto.nextToken();
+            StringTokenizer sto2 = new StringTokenizer(linee, " ");
+            String label = null;
+            while (sto2.hasMoreTokens()) {
+                label = sto2.nextToken();
+            }
+            if (label != null) {
+                if (label.length() > 0) {
+                    if (!((label.charAt(0) == '<') | (label.startsWith("I-<")))) {
+                        label = null;
+                    }
+                }
+            }
+
+            if (previousLine != null) {
+                if ((label != null) & (lastLabel == null) & (lastLastLabel != null)) {
+                    if (label.equals(lastLastLabel)) {
+                        lastLabel = label;
+                        previousLine += " " + label;
+                        header2.append(previousLine);
+                        header2.append("\n");
+                    } else {
+                        //if (lastLabel == null)
+                        //	previousLine += " <note>";
+                        if (lastLabel != null) {
+                            header2.append(previousLine);
+                            header2.append("\n");
+                        }
+                    }
+                } else {
+                    //if (lastLabel == null)
+                    //	previousLine += " <note>";
+                    if (lastLabel != null) {
+                        header2.append(previousLine);
+                        header2.append("\n");
+                    }
+                }
+            }
+
+//                    previousPreviousLine = previousLine;
+            previousLine = linee;
+
+            lastLastLabel = lastLabel;
+            lastLabel = label;
+        }
+
+        if (lastLabel != null) {
+            header2.append(previousLine);
+            header2.append("\n");
+        }
+ 
+		        return header2.toString();
+    }
+
     /**
      * Command line execution.
      *
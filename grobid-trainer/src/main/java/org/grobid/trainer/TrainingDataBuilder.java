@@ -0,0 +1,217 @@
+package org.grobid.trainer;
+
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.GrobidModel;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.SHA1;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Create the training data of a model from its corpus files: the training data of the
+ * corpus files are created in parallel and written, in the order of the files, into the
+ * training and evaluation data files as soon as they are available.
+ *
+ * When a cache directory is set (grobid.training.data.cache.path), the training data of
+ * each corpus file is kept under the hash of the file content, together with the hash of
+ * the other files it has been created from (e.g. the raw feature file), so that only the
+ * new or modified corpus files are processed again in the next runs. The entries created
+ * by another Grobid version or another {@link #FEATURE_FORMAT_VERSION} are ignored.
+ */
+public class TrainingDataBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingDataBuilder.class);
+
+    /**
+     * Version of the features written in the training data, to be incremented when the
+     * features of a model change so that the training data cached before are not used.
+     */
+    public static final int FEATURE_FORMAT_VERSION = 1;
+
+    /**
+     * Create the training data of a single corpus file
+     */
+    public interface ExampleGenerator {
+        /**
+         * @param corpusFile the annotated corpus file
+         * @param inputFiles the other files read for creating the training data are added to this list
+         * @return the training data of the corpus file, null if the file cannot be used
+         */
+        String generate(File corpusFile, List<File> inputFiles) throws Exception;
+    }
+
+    private final ExampleGenerator generator;
+    private final File cacheDirectory;
+    private final int nbThreads;
+
+    public TrainingDataBuilder(GrobidModel model, ExampleGenerator generator) {
+        this(generator, getCacheDirectory(model), GrobidProperties.getTrainingDataThreads());
+    }
+
+    /**
+     * @param cacheDirectory directory of the cache, null for no cache
+     */
+    public TrainingDataBuilder(ExampleGenerator generator, File cacheDirectory, int nbThreads) {
+        this.generator = generator;
+        this.cacheDirectory = cacheDirectory;
+        this.nbThreads = Math.max(1, nbThreads);
+    }
+
+    private static File getCacheDirectory(GrobidModel model) {
+        String cachePath = GrobidProperties.getTrainingDataCachePath();
+        if (cachePath == null) {
+            return null;
+        }
+        return new File(cachePath, model.getModelName());
+    }
+
+    /**
+     * Write the training data of the corpus files into the training and evaluation writers
+     *
+     * @param splitRatio ratio of the files written in the training data when both writers are given
+     * @return number of corpus files written
+     */
+    public int build(File[] corpusFiles, Writer trainingWriter, Writer evalWriter, double splitRatio) throws Exception {
+        int nbExamples = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            // a few files ahead of the one being written, so that memory stays bounded
+            Deque<Future<String>> pending = new ArrayDeque<>();
+            int next = 0;
+            while ((next < corpusFiles.length) || !pending.isEmpty()) {
+                while ((next < corpusFiles.length) && (pending.size() < 2 * nbThreads)) {
+                    final File corpusFile = corpusFiles[next++];
+                    pending.add(executor.submit(() -> getExample(corpusFile)));
+                }
+                String example = get(pending.poll());
+                if (example != null) {
+                    write(example, trainingWriter, evalWriter, splitRatio);
+                    nbExamples++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return nbExamples;
+    }
+
+    /**
+     * Write a training example in the training or the evaluation data, chosen randomly according
+     * to the split ratio when both are given
+     */
+    public static void write(String example, Writer trainingWriter, Writer evalWriter, double splitRatio) throws IOException {
+        if (trainingWriter == null) {
+            if (evalWriter != null)
+                evalWriter.write(example + "\n");
+        } else if (evalWriter == null) {
+            trainingWriter.write(example + "\n");
+        } else {
+            if (Math.random() <= splitRatio)
+                trainingWriter.write(example + "\n");
+            else
+                evalWriter.write(example + "\n");
+        }
+    }
+
+    private static String get(Future<String> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private String getExample(File corpusFile) throws Exception {
+        if (cacheDirectory == null) {
+            return generator.generate(corpusFile, new ArrayList<>());
+        }
+
+        String key = SHA1.getSHA1(corpusFile);
+        String example = readCache(key);
+        if (example != null) {
+            LOGGER.debug("Cached training data: " + corpusFile.getName());
+            return example;
+        }
+        List<File> inputFiles = new ArrayList<>();
+        example = generator.generate(corpusFile, inputFiles);
+        if (example != null) {
+            writeCache(key, inputFiles, example);
+        }
+        return example;
+    }
+
+    /**
+     * A cache entry is made of the Grobid version and the feature format version, the number
+     * of input files, the hash and the path of each input file, one per line, followed by the
+     * training data.
+     */
+    private String readCache(String key) {
+        File entry = new File(cacheDirectory, key);
+        if (!entry.exists()) {
+            return null;
+        }
+        try {
+            String content = FileUtils.readFileToString(entry, StandardCharsets.UTF_8);
+            int pos = content.indexOf('\n');
+            if ((pos == -1) || !content.substring(0, pos).equals(getVersion())) {
+                return null;
+            }
+            int start = pos + 1;
+            pos = content.indexOf('\n', start);
+            int nbInputFiles = Integer.parseInt(content.substring(start, pos));
+            for (int i = 0; i < nbInputFiles; i++) {
+                start = pos + 1;
+                pos = content.indexOf('\n', start);
+                String[] pieces = content.substring(start, pos).split("\t", 2);
+                File inputFile = new File(pieces[1]);
+                if (!inputFile.exists() || !SHA1.getSHA1(inputFile).equals(pieces[0])) {
+                    return null;
+                }
+            }
+            return content.substring(pos + 1);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot read the training data cache entry " + entry, e);
+            return null;
+        }
+    }
+
+    private void writeCache(String key, List<File> inputFiles, String example) {
+        try {
+            StringBuilder content = new StringBuilder();
+            content.append(getVersion()).append("\n");
+            content.append(inputFiles.size()).append("\n");
+            for (File inputFile : inputFiles) {
+                content.append(SHA1.getSHA1(inputFile)).append("\t").append(inputFile.getAbsolutePath()).append("\n");
+            }
+            content.append(example);
+
+            FileUtils.forceMkdir(cacheDirectory);
+            File tmpEntry = File.createTempFile(key, ".tmp", cacheDirectory);
+            FileUtils.writeStringToFile(tmpEntry, content.toString(), StandardCharsets.UTF_8);
+            Files.move(tmpEntry.toPath(), new File(cacheDirectory, key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write the training data cache entry " + key, e);
+        }
+    }
+
+    private static String getVersion() {
+        return GrobidProperties.getVersion().trim() + "\t" + FEATURE_FORMAT_VERSION;
+    }
+}
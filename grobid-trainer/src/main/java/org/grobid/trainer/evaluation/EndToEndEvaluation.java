@@ -12,6 +12,8 @@ import org.grobid.trainer.evaluation.utilities.NamespaceContextMap;
 import org.grobid.trainer.evaluation.utilities.FieldSpecification;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 import java.util.concurrent.Callable;
@@ -24,6 +26,8 @@ import org.apache.commons.io.FileUtils;
 
 import org.w3c.dom.*;
 import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import javax.xml.parsers.*;
 import org.xml.sax.*;
@@ -72,6 +76,53 @@ public class EndToEndEvaluation {
 	// the type of evaluation XML data - NLM or TEI (obtained via Pub2TEI)
 	private String inputType = null;
 
+	// processing times of the run, per document and per stage
+	private final TimingReport timings = new TimingReport();
+
+	public static final String PDF_PROCESSING = "PDF processing";
+
+	// XPath and DOM parsers are not thread-safe, each evaluation thread has its own ones, 
+	// the compiled XPath expressions being shared by all the documents evaluated by the thread
+	private static final ThreadLocal<XPath> xpaths = new ThreadLocal<XPath>() {
+		@Override
+		protected XPath initialValue() {
+			XPath xp = XPathFactory.newInstance().newXPath();
+			// explicit indication of the default namespace
+			Map<String, String> mappings = new HashMap<String, String>();
+			mappings.put("tei", "http://www.tei-c.org/ns/1.0");
+			xp.setNamespaceContext(new NamespaceContextMap(mappings));
+			return xp;
+		}
+	};
+
+	private static final ThreadLocal<Map<String, XPathExpression>> xpathExpressions = 
+		new ThreadLocal<Map<String, XPathExpression>>() {
+			@Override
+			protected Map<String, XPathExpression> initialValue() {
+				return new HashMap<String, XPathExpression>();
+			}
+		};
+
+	private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>() {
+		@Override
+		protected DocumentBuilder initialValue() {
+	        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+	        docFactory.setValidating(false);
+			try {
+		        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+				docBuilder.setEntityResolver(new EntityResolver() {
+					public InputSource resolveEntity(String publicId, String systemId) {
+						return new InputSource(
+							new ByteArrayInputStream("<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes()));
+					}
+				}); // swap in a dummy resolver to neutralise the online DTD
+				return docBuilder;
+			} catch (ParserConfigurationException e) {
+				throw new GrobidException("Cannot create a DOM parser for the evaluation", e);
+			}
+		}
+	};
+
 	private class GrobidEndToEndTask implements Callable<Boolean> { 
         private File pdfFile;
 
@@ -92,11 +143,16 @@ public class EndToEndEvaluation {
                             .withPreprocessImages(true)
 //                            .withSentenceSegmentation(true)
                             .build();
+				long start = System.currentTimeMillis();
 				String tei = engine.fullTextToTEI(this.pdfFile, config);
-				// write the result in the same directory
-				File resultTEI = new File(pdfFile.getParent() + File.separator
-					+ pdfFile.getName().replace(".pdf", ".fulltext.tei.xml"));
-				FileUtils.writeStringToFile(resultTEI, tei, "UTF-8");
+				// write the result in the same directory, the file being moved in place only when 
+				// complete so that an interrupted run can be resumed 
+				File resultTEI = getResultTEIFile(pdfFile);
+				File tmpTEI = new File(resultTEI.getPath() + ".tmp");
+				FileUtils.writeStringToFile(tmpTEI, tei, "UTF-8");
+				Files.move(tmpTEI.toPath(), resultTEI.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				timings.addDocumentTime(PDF_PROCESSING, pdfFile.getParentFile().getName(), 
+					System.currentTimeMillis() - start);
 
             } catch (NoSuchElementException nseExp) {
             	System.out.println("Could not get an engine from the pool within configured time.");
@@ -152,7 +208,12 @@ public class EndToEndEvaluation {
 			headerLabels, fulltextLabels, citationsLabels);
 	}
 	
-	public String evaluationGrobid(boolean forceRun, StringBuilder reportMD) throws Exception {
+	/**
+	 * @param forceRun run Grobid on the PDF of the dataset before the evaluation
+	 * @param resume when running Grobid, skip the PDF with a result TEI file more recent than 
+	 *               the PDF and the models, e.g. for completing an interrupted run
+	 */
+	public String evaluationGrobid(boolean forceRun, boolean resume, StringBuilder reportMD) throws Exception {
 		if (xmlInputPath == null) {
 			throw new GrobidResourceException("Path to evaluation (gold) XML data is not correctly set");
 		}
@@ -180,9 +241,15 @@ public class EndToEndEvaluation {
             }
 			
 			int n = 0;
+			int skipped = 0;
 			long start = System.currentTimeMillis();
 			int fails = 0;
 
+			long modelsLastModified = 0;
+			if (resume) {
+				modelsLastModified = getLastModified(GrobidProperties.getModelPath());
+			}
+
 			ExecutorService executor = Executors.newFixedThreadPool(GrobidProperties.getInstance().getNBThreads());
 			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
 
@@ -210,6 +277,10 @@ public class EndToEndEvaluation {
 				}
 
 	            final File pdfFile = refFiles2[0];
+				if (resume && isUpToDate(pdfFile, modelsLastModified)) {
+					skipped++;
+					continue;
+				}
 				Future<Boolean> future = executor.submit(new GrobidEndToEndTask(pdfFile));
 	            results.add(future);
 				n++;
@@ -218,7 +289,7 @@ public class EndToEndEvaluation {
 			//executor.awaitTermination(5, TimeUnit.SECONDS);
 
 			System.out.println("\n");
-			try (ProgressBar pb = new ProgressBar("PDF processing", refFiles.length)) {
+			try (ProgressBar pb = new ProgressBar("PDF processing", results.size())) {
 				for(Future<Boolean> result : results) { 
 					try {
 						Boolean success = result.get();
@@ -236,7 +307,11 @@ public class EndToEndEvaluation {
 			executor.shutdown();
 
 			System.out.println("\n-------------> GROBID failed on " + fails + " PDF\n");
+			if (skipped > 0) {
+				System.out.println(skipped + " PDF files skipped, their TEI results being up to date\n");
+			}
 			double processTime = ((double)System.currentTimeMillis() - start) / 1000.0;
+			timings.setStageTime(PDF_PROCESSING, System.currentTimeMillis() - start);
 
 			System.out.println(n + " PDF files processed in " + 
 				 processTime + " seconds, " + ((double)processTime)/n + " seconds per PDF file\n");
@@ -263,8 +338,45 @@ public class EndToEndEvaluation {
 		reportMD.append("Evaluation metrics produced in " + 
 				(System.currentTimeMillis() - start) / (1000.00) + " seconds\n");
 
+		report.append("\n======= Runtime ======= \n\n");
+		report.append(timings.toMarkdown());
+		reportMD.append("\n## Runtime \n\n");
+		reportMD.append(timings.toMarkdown());
+
 		return report.toString();
 	}
+
+	/**
+	 * Processing times of the last run, per document and per stage
+	 */
+	public TimingReport getTimingReport() {
+		return timings;
+	}
+
+	private static File getResultTEIFile(File pdfFile) {
+		return new File(pdfFile.getParent() + File.separator
+			+ pdfFile.getName().replace(".pdf", ".fulltext.tei.xml"));
+	}
+
+	/**
+	 * A result TEI file is up to date if it has been produced after the last modification 
+	 * of its PDF and of the models 
+	 */
+	private static boolean isUpToDate(File pdfFile, long modelsLastModified) {
+		File resultTEI = getResultTEIFile(pdfFile);
+		return resultTEI.exists() && (resultTEI.lastModified() >= pdfFile.lastModified()) 
+			&& (resultTEI.lastModified() >= modelsLastModified);
+	}
+
+	private static long getLastModified(File directory) {
+		long lastModified = 0;
+		if (directory.exists()) {
+			for (File file : FileUtils.listFiles(directory, null, true)) {
+				lastModified = Math.max(lastModified, file.lastModified());
+			}
+		}
+		return lastModified;
+	}
 	
 	public String evaluationPDFX(boolean forceRun, StringBuilder reportMD) throws Exception {
 		if (xmlInputPath == null) {
@@ -445,21 +557,325 @@ public class EndToEndEvaluation {
 		if (sectionType == this.CITATION)
 			typeEval = "citation";
 
-		System.out.println("\n");
-		try (ProgressBar pb = new ProgressBar("Evaluation "+typeEval, refFiles.length)) {
-
-        for (File dir : refFiles) {
-        	pb.step();
+		// the documents are evaluated in parallel, the results being merged in the order of the documents
+		final List<FieldSpecification> sectionFields = fields;
+		final String stage = typeEval;
+		List<File> evaluatedDirs = new ArrayList<File>();
+		List<Future<DocumentEvaluation>> results = new ArrayList<Future<DocumentEvaluation>>();
+		ExecutorService executor = Executors.newFixedThreadPool(GrobidProperties.getInstance().getNBThreads());
+		long startStage = System.currentTimeMillis();
+		try {
+	        for (File dir : refFiles) {
+	        	if (!dir.isDirectory())
+	        		continue;
+
+				// file ratio filtering
+				double random = rand.nextDouble();
+				if (random > fileRatio) {
+					continue;
+				}
 
-        	if (!dir.isDirectory())
-        		continue;
+				final File documentDir = dir;
+				evaluatedDirs.add(documentDir);
+				results.add(executor.submit(new Callable<DocumentEvaluation>() {
+					@Override
+					public DocumentEvaluation call() {
+						long start = System.currentTimeMillis();
+						DocumentEvaluation documentEvaluation = new DocumentEvaluation(runType, sectionType, sectionFields);
+						if (documentEvaluation.evaluate(documentDir)) {
+							timings.addDocumentTime(stage + " XML parsing", documentDir.getName(), 
+								documentEvaluation.parsingTime);
+							timings.addDocumentTime(stage + " evaluation", documentDir.getName(), 
+								System.currentTimeMillis() - start);
+							return documentEvaluation;
+						}
+						return null;
+					}
+				}));
+			}
 
-			// file ratio filtering
-			double random = rand.nextDouble();
-			if (random > fileRatio) {
-				continue;
+			System.out.println("\n");
+			try (ProgressBar pb = new ProgressBar("Evaluation "+typeEval, results.size())) {
+				for (int i = 0; i < results.size(); i++) {
+					DocumentEvaluation result = null;
+					try {
+						result = results.get(i).get();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					} catch (ExecutionException e) {
+						System.out.println("Error when evaluating: " + evaluatedDirs.get(i).getPath());
+						e.printStackTrace();
+					}
+					pb.step();
+					if (result == null)
+						continue;
+
+					strictStats.add(result.strictStats);
+					softStats.add(result.softStats);
+					levenshteinStats.add(result.levenshteinStats);
+					ratcliffObershelpStats.add(result.ratcliffObershelpStats);
+
+					totalExpectedInstances += result.totalExpectedInstances;
+					totalObservedInstances += result.totalObservedInstances;
+					totalCorrectInstancesStrict += result.totalCorrectInstancesStrict;
+					totalCorrectInstancesSoft += result.totalCorrectInstancesSoft;
+					totalCorrectInstancesLevenshtein += result.totalCorrectInstancesLevenshtein;
+					totalCorrectInstancesRatcliffObershelp += result.totalCorrectInstancesRatcliffObershelp;
+
+					totalExpectedReferences += result.totalExpectedReferences;
+					totalObservedReferences += result.totalObservedReferences;
+
+					totalExpectedCitations += result.totalExpectedCitations;
+					totalObservedCitations += result.totalObservedCitations;
+					totalCorrectObservedCitations += result.totalCorrectObservedCitations;
+					totalWrongObservedCitations += result.totalWrongObservedCitations;
+
+					match1 += result.match1;
+					match2 += result.match2;
+					match3 += result.match3;
+					match4 += result.match4;
+
+					nbFile++;
+				}
 			}
+		} finally {
+			executor.shutdownNow();
+		}
+		timings.setStageTime(typeEval + " evaluation", System.currentTimeMillis() - startStage);
+		
+		report.append("\nEvaluation on " + nbFile + " random PDF files out of " + 
+			(refFiles.length-2) + " PDF (ratio " + fileRatio + ").\n");
+		reportMD.append("\nEvaluation on " + nbFile + " random PDF files out of " + 
+			(refFiles.length-2) + " PDF (ratio " + fileRatio + ").\n");
+		
+		report.append("\n======= Strict Matching ======= (exact matches)\n");
+		reportMD.append("\n#### Strict Matching (exact matches)\n");
+		report.append("\n===== Field-level results =====\n");
+		reportMD.append("\n**Field-level results**\n");
+		report.append(EvaluationUtilities.computeMetrics(strictStats));
+		reportMD.append(EvaluationUtilities.computeMetricsMD(strictStats));
+
+		report.append("\n\n======== Soft Matching ======== (ignoring punctuation, " + 
+			"case and space characters mismatches)\n");
+		reportMD.append("\n\n#### Soft Matching (ignoring punctuation, case and space characters mismatches)\n");
+		report.append("\n===== Field-level results =====\n");
+		reportMD.append("\n**Field-level results**\n");
+		report.append(EvaluationUtilities.computeMetrics(softStats));
+		reportMD.append(EvaluationUtilities.computeMetricsMD(softStats));
+
+		if (sectionType != this.FULLTEXT) {
+			report.append("\n\n==== Levenshtein Matching ===== (Minimum Levenshtein distance at " + 
+				this.minLevenshteinDistance + ")\n");
+			reportMD.append("\n\n#### Levenshtein Matching (Minimum Levenshtein distance at " +
+				this.minLevenshteinDistance+")\n");
+			report.append("\n===== Field-level results =====\n");
+			reportMD.append("\n**Field-level results**\n");
+			report.append(EvaluationUtilities.computeMetrics(levenshteinStats));
+			reportMD.append(EvaluationUtilities.computeMetricsMD(levenshteinStats));
+
+			report.append("\n\n= Ratcliff/Obershelp Matching = (Minimum Ratcliff/Obershelp similarity at " +
+				minRatcliffObershelpSimilarity + ")\n");
+			reportMD.append("\n\n#### Ratcliff/Obershelp Matching (Minimum Ratcliff/Obershelp similarity at " +
+				minRatcliffObershelpSimilarity + ")\n");
+			report.append("\n===== Field-level results =====\n");
+			reportMD.append("\n**Field-level results**\n");
+			report.append(EvaluationUtilities.computeMetrics(ratcliffObershelpStats));
+			reportMD.append(EvaluationUtilities.computeMetricsMD(ratcliffObershelpStats));
+		}
+
+		if (sectionType == this.CITATION) {
+			report.append("\n===== Instance-level results =====\n\n");
+			reportMD.append("\n#### Instance-level results\n\n");
+
+			StringBuilder localReport = new StringBuilder();
+
+			localReport.append("Total expected instances: \t\t").append(totalExpectedInstances).append("\n");
+			localReport.append("Total extracted instances: \t\t").append(totalObservedInstances).append("\n");
+			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesStrict)
+				.append(" (strict) \n");
+			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesSoft)
+				.append(" (soft) \n");
+			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesLevenshtein)
+				.append(" (Levenshtein) \n");
+			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesRatcliffObershelp)
+				.append(" (RatcliffObershelp) \n");
+			
+			double precisionStrict = (double) totalCorrectInstancesStrict / (totalObservedInstances);
+			double precisionSoft = (double) totalCorrectInstancesSoft / (totalObservedInstances);
+			double precisionLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalObservedInstances);
+			double precisionRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
+				(totalObservedInstances);
+			localReport.append("\nInstance-level precision:\t")
+				.append(TextUtilities.formatTwoDecimals(precisionStrict * 100)).append(" (strict) \n");
+			localReport.append("Instance-level precision:\t")
+				.append(TextUtilities.formatTwoDecimals(precisionSoft * 100)).append(" (soft) \n");
+			localReport.append("Instance-level precision:\t")
+				.append(TextUtilities.formatTwoDecimals(precisionLevenshtein * 100))
+				.append(" (Levenshtein) \n");
+			localReport.append("Instance-level precision:\t")
+				.append(TextUtilities.formatTwoDecimals(precisionRatcliffObershelp * 100))
+				.append(" (RatcliffObershelp) \n");
+			
+			double recallStrict = (double) totalCorrectInstancesStrict / (totalExpectedInstances);
+			double recallSoft = (double) totalCorrectInstancesSoft / (totalExpectedInstances);
+			double recallLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalExpectedInstances);
+			double recallRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
+				(totalExpectedInstances);
+			localReport.append("\nInstance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(recallStrict * 100)).append("\t(strict) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(recallSoft * 100)).append("\t(soft) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(recallLevenshtein * 100))
+				.append("\t(Levenshtein) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(recallRatcliffObershelp* 100))
+				.append("\t(RatcliffObershelp) \n");
 			
+			double f0Strict = (2 * precisionStrict * recallStrict) / (precisionStrict + recallStrict);
+			double f0Soft = (2 * precisionSoft * recallSoft) / (precisionSoft + recallSoft);
+			double f0Levenshtein = (2 * precisionLevenshtein * recallLevenshtein) / 
+				(precisionLevenshtein + recallLevenshtein);
+			double f0RatcliffObershelp = (2 * precisionRatcliffObershelp * recallRatcliffObershelp) / 
+				(precisionRatcliffObershelp + recallRatcliffObershelp);
+			localReport.append("\nInstance-level f-score:\t")
+				.append(TextUtilities.formatTwoDecimals(f0Strict * 100)).append(" (strict) \n");
+			localReport.append("Instance-level f-score:\t")
+				.append(TextUtilities.formatTwoDecimals(f0Soft * 100)).append(" (soft) \n");
+			localReport.append("Instance-level f-score:\t")
+				.append(TextUtilities.formatTwoDecimals(f0Levenshtein * 100)).append(" (Levenshtein) \n");
+			localReport.append("Instance-level f-score:\t")
+				.append(TextUtilities.formatTwoDecimals(f0RatcliffObershelp * 100)).append(" (RatcliffObershelp) \n");
+			
+			localReport.append("\nMatching 1 :\t").append(match1 + "\n");
+			localReport.append("\nMatching 2 :\t").append(match2 + "\n");
+			localReport.append("\nMatching 3 :\t").append(match3 + "\n");
+			localReport.append("\nMatching 4 :\t").append(match4 + "\n");
+			localReport.append("\nTotal matches :\t").append((match1 + match2 + match3 + match4) + "\n");
+
+			report.append(localReport.toString());
+			reportMD.append("```\n"+localReport.toString()+"```\n\n");
+
+			report.append("\n======= Citation context resolution ======= \n");
+			reportMD.append("\n#### Citation context resolution\n");
+
+			localReport = new StringBuilder();
+
+			localReport.append("\nTotal expected references: \t ").append(totalExpectedReferences)
+				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalExpectedReferences / nbFile)).append(" references per article");
+			localReport.append("\nTotal predicted references: \t ").append(totalObservedReferences)
+				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalObservedReferences / nbFile)).append(" references per article");
+
+			//report.append("\nTotal observed references (instance): \t ").append(totalObservedInstances);
+			//report.append("\nTotal correct observed references: \t ").append(totalCorrectInstancesRatcliffObershelp);
+
+			localReport.append("\n\nTotal expected citation contexts: \t ").append(totalExpectedCitations)
+				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalExpectedCitations / nbFile)).append(" citation contexts per article");
+			localReport.append("\nTotal predicted citation contexts: \t ").append(totalObservedCitations)
+				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalObservedCitations / nbFile)).append(" citation contexts per article");
+			localReport.append("\n\nTotal correct predicted citation contexts: \t ").append(totalCorrectObservedCitations)
+				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalCorrectObservedCitations / nbFile)).append(" citation contexts per article");
+
+			localReport.append("\nTotal wrong predicted citation contexts: \t ").append(totalWrongObservedCitations).append(" (wrong callout matching, callout missing in NLM, or matching with a bib. ref. not aligned with a bib.ref. in NLM)");
+
+			double precisionCitationContext = (double) totalCorrectObservedCitations / totalObservedCitations;
+			double recallCitationContext = (double) totalCorrectObservedCitations / totalExpectedCitations;
+			double fscoreCitationContext = (2 * precisionCitationContext * recallCitationContext) / (precisionCitationContext + recallCitationContext);;
+
+			localReport.append("\n\nPrecision citation contexts: \t ").append(TextUtilities.formatTwoDecimals(precisionCitationContext * 100));
+			localReport.append("\nRecall citation contexts: \t ").append(TextUtilities.formatTwoDecimals(recallCitationContext * 100));
+			localReport.append("\nfscore citation contexts: \t ").append(TextUtilities.formatTwoDecimals(fscoreCitationContext * 100));
+			localReport.append("\n");
+
+			report.append(localReport.toString());
+			reportMD.append("```\n"+localReport.toString()+"```\n\n");
+		}
+		else if (sectionType == this.HEADER) {
+			report.append("\n===== Instance-level results =====\n\n");
+			reportMD.append("\n#### Instance-level results\n\n");
+
+			StringBuilder localReport = new StringBuilder();
+
+			localReport.append("Total expected instances: \t").append(totalExpectedInstances).append("\n");
+			localReport.append("Total correct instances: \t").append(totalCorrectInstancesStrict)
+				.append(" (strict) \n");
+			localReport.append("Total correct instances: \t").append(totalCorrectInstancesSoft)
+				.append(" (soft) \n");
+			localReport.append("Total correct instances: \t").append(totalCorrectInstancesLevenshtein)
+				.append(" (Levenshtein) \n");
+			localReport.append("Total correct instances: \t").append(totalCorrectInstancesRatcliffObershelp)
+				.append(" (ObservedRatcliffObershelp) \n");
+			double accuracyStrict = (double) totalCorrectInstancesStrict / (totalExpectedInstances);
+			double accuracySoft = (double) totalCorrectInstancesSoft / (totalExpectedInstances);
+			double accuracyLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalExpectedInstances);
+			double accuracyRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
+				(totalExpectedInstances);
+			localReport.append("\nInstance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(accuracyStrict * 100)).append("\t(strict) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(accuracySoft * 100)).append("\t(soft) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(accuracyLevenshtein * 100))
+				.append("\t(Levenshtein) \n");
+			localReport.append("Instance-level recall:\t")
+				.append(TextUtilities.formatTwoDecimals(accuracyRatcliffObershelp * 100))
+				.append("\t(RatcliffObershelp) \n");
+
+			report.append(localReport.toString());
+			reportMD.append("```\n"+localReport.toString()+"```\n\n");
+		} 
+
+		return report.toString();
+	}
+	
+	/**
+	 * Evaluation of a single document for a section type. The documents are evaluated in
+	 * parallel, each with its own statistics, merged afterwards in the order of the documents.
+	 */
+	private class DocumentEvaluation {
+		private final int runType;
+		private final int sectionType;
+		private final List<FieldSpecification> fields;
+
+		private final Stats strictStats = new Stats();
+		private final Stats softStats = new Stats();
+		private final Stats levenshteinStats = new Stats();
+		private final Stats ratcliffObershelpStats = new Stats();
+
+		private int totalExpectedInstances = 0;
+		private int totalObservedInstances = 0;
+		private int totalCorrectInstancesStrict = 0;
+		private int totalCorrectInstancesSoft = 0;
+		private int totalCorrectInstancesLevenshtein = 0;
+		private int totalCorrectInstancesRatcliffObershelp = 0;
+
+		private int totalExpectedReferences = 0;
+		private int totalObservedReferences = 0;
+
+		private int totalExpectedCitations = 0;
+		private int totalObservedCitations = 0;
+		private int totalCorrectObservedCitations = 0;
+		private int totalWrongObservedCitations = 0;
+
+		// statics about citation matching
+		private int match1 = 0;
+		private int match2 = 0;
+		private int match3 = 0;
+		private int match4 = 0;
+
+		// time spent parsing the gold and result XML files, in milliseconds
+		private long parsingTime = 0;
+
+		private DocumentEvaluation(int runType, int sectionType, List<FieldSpecification> fields) {
+			this.runType = runType;
+			this.sectionType = sectionType;
+			this.fields = fields;
+		}
+
+		/**
+		 * @return false if the document directory has no gold or result file to be evaluated
+		 */
+		private boolean evaluate(File dir) {
 			// get the gold file in the directory
             File[] refFiles2 = dir.listFiles(new FilenameFilter() {
                 public boolean accept(File dir, String name) {
@@ -477,7 +893,7 @@ public class EndToEndEvaluation {
 
 				if (refFiles2 == null || refFiles2.length == 0) {
 	            	System.out.println("warning: no evaluation (gold) XML data file found under " + dir.getPath());
-				    continue;
+				    return false;
 				}
 			}
 
@@ -491,21 +907,14 @@ public class EndToEndEvaluation {
 			
 			File goldFile = refFiles2[0];
 
-	        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-	        docFactory.setValidating(false);
-
 			try {
-		        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-				docBuilder.setEntityResolver(new EntityResolver() {
-					public InputSource resolveEntity(String publicId, String systemId) {
-						return new InputSource(
-							new ByteArrayInputStream("<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes()));
-					}
-				}); // swap in a dummy resolver to neutralise the online DTD
+		        DocumentBuilder docBuilder = getDocumentBuilder();
+				long startParsing = System.currentTimeMillis();
 				Document gold = docBuilder.parse(goldFile);
+				parsingTime += System.currentTimeMillis() - startParsing;
 
 				// get the results of the evaluated tool for this file
-				if (runType == this.GROBID) {
+				if (runType == GROBID) {
 					// results are produced in a TEI file
 		            File[] refFiles3 = dir.listFiles(new FilenameFilter() {
 		                public boolean accept(File dir, String name) {
@@ -515,7 +924,7 @@ public class EndToEndEvaluation {
 
 		            if ( (refFiles3 == null) || (refFiles3.length == 0) ) {
 		            	System.out.println("warning: no Grobid TEI file found under " + dir.getPath());
-					    continue;
+					    return false;
 					}
 
 					if (refFiles3.length != 1) {
@@ -524,19 +933,11 @@ public class EndToEndEvaluation {
 					}
 
 					File teiFile = refFiles3[0];
+					startParsing = System.currentTimeMillis();
 			        Document tei = docBuilder.parse(teiFile);
-
-					XPathFactory xpf = XPathFactory.newInstance();
-					XPath xp = xpf.newXPath();
-					HashMap map = new HashMap();
-					// explicit indication of the default namespace
-				  	map.put("tei", "http://www.tei-c.org/ns/1.0");
-
-					Map<String, String> mappings = new HashMap<String, String>();
-					mappings.put("tei", "http://www.tei-c.org/ns/1.0");
-				  	xp.setNamespaceContext(new NamespaceContextMap(mappings));
+					parsingTime += System.currentTimeMillis() - startParsing;
 					
-					if (sectionType == this.CITATION) {
+					if (sectionType == CITATION) {
 						// we start by identifying each expected citation
 						// the first FieldSpecification object for the citation is the base path for
 						// each citation structure in the corresponding XML
@@ -548,7 +949,7 @@ public class EndToEndEvaluation {
 						else 
 							path = base.grobidPath.get(0);
 
-						NodeList nodeList = (NodeList) xp.compile(path).
+						NodeList nodeList = (NodeList) compile(path).
 							evaluate(gold.getDocumentElement(), XPathConstants.NODESET);
 						int nbCitationsGold = nodeList.getLength();
 						totalExpectedInstances += nbCitationsGold;
@@ -597,7 +998,7 @@ public class EndToEndEvaluation {
 									continue;
 
 								for(String subpath : subpaths) {
-									NodeList nodeList2 = (NodeList) xp.compile(subpath).
+									NodeList nodeList2 = (NodeList) compile(subpath).
 										evaluate(node, XPathConstants.NODESET);
 									
 									List<String> goldResults = new ArrayList<String>();
@@ -739,7 +1140,7 @@ public class EndToEndEvaluation {
 						
 						// get the Grobid citations
 						path = base.grobidPath.get(0);
-						nodeList = (NodeList) xp.compile(path).
+						nodeList = (NodeList) compile(path).
 							evaluate(tei.getDocumentElement(), XPathConstants.NODESET);
 						int nbCitationsGrobid = nodeList.getLength();
 						totalObservedInstances += nbCitationsGrobid;
@@ -756,7 +1157,7 @@ public class EndToEndEvaluation {
 									continue;
 								}
 								for(String subpath : field.grobidPath) {
-									NodeList nodeList2 = (NodeList) xp.compile(subpath).
+									NodeList nodeList2 = (NodeList) compile(subpath).
 										evaluate(node, XPathConstants.NODESET);
 									List<String> grobidResults = new ArrayList<String>();
 									for (int j = 0; j < nodeList2.getLength(); j++) {
@@ -1104,7 +1505,7 @@ public class EndToEndEvaluation {
 						}
 
 						// reference context matching
-						if ( (sectionType == this.CITATION) && (runType == this.GROBID) ) {
+						if ( (sectionType == CITATION) && (runType == GROBID) ) {
 							// list of identifiers present in the bibliographical references
 							List<String> refBibRefIds = new ArrayList<String>();
 							List<String> grobidBibRefIds = new ArrayList<String>();
@@ -1117,7 +1518,7 @@ public class EndToEndEvaluation {
 							}
 
 							// gold
-							nodeList = (NodeList) xp.compile(subpath).
+							nodeList = (NodeList) compile(subpath).
 								evaluate(gold.getDocumentElement(), XPathConstants.NODESET);
 							//System.out.println(path + ": " + nodeList.getLength() + " nodes");
 							int nbgoldResults = nodeList.getLength();
@@ -1127,7 +1528,7 @@ public class EndToEndEvaluation {
 							totalExpectedReferences += refBibRefIds.size();
 
 							// grobid
-							nodeList = (NodeList) xp.compile(FieldSpecification.grobidBibReferenceId).
+							nodeList = (NodeList) compile(FieldSpecification.grobidBibReferenceId).
 								evaluate(tei.getDocumentElement(), XPathConstants.NODESET);
 							//System.out.println(FieldSpecification.grobidBibReferenceId + ": " + nodeList.getLength() + " nodes");
 							int nbGrobidResults = nodeList.getLength();
@@ -1147,7 +1548,7 @@ public class EndToEndEvaluation {
 							}
 
 							// gold
-							nodeList = (NodeList) xp.compile(subpath).
+							nodeList = (NodeList) compile(subpath).
 								evaluate(gold.getDocumentElement(), XPathConstants.NODESET);
 							nbgoldResults = nodeList.getLength();
 							for (int i = 0; i < nodeList.getLength(); i++) {
@@ -1172,7 +1573,7 @@ public class EndToEndEvaluation {
 							}
 
 							// grobid
-							nodeList = (NodeList) xp.compile(FieldSpecification.grobidCitationContextId).
+							nodeList = (NodeList) compile(FieldSpecification.grobidCitationContextId).
 								evaluate(tei.getDocumentElement(), XPathConstants.NODESET);
 							//System.out.println(FieldSpecification.grobidCitationContextId + ": " + nodeList.getLength() + " nodes");
 							nbGrobidResults = nodeList.getLength();
@@ -1221,7 +1622,7 @@ public class EndToEndEvaluation {
         				levenshteinStats.removeLabel("id");;
         				ratcliffObershelpStats.removeLabel("id");
 
-					} else if (sectionType == this.HEADER) {
+					} else if (sectionType == HEADER) {
 						// HEADER structures 
 						int p = 0;
 						boolean allGoodStrict = true;
@@ -1234,7 +1635,7 @@ public class EndToEndEvaluation {
 							List<String> grobidResults = new ArrayList<String>();
 							int nbGrobidResults = 0;
 							for(String path : field.grobidPath) {
-								NodeList nodeList = (NodeList) xp.compile(path).
+								NodeList nodeList = (NodeList) compile(path).
 									evaluate(tei.getDocumentElement(), XPathConstants.NODESET);
 								nbGrobidResults = nodeList.getLength();
 								for (int i = 0; i < nodeList.getLength(); i++) {
@@ -1267,7 +1668,7 @@ public class EndToEndEvaluation {
 								continue;
 
 							for(String path : subpaths) {
-								NodeList nodeList = (NodeList) xp.compile(path).
+								NodeList nodeList = (NodeList) compile(path).
 									evaluate(gold.getDocumentElement(), XPathConstants.NODESET);
 								//System.out.println(path + ": " + nodeList.getLength() + " nodes");
 								nbGoldResults = nodeList.getLength();
@@ -1430,7 +1831,7 @@ System.out.println("grobid: " + grobidResult);*/
 							totalCorrectInstancesRatcliffObershelp++;
 						}
 					}
-					else if (sectionType == this.FULLTEXT) {
+					else if (sectionType == FULLTEXT) {
 						// full text structures 
 						int p = 0;
 						boolean allGoodStrict = true;
@@ -1443,7 +1844,7 @@ System.out.println("grobid: " + grobidResult);*/
 							List<String> grobidResults = new ArrayList<String>();
 							int nbGrobidResults = 0;
 							for(String path : field.grobidPath) {
-								NodeList nodeList = (NodeList) xp.compile(path).
+								NodeList nodeList = (NodeList) compile(path).
 									evaluate(tei.getDocumentElement(), XPathConstants.NODESET);
 								nbGrobidResults = nodeList.getLength();
 								for (int i = 0; i < nodeList.getLength(); i++) {
@@ -1473,7 +1874,7 @@ System.out.println("grobid: " + grobidResult);*/
 							}
 							
 							for(String path : subpaths) {
-								NodeList nodeList = (NodeList) xp.compile(path).
+								NodeList nodeList = (NodeList) compile(path).
 									evaluate(gold.getDocumentElement(), XPathConstants.NODESET);
 								//System.out.println(path + ": " + nodeList.getLength() + " nodes");
 								nbgoldResults = nodeList.getLength();
@@ -1636,205 +2037,34 @@ System.out.println("grobid: " + grobidResult);*/
 						}	
 					} 
 				}
-				else if (runType == this.PDFX) {
+				else if (runType == PDFX) {
 					// TBD
 				}
-				else if (runType == this.CERMINE) {
+				else if (runType == CERMINE) {
 					// TBD
 				}
 			}
 			catch(Exception e) {
 				e.printStackTrace();
 			}
-			nbFile++;
+			return true;
 		}
-		}
-		
-		report.append("\nEvaluation on " + nbFile + " random PDF files out of " + 
-			(refFiles.length-2) + " PDF (ratio " + fileRatio + ").\n");
-		reportMD.append("\nEvaluation on " + nbFile + " random PDF files out of " + 
-			(refFiles.length-2) + " PDF (ratio " + fileRatio + ").\n");
-		
-		report.append("\n======= Strict Matching ======= (exact matches)\n");
-		reportMD.append("\n#### Strict Matching (exact matches)\n");
-		report.append("\n===== Field-level results =====\n");
-		reportMD.append("\n**Field-level results**\n");
-		report.append(EvaluationUtilities.computeMetrics(strictStats));
-		reportMD.append(EvaluationUtilities.computeMetricsMD(strictStats));
-
-		report.append("\n\n======== Soft Matching ======== (ignoring punctuation, " + 
-			"case and space characters mismatches)\n");
-		reportMD.append("\n\n#### Soft Matching (ignoring punctuation, case and space characters mismatches)\n");
-		report.append("\n===== Field-level results =====\n");
-		reportMD.append("\n**Field-level results**\n");
-		report.append(EvaluationUtilities.computeMetrics(softStats));
-		reportMD.append(EvaluationUtilities.computeMetricsMD(softStats));
-
-		if (sectionType != this.FULLTEXT) {
-			report.append("\n\n==== Levenshtein Matching ===== (Minimum Levenshtein distance at " + 
-				this.minLevenshteinDistance + ")\n");
-			reportMD.append("\n\n#### Levenshtein Matching (Minimum Levenshtein distance at " +
-				this.minLevenshteinDistance+")\n");
-			report.append("\n===== Field-level results =====\n");
-			reportMD.append("\n**Field-level results**\n");
-			report.append(EvaluationUtilities.computeMetrics(levenshteinStats));
-			reportMD.append(EvaluationUtilities.computeMetricsMD(levenshteinStats));
-
-			report.append("\n\n= Ratcliff/Obershelp Matching = (Minimum Ratcliff/Obershelp similarity at " +
-				minRatcliffObershelpSimilarity + ")\n");
-			reportMD.append("\n\n#### Ratcliff/Obershelp Matching (Minimum Ratcliff/Obershelp similarity at " +
-				minRatcliffObershelpSimilarity + ")\n");
-			report.append("\n===== Field-level results =====\n");
-			reportMD.append("\n**Field-level results**\n");
-			report.append(EvaluationUtilities.computeMetrics(ratcliffObershelpStats));
-			reportMD.append(EvaluationUtilities.computeMetricsMD(ratcliffObershelpStats));
-		}
-
-		if (sectionType == this.CITATION) {
-			report.append("\n===== Instance-level results =====\n\n");
-			reportMD.append("\n#### Instance-level results\n\n");
-
-			StringBuilder localReport = new StringBuilder();
-
-			localReport.append("Total expected instances: \t\t").append(totalExpectedInstances).append("\n");
-			localReport.append("Total extracted instances: \t\t").append(totalObservedInstances).append("\n");
-			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesStrict)
-				.append(" (strict) \n");
-			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesSoft)
-				.append(" (soft) \n");
-			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesLevenshtein)
-				.append(" (Levenshtein) \n");
-			localReport.append("Total correct instances: \t\t").append(totalCorrectInstancesRatcliffObershelp)
-				.append(" (RatcliffObershelp) \n");
-			
-			double precisionStrict = (double) totalCorrectInstancesStrict / (totalObservedInstances);
-			double precisionSoft = (double) totalCorrectInstancesSoft / (totalObservedInstances);
-			double precisionLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalObservedInstances);
-			double precisionRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
-				(totalObservedInstances);
-			localReport.append("\nInstance-level precision:\t")
-				.append(TextUtilities.formatTwoDecimals(precisionStrict * 100)).append(" (strict) \n");
-			localReport.append("Instance-level precision:\t")
-				.append(TextUtilities.formatTwoDecimals(precisionSoft * 100)).append(" (soft) \n");
-			localReport.append("Instance-level precision:\t")
-				.append(TextUtilities.formatTwoDecimals(precisionLevenshtein * 100))
-				.append(" (Levenshtein) \n");
-			localReport.append("Instance-level precision:\t")
-				.append(TextUtilities.formatTwoDecimals(precisionRatcliffObershelp * 100))
-				.append(" (RatcliffObershelp) \n");
-			
-			double recallStrict = (double) totalCorrectInstancesStrict / (totalExpectedInstances);
-			double recallSoft = (double) totalCorrectInstancesSoft / (totalExpectedInstances);
-			double recallLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalExpectedInstances);
-			double recallRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
-				(totalExpectedInstances);
-			localReport.append("\nInstance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(recallStrict * 100)).append("\t(strict) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(recallSoft * 100)).append("\t(soft) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(recallLevenshtein * 100))
-				.append("\t(Levenshtein) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(recallRatcliffObershelp* 100))
-				.append("\t(RatcliffObershelp) \n");
-			
-			double f0Strict = (2 * precisionStrict * recallStrict) / (precisionStrict + recallStrict);
-			double f0Soft = (2 * precisionSoft * recallSoft) / (precisionSoft + recallSoft);
-			double f0Levenshtein = (2 * precisionLevenshtein * recallLevenshtein) / 
-				(precisionLevenshtein + recallLevenshtein);
-			double f0RatcliffObershelp = (2 * precisionRatcliffObershelp * recallRatcliffObershelp) / 
-				(precisionRatcliffObershelp + recallRatcliffObershelp);
-			localReport.append("\nInstance-level f-score:\t")
-				.append(TextUtilities.formatTwoDecimals(f0Strict * 100)).append(" (strict) \n");
-			localReport.append("Instance-level f-score:\t")
-				.append(TextUtilities.formatTwoDecimals(f0Soft * 100)).append(" (soft) \n");
-			localReport.append("Instance-level f-score:\t")
-				.append(TextUtilities.formatTwoDecimals(f0Levenshtein * 100)).append(" (Levenshtein) \n");
-			localReport.append("Instance-level f-score:\t")
-				.append(TextUtilities.formatTwoDecimals(f0RatcliffObershelp * 100)).append(" (RatcliffObershelp) \n");
-			
-			localReport.append("\nMatching 1 :\t").append(match1 + "\n");
-			localReport.append("\nMatching 2 :\t").append(match2 + "\n");
-			localReport.append("\nMatching 3 :\t").append(match3 + "\n");
-			localReport.append("\nMatching 4 :\t").append(match4 + "\n");
-			localReport.append("\nTotal matches :\t").append((match1 + match2 + match3 + match4) + "\n");
-
-			report.append(localReport.toString());
-			reportMD.append("```\n"+localReport.toString()+"```\n\n");
-
-			report.append("\n======= Citation context resolution ======= \n");
-			reportMD.append("\n#### Citation context resolution\n");
-
-			localReport = new StringBuilder();
-
-			localReport.append("\nTotal expected references: \t ").append(totalExpectedReferences)
-				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalExpectedReferences / nbFile)).append(" references per article");
-			localReport.append("\nTotal predicted references: \t ").append(totalObservedReferences)
-				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalObservedReferences / nbFile)).append(" references per article");
-
-			//report.append("\nTotal observed references (instance): \t ").append(totalObservedInstances);
-			//report.append("\nTotal correct observed references: \t ").append(totalCorrectInstancesRatcliffObershelp);
-
-			localReport.append("\n\nTotal expected citation contexts: \t ").append(totalExpectedCitations)
-				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalExpectedCitations / nbFile)).append(" citation contexts per article");
-			localReport.append("\nTotal predicted citation contexts: \t ").append(totalObservedCitations)
-				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalObservedCitations / nbFile)).append(" citation contexts per article");
-			localReport.append("\n\nTotal correct predicted citation contexts: \t ").append(totalCorrectObservedCitations)
-				.append(" - ").append(TextUtilities.formatTwoDecimals((double) totalCorrectObservedCitations / nbFile)).append(" citation contexts per article");
-
-			localReport.append("\nTotal wrong predicted citation contexts: \t ").append(totalWrongObservedCitations).append(" (wrong callout matching, callout missing in NLM, or matching with a bib. ref. not aligned with a bib.ref. in NLM)");
-
-			double precisionCitationContext = (double) totalCorrectObservedCitations / totalObservedCitations;
-			double recallCitationContext = (double) totalCorrectObservedCitations / totalExpectedCitations;
-			double fscoreCitationContext = (2 * precisionCitationContext * recallCitationContext) / (precisionCitationContext + recallCitationContext);;
-
-			localReport.append("\n\nPrecision citation contexts: \t ").append(TextUtilities.formatTwoDecimals(precisionCitationContext * 100));
-			localReport.append("\nRecall citation contexts: \t ").append(TextUtilities.formatTwoDecimals(recallCitationContext * 100));
-			localReport.append("\nfscore citation contexts: \t ").append(TextUtilities.formatTwoDecimals(fscoreCitationContext * 100));
-			localReport.append("\n");
+	}
 
-			report.append(localReport.toString());
-			reportMD.append("```\n"+localReport.toString()+"```\n\n");
+	private static XPathExpression compile(String path) throws XPathExpressionException {
+		Map<String, XPathExpression> expressions = xpathExpressions.get();
+		XPathExpression expression = expressions.get(path);
+		if (expression == null) {
+			expression = xpaths.get().compile(path);
+			expressions.put(path, expression);
 		}
-		else if (sectionType == this.HEADER) {
-			report.append("\n===== Instance-level results =====\n\n");
-			reportMD.append("\n#### Instance-level results\n\n");
-
-			StringBuilder localReport = new StringBuilder();
-
-			localReport.append("Total expected instances: \t").append(totalExpectedInstances).append("\n");
-			localReport.append("Total correct instances: \t").append(totalCorrectInstancesStrict)
-				.append(" (strict) \n");
-			localReport.append("Total correct instances: \t").append(totalCorrectInstancesSoft)
-				.append(" (soft) \n");
-			localReport.append("Total correct instances: \t").append(totalCorrectInstancesLevenshtein)
-				.append(" (Levenshtein) \n");
-			localReport.append("Total correct instances: \t").append(totalCorrectInstancesRatcliffObershelp)
-				.append(" (ObservedRatcliffObershelp) \n");
-			double accuracyStrict = (double) totalCorrectInstancesStrict / (totalExpectedInstances);
-			double accuracySoft = (double) totalCorrectInstancesSoft / (totalExpectedInstances);
-			double accuracyLevenshtein = (double) totalCorrectInstancesLevenshtein / (totalExpectedInstances);
-			double accuracyRatcliffObershelp = (double) totalCorrectInstancesRatcliffObershelp / 
-				(totalExpectedInstances);
-			localReport.append("\nInstance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(accuracyStrict * 100)).append("\t(strict) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(accuracySoft * 100)).append("\t(soft) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(accuracyLevenshtein * 100))
-				.append("\t(Levenshtein) \n");
-			localReport.append("Instance-level recall:\t")
-				.append(TextUtilities.formatTwoDecimals(accuracyRatcliffObershelp * 100))
-				.append("\t(RatcliffObershelp) \n");
-
-			report.append(localReport.toString());
-			reportMD.append("```\n"+localReport.toString()+"```\n\n");
-		} 
+		return expression;
+	}
 
-		return report.toString();
+	private static DocumentBuilder getDocumentBuilder() {
+		return documentBuilders.get();
 	}
-	
+
 	private static String basicNormalization(String string) {
 		string = string.trim();
 		string = string.replace("\n", " ");
@@ -1910,7 +2140,7 @@ System.out.println("grobid: " + grobidResult);*/
         //DOMConfigurator.configure("src/main/resources/log4j.xml");
 
 		if ( (args.length >4) || (args.length == 0) ) {
-			System.err.println("usage: command [path to the (gold) evaluation XML dataset] Run[0|1] fileRatio[0.0-1.0]");
+			System.err.println("usage: command [path to the (gold) evaluation XML dataset] Run[0|1|2] fileRatio[0.0-1.0]");
 			return;
 		}
 
@@ -1921,6 +2151,7 @@ System.out.println("grobid: " + grobidResult);*/
 		}
 
 		boolean runGrobidVal = true;
+		boolean resumeVal = false;
 		String xmlInputPath = args[1];
 		if ( (xmlInputPath == null) || (xmlInputPath.length() == 0) ) {
 			System.err.println("Path to evaluation (gold) XML data is not correctly set");
@@ -1934,8 +2165,13 @@ System.out.println("grobid: " + grobidResult);*/
 		else if (runGrobid.equals("1")) {
 			runGrobidVal = true;
 		}
+		else if (runGrobid.equals("2")) {
+			// only the PDF without up to date TEI results are processed
+			runGrobidVal = true;
+			resumeVal = true;
+		}
 		else {
-			System.err.println("Invalid value for last argument (run): [0|1]");
+			System.err.println("Invalid value for last argument (run): [0|1|2]");
 			return;
 		}
 		
@@ -1976,7 +2212,7 @@ System.out.println("grobid: " + grobidResult);*/
 			// markdown report
 			StringBuilder reportMD = new StringBuilder();
 			
-			String report = eval.evaluationGrobid(runGrobidVal, reportMD);
+			String report = eval.evaluationGrobid(runGrobidVal, resumeVal, reportMD);
 			
 			System.out.println(report);
 			System.out.println(Engine.getCntManager());
@@ -1985,6 +2221,11 @@ System.out.println("grobid: " + grobidResult);*/
 			File fileMarkDown = new File("report.md");
 			FileUtils.writeStringToFile(fileMarkDown, reportMD.toString(), "UTF-8");
 			System.out.println("\nEvaluation report in markdown format saved under " + fileMarkDown.getAbsolutePath());
+
+			// write the processing times of each document
+			File fileTiming = new File("report-timing.csv");
+			FileUtils.writeStringToFile(fileTiming, eval.getTimingReport().toCSV(), "UTF-8");
+			System.out.println("Processing times per document saved under " + fileTiming.getAbsolutePath());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,5 +1,6 @@
 package org.grobid.trainer.evaluation;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -41,6 +42,22 @@ public final class Stats {
         this.labelStats.remove(label);
     }
 
+    /**
+     * Add the counts of another statistic, e.g. for merging the statistics computed
+     * separately on several documents
+     */
+    public void add(Stats stats) {
+        for (Map.Entry<String, LabelStat> entry : stats.labelStats.entrySet()) {
+            LabelStat labelStat = this.getLabelStat(entry.getKey());
+            LabelStat otherLabelStat = entry.getValue();
+            labelStat.incrementObserved(otherLabelStat.getObserved());
+            labelStat.incrementExpected(otherLabelStat.getExpected());
+            labelStat.incrementFalsePositive(otherLabelStat.getFalsePositive());
+            labelStat.incrementFalseNegative(otherLabelStat.getFalseNegative());
+        }
+        requiredToRecomputeMetrics = true;
+    }
+
     public void incrementFalsePositive(String label) {
         this.incrementFalsePositive(label, 1);
     }
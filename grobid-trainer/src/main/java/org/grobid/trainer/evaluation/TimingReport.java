@@ -0,0 +1,130 @@
+package org.grobid.trainer.evaluation;
+
+import org.grobid.core.utilities.TextUtilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Processing times of an evaluation run, per document and per stage (e.g. PDF processing,
+ * evaluation of the header), reported as latency statistics and throughput for each stage
+ * next to the accuracy metrics.
+ *
+ * The times of the documents can be added concurrently by the threads of the evaluation.
+ */
+public class TimingReport {
+
+    // stage -> document -> time in milliseconds, stages in the order of the run
+    private final Map<String, Map<String, Long>> times = new LinkedHashMap<>();
+
+    // stage -> elapsed time of the whole stage in milliseconds
+    private final Map<String, Long> stageTimes = new LinkedHashMap<>();
+
+    public synchronized void addDocumentTime(String stage, String document, long time) {
+        Map<String, Long> stageDocumentTimes = times.get(stage);
+        if (stageDocumentTimes == null) {
+            stageDocumentTimes = new TreeMap<>();
+            times.put(stage, stageDocumentTimes);
+        }
+        Long previous = stageDocumentTimes.get(document);
+        stageDocumentTimes.put(document, previous == null ? time : previous + time);
+    }
+
+    /**
+     * Elapsed time of a stage over all its documents, which is used for the throughput
+     * of the stage when the documents are processed in parallel
+     */
+    public synchronized void setStageTime(String stage, long time) {
+        if (!times.containsKey(stage)) {
+            times.put(stage, new TreeMap<String, Long>());
+        }
+        stageTimes.put(stage, time);
+    }
+
+    public synchronized List<Long> getDocumentTimes(String stage) {
+        Map<String, Long> stageDocumentTimes = times.get(stage);
+        if (stageDocumentTimes == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(stageDocumentTimes.values());
+    }
+
+    /**
+     * @return the time under which the given percentage of the documents has been processed
+     * (nearest-rank method), 0 if there is no document
+     */
+    public static long getPercentile(List<Long> documentTimes, double percentage) {
+        if (documentTimes.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(documentTimes);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentage / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size(), rank) - 1));
+    }
+
+    /**
+     * Latency and throughput of each stage in markdown
+     */
+    public synchronized String toMarkdown() {
+        StringBuilder report = new StringBuilder();
+        report.append("| stage | documents | total (s) | mean (ms) | median (ms) | p90 (ms) | max (ms) | documents/s |\n");
+        report.append("|---    |---        |---        |---        |---          |---       |---       |---          |\n");
+        for (Map.Entry<String, Map<String, Long>> entry : times.entrySet()) {
+            String stage = entry.getKey();
+            List<Long> documentTimes = new ArrayList<>(entry.getValue().values());
+            long sum = 0;
+            for (Long time : documentTimes) {
+                sum += time;
+            }
+            Long stageTime = stageTimes.get(stage);
+            if (stageTime == null) {
+                stageTime = sum;
+            }
+
+            report.append("| ").append(stage)
+                .append(" | ").append(documentTimes.size())
+                .append(" | ").append(TextUtilities.formatTwoDecimals(stageTime / 1000.0))
+                .append(" | ").append(documentTimes.isEmpty() ? "-" : TextUtilities.formatTwoDecimals((double) sum / documentTimes.size()))
+                .append(" | ").append(getPercentile(documentTimes, 50))
+                .append(" | ").append(getPercentile(documentTimes, 90))
+                .append(" | ").append(getPercentile(documentTimes, 100))
+                .append(" | ").append(stageTime == 0 ? "-" : TextUtilities.formatTwoDecimals(documentTimes.size() * 1000.0 / stageTime))
+                .append(" |\n");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Time of each document for each stage in milliseconds, in CSV with one line per document
+     */
+    public synchronized String toCSV() {
+        TreeSet<String> documents = new TreeSet<>();
+        for (Map<String, Long> stageDocumentTimes : times.values()) {
+            documents.addAll(stageDocumentTimes.keySet());
+        }
+
+        StringBuilder csv = new StringBuilder("document");
+        for (String stage : times.keySet()) {
+            csv.append(",").append(stage);
+        }
+        csv.append("\n");
+        for (String document : documents) {
+            csv.append(document.contains(",") ? "\"" + document.replace("\"", "\"\"") + "\"" : document);
+            for (Map<String, Long> stageDocumentTimes : times.values()) {
+                csv.append(",");
+                Long time = stageDocumentTimes.get(document);
+                if (time != null) {
+                    csv.append(time);
+                }
+            }
+            csv.append("\n");
+        }
+        return csv.toString();
+    }
+}
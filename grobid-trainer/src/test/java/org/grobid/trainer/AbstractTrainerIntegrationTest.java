@@ -3,6 +3,9 @@ package org.grobid.trainer;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.GrobidPropertyKeys;
+import org.grobid.trainer.evaluation.EvaluationUtilities;
+import org.grobid.trainer.evaluation.ModelStats;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -10,12 +13,14 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -178,6 +183,89 @@ public class AbstractTrainerIntegrationTest {
 
     }
 
+    @Test
+    public void testGetFoldThreads_shouldSplitBudget() throws Exception {
+        assertThat(AbstractTrainer.getFoldThreads(8, 1), is(8));
+        assertThat(AbstractTrainer.getFoldThreads(8, 3), is(2));
+        assertThat(AbstractTrainer.getFoldThreads(2, 4), is(1));
+    }
+
+    /**
+     * Trainer whose folds are "trained" by a tagger labelling the digits as <other>, recording
+     * how many folds are processed at the same time
+     */
+    private static class NFoldTrainer extends AbstractTrainer {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        NFoldTrainer() {
+            super(GrobidModels.DATE);
+        }
+
+        @Override
+        public int createCRFPPData(File corpusPath, File outputTrainingFile, File outputEvalFile, double splitRatio) {
+            try {
+                String sample = new String(Files.readAllBytes(Paths.get("src/test/resources/sample.wapiti.output.date.txt")),
+                    StandardCharsets.UTF_8);
+                StringBuilder data = new StringBuilder();
+                for (int i = 0; i < 3; i++) {
+                    data.append(sample.trim()).append("\n\n");
+                }
+                Files.write(outputTrainingFile.toPath(), data.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return 12;
+        }
+
+        @Override
+        protected ImmutablePair<ModelStats, String> trainAndEvaluateFold(int foldIndex,
+                                                                         ImmutablePair<String, String> fold,
+                                                                         File tmpDirectory,
+                                                                         File tempModelPath,
+                                                                         int numThreads,
+                                                                         boolean includeRawResults) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(300);
+                ModelStats modelStats = EvaluationUtilities.evaluateStandard(fold.getRight(), lines -> {
+                    StringBuilder result = new StringBuilder();
+                    for (String line : lines) {
+                        if (line.trim().isEmpty()) {
+                            result.append("\n");
+                            continue;
+                        }
+                        String label = Character.isDigit(line.charAt(0)) ? "<other>" : line.substring(line.lastIndexOf(' ') + 1);
+                        result.append(line).append("\t").append(label).append("\n");
+                    }
+                    return result.toString();
+                });
+                return new ImmutablePair<>(modelStats, "Fold " + foldIndex + "\n" + modelStats.toString(includeRawResults));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    public void testNFoldEvaluate_parallelFolds_shouldGiveTheSequentialResults() throws Exception {
+        NFoldTrainer sequential = new NFoldTrainer();
+        String expected = sequential.nFoldEvaluate(3);
+        assertThat(sequential.maxRunning.get(), is(1));
+
+        NFoldTrainer parallel = new NFoldTrainer();
+        GrobidProperties.setPropertyValue(GrobidPropertyKeys.PROP_NFOLD_PARALLEL_FOLDS, "2");
+        try {
+            assertThat(parallel.nFoldEvaluate(3), is(expected));
+        } finally {
+            GrobidProperties.setPropertyValue(GrobidPropertyKeys.PROP_NFOLD_PARALLEL_FOLDS, "1");
+        }
+        assertThat(parallel.maxRunning.get(), is(2));
+        assertThat(expected, containsString("Average over 3 folds"));
+    }
+
     private String dummyExampleGeneration(String exampleId, int total) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < total; i++) {
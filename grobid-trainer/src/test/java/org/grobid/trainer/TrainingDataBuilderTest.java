@@ -0,0 +1,127 @@
+package org.grobid.trainer;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TrainingDataBuilderTest {
+
+    private File corpusDirectory;
+    private File cacheDirectory;
+    private final List<String> generated = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws Exception {
+        corpusDirectory = Files.createTempDirectory("corpus").toFile();
+        cacheDirectory = Files.createTempDirectory("cache").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteQuietly(corpusDirectory);
+        FileUtils.deleteQuietly(cacheDirectory);
+    }
+
+    private File corpusFile(String name, String content, String raw) throws Exception {
+        File corpusFile = new File(corpusDirectory, name + ".tei.xml");
+        FileUtils.writeStringToFile(corpusFile, content, StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(corpusDirectory, name + ".raw"), raw, StandardCharsets.UTF_8);
+        return corpusFile;
+    }
+
+    // the example of a corpus file is its content followed by the content of its raw file,
+    // the first files being the slowest ones
+    private String generate(File corpusFile, List<File> inputFiles) throws Exception {
+        String name = corpusFile.getName().replace(".tei.xml", "");
+        generated.add(name);
+        if (name.equals("skipped")) {
+            return null;
+        }
+        File rawFile = new File(corpusDirectory, name + ".raw");
+        inputFiles.add(rawFile);
+        Thread.sleep(Math.max(0, 40 - 4 * Integer.parseInt(name.replaceAll("\\D", "0"))));
+        return FileUtils.readFileToString(corpusFile, StandardCharsets.UTF_8) + "|"
+            + FileUtils.readFileToString(rawFile, StandardCharsets.UTF_8);
+    }
+
+    private String build(File cache, File... corpusFiles) throws Exception {
+        StringWriter training = new StringWriter();
+        new TrainingDataBuilder(this::generate, cache, 4).build(corpusFiles, training, null, 1.0);
+        return training.toString();
+    }
+
+    @Test
+    public void testBuild_shouldWriteTheExamplesInTheOrderOfTheFiles() throws Exception {
+        List<File> corpusFiles = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            corpusFiles.add(corpusFile("f" + i, "tei" + i, "raw" + i));
+            expected.append("tei").append(i).append("|raw").append(i).append("\n");
+            if (i == 4) {
+                corpusFiles.add(corpusFile("skipped", "", ""));
+            }
+        }
+
+        StringWriter training = new StringWriter();
+        int nbExamples = new TrainingDataBuilder(this::generate, null, 4)
+            .build(corpusFiles.toArray(new File[0]), training, null, 1.0);
+
+        assertThat(nbExamples, is(10));
+        assertThat(training.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void testBuild_cachedExamples_shouldNotBeGeneratedAgain() throws Exception {
+        File f1 = corpusFile("f1", "tei1", "raw1");
+        File f2 = corpusFile("f2", "tei2", "raw2");
+
+        String first = build(cacheDirectory, f1, f2);
+        Collections.sort(generated);
+        assertThat(generated, is(Arrays.asList("f1", "f2")));
+
+        generated.clear();
+        assertThat(build(cacheDirectory, f1, f2), is(first));
+        assertThat(generated.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testBuild_modifiedInputFile_shouldGenerateTheExampleAgain() throws Exception {
+        File f1 = corpusFile("f1", "tei1", "raw1");
+        File f2 = corpusFile("f2", "tei2", "raw2");
+        build(cacheDirectory, f1, f2);
+
+        generated.clear();
+        FileUtils.writeStringToFile(new File(corpusDirectory, "f2.raw"), "new raw2", StandardCharsets.UTF_8);
+
+        assertThat(build(cacheDirectory, f1, f2), is("tei1|raw1\ntei2|new raw2\n"));
+        assertThat(generated, is(Collections.singletonList("f2")));
+    }
+
+    @Test
+    public void testBuild_modifiedOrAddedCorpusFile_shouldGenerateOnlyThisExample() throws Exception {
+        File f1 = corpusFile("f1", "tei1", "raw1");
+        File f2 = corpusFile("f2", "tei2", "raw2");
+        build(cacheDirectory, f1, f2);
+
+        generated.clear();
+        FileUtils.writeStringToFile(f1, "new tei1", StandardCharsets.UTF_8);
+        File f3 = corpusFile("f3", "tei3", "raw3");
+
+        assertThat(build(cacheDirectory, f1, f2, f3), is("new tei1|raw1\ntei2|raw2\ntei3|raw3\n"));
+        Collections.sort(generated);
+        assertThat(generated, is(Arrays.asList("f1", "f3")));
+    }
+}
@@ -0,0 +1,36 @@
+package org.grobid.trainer.evaluation;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class StatsTest {
+
+    @Test
+    public void testAdd_shouldMergeCountsPerLabel() throws Exception {
+        Stats document1 = new Stats();
+        document1.incrementExpected("title");
+        document1.incrementObserved("title");
+        document1.incrementExpected("date", 2);
+        document1.incrementFalseNegative("date");
+
+        Stats document2 = new Stats();
+        document2.incrementExpected("title");
+        document2.incrementFalsePositive("title");
+        document2.incrementExpected("doi");
+
+        Stats target = new Stats();
+        target.add(document1);
+        target.add(document2);
+
+        assertThat(target.size(), is(3));
+        assertThat(target.getLabelStat("title").getExpected(), is(2));
+        assertThat(target.getLabelStat("title").getObserved(), is(1));
+        assertThat(target.getLabelStat("title").getFalsePositive(), is(1));
+        assertThat(target.getLabelStat("date").getExpected(), is(2));
+        assertThat(target.getLabelStat("date").getFalseNegative(), is(1));
+        assertThat(target.getLabelStat("doi").getExpected(), is(1));
+        assertThat(target.getPrecision("title"), is(0.5));
+    }
+}
@@ -0,0 +1,55 @@
+package org.grobid.trainer.evaluation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TimingReportTest {
+
+    @Test
+    public void testGetPercentile_nearestRank() throws Exception {
+        assertThat(TimingReport.getPercentile(Arrays.asList(40L, 10L, 30L, 20L), 50), is(20L));
+        assertThat(TimingReport.getPercentile(Arrays.asList(40L, 10L, 30L, 20L), 90), is(40L));
+        assertThat(TimingReport.getPercentile(Arrays.asList(40L, 10L, 30L, 20L), 100), is(40L));
+        assertThat(TimingReport.getPercentile(Collections.<Long>emptyList(), 50), is(0L));
+    }
+
+    @Test
+    public void testAddDocumentTime_shouldSumTimesOfDocument() throws Exception {
+        TimingReport target = new TimingReport();
+        target.addDocumentTime("header evaluation", "doc1", 10);
+        target.addDocumentTime("header evaluation", "doc1", 5);
+        target.addDocumentTime("header evaluation", "doc2", 20);
+
+        assertThat(target.getDocumentTimes("header evaluation"), is(Arrays.asList(15L, 20L)));
+        assertThat(target.getDocumentTimes("citation evaluation").size(), is(0));
+    }
+
+    @Test
+    public void testToCSV_oneLinePerDocument() throws Exception {
+        TimingReport target = new TimingReport();
+        target.addDocumentTime(EndToEndEvaluation.PDF_PROCESSING, "doc2", 300);
+        target.addDocumentTime(EndToEndEvaluation.PDF_PROCESSING, "doc1", 100);
+        target.addDocumentTime("header evaluation", "doc1", 7);
+
+        assertThat(target.toCSV(), is("document,PDF processing,header evaluation\n" +
+            "doc1,100,7\n" +
+            "doc2,300,\n"));
+    }
+
+    @Test
+    public void testToMarkdown_throughputFromStageTime() throws Exception {
+        TimingReport target = new TimingReport();
+        target.addDocumentTime(EndToEndEvaluation.PDF_PROCESSING, "doc1", 1000);
+        target.addDocumentTime(EndToEndEvaluation.PDF_PROCESSING, "doc2", 3000);
+        // documents processed in parallel
+        target.setStageTime(EndToEndEvaluation.PDF_PROCESSING, 2000);
+
+        assertThat(target.toMarkdown(), containsString("| PDF processing | 2 | 2 | 2000 | 1000 | 3000 | 3000 | 1 |"));
+    }
+}